@@ -0,0 +1,54 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * BenchmarkDatabase.java
+ */
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import util.Logger;
+
+/**
+ * Points the application at a scratch SQLite file so benchmarks never touch
+ * employee_management.db.
+ * JMH runs each parameter combination in a fresh forked JVM, so the property only
+ * has to be set before the first call to DatabaseManager.getInstance().
+ */
+public final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Creates a temporary database file, directs DatabaseManager to it and switches
+     * the logger to asynchronous mode so console output does not dominate timings.
+     *
+     * @return the path of the temporary database file
+     * @throws IOException if the file cannot be created
+     */
+    public static Path useTemporaryDatabase() throws IOException {
+        Path file = Files.createTempFile("ems-bench-", ".db");
+        System.setProperty("ems.db.url", "jdbc:sqlite:" + file.toAbsolutePath());
+        Logger.getInstance().enableAsync(65_536, Logger.BackPressure.DROP_DEBUG);
+        return file;
+    }
+
+    /**
+     * Deletes a database file created by useTemporaryDatabase.
+     *
+     * @param file the database file
+     */
+    public static void delete(Path file) {
+        try {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            Logger.getInstance().warning("Could not delete benchmark database " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * CsvReportBenchmark.java
+ */
+package benchmark;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.ReportGenerator;
+
+/**
+ * Benchmarks writing the employee CSV report for 1,000,000 employees.
+ * Scores are rows per second. csvWriter is ReportGenerator.generateEmployeeCSVReport,
+ * which writes through CsvWriter; printWriter is the previous implementation, which
+ * concatenated each row and wrote it through a PrintWriter on a FileWriter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class CsvReportBenchmark {
+    private static final int ROWS = 1_000_000;
+
+    private List<Employee> employees;
+    private Path reportFile;
+
+    /**
+     * Generates the employees and a scratch file for the report.
+     *
+     * @throws IOException if the file cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        employees = new EmployeeGenerator(42).generate(1, ROWS);
+        reportFile = Files.createTempFile("ems-bench-report", ".csv");
+    }
+
+    /**
+     * Removes the scratch file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(reportFile);
+    }
+
+    /**
+     * Writes the report through CsvWriter.
+     *
+     * @return whether the report was written
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public boolean csvWriter() {
+        return ReportGenerator.generateEmployeeCSVReport(employees, reportFile.toString());
+    }
+
+    /**
+     * Writes the report the way ReportGenerator used to.
+     *
+     * @return whether the report was written
+     * @throws IOException if the file cannot be written
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public boolean printWriter() throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(reportFile.toFile()))) {
+            writer.println("ID,Name,Department,Salary,Payment Method");
+            for (Employee e : employees) {
+                writer.println(
+                    e.getId() + "," +
+                    escapeCsvField(e.getName()) + "," +
+                    escapeCsvField(e.getDepartment()) + "," +
+                    e.getSalary() + "," +
+                    escapeCsvField(e.getPaymentMethodName())
+                );
+            }
+            return !writer.checkError();
+        }
+    }
+
+    private static String escapeCsvField(String field) {
+        if (field == null) {
+            return "";
+        }
+        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+        return field;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * DatabaseBenchmark.java
+ */
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.BatchResult;
+import model.Database;
+import model.Employee;
+import model.EmployeeCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks employee lookups through the Database facade.
+ * The mode parameter selects the in-memory store only (IN_MEMORY) or SQLite with
+ * one of the cache policies. The hot lookup draws from a small working set that
+ * fits in the cache, the uniform lookup draws from the whole dataset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseBenchmark {
+    private static final int HOT_SET_SIZE = 100;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"IN_MEMORY", "DATABASE_FIRST", "READ_THROUGH", "WRITE_THROUGH"})
+    public String mode;
+
+    private Path databaseFile;
+    private Database database;
+    private EmployeeGenerator generator;
+
+    /**
+     * Configures the Database for the selected mode and seeds it with size employees.
+     *
+     * @throws IOException if the database file cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        databaseFile = BenchmarkDatabase.useTemporaryDatabase();
+        database = Database.getInstance();
+        if ("IN_MEMORY".equals(mode)) {
+            database.setUseInMemoryOnly(true);
+        } else {
+            database.configureCache(Database.CachePolicy.valueOf(mode), 10_000, 60_000,
+                EmployeeCache.EvictionPolicy.LRU);
+        }
+        generator = new EmployeeGenerator(42);
+
+        BatchResult seeded = database.addEmployees(generator.generate(1, size));
+        if (!seeded.isSuccessful()) {
+            throw new IllegalStateException("Seeding failed: " + seeded);
+        }
+    }
+
+    /**
+     * Removes the scratch database.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.delete(databaseFile);
+    }
+
+    /**
+     * Looks up a uniformly random employee.
+     *
+     * @return the employee found
+     */
+    @Benchmark
+    public Employee getEmployeeById() {
+        return database.getEmployeeById(generator.randomId(size));
+    }
+
+    /**
+     * Looks up an employee from a small, frequently used working set.
+     *
+     * @return the employee found
+     */
+    @Benchmark
+    public Employee getEmployeeByIdHot() {
+        return database.getEmployeeById(generator.randomId(Math.min(HOT_SET_SIZE, size)));
+    }
+
+    /**
+     * Takes a snapshot of all employees held in memory.
+     *
+     * @return the employees
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Employee> getEmployees() {
+        return database.getEmployees();
+    }
+}
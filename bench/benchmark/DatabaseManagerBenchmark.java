@@ -0,0 +1,118 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * DatabaseManagerBenchmark.java
+ */
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.BatchResult;
+import model.DatabaseManager;
+import model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the SQLite persistence layer against a table of the given size.
+ * addEmployee keeps inserting new IDs above the seeded range, so the table grows
+ * slightly during the run; the other operations work on the seeded rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseManagerBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private Path databaseFile;
+    private DatabaseManager dbManager;
+    private EmployeeGenerator generator;
+    private int nextId;
+
+    /**
+     * Creates a scratch database and seeds it with size employees using the bulk API.
+     *
+     * @throws IOException if the database file cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        databaseFile = BenchmarkDatabase.useTemporaryDatabase();
+        dbManager = DatabaseManager.getInstance();
+        generator = new EmployeeGenerator(42);
+
+        BatchResult seeded = dbManager.addEmployees(generator.generate(1, size));
+        if (!seeded.isSuccessful()) {
+            throw new IllegalStateException("Seeding failed: " + seeded);
+        }
+        nextId = size + 1;
+    }
+
+    /**
+     * Removes the scratch database.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.delete(databaseFile);
+    }
+
+    /**
+     * Inserts a new employee and their login account.
+     *
+     * @return true if the insert succeeded
+     */
+    @Benchmark
+    public boolean addEmployee() {
+        return dbManager.addEmployee(generator.next(nextId++));
+    }
+
+    /**
+     * Looks up a uniformly random employee.
+     *
+     * @return the employee found
+     */
+    @Benchmark
+    public Employee getEmployeeById() {
+        return dbManager.getEmployeeById(generator.randomId(size));
+    }
+
+    /**
+     * Updates a uniformly random employee with new details.
+     *
+     * @return true if the update succeeded
+     */
+    @Benchmark
+    public boolean updateEmployee() {
+        return dbManager.updateEmployee(generator.next(generator.randomId(size)));
+    }
+
+    /**
+     * Loads every employee in the table.
+     *
+     * @return the employees
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Employee> getAllEmployees() {
+        return dbManager.getAllEmployees();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * EmployeeGenerator.java
+ */
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import model.CheckPayment;
+import model.Employee;
+
+/**
+ * Generates synthetic employees for benchmarks.
+ * Output is deterministic for a given seed, and every generated name contains the
+ * employee ID so the login accounts created for the employees never collide.
+ */
+public class EmployeeGenerator {
+    private static final String[] FIRST_NAMES = {
+        "Alice", "Bob", "Carol", "David", "Emma", "Frank", "Grace", "Henry",
+        "Isla", "Jack", "Karen", "Liam", "Maya", "Noah", "Olivia", "Priya"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Patel", "Garcia", "Chen", "Brown", "Nguyen", "Khan", "Miller"
+    };
+    private static final String[] DEPARTMENTS = {
+        "Engineering", "Sales", "Marketing", "Finance", "HR", "Operations", "Support", "Legal"
+    };
+
+    private final SplittableRandom random;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed the random seed
+     */
+    public EmployeeGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Generates one employee. About a third are paid by check, the rest by direct deposit.
+     *
+     * @param id the employee ID
+     * @return the generated employee
+     */
+    public Employee next(int id) {
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+            + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + id;
+        String department = DEPARTMENTS[random.nextInt(DEPARTMENTS.length)];
+        // Whole cents between 30,000 and 200,000
+        double salary = Math.round(random.nextDouble(30_000, 200_000) * 100) / 100.0;
+
+        Employee employee = new Employee(id, name, department, salary);
+        if (random.nextInt(3) == 0) {
+            employee.setPaymentStrategy(new CheckPayment());
+        }
+        return employee;
+    }
+
+    /**
+     * Generates employees with consecutive IDs.
+     *
+     * @param firstId the ID of the first employee
+     * @param count the number of employees
+     * @return the generated employees
+     */
+    public List<Employee> generate(int firstId, int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(next(firstId + i));
+        }
+        return employees;
+    }
+
+    /**
+     * Returns a random ID between 1 and size, for picking lookup targets.
+     *
+     * @param size the number of generated employees
+     * @return an ID in the range [1, size]
+     */
+    public int randomId(int size) {
+        return 1 + random.nextInt(size);
+    }
+
+    /**
+     * Returns the username DatabaseManager creates for an employee's account.
+     *
+     * @param employee the employee
+     * @return the login username
+     */
+    public static String usernameFor(Employee employee) {
+        return employee.getName().toLowerCase().replace(' ', '_');
+    }
+
+    /**
+     * Returns the initial password DatabaseManager creates for an employee's account.
+     *
+     * @param employee the employee
+     * @return the login password
+     */
+    public static String passwordFor(Employee employee) {
+        return employee.getId() + employee.getName().substring(0, Math.min(3, employee.getName().length()));
+    }
+}
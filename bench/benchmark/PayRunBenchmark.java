@@ -0,0 +1,110 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PayRunBenchmark.java
+ */
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.DatabaseManager;
+import model.Employee;
+import model.PayRunEngine;
+import model.PayRunSummary;
+import model.PayStubSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.PayStubPDFExporter;
+
+/**
+ * Benchmarks a pay run that renders one PDF per employee into a zip, the path behind
+ * the GUI's Pay All. ledgerRun checkpoints every chunk in the payment ledger, as the GUI
+ * does; plainRun pays the same roster without a ledger. Both render chunks on the
+ * engine's fork-join workers, so the gap between them is the cost of the checkpoints.
+ * Every ledger invocation uses a new pay period, so the whole roster is paid each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PayRunBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private Path databaseFile;
+    private Path zipFile;
+    private DatabaseManager dbManager;
+    private PayRunEngine engine;
+    private List<Employee> roster;
+    private int period;
+
+    /**
+     * Creates a scratch database and generates the roster.
+     *
+     * @throws IOException if the scratch files cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        databaseFile = BenchmarkDatabase.useTemporaryDatabase();
+        zipFile = Files.createTempFile("ems-bench-stubs", ".zip");
+        dbManager = DatabaseManager.getInstance();
+        engine = new PayRunEngine();
+        roster = new EmployeeGenerator(42).generate(1, size);
+    }
+
+    /**
+     * Removes the scratch files.
+     *
+     * @throws IOException if the zip cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(zipFile);
+        BenchmarkDatabase.delete(databaseFile);
+    }
+
+    /**
+     * Pays the roster with ledger checkpoints, writing the stubs to a zip of PDFs.
+     *
+     * @return the totals of the run
+     * @throws IOException if the ledger or the zip cannot be written
+     */
+    @Benchmark
+    public PayRunSummary ledgerRun() throws IOException {
+        try (PayStubSink sink = PayStubPDFExporter.toZip(zipFile)) {
+            return engine.run("bench-" + period++, roster, sink, dbManager);
+        }
+    }
+
+    /**
+     * Pays the roster without a ledger, writing the stubs to a zip of PDFs.
+     *
+     * @return the totals of the run
+     * @throws IOException if the zip cannot be written
+     */
+    @Benchmark
+    public PayRunSummary plainRun() throws IOException {
+        try (PayStubSink sink = PayStubPDFExporter.toZip(zipFile)) {
+            return engine.run(roster, sink);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * UserManagerBenchmark.java
+ */
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.BatchResult;
+import model.DatabaseManager;
+import model.Employee;
+import model.UserManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks login against a users table holding one account per seeded employee
+ * plus the default admin and manager accounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserManagerBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private Path databaseFile;
+    private UserManager userManager;
+    private EmployeeGenerator generator;
+    private List<Employee> employees;
+
+    /**
+     * Creates a scratch database and seeds it with size employees and their accounts.
+     *
+     * @throws IOException if the database file cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        databaseFile = BenchmarkDatabase.useTemporaryDatabase();
+        generator = new EmployeeGenerator(42);
+        employees = generator.generate(1, size);
+
+        BatchResult seeded = DatabaseManager.getInstance().addEmployees(employees);
+        if (!seeded.isSuccessful()) {
+            throw new IllegalStateException("Seeding failed: " + seeded);
+        }
+        userManager = UserManager.getInstance();
+    }
+
+    /**
+     * Removes the scratch database.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.delete(databaseFile);
+    }
+
+    /**
+     * Logs in as a uniformly random employee.
+     *
+     * @return true if the login succeeded
+     */
+    @Benchmark
+    public boolean authenticateEmployee() {
+        Employee employee = employees.get(generator.randomId(size) - 1);
+        return userManager.authenticate(EmployeeGenerator.usernameFor(employee), EmployeeGenerator.passwordFor(employee));
+    }
+
+    /**
+     * Logs in repeatedly as the default admin account.
+     *
+     * @return true if the login succeeded
+     */
+    @Benchmark
+    public boolean authenticateAdmin() {
+        return userManager.authenticate("admin", "admin123");
+    }
+
+    /**
+     * Attempts a login with a wrong password.
+     *
+     * @return false, since the login is rejected
+     */
+    @Benchmark
+    public boolean authenticateWrongPassword() {
+        Employee employee = employees.get(generator.randomId(size) - 1);
+        return userManager.authenticate(EmployeeGenerator.usernameFor(employee), "wrong-password");
+    }
+}
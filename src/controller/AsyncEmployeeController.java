@@ -0,0 +1,365 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * AsyncEmployeeController.java
+ */
+package controller;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import model.BatchResult;
+import model.Employee;
+import model.EmployeeSort;
+import model.PayRunSummary;
+import model.PayStubSink;
+import util.ImportSummary;
+import util.Progress;
+
+/**
+ * Non-blocking facade over EmployeeController.
+ * Every operation runs on an executor and returns a CompletableFuture, so the Swing
+ * event thread and headless callers never block on SQLite I/O and can pipeline requests.
+ * Operations that write to the database are additionally limited by a semaphore, since
+ * SQLite only allows one writer at a time and piling up writers only causes lock contention.
+ */
+public class AsyncEmployeeController {
+    private static final int DEFAULT_MAX_CONCURRENT_WRITES = Integer.getInteger("ems.async.maxWrites", 1);
+
+    private final EmployeeController controller;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Semaphore writePermits;
+
+    /**
+     * Creates an async controller backed by the default executor, which uses
+     * virtual threads when available.
+     *
+     * @param controller the synchronous controller to delegate to
+     */
+    public AsyncEmployeeController(EmployeeController controller) {
+        this.controller = controller;
+        this.ownedExecutor = newDefaultExecutor();
+        this.executor = ownedExecutor;
+        this.writePermits = new Semaphore(DEFAULT_MAX_CONCURRENT_WRITES, true);
+    }
+
+    /**
+     * Creates an async controller backed by the given executor.
+     *
+     * @param controller the synchronous controller to delegate to
+     * @param executor the executor that runs the operations
+     * @param maxConcurrentWrites the maximum number of write operations running at once
+     */
+    public AsyncEmployeeController(EmployeeController controller, Executor executor, int maxConcurrentWrites) {
+        if (maxConcurrentWrites < 1) {
+            throw new IllegalArgumentException("At least one concurrent write must be allowed");
+        }
+        this.controller = controller;
+        this.ownedExecutor = null;
+        this.executor = executor;
+        this.writePermits = new Semaphore(maxConcurrentWrites, true);
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor on Java 21+, or a cached pool of
+     * daemon threads on older runtimes.
+     *
+     * @return the default executor
+     */
+    private static ExecutorService newDefaultExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "employee-controller-async");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Runs a read-only operation on the executor.
+     */
+    private <T> CompletableFuture<T> read(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Runs a write operation on the executor once a write permit is available.
+     */
+    private <T> CompletableFuture<T> write(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                writePermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return task.get();
+            } finally {
+                writePermits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Adds a new employee with the specified payment method.
+     *
+     * @param id the ID of the employee
+     * @param name the name of the employee
+     * @param department the department of the employee
+     * @param salary the salary of the employee
+     * @param paymentMethod the payment method ("Direct Deposit" or "Check")
+     * @return a future that completes when the employee has been added
+     */
+    public CompletableFuture<Void> addEmployee(int id, String name, String department, double salary, String paymentMethod) {
+        return write(() -> {
+            controller.addEmployee(id, name, department, salary, paymentMethod);
+            return null;
+        });
+    }
+
+    /**
+     * Updates the details of an existing employee including payment method.
+     *
+     * @param id the ID of the employee to be updated
+     * @param name the new name of the employee
+     * @param department the new department of the employee
+     * @param salary the new salary of the employee
+     * @param paymentMethod the payment method ("Direct Deposit" or "Check")
+     * @return a future that completes when the employee has been updated
+     */
+    public CompletableFuture<Void> updateEmployee(int id, String name, String department, double salary, String paymentMethod) {
+        return write(() -> {
+            controller.updateEmployee(id, name, department, salary, paymentMethod);
+            return null;
+        });
+    }
+
+    /**
+     * Updates the details of an existing employee, keeping the payment method.
+     *
+     * @param id the ID of the employee to be updated
+     * @param name the new name of the employee
+     * @param department the new department of the employee
+     * @param salary the new salary of the employee
+     * @return a future that completes when the employee has been updated
+     */
+    public CompletableFuture<Void> updateEmployee(int id, String name, String department, double salary) {
+        return write(() -> {
+            controller.updateEmployee(id, name, department, salary);
+            return null;
+        });
+    }
+
+    /**
+     * Removes an employee by ID.
+     *
+     * @param id the ID of the employee to be removed
+     * @return a future that completes when the employee has been removed
+     */
+    public CompletableFuture<Void> removeEmployee(int id) {
+        return write(() -> {
+            controller.removeEmployee(id);
+            return null;
+        });
+    }
+
+    /**
+     * Changes the payment method for an employee.
+     *
+     * @param id the ID of the employee
+     * @param paymentMethod the payment method ("Direct Deposit" or "Check")
+     * @return a future holding true if the employee was found and updated
+     */
+    public CompletableFuture<Boolean> changePaymentMethod(int id, String paymentMethod) {
+        return write(() -> controller.changePaymentMethod(id, paymentMethod));
+    }
+
+    /**
+     * Adds many employees in one bulk operation.
+     *
+     * @param employees the employees to be added
+     * @return a future holding the per-row outcome
+     */
+    public CompletableFuture<BatchResult> addEmployees(Collection<Employee> employees) {
+        return write(() -> controller.addEmployees(employees));
+    }
+
+    /**
+     * Imports employees from a CSV file in the layout of the employee CSV report.
+     *
+     * @param filePath the CSV file to import
+     * @param progress receives the number of rows read and can cancel the import
+     * @return a future holding the totals of the import, or null if the file could not be read
+     */
+    public CompletableFuture<ImportSummary> importEmployeesFromCSV(String filePath, Progress progress) {
+        return write(() -> controller.importEmployeesFromCSV(filePath, progress));
+    }
+
+    /**
+     * Updates many employees in one bulk operation.
+     *
+     * @param employees the employees with updated details
+     * @return a future holding the per-row outcome
+     */
+    public CompletableFuture<BatchResult> updateEmployees(Collection<Employee> employees) {
+        return write(() -> controller.updateEmployees(employees));
+    }
+
+    /**
+     * Removes many employees in one bulk operation.
+     *
+     * @param ids the IDs of the employees to be removed
+     * @return a future holding the per-row outcome
+     */
+    public CompletableFuture<BatchResult> removeEmployees(Collection<Integer> ids) {
+        return write(() -> controller.removeEmployees(ids));
+    }
+
+    /**
+     * Retrieves an employee by ID.
+     *
+     * @param id the ID of the employee to find
+     * @return a future holding the employee, or null if not found
+     */
+    public CompletableFuture<Employee> getEmployeeById(int id) {
+        return read(() -> controller.getEmployeeById(id));
+    }
+
+    /**
+     * Retrieves all employees.
+     *
+     * @return a future holding the list of employees
+     */
+    public CompletableFuture<List<Employee>> getAllEmployees() {
+        return read(controller::getAllEmployees);
+    }
+
+    /**
+     * Retrieves one page of employees.
+     *
+     * @param after the last employee of the previous page, or null for the first page
+     * @param limit the maximum number of employees to return
+     * @param sort the order of the pages
+     * @return a future holding the employees of the page
+     */
+    public CompletableFuture<List<Employee>> getEmployeesPage(Employee after, int limit, EmployeeSort sort) {
+        return read(() -> controller.getEmployeesPage(after, limit, sort));
+    }
+
+    /**
+     * Retrieves the employees at a position in the given order.
+     *
+     * @param offset the number of employees to skip
+     * @param limit the maximum number of employees to return
+     * @param sort the order of the employees
+     * @return a future holding the employees at positions offset to offset + limit - 1
+     */
+    public CompletableFuture<List<Employee>> getEmployeesAt(int offset, int limit, EmployeeSort sort) {
+        return read(() -> controller.getEmployeesAt(offset, limit, sort));
+    }
+
+    /**
+     * Returns the number of employees.
+     *
+     * @return a future holding the employee count
+     */
+    public CompletableFuture<Integer> getEmployeeCount() {
+        return read(controller::getEmployeeCount);
+    }
+
+    /**
+     * Generates pay stubs for all employees.
+     *
+     * @return a future holding the pay stubs for all employees
+     */
+    public CompletableFuture<String> payAllEmployees() {
+        return read(controller::payAllEmployees);
+    }
+
+    /**
+     * Pays all employees in parallel, sending the stubs to the given sink.
+     *
+     * @param sink the destination for the pay stubs; closed when the run finishes
+     * @return a future holding the totals of the run, or null if the stubs could not be written
+     */
+    public CompletableFuture<PayRunSummary> runPayroll(PayStubSink sink) {
+        return read(() -> controller.runPayroll(sink));
+    }
+
+    /**
+     * Runs the payroll of a pay period with checkpoints in the payment ledger.
+     * The run writes to the ledger, so it waits for a write permit.
+     *
+     * @param period the pay period, for example "2025-03"
+     * @param sink the destination for the pay stubs; closed when the run finishes
+     * @return a future holding the totals of the run, or null if it failed
+     */
+    public CompletableFuture<PayRunSummary> runPayroll(String period, PayStubSink sink) {
+        return write(() -> controller.runPayroll(period, sink));
+    }
+
+    /**
+     * Generates and exports a CSV report of all employees.
+     *
+     * @param filePath the path where the CSV file should be saved
+     * @return a future holding true if the report was written
+     */
+    public CompletableFuture<Boolean> generateEmployeeCSVReport(String filePath) {
+        return read(() -> controller.generateEmployeeCSVReport(filePath));
+    }
+
+    /**
+     * Generates and exports a payroll report.
+     *
+     * @param filePath the path where the report file should be saved
+     * @return a future holding true if the report was written
+     */
+    public CompletableFuture<Boolean> generatePayrollReport(String filePath) {
+        return read(() -> controller.generatePayrollReport(filePath));
+    }
+
+    /**
+     * Generates and exports a PDF report of all employees.
+     *
+     * @param filePath the path where the PDF file should be saved
+     * @return a future holding true if the report was written
+     */
+    public CompletableFuture<Boolean> generateEmployeePDFReport(String filePath) {
+        return read(() -> controller.generateEmployeePDFReport(filePath));
+    }
+
+    /**
+     * Generates and exports a PDF payroll report.
+     *
+     * @param filePath the path where the PDF file should be saved
+     * @return a future holding true if the report was written
+     */
+    public CompletableFuture<Boolean> generatePayrollPDFReport(String filePath) {
+        return read(() -> controller.generatePayrollPDFReport(filePath));
+    }
+
+    /**
+     * Stops the default executor, if this controller created it.
+     * Operations already submitted are allowed to finish.
+     */
+    public void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+}
@@ -7,15 +7,35 @@
  */
 package controller;
 
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import model.BatchResult;
 import model.Database;
+import model.DatabaseManager;
 import model.Employee;
+import model.EmployeeSort;
 import model.EmployeeFactory;
 import model.ConcreteEmployeeFactory;
+import model.CheckNumberSource;
 import model.CheckPayment;
 import model.DirectDepositPayment;
+import model.PayRunEngine;
+import model.PaymentResult;
+import model.PayRunSummary;
+import model.PayStubSink;
+import util.EmployeeCSVImporter;
+import util.ImportSummary;
+import util.Logger;
 import util.ReportGenerator;
 import util.PDFExporter;
+import util.Progress;
+import util.ReportCompression;
+import util.ReportContext;
+import util.ReportFormat;
+import util.ReportPipeline;
 
 /**
  * Controller class for managing employees.
@@ -25,6 +45,11 @@ import util.PDFExporter;
 public class EmployeeController {
     private Database database;
     private EmployeeFactory employeeFactory;
+    private AsyncEmployeeController asyncController;
+    private final PayRunEngine payRunEngine = new PayRunEngine();
+    // Check numbers for in-memory mode, where there is no database to keep them in
+    private final CheckNumberSource inMemoryCheckNumbers = CheckNumberSource.inMemory();
+    private final Logger logger = Logger.getInstance();
     
     /**
      * Constructor for EmployeeController.
@@ -35,6 +60,30 @@ public class EmployeeController {
         this.employeeFactory = new ConcreteEmployeeFactory();
     }
     
+    /**
+     * Returns the non-blocking facade for this controller.
+     * The facade is created on first use and shared, so its limit on concurrent
+     * database writes applies to every caller.
+     * 
+     * @return the async controller wrapping this controller
+     */
+    public synchronized AsyncEmployeeController async() {
+        if (asyncController == null) {
+            asyncController = new AsyncEmployeeController(this);
+        }
+        return asyncController;
+    }
+    
+    /**
+     * Commits the writes queued by the WRITE_BEHIND cache policy.
+     * Called before the application exits.
+     * 
+     * @return true if nothing is left to commit
+     */
+    public boolean flush() {
+        return database.flush();
+    }
+    
     /**
      * Adds a new employee to the database.
      * 
@@ -88,11 +137,11 @@ public class EmployeeController {
      * @param salary the new salary of the employee
      */
     public void updateEmployee(int id, String name, String department, double salary) {
-        Employee e = database.getEmployeeById(id);
-        if (e != null) {
-            e.setName(name);
-            e.setDepartment(department);
-            e.setSalary(salary);
+        Employee current = database.getEmployeeById(id);
+        if (current != null) {
+            // The stored employee is shared, so the changes go into a new object
+            Employee e = employeeFactory.createEmployee(id, name, department, salary);
+            e.setPaymentStrategy(current.getPaymentStrategy());
             database.updateEmployee(e);
         }
     }
@@ -107,11 +156,9 @@ public class EmployeeController {
      * @param paymentMethod the payment method ("Direct Deposit" or "Check")
      */
     public void updateEmployee(int id, String name, String department, double salary, String paymentMethod) {
-        Employee e = database.getEmployeeById(id);
-        if (e != null) {
-            e.setName(name);
-            e.setDepartment(department);
-            e.setSalary(salary);
+        if (database.getEmployeeById(id) != null) {
+            // The stored employee is shared, so the changes go into a new object
+            Employee e = employeeFactory.createEmployee(id, name, department, salary);
             
             // Update payment method
             if ("Check".equals(paymentMethod)) {
@@ -124,6 +171,67 @@ public class EmployeeController {
         }
     }
     
+    /**
+     * Adds many employees in one bulk operation.
+     * 
+     * @param employees the employees to be added
+     * @return the per-row outcome, including the reason for every rejected row
+     */
+    public BatchResult addEmployees(Collection<Employee> employees) {
+        return database.addEmployees(employees);
+    }
+    
+    /**
+     * Imports employees from a CSV file in the layout of the employee CSV report.
+     * Rejected rows are written next to the file, to a file ending in ".rejects.csv".
+     * 
+     * @param filePath the CSV file to import
+     * @param progress receives the number of rows read and can cancel the import
+     * @return the totals of the import, or null if the file could not be read
+     */
+    public ImportSummary importEmployeesFromCSV(String filePath, Progress progress) {
+        return importEmployeesFromCSV(filePath, EmployeeCSVImporter.rejectFileFor(filePath), progress);
+    }
+    
+    /**
+     * Imports employees from a CSV file in the layout of the employee CSV report.
+     * The rows are parsed in parallel and added in batches, each in one transaction.
+     * 
+     * @param filePath the CSV file to import
+     * @param rejectFilePath where rejected rows are written, with the reason for each
+     * @param progress receives the number of rows read and can cancel the import
+     * @return the totals of the import, or null if the file could not be read
+     */
+    public ImportSummary importEmployeesFromCSV(String filePath, String rejectFilePath, Progress progress) {
+        try {
+            return new EmployeeCSVImporter(this::addEmployees, database::containsEmployee)
+                .importFile(filePath, rejectFilePath, progress);
+        } catch (IOException e) {
+            logger.error("Failed to import employees from " + filePath, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Updates many employees in one bulk operation.
+     * 
+     * @param employees the employees with updated details
+     * @return the per-row outcome, including the reason for every rejected row
+     */
+    public BatchResult updateEmployees(Collection<Employee> employees) {
+        return database.updateEmployees(employees);
+    }
+    
+    /**
+     * Removes many employees in one bulk operation.
+     * 
+     * @param ids the IDs of the employees to be removed
+     * @return the per-row outcome, including the reason for every rejected row
+     */
+    public BatchResult removeEmployees(Collection<Integer> ids) {
+        return database.removeEmployees(ids);
+    }
+    
     /**
      * Changes the payment method for an employee.
      * 
@@ -144,6 +252,78 @@ public class EmployeeController {
         return database.getEmployees();
     }
     
+    /**
+     * Retrieves one page of employees, for views that load the list incrementally.
+     * 
+     * @param after the last employee of the previous page, or null for the first page
+     * @param limit the maximum number of employees to return
+     * @param sort the order of the pages
+     * @return the employees of the page
+     */
+    public List<Employee> getEmployeesPage(Employee after, int limit, EmployeeSort sort) {
+        return database.getEmployeesPage(after, limit, sort);
+    }
+    
+    /**
+     * Retrieves the employees at a position in the given order.
+     * 
+     * @param offset the number of employees to skip
+     * @param limit the maximum number of employees to return
+     * @param sort the order of the employees
+     * @return the employees at positions offset to offset + limit - 1
+     */
+    public List<Employee> getEmployeesAt(int offset, int limit, EmployeeSort sort) {
+        return database.getEmployeesAt(offset, limit, sort);
+    }
+    
+    /**
+     * Returns the number of employees.
+     * 
+     * @return the employee count
+     */
+    public int getEmployeeCount() {
+        return database.getEmployeeCount();
+    }
+    
+    /**
+     * Retrieves the employees of one department.
+     * 
+     * @param department the department name
+     * @return the employees of the department
+     */
+    public List<Employee> getEmployeesByDepartment(String department) {
+        return database.getEmployeesByDepartment(department);
+    }
+    
+    /**
+     * Retrieves the employees whose salary lies in a range.
+     * 
+     * @param minSalary the lowest salary included
+     * @param maxSalary the highest salary included
+     * @return the matching employees, ordered by salary
+     */
+    public List<Employee> getEmployeesBySalaryRange(double minSalary, double maxSalary) {
+        return database.getEmployeesBySalaryRange(minSalary, maxSalary);
+    }
+    
+    /**
+     * Returns the number of employees per department.
+     * 
+     * @return the employee count per department
+     */
+    public Map<String, Integer> getEmployeeCountByDepartment() {
+        return database.getEmployeeCountByDepartment();
+    }
+    
+    /**
+     * Returns the total salary per department.
+     * 
+     * @return the salary total per department
+     */
+    public Map<String, Double> getTotalSalaryByDepartment() {
+        return database.getTotalSalaryByDepartment();
+    }
+    
     /**
      * Retrieves an employee by ID.
      * 
@@ -156,6 +336,8 @@ public class EmployeeController {
     
     /**
      * Generates pay stubs for all employees.
+     * Builds every stub into one String, so it is only suitable for small rosters;
+     * use runPayroll to stream stubs to a sink instead.
      * 
      * @return a string containing the pay stubs for all employees
      */
@@ -167,6 +349,59 @@ public class EmployeeController {
         return payStubs.toString();
     }
     
+    /**
+     * Pays all employees in parallel with the PayRunEngine, sending the stubs to the given sink.
+     * The sink is closed when the run finishes.
+     * 
+     * @param sink the destination for the pay stubs
+     * @return the totals of the run, or null if the stubs could not be written
+     */
+    public PayRunSummary runPayroll(PayStubSink sink) {
+        try (PayStubSink stubs = sink) {
+            return payRunEngine.run(database.getEmployees(), stubs);
+        } catch (IOException e) {
+            logger.error("Pay run failed", e);
+            return null;
+        }
+    }
+    
+    /**
+     * Runs the payroll of a pay period with checkpoints in the payment ledger.
+     * An interrupted run for the same period resumes where it stopped, and employees
+     * already paid in the period are skipped. In in-memory mode there is no ledger,
+     * so everyone is paid as with runPayroll(PayStubSink).
+     * The sink is closed when the run finishes.
+     * 
+     * @param period the pay period, for example "2025-03"
+     * @param sink the destination for the pay stubs
+     * @return the totals of the run, or null if it failed
+     */
+    public PayRunSummary runPayroll(String period, PayStubSink sink) {
+        if (database.isUseInMemoryOnly()) {
+            return runPayroll(sink);
+        }
+        try (PayStubSink stubs = sink) {
+            return payRunEngine.run(period, database.getEmployees(), stubs, DatabaseManager.getInstance());
+        } catch (IOException e) {
+            logger.error("Pay run for period " + period + " failed", e);
+            return null;
+        }
+    }
+    
+    /**
+     * Disburses every employee's salary through the batch payment backends:
+     * one deposit batch file for direct deposits and one print run for checks.
+     * Check numbers are kept in the database, or counted in memory in in-memory mode.
+     * 
+     * @return one payment result per employee
+     */
+    public List<PaymentResult> disbursePayroll() {
+        CheckNumberSource checkNumbers = database.isUseInMemoryOnly()
+            ? inMemoryCheckNumbers
+            : CheckNumberSource.database(DatabaseManager.getInstance());
+        return payRunEngine.disburse(database.getEmployees(), checkNumbers);
+    }
+    
     /**
      * Generates and exports a CSV report of all employees.
      * 
@@ -174,8 +409,33 @@ public class EmployeeController {
      * @return true if the operation was successful, false otherwise
      */
     public boolean generateEmployeeCSVReport(String filePath) {
-        List<Employee> employees = database.getEmployees();
-        return ReportGenerator.generateEmployeeCSVReport(employees, filePath);
+        return generateEmployeeCSVReport(filePath, Progress.NONE);
+    }
+    
+    /**
+     * Generates and exports a CSV report of all employees, reporting progress.
+     * The file is gzip-compressed if its name ends in .gz.
+     * 
+     * @param filePath the path where the CSV file should be saved
+     * @param progress receives progress updates and can cancel the export
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public boolean generateEmployeeCSVReport(String filePath, Progress progress) {
+        return generateEmployeeCSVReport(filePath, progress, ReportCompression.forFile(filePath));
+    }
+    
+    /**
+     * Generates and exports a CSV report of all employees with the given compression, reporting progress.
+     * 
+     * @param filePath the path where the CSV file should be saved
+     * @param progress receives progress updates and can cancel the export
+     * @param compression whether the file is compressed while it is written
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public boolean generateEmployeeCSVReport(String filePath, Progress progress, ReportCompression compression) {
+        try (Stream<Employee> employees = database.streamEmployees()) {
+            return ReportGenerator.generateEmployeeCSVReport(employees, filePath, progress, compression);
+        }
     }
     
     /**
@@ -185,8 +445,36 @@ public class EmployeeController {
      * @return true if the operation was successful, false otherwise
      */
     public boolean generatePayrollReport(String filePath) {
-        List<Employee> employees = database.getEmployees();
-        return ReportGenerator.generatePayrollReport(employees, filePath);
+        return generatePayrollReport(filePath, Progress.NONE);
+    }
+    
+    /**
+     * Generates and exports a payroll report, reporting progress.
+     * The file is gzip-compressed if its name ends in .gz.
+     * 
+     * @param filePath the path where the report file should be saved
+     * @param progress receives progress updates and can cancel the export
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public boolean generatePayrollReport(String filePath, Progress progress) {
+        return generatePayrollReport(filePath, progress, ReportCompression.forFile(filePath));
+    }
+    
+    /**
+     * Generates and exports a payroll report with the given compression, reporting progress.
+     * 
+     * @param filePath the path where the report file should be saved
+     * @param progress receives progress updates and can cancel the export
+     * @param compression whether the file is compressed while it is written
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public boolean generatePayrollReport(String filePath, Progress progress, ReportCompression compression) {
+        int employeeCount = database.getEmployeeCount();
+        double totalSalary = database.getTotalSalary();
+        try (Stream<Employee> employees = database.streamEmployees()) {
+            return ReportGenerator.generatePayrollReport(employees, employeeCount, totalSalary, filePath,
+                                                         progress, compression);
+        }
     }
     
     /**
@@ -203,8 +491,20 @@ public class EmployeeController {
      * @return true if the operation was successful, false otherwise
      */
     public boolean generateEmployeePDFReport(String filePath) {
-        List<Employee> employees = database.getEmployees();
-        return PDFExporter.exportEmployeesToPDF(employees, filePath);
+        return generateEmployeePDFReport(filePath, Progress.NONE);
+    }
+    
+    /**
+     * Generates and exports a PDF report of all employees, reporting progress.
+     * 
+     * @param filePath the path where the PDF file should be saved
+     * @param progress receives progress updates and can cancel the export
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public boolean generateEmployeePDFReport(String filePath, Progress progress) {
+        try (Stream<Employee> employees = database.streamEmployees()) {
+            return PDFExporter.exportEmployeesToPDF(employees, filePath, progress);
+        }
     }
     
     /**
@@ -214,7 +514,67 @@ public class EmployeeController {
      * @return true if the operation was successful, false otherwise
      */
     public boolean generatePayrollPDFReport(String filePath) {
-        List<Employee> employees = database.getEmployees();
-        return PDFExporter.exportPayrollToPDF(employees, filePath);
+        return generatePayrollPDFReport(filePath, Progress.NONE);
+    }
+    
+    /**
+     * Generates and exports a PDF payroll report, reporting progress.
+     * 
+     * @param filePath the path where the PDF file should be saved
+     * @param progress receives progress updates and can cancel the export
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public boolean generatePayrollPDFReport(String filePath, Progress progress) {
+        int employeeCount = database.getEmployeeCount();
+        double totalSalary = database.getTotalSalary();
+        try (Stream<Employee> employees = database.streamEmployees()) {
+            return PDFExporter.exportPayrollToPDF(employees, employeeCount, totalSalary, filePath, progress);
+        }
+    }
+    
+    /**
+     * Generates and exports a PDF payroll report with one section per department,
+     * rendering the departments in parallel.
+     * 
+     * @param filePath the path where the PDF file should be saved
+     * @return true if the operation was successful, false otherwise
+     */
+    public boolean generatePayrollPDFReportByDepartment(String filePath) {
+        return generatePayrollPDFReportByDepartment(filePath, Progress.NONE);
+    }
+    
+    /**
+     * Generates and exports a PDF payroll report with one section per department,
+     * rendering the departments in parallel and reporting progress.
+     * 
+     * @param filePath the path where the PDF file should be saved
+     * @param progress receives progress updates and can cancel the export
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public boolean generatePayrollPDFReportByDepartment(String filePath, Progress progress) {
+        return PDFExporter.exportPayrollToPDFByDepartment(database.getEmployeeCountByDepartment(),
+                                                          database.getTotalSalaryByDepartment(),
+                                                          database::getEmployeesByDepartment, filePath, progress);
+    }
+    
+    /**
+     * Generates several reports from a single pass over the employees.
+     * The employees are read once and every report is written concurrently from them,
+     * each on its own thread; payroll totals come from the database beforehand.
+     * Reports that fail are deleted without affecting the others.
+     * 
+     * @param outputs the path where each report should be saved
+     * @param progress receives the number of employees read and can cancel the export
+     * @return true if every report was generated, false if any failed or the export was cancelled
+     */
+    public boolean generateReports(Map<ReportFormat, String> outputs, Progress progress) {
+        ReportContext context = new ReportContext(database.getEmployeeCount(), database.getTotalSalary());
+        ReportPipeline pipeline = new ReportPipeline();
+        for (Map.Entry<ReportFormat, String> output : outputs.entrySet()) {
+            pipeline.add(output.getKey().newSink(output.getValue()));
+        }
+        try (Stream<Employee> employees = database.streamEmployees()) {
+            return pipeline.run(employees, context, progress);
+        }
     }
-}
\ No newline at end of file
+}
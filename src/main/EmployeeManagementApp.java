@@ -26,6 +26,9 @@ public class EmployeeManagementApp {
      * @param args Command line arguments (not used).
      */
     public static void main(String[] args) {
+        // Write log entries from a background thread so the UI and DAO calls never wait on disk I/O
+        logger.enableAsync();
+        
         try {
             // Set look and feel to system default
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -0,0 +1,143 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * BatchResult.java
+ */
+package model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk employee operation.
+ * Records how many rows were processed successfully and, for every row that
+ * was rejected, its position in the input, the employee ID and the reason.
+ */
+public class BatchResult {
+    private final String operation;
+    private final int total;
+    private int succeeded;
+    private final List<Failure> failures = new ArrayList<>();
+    private final BitSet failedRows = new BitSet();
+    private String transactionError;
+
+    /**
+     * Creates an empty result for a bulk operation.
+     *
+     * @param operation a short name for the operation (e.g. "add", "update", "remove")
+     * @param total the number of rows submitted
+     */
+    public BatchResult(String operation, int total) {
+        this.operation = operation;
+        this.total = total;
+    }
+
+    /**
+     * Creates a result in which every submitted row succeeded.
+     *
+     * @param operation the operation name
+     * @param total the number of rows submitted
+     * @return a fully successful BatchResult
+     */
+    public static BatchResult allSucceeded(String operation, int total) {
+        BatchResult result = new BatchResult(operation, total);
+        result.succeeded = total;
+        return result;
+    }
+
+    /**
+     * Records that rows were applied successfully.
+     *
+     * @param count the number of rows
+     */
+    void addSucceeded(int count) {
+        succeeded += count;
+    }
+
+    /**
+     * Records that a row was rejected.
+     *
+     * @param row the zero-based position of the row in the submitted collection
+     * @param employeeId the employee ID of the rejected row
+     * @param message the reason the row was rejected
+     */
+    void addFailure(int row, int employeeId, String message) {
+        failures.add(new Failure(row, employeeId, message));
+        failedRows.set(row);
+    }
+
+    /**
+     * Marks the whole operation as failed because the transaction could not be committed.
+     * No rows are considered applied after this call.
+     *
+     * @param message the reason the transaction failed
+     */
+    void failTransaction(String message) {
+        transactionError = message;
+        succeeded = 0;
+        failedRows.set(0, total);
+    }
+
+    public String getOperation() { return operation; }
+    public int getTotal() { return total; }
+    public int getSucceeded() { return succeeded; }
+    public int getFailed() { return total - succeeded; }
+    public List<Failure> getFailures() { return Collections.unmodifiableList(failures); }
+    public String getTransactionError() { return transactionError; }
+
+    /**
+     * Checks whether the row at the given position was rejected.
+     *
+     * @param row the zero-based position in the submitted collection
+     * @return true if the row was not applied
+     */
+    public boolean isRowFailed(int row) {
+        return failedRows.get(row);
+    }
+
+    /**
+     * Checks whether every submitted row was applied.
+     *
+     * @return true if there were no failures
+     */
+    public boolean isSuccessful() {
+        return transactionError == null && succeeded == total;
+    }
+
+    @Override
+    public String toString() {
+        String summary = "Bulk " + operation + ": " + succeeded + " of " + total + " rows succeeded";
+        if (transactionError != null) {
+            summary += " (transaction failed: " + transactionError + ")";
+        }
+        return summary;
+    }
+
+    /**
+     * Describes a single rejected row.
+     */
+    public static class Failure {
+        private final int row;
+        private final int employeeId;
+        private final String message;
+
+        Failure(int row, int employeeId, String message) {
+            this.row = row;
+            this.employeeId = employeeId;
+            this.message = message;
+        }
+
+        public int getRow() { return row; }
+        public int getEmployeeId() { return employeeId; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "row " + row + " (employee " + employeeId + "): " + message;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * CheckNumberSource.java
+ */
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out check numbers to payment strategies that print checks.
+ * PayRunEngine.disburse passes a source to every PaymentStrategy.payAll call, so the
+ * strategies themselves do not depend on where the numbers are kept.
+ */
+@FunctionalInterface
+public interface CheckNumberSource {
+    /** The first check number ever issued, overridable with -Dems.payments.firstCheckNumber. */
+    long FIRST_CHECK_NUMBER = Long.getLong("ems.payments.firstCheckNumber", 100001L);
+
+    /**
+     * Reserves a range of consecutive check numbers that is never handed out again.
+     *
+     * @param count how many numbers to reserve
+     * @return the first reserved number, or -1 if the numbers could not be reserved
+     */
+    long reserve(int count);
+
+    /**
+     * Returns a source that keeps the next check number in the database, so check
+     * numbers never repeat, also between runs of the application.
+     *
+     * @param dbManager the database holding the sequences table
+     * @return the source
+     */
+    static CheckNumberSource database(DatabaseManager dbManager) {
+        return count -> dbManager.reserveCheckNumbers(count, FIRST_CHECK_NUMBER);
+    }
+
+    /**
+     * Returns a source that counts in memory, for in-memory mode and tests.
+     * Numbers only stay unique for the lifetime of the source.
+     *
+     * @return the source
+     */
+    static CheckNumberSource inMemory() {
+        AtomicLong next = new AtomicLong(FIRST_CHECK_NUMBER);
+        return count -> next.getAndAdd(count);
+    }
+}
@@ -7,14 +7,44 @@
  */
 package model;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import util.Logger;
+
 /**
  * The CheckPayment class implements the PaymentStrategy interface
  * and provides a concrete implementation for paying via check.
+ * Batches of payments are grouped into a single print run file with one
+ * consecutively numbered check per payment. The numbers come from the CheckNumberSource
+ * passed to payAll, which in normal operation keeps the next number in the database.
  */
 public class CheckPayment implements PaymentStrategy {
+    private static final Logger logger = Logger.getInstance();
+
+    private final Path outputDirectory;
+
+    /**
+     * Creates a check strategy that writes print runs to the default
+     * payments directory (overridable with -Dems.payments.dir).
+     */
+    public CheckPayment() {
+        this(PaymentBatchFiles.DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * Creates a check strategy that writes print runs to the given directory.
+     *
+     * @param outputDirectory the directory for check print run files
+     */
+    public CheckPayment(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
     /**
      * Processes the payment and returns a confirmation message.
-     * 
+     *
      * @param amount the amount to be paid
      * @return a confirmation message indicating the payment method and amount
      */
@@ -22,4 +52,70 @@ public class CheckPayment implements PaymentStrategy {
     public String pay(double amount) {
         return "Paid " + amount + " via Check.";
     }
+
+    /**
+     * Pays a batch of employees by writing one check print run file.
+     * Instructions with an amount that is not positive or a payee name that would break
+     * the print run format are rejected individually; if no check numbers can be
+     * reserved or the file cannot be written, every payment in the batch fails.
+     *
+     * @param instructions the payments to make
+     * @param checkNumbers the source the run's check numbers are reserved from
+     * @return one result per instruction, in the same order; references are the check numbers
+     */
+    @Override
+    public List<PaymentResult> payAll(List<PaymentInstruction> instructions, CheckNumberSource checkNumbers) {
+        String runId = PaymentBatchFiles.newBatchId();
+        Path file = outputDirectory.resolve("check_run_" + runId + ".txt");
+
+        List<String> rejections = new ArrayList<>(instructions.size());
+        int valid = 0;
+        for (PaymentInstruction instruction : instructions) {
+            String reason = PaymentBatchFiles.validate(instruction);
+            rejections.add(reason);
+            if (reason == null) {
+                valid++;
+            }
+        }
+        // Reserve a contiguous range of check numbers for this run
+        long checkNumber = 0;
+        if (valid > 0) {
+            checkNumber = checkNumbers.reserve(valid);
+            if (checkNumber < 0) {
+                return PaymentBatchFiles.failAll(instructions, "Check numbers could not be reserved");
+            }
+        }
+
+        List<PaymentResult> results = new ArrayList<>(instructions.size());
+        List<String> lines = new ArrayList<>(valid + 2);
+        lines.add("CHECK PRINT RUN " + runId);
+
+        double total = 0;
+        for (int i = 0; i < instructions.size(); i++) {
+            PaymentInstruction instruction = instructions.get(i);
+            if (rejections.get(i) != null) {
+                results.add(PaymentResult.failed(instruction, rejections.get(i)));
+                continue;
+            }
+            total += instruction.getAmount();
+            lines.add("CHECK #" + checkNumber + " | PAY TO: " + instruction.getPayeeName()
+                + " | EMPLOYEE ID: " + instruction.getEmployeeId()
+                + " | AMOUNT: $" + PaymentBatchFiles.money(instruction.getAmount()));
+            results.add(PaymentResult.paid(instruction, String.valueOf(checkNumber), pay(instruction.getAmount())));
+            checkNumber++;
+        }
+        lines.add("TOTAL CHECKS: " + valid + " | TOTAL AMOUNT: $" + PaymentBatchFiles.money(total));
+
+        if (valid == 0) {
+            return results;
+        }
+        try {
+            PaymentBatchFiles.write(file, lines);
+            logger.info("Wrote check print run " + file + " with " + valid + " checks");
+            return results;
+        } catch (IOException e) {
+            logger.error("Failed to write check print run " + file, e);
+            return PaymentBatchFiles.failAll(instructions, "Check print run could not be written: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,410 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * ConnectionPool.java
+ */
+package model;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import util.Logger;
+
+/**
+ * A small bounded JDBC connection pool.
+ * Connections handed out by the pool are proxies whose close() method returns the
+ * underlying physical connection to the pool instead of closing it, so existing
+ * try-with-resources code keeps working unchanged.
+ */
+public class ConnectionPool {
+    private static final Logger logger = Logger.getInstance();
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final long leakThresholdMillis;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalBorrowNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+
+    /**
+     * Creates a new connection pool.
+     *
+     * @param url the JDBC URL used to open physical connections
+     * @param maxSize the maximum number of physical connections (idle + in use)
+     * @param idleTimeoutMillis how long an unused connection may sit idle before it is closed (0 disables)
+     * @param borrowTimeoutMillis how long a caller waits for a free connection before failing
+     * @param leakThresholdMillis how long a connection may be held before it is reported as a leak (0 disables)
+     */
+    public ConnectionPool(String url, int maxSize, long idleTimeoutMillis, long borrowTimeoutMillis, long leakThresholdMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new physical connection if
+     * no idle one is available and the pool is below its maximum size.
+     *
+     * @return a pooled Connection; closing it returns it to the pool
+     * @throws SQLException if the pool is closed, the wait times out, or a connection cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + "ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(DriverManager.getConnection(url));
+                created.increment();
+            }
+
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.leakReported = false;
+            pooled.borrowSite = leakThresholdMillis > 0 ? new Exception("Connection borrowed here") : null;
+            active.add(pooled);
+
+            borrowCount.increment();
+            totalBorrowNanos.add(System.nanoTime() - start);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection that is still valid,
+     * discarding any that have expired or fail validation.
+     *
+     * @return a usable idle connection, or null if none is available
+     */
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isExpired(pooled, System.currentTimeMillis())) {
+                destroy(pooled);
+                continue;
+            }
+            if (!isValid(pooled)) {
+                validationFailures.increment();
+                destroy(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return !pooled.physical.isClosed() && pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return idleTimeoutMillis > 0 && now - pooled.lastReturnedAt > idleTimeoutMillis;
+    }
+
+    /**
+     * Returns a connection to the pool, resetting any transaction state left behind by the borrower.
+     *
+     * @param pooled the connection being returned
+     */
+    private void release(PooledConnection pooled) {
+        if (!active.remove(pooled)) {
+            return;
+        }
+
+        try {
+            boolean reusable = !closed && !pooled.physical.isClosed();
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+
+            if (reusable) {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                pooled.borrowSite = null;
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } catch (SQLException e) {
+            logger.warning("Discarding pooled connection after reset failed: " + e.getMessage());
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        destroyed.increment();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            logger.warning("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Periodic maintenance: closes connections that have been idle too long and
+     * reports connections that have been held past the leak threshold.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        Iterator<PooledConnection> it = idle.iterator();
+        while (it.hasNext()) {
+            PooledConnection pooled = it.next();
+            if (isExpired(pooled, now) && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+
+        if (leakThresholdMillis > 0) {
+            for (PooledConnection pooled : active) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                    pooled.leakReported = true;
+                    leaksDetected.increment();
+                    Exception site = pooled.borrowSite;
+                    String message = "Possible connection leak: connection held for " + (now - pooled.borrowedAt) + "ms";
+                    if (site != null) {
+                        logger.error(message, site);
+                    } else {
+                        logger.warning(message);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops the pool from handing out new ones.
+     * Connections still in use are closed when they are returned.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool's current state and accumulated statistics.
+     *
+     * @return the pool metrics
+     */
+    public Metrics getMetrics() {
+        return new Metrics(this);
+    }
+
+    /**
+     * Physical connection tracked by the pool, along with borrow bookkeeping.
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile boolean leakReported;
+        private volatile Exception borrowSite;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Creates the logical connection handed to a borrower. Each borrow gets its own
+         * handle so a stale reference cannot close a connection someone else is using.
+         */
+        Connection newHandle() {
+            InvocationHandler handler = new InvocationHandler() {
+                private boolean handleClosed = false;
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    String name = method.getName();
+                    if ("close".equals(name)) {
+                        if (!handleClosed) {
+                            handleClosed = true;
+                            release(PooledConnection.this);
+                        }
+                        return null;
+                    }
+                    if ("isClosed".equals(name)) {
+                        return handleClosed || physical.isClosed();
+                    }
+                    if ("equals".equals(name)) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(name)) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("toString".equals(name)) {
+                        return "PooledConnection[" + physical + "]";
+                    }
+                    if (handleClosed) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            };
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+        }
+    }
+
+    /**
+     * Point-in-time view of pool usage and timing statistics.
+     */
+    public static class Metrics {
+        private final int maxSize;
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int threadsAwaiting;
+        private final long borrowCount;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long totalBorrowNanos;
+        private final long timeouts;
+        private final long created;
+        private final long destroyed;
+        private final long validationFailures;
+        private final long leaksDetected;
+
+        private Metrics(ConnectionPool pool) {
+            this.maxSize = pool.maxSize;
+            this.activeConnections = pool.active.size();
+            this.idleConnections = pool.idle.size();
+            this.threadsAwaiting = pool.permits.getQueueLength();
+            this.borrowCount = pool.borrowCount.sum();
+            this.totalWaitNanos = pool.totalWaitNanos.sum();
+            this.maxWaitNanos = pool.maxWaitNanos.get();
+            this.totalBorrowNanos = pool.totalBorrowNanos.sum();
+            this.timeouts = pool.timeouts.sum();
+            this.created = pool.created.sum();
+            this.destroyed = pool.destroyed.sum();
+            this.validationFailures = pool.validationFailures.sum();
+            this.leaksDetected = pool.leaksDetected.sum();
+        }
+
+        public int getMaxSize() { return maxSize; }
+        public int getActiveConnections() { return activeConnections; }
+        public int getIdleConnections() { return idleConnections; }
+        public int getThreadsAwaiting() { return threadsAwaiting; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getTimeouts() { return timeouts; }
+        public long getCreatedConnections() { return created; }
+        public long getDestroyedConnections() { return destroyed; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getLeaksDetected() { return leaksDetected; }
+
+        /**
+         * Returns the average time callers spent waiting for a free slot in the pool.
+         *
+         * @return the average wait time in milliseconds
+         */
+        public double getAverageWaitMillis() {
+            return borrowCount == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+        }
+
+        /**
+         * Returns the longest time a caller has waited for a free slot in the pool.
+         *
+         * @return the maximum wait time in milliseconds
+         */
+        public double getMaxWaitMillis() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+
+        /**
+         * Returns the average end-to-end latency of getConnection(), including waiting,
+         * validation and opening new physical connections.
+         *
+         * @return the average borrow latency in milliseconds
+         */
+        public double getAverageBorrowMillis() {
+            return borrowCount == 0 ? 0 : totalBorrowNanos / 1_000_000.0 / borrowCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "active=%d, idle=%d, max=%d, awaiting=%d, borrows=%d, avgWait=%.3fms, maxWait=%.3fms, " +
+                "avgBorrow=%.3fms, timeouts=%d, created=%d, destroyed=%d, invalid=%d, leaks=%d",
+                activeConnections, idleConnections, maxSize, threadsAwaiting, borrowCount,
+                getAverageWaitMillis(), getMaxWaitMillis(), getAverageBorrowMillis(),
+                timeouts, created, destroyed, validationFailures, leaksDetected);
+        }
+    }
+}
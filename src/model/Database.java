@@ -7,36 +7,93 @@
  */
 package model;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import util.Logger;
 
 /**
  * Singleton class representing a database of employees.
  * Updated to use both in-memory storage and SQLite persistence.
+ * The in-memory copy is an ID-indexed EmployeeStore, so lookups by ID are constant time.
+ * Lookups by ID are served through a bounded EmployeeCache according to the configured CachePolicy.
+ * Safe for concurrent use: the store and cache handle their own locking.
+ * Stored employees are never changed in place (copy-on-write). An update stores a new
+ * Employee object, and with persistence enabled only once the database accepted it, so a
+ * failed write leaves the previous employee visible and readers on other threads only ever
+ * see whole employees, published through the store's and cache's locks. Treat returned
+ * employees as read-only.
  */
 public class Database {
+    /**
+     * How getEmployeeById uses the employee cache when persistence is enabled.
+     * The default is WRITE_THROUGH, so lookups by ID are answered from memory;
+     * -Dems.cache.policy=DATABASE_FIRST restores the original behaviour of querying SQLite on every lookup.
+     */
+    public enum CachePolicy {
+        /** Always query SQLite first; the cache is not used. */
+        DATABASE_FIRST,
+        /** Serve from the cache, loading from SQLite on a miss; writes invalidate the cached entry. */
+        READ_THROUGH,
+        /** Serve from the cache, loading from SQLite on a miss; writes update the cached entry. */
+        WRITE_THROUGH,
+        /**
+         * Serve from memory; writes are journaled and committed to SQLite in batches by a
+         * background flusher, at most -Dems.writeBehind.maxLagMs later. Queries that run in
+         * SQLite, and bulk operations, first commit the pending writes.
+         */
+        WRITE_BEHIND
+    }
+    
+    // Cache settings, overridable with -D system properties
+    private static final int CACHE_MAX_SIZE = Integer.getInteger("ems.cache.maxSize", 10_000);
+    private static final long CACHE_TTL_MS = Long.getLong("ems.cache.ttlMs", 60_000L);
+    // Write-behind settings
+    private static final long WRITE_BEHIND_MAX_LAG_MS = Long.getLong("ems.writeBehind.maxLagMs", 1_000L);
+    private static final int WRITE_BEHIND_BATCH_SIZE = Integer.getInteger("ems.writeBehind.batchSize", 1_000);
+    
+    private static final Logger logger = Logger.getInstance();
     private static Database instance;
-    private List<Employee> employeeList;
-    private DatabaseManager dbManager;
-    private boolean useInMemoryOnly = false; // Flag to determine storage mode
+    private final EmployeeStore employeeStore;
+    private final DatabaseManager dbManager;
+    private volatile boolean useInMemoryOnly = false; // Flag to determine storage mode
+    private volatile CachePolicy cachePolicy = CachePolicy.valueOf(System.getProperty("ems.cache.policy", "WRITE_THROUGH"));
+    private volatile EmployeeCache employeeCache = new EmployeeCache(CACHE_MAX_SIZE, CACHE_TTL_MS,
+        EmployeeCache.EvictionPolicy.valueOf(System.getProperty("ems.cache.eviction", "LRU")));
+    private volatile WriteBehindQueue writeBehind; // Set while the policy is WRITE_BEHIND
+    // Held while a write changes the store and queues the change, so the queue sees writes in store order
+    private final ReentrantLock writeBehindLock = new ReentrantLock();
     
     /**
      * Private constructor to prevent instantiation.
      * Initializes the employee list and database manager.
      */
     private Database() {
-        employeeList = new ArrayList<>();
+        employeeStore = new EmployeeStore();
         dbManager = DatabaseManager.getInstance();
+        // Changes left in the write-behind journal by a crash are committed before loading
+        WriteBehindQueue.replay(dbManager, dbManager.getWriteBehindJournal());
         loadEmployeesFromDatabase();
+        setWriteBehind(cachePolicy == CachePolicy.WRITE_BEHIND);
+        // Commit queued writes when the application exits, however it exits, while the database is still open
+        dbManager.runBeforeShutdown(this::flush);
     }
     
     /**
      * Returns the singleton instance of the Database.
      * If the instance does not exist, it creates one.
+     * Synchronized so concurrent callers never create two instances.
      *
      * @return the singleton instance of the Database
      */
-    public static Database getInstance() {
+    public static synchronized Database getInstance() {
         if (instance == null) {
             instance = new Database();
         }
@@ -53,26 +110,173 @@ public class Database {
         this.useInMemoryOnly = useInMemoryOnly;
     }
     
+    /**
+     * Checks whether only in-memory storage is used.
+     *
+     * @return true if nothing is persisted to the database
+     */
+    public boolean isUseInMemoryOnly() {
+        return useInMemoryOnly;
+    }
+    
+    /**
+     * Configures how lookups by ID are cached.
+     * Replaces the current cache, discarding its entries and statistics.
+     *
+     * @param policy the caching policy
+     * @param maxSize the maximum number of cached employees
+     * @param ttlMillis how long a cached employee stays valid (0 means no expiry)
+     * @param evictionPolicy the eviction policy used when the cache is full
+     */
+    public void configureCache(CachePolicy policy, int maxSize, long ttlMillis, EmployeeCache.EvictionPolicy evictionPolicy) {
+        this.cachePolicy = policy;
+        this.employeeCache = new EmployeeCache(maxSize, ttlMillis, evictionPolicy);
+        setWriteBehind(policy == CachePolicy.WRITE_BEHIND);
+    }
+    
+    /**
+     * Starts or stops the write-behind queue. Stopping it commits the pending writes first.
+     *
+     * @param enabled whether writes should be committed in the background
+     */
+    private synchronized void setWriteBehind(boolean enabled) {
+        if (enabled && writeBehind == null) {
+            try {
+                writeBehind = new WriteBehindQueue(dbManager, dbManager.getWriteBehindJournal(),
+                                                   WRITE_BEHIND_MAX_LAG_MS, WRITE_BEHIND_BATCH_SIZE,
+                                                   this::reloadDropped);
+            } catch (IOException e) {
+                logger.error("Could not open the write-behind journal; writes are committed immediately", e);
+            }
+        } else if (!enabled && writeBehind != null) {
+            WriteBehindQueue queue = writeBehind;
+            // No write can still be queueing to the old queue once it is unset
+            writeBehindLock.lock();
+            try {
+                writeBehind = null;
+            } finally {
+                writeBehindLock.unlock();
+            }
+            queue.close();
+        }
+    }
+    
+    /**
+     * Brings employees whose queued change the database rejected back in line with SQLite:
+     * the store gets the row as it is stored, or loses the employee if there is no row,
+     * and the cached entry is dropped. Employees changed again since are left alone,
+     * as their newer change is still queued.
+     *
+     * @param ids the IDs of the employees whose change was dropped
+     */
+    private void reloadDropped(List<Integer> ids) {
+        writeBehindLock.lock();
+        try {
+            WriteBehindQueue queue = writeBehind;
+            for (int id : ids) {
+                if (queue != null && queue.isPending(id)) {
+                    continue;
+                }
+                Employee row = dbManager.getEmployeeById(id);
+                if (row != null) {
+                    employeeStore.add(row);
+                } else {
+                    employeeStore.remove(id);
+                }
+                employeeCache.invalidate(id);
+                logger.warning("Employee " + id + " was reloaded from the database after its change was rejected");
+            }
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+    
+    /**
+     * Commits the writes queued by the WRITE_BEHIND policy. Call before shutting down;
+     * writes that are not committed stay in the journal and are committed on the next start.
+     *
+     * @return true if nothing is left to commit
+     */
+    public boolean flush() {
+        WriteBehindQueue queue = writeBehind;
+        return queue == null || queue.flush();
+    }
+    
+    /**
+     * Returns the number of employees whose changes the WRITE_BEHIND policy has not committed yet.
+     *
+     * @return the pending employee count, 0 for other policies
+     */
+    public int getPendingWriteCount() {
+        WriteBehindQueue queue = writeBehind;
+        return queue == null ? 0 : queue.getPendingCount();
+    }
+    
+    /**
+     * Returns the current caching policy.
+     *
+     * @return the caching policy
+     */
+    public CachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
+    
+    /**
+     * Returns the employee cache, which exposes hit/miss/eviction statistics.
+     *
+     * @return the employee cache
+     */
+    public EmployeeCache getEmployeeCache() {
+        return employeeCache;
+    }
+    
     /**
      * Loads employees from the database into memory.
      */
     private void loadEmployeesFromDatabase() {
         if (!useInMemoryOnly) {
-            employeeList = dbManager.getAllEmployees();
+            employeeStore.reset(dbManager.getAllEmployees());
+            employeeCache.clear();
         }
     }
     
     /**
      * Adds an employee to the database and in-memory list.
+     * With persistence enabled the employee is only kept in memory if the database stored it.
+     * With the WRITE_BEHIND policy an employee whose ID is already taken is rejected
+     * before it is queued, as the database would reject it.
      *
      * @param e the employee to be added
      */
     public void addEmployee(Employee e) { 
-        employeeList.add(e);
-        
         if (!useInMemoryOnly) {
-            dbManager.addEmployee(e);
+            writeBehindLock.lock();
+            try {
+                WriteBehindQueue queue = writeBehind;
+                if (queue != null) {
+                    if (!employeeStore.addIfAbsent(e)) {
+                        logger.warning("Failed to add employee: ID " + e.getId() + " already exists");
+                        return;
+                    }
+                    queue.upsert(e);
+                    cacheWrite(e, true);
+                    return;
+                }
+            } finally {
+                writeBehindLock.unlock();
+            }
         }
+        
+        if (useInMemoryOnly) {
+            employeeStore.add(e);
+            return;
+        }
+        
+        boolean persisted = dbManager.addEmployee(e);
+        if (persisted) {
+            employeeStore.add(e);
+        }
+        cacheWrite(e, persisted);
     }
     
     /**
@@ -81,67 +285,400 @@ public class Database {
      * @param id the ID of the employee to be removed
      */
     public void removeEmployee(int id) {
-        employeeList.removeIf(e -> e.getId() == id);
+        if (!useInMemoryOnly) {
+            writeBehindLock.lock();
+            try {
+                WriteBehindQueue queue = writeBehind;
+                if (queue != null) {
+                    employeeStore.remove(id);
+                    queue.delete(id);
+                    employeeCache.invalidate(id);
+                    return;
+                }
+            } finally {
+                writeBehindLock.unlock();
+            }
+        }
+        
+        employeeStore.remove(id);
         
         if (!useInMemoryOnly) {
             dbManager.removeEmployee(id);
+            employeeCache.invalidate(id);
         }
     }
     
     /**
      * Updates an employee in the database.
+     * The stored employee is replaced by the given object, not changed, and with
+     * persistence enabled only if the database accepted the update.
      *
-     * @param e the employee to be updated
+     * @param e a new employee object holding the updated details
      */
     public void updateEmployee(Employee e) {
-        for (int i = 0; i < employeeList.size(); i++) {
-            if (employeeList.get(i).getId() == e.getId()) {
-                employeeList.set(i, e);
-                break;
+        if (!useInMemoryOnly) {
+            writeBehindLock.lock();
+            try {
+                WriteBehindQueue queue = writeBehind;
+                if (queue != null) {
+                    boolean stored = employeeStore.replace(e);
+                    if (stored) {
+                        queue.upsert(e);
+                    }
+                    cacheWrite(e, stored);
+                    return;
+                }
+            } finally {
+                writeBehindLock.unlock();
             }
         }
         
-        if (!useInMemoryOnly) {
-            dbManager.updateEmployee(e);
+        if (useInMemoryOnly) {
+            employeeStore.replace(e);
+            return;
+        }
+        
+        boolean persisted = dbManager.updateEmployee(e);
+        if (persisted) {
+            employeeStore.replace(e);
         }
+        cacheWrite(e, persisted);
+    }
+    
+    /**
+     * Adds many employees at once. When persistence is enabled they are written to the
+     * database in a single batched transaction; only rows that were stored successfully
+     * are added to the in-memory list.
+     *
+     * @param employees the employees to be added
+     * @return the per-row outcome of the operation
+     */
+    public BatchResult addEmployees(Collection<Employee> employees) {
+        List<Employee> rows = new ArrayList<>(employees);
+        flush();
+        BatchResult result = useInMemoryOnly
+            ? BatchResult.allSucceeded("add", rows.size())
+            : dbManager.addEmployees(rows);
+        
+        for (int i = 0; i < rows.size(); i++) {
+            if (!result.isRowFailed(i)) {
+                employeeStore.add(rows.get(i));
+                cacheWrite(rows.get(i), true);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Updates many employees at once, using a single batched transaction when
+     * persistence is enabled.
+     *
+     * @param employees the employees to be updated
+     * @return the per-row outcome of the operation
+     */
+    public BatchResult updateEmployees(Collection<Employee> employees) {
+        List<Employee> rows = new ArrayList<>(employees);
+        flush();
+        BatchResult result = useInMemoryOnly
+            ? BatchResult.allSucceeded("update", rows.size())
+            : dbManager.updateEmployees(rows);
+        
+        for (int i = 0; i < rows.size(); i++) {
+            if (!result.isRowFailed(i)) {
+                employeeStore.replace(rows.get(i));
+                cacheWrite(rows.get(i), true);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Removes many employees at once, using a single batched transaction when
+     * persistence is enabled.
+     *
+     * @param ids the IDs of the employees to be removed
+     * @return the per-row outcome of the operation
+     */
+    public BatchResult removeEmployees(Collection<Integer> ids) {
+        List<Integer> rows = new ArrayList<>(ids);
+        flush();
+        BatchResult result = useInMemoryOnly
+            ? BatchResult.allSucceeded("remove", rows.size())
+            : dbManager.removeEmployees(rows);
+        
+        for (int i = 0; i < rows.size(); i++) {
+            if (!result.isRowFailed(i)) {
+                employeeStore.remove(rows.get(i));
+                employeeCache.invalidate(rows.get(i));
+            }
+        }
+        return result;
     }
     
     /**
      * Updates just the payment method for an employee.
+     * The stored employee is replaced by a copy with the new payment method, not changed,
+     * and with persistence enabled only if the database accepted the update.
      *
      * @param id the ID of the employee
      * @param paymentMethod the new payment method ("Direct Deposit" or "Check")
      * @return true if successful, false otherwise
      */
     public boolean updatePaymentMethod(int id, String paymentMethod) {
-        boolean updated = false;
-        
-        for (Employee e : employeeList) {
-            if (e.getId() == id) {
-                if ("Check".equals(paymentMethod)) {
-                    e.setPaymentStrategy(new CheckPayment());
-                } else {
-                    e.setPaymentStrategy(new DirectDepositPayment());
+        if (!useInMemoryOnly) {
+            writeBehindLock.lock();
+            try {
+                WriteBehindQueue queue = writeBehind;
+                if (queue != null) {
+                    Employee e = withPaymentMethod(employeeStore.get(id), paymentMethod);
+                    if (e == null || !employeeStore.replace(e)) {
+                        return false;
+                    }
+                    queue.upsert(e);
+                    cacheWrite(e, true);
+                    return true;
                 }
-                updated = true;
-                break;
+            } finally {
+                writeBehindLock.unlock();
             }
         }
         
-        if (!useInMemoryOnly && updated) {
-            dbManager.updatePaymentMethod(id, paymentMethod);
+        Employee e = withPaymentMethod(employeeStore.get(id), paymentMethod);
+        if (e == null) {
+            return false;
+        }
+        if (useInMemoryOnly) {
+            return employeeStore.replace(e);
         }
         
-        return updated;
+        boolean persisted = dbManager.updatePaymentMethod(id, paymentMethod);
+        if (persisted) {
+            employeeStore.replace(e);
+        }
+        cacheWrite(e, persisted);
+        return persisted;
     }
     
     /**
-     * Returns the list of employees in the database.
+     * Copies an employee with a different payment strategy.
+     *
+     * @param e the stored employee, or null
+     * @param paymentMethod the new payment method ("Direct Deposit" or "Check")
+     * @return the copy, or null if e is null
+     */
+    private static Employee withPaymentMethod(Employee e, String paymentMethod) {
+        if (e == null) {
+            return null;
+        }
+        Employee copy = new Employee(e.getId(), e.getName(), e.getDepartment(), e.getSalary());
+        if ("Check".equals(paymentMethod)) {
+            copy.setPaymentStrategy(new CheckPayment());
+        } else {
+            copy.setPaymentStrategy(new DirectDepositPayment());
+        }
+        return copy;
+    }
+    
+    /**
+     * Returns the list of employees in the database, in insertion order.
+     * The list is a snapshot; changes to it do not affect the database.
      *
      * @return the list of employees
      */
     public List<Employee> getEmployees() { 
-        return employeeList; 
+        return employeeStore.toList(); 
+    }
+    
+    /**
+     * Streams all employees. With persistence enabled the rows come straight from a
+     * database cursor, so the caller never holds the full table at once; in in-memory
+     * mode the stream is over a snapshot of the store.
+     * The stream must be closed after use.
+     *
+     * @return a stream of employees
+     */
+    public Stream<Employee> streamEmployees() {
+        if (useInMemoryOnly) {
+            return employeeStore.toList().stream();
+        }
+        flush();
+        return dbManager.streamAllEmployees();
+    }
+    
+    /**
+     * Checks whether an employee with the given ID exists, using the in-memory list only.
+     *
+     * @param id the employee ID
+     * @return true if the employee exists
+     */
+    public boolean containsEmployee(int id) {
+        return employeeStore.contains(id);
+    }
+    
+    /**
+     * Returns the number of employees.
+     *
+     * @return the employee count
+     */
+    public int getEmployeeCount() {
+        flush();
+        return useInMemoryOnly ? employeeStore.size() : dbManager.getEmployeeCount();
+    }
+    
+    /**
+     * Returns the sum of all employee salaries.
+     *
+     * @return the total salary
+     */
+    public double getTotalSalary() {
+        if (!useInMemoryOnly) {
+            flush();
+            return dbManager.getTotalSalary();
+        }
+        double total = 0;
+        for (Employee e : employeeStore.toList()) {
+            total += e.getSalary();
+        }
+        return total;
+    }
+    
+    /**
+     * Returns the employees of one department. With persistence enabled the filter
+     * runs in SQLite on the department index.
+     *
+     * @param department the department name
+     * @return the employees of the department
+     */
+    public List<Employee> getEmployeesByDepartment(String department) {
+        if (!useInMemoryOnly) {
+            flush();
+            return dbManager.getEmployeesByDepartment(department);
+        }
+        List<Employee> matches = new ArrayList<>();
+        for (Employee e : employeeStore.toList()) {
+            if (e.getDepartment().equals(department)) {
+                matches.add(e);
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Returns the employees whose salary lies in a range, ordered by salary.
+     * With persistence enabled the filter runs in SQLite on the salary index.
+     *
+     * @param minSalary the lowest salary included
+     * @param maxSalary the highest salary included
+     * @return the matching employees
+     */
+    public List<Employee> getEmployeesBySalaryRange(double minSalary, double maxSalary) {
+        if (!useInMemoryOnly) {
+            flush();
+            return dbManager.getEmployeesBySalaryRange(minSalary, maxSalary);
+        }
+        List<Employee> matches = new ArrayList<>();
+        for (Employee e : employeeStore.toList()) {
+            if (e.getSalary() >= minSalary && e.getSalary() <= maxSalary) {
+                matches.add(e);
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Employee::getSalary).thenComparingInt(Employee::getId));
+        return matches;
+    }
+    
+    /**
+     * Returns one page of employees, resuming after the given employee in the given order.
+     * With persistence enabled the page is a keyset query in SQLite; in in-memory mode
+     * the store is scanned once, keeping only the first limit employees past the cursor
+     * in a bounded heap, so a page never sorts the whole store.
+     *
+     * @param after the last employee of the previous page, or null for the first page
+     * @param limit the maximum number of employees to return
+     * @param sort the order of the pages
+     * @return the employees of the page, in order
+     */
+    public List<Employee> getEmployeesPage(Employee after, int limit, EmployeeSort sort) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        if (!useInMemoryOnly) {
+            flush();
+            return dbManager.getEmployeesPage(after, limit, sort);
+        }
+
+        Comparator<Employee> order = sort.getComparator();
+
+        // Max-heap of the best candidates so far; the head is the one to drop first
+        PriorityQueue<Employee> page = new PriorityQueue<>(limit, order.reversed());
+        for (Employee e : employeeStore.toList()) {
+            if (after != null && order.compare(e, after) <= 0) {
+                continue;
+            }
+            if (page.size() < limit) {
+                page.add(e);
+            } else if (order.compare(e, page.peek()) < 0) {
+                page.poll();
+                page.add(e);
+            }
+        }
+        List<Employee> result = new ArrayList<>(page);
+        result.sort(order);
+        return result;
+    }
+
+    /**
+     * Returns the employees at a position in the given order.
+     *
+     * @param offset the number of employees to skip
+     * @param limit the maximum number of employees to return
+     * @param sort the order of the employees
+     * @return the employees at positions offset to offset + limit - 1
+     */
+    public List<Employee> getEmployeesAt(int offset, int limit, EmployeeSort sort) {
+        if (!useInMemoryOnly) {
+            flush();
+            return dbManager.getEmployeesAt(offset, limit, sort);
+        }
+        List<Employee> all = employeeStore.toList();
+        if (offset >= all.size()) {
+            return new ArrayList<>();
+        }
+        all.sort(sort.getComparator());
+        return new ArrayList<>(all.subList(offset, Math.min(all.size(), offset + limit)));
+    }
+    
+    /**
+     * Returns the number of employees per department, ordered by department name.
+     *
+     * @return the employee count per department
+     */
+    public Map<String, Integer> getEmployeeCountByDepartment() {
+        if (!useInMemoryOnly) {
+            flush();
+            return dbManager.getEmployeeCountByDepartment();
+        }
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Employee e : employeeStore.toList()) {
+            counts.merge(e.getDepartment(), 1, Integer::sum);
+        }
+        return counts;
+    }
+    
+    /**
+     * Returns the total salary per department, ordered by department name.
+     *
+     * @return the salary total per department
+     */
+    public Map<String, Double> getTotalSalaryByDepartment() {
+        if (!useInMemoryOnly) {
+            flush();
+            return dbManager.getTotalSalaryByDepartment();
+        }
+        Map<String, Double> totals = new TreeMap<>();
+        for (Employee e : employeeStore.toList()) {
+            totals.merge(e.getDepartment(), e.getSalary(), Double::sum);
+        }
+        return totals;
     }
     
     /**
@@ -150,6 +687,7 @@ public class Database {
      */
     public void refreshFromDatabase() {
         if (!useInMemoryOnly) {
+            flush();
             loadEmployeesFromDatabase();
         }
     }
@@ -161,21 +699,43 @@ public class Database {
      * @return the employee if found, null otherwise
      */
     public Employee getEmployeeById(int id) {
-        if (!useInMemoryOnly) {
-            // Try to get from database first
+        // With write-behind the in-memory list is ahead of SQLite, so it answers directly
+        if (!useInMemoryOnly && writeBehind == null) {
+            if (cachePolicy != CachePolicy.DATABASE_FIRST) {
+                Employee cached = employeeCache.get(id);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            
+            // Cache miss (or caching disabled): load from the database
             Employee e = dbManager.getEmployeeById(id);
             if (e != null) {
+                if (cachePolicy != CachePolicy.DATABASE_FIRST) {
+                    employeeCache.put(e);
+                }
                 return e;
             }
         }
         
-        // Fallback to in-memory search
-        for (Employee e : employeeList) {
-            if (e.getId() == id) {
-                return e;
-            }
+        // Fallback to in-memory lookup
+        return employeeStore.get(id);
+    }
+    
+    /**
+     * Applies a write to the cache according to the caching policy:
+     * write-through and write-behind store the new value, other policies drop the stale entry.
+     * A write that did not reach the database only drops the entry, so the cache never
+     * serves a row that was not persisted.
+     *
+     * @param e the employee that was written
+     * @param persisted whether the database (or the write-behind journal) accepted the write
+     */
+    private void cacheWrite(Employee e, boolean persisted) {
+        if (persisted && (cachePolicy == CachePolicy.WRITE_THROUGH || cachePolicy == CachePolicy.WRITE_BEHIND)) {
+            employeeCache.put(e);
+        } else {
+            employeeCache.invalidate(e.getId());
         }
-        
-        return null;
     }
 }
\ No newline at end of file
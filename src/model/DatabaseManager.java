@@ -7,9 +7,23 @@
  */
 package model;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import util.Logger;
 
 /**
@@ -17,25 +31,93 @@ import util.Logger;
  * Updated to handle user accounts for all employees.
  */
 public class DatabaseManager {
-    private static final String DB_URL = "jdbc:sqlite:employee_management.db";
+    // Overridable so benchmarks and tools can point at a scratch database
+    private static final String DB_URL = System.getProperty("ems.db.url", "jdbc:sqlite:employee_management.db");
     private static DatabaseManager instance;
     private static final Logger logger = Logger.getInstance();
     
+    // Connection pool settings, overridable with -D system properties
+    private static final int POOL_SIZE = Integer.getInteger("ems.db.pool.size", 4);
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("ems.db.pool.idleTimeoutMs", 300_000L);
+    private static final long POOL_BORROW_TIMEOUT_MS = Long.getLong("ems.db.pool.borrowTimeoutMs", 30_000L);
+    private static final long POOL_LEAK_THRESHOLD_MS = Long.getLong("ems.db.pool.leakThresholdMs", 60_000L);
+    
+    private static final int DEFAULT_BATCH_CHUNK_SIZE = Integer.getInteger("ems.db.batch.chunkSize", 500);
+    // Rows fetched per round trip when streaming employees
+    private static final int DEFAULT_FETCH_SIZE = Integer.getInteger("ems.db.fetchSize", 1000);
+    // Primary SQLite result code of constraint violations; extended codes keep it in the low byte
+    private static final int SQLITE_CONSTRAINT = 19;
+    
+    private final ConnectionPool connectionPool;
+    private volatile int batchChunkSize = DEFAULT_BATCH_CHUNK_SIZE;
+    private final List<UserChangeListener> userChangeListeners = new CopyOnWriteArrayList<>();
+    // Run by the shutdown hook before the connection pool is closed
+    private final List<Runnable> shutdownTasks = new CopyOnWriteArrayList<>();
+    
+    /**
+     * Listener notified when rows in the users table are added, changed or removed,
+     * so caches of user accounts can refresh only the affected entries.
+     */
+    public interface UserChangeListener {
+        /**
+         * Called after the account with the given username was added or changed.
+         *
+         * @param username the username of the affected account
+         */
+        void userChanged(String username);
+        
+        /**
+         * Called after the accounts linked to an employee were removed.
+         *
+         * @param employeeId the ID of the employee whose accounts were removed
+         */
+        void employeeUsersRemoved(int employeeId);
+    }
+    
     /**
      * Private constructor to prevent instantiation.
-     * Initializes the database.
+     * Creates the connection pool and initializes the database.
      */
     private DatabaseManager() {
+        connectionPool = new ConnectionPool(DB_URL, POOL_SIZE, POOL_IDLE_TIMEOUT_MS,
+                                            POOL_BORROW_TIMEOUT_MS, POOL_LEAK_THRESHOLD_MS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "database-shutdown"));
         initializeDatabase();
     }
     
+    /**
+     * Registers a task to run when the JVM exits, before the connection pool is closed,
+     * so the task can still use the database. The JVM runs shutdown hooks concurrently and
+     * in no fixed order, so work that needs the database belongs here, not in its own hook.
+     *
+     * @param task the task to run, for example committing queued writes
+     */
+    void runBeforeShutdown(Runnable task) {
+        shutdownTasks.add(task);
+    }
+    
+    /**
+     * Runs the registered shutdown tasks, then closes the connection pool.
+     */
+    private void shutdown() {
+        for (Runnable task : shutdownTasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Shutdown task failed: " + e.getMessage(), e);
+            }
+        }
+        connectionPool.close();
+    }
+    
     /**
      * Returns the singleton instance of the DatabaseManager.
      * If the instance does not exist, it creates one.
+     * Synchronized so concurrent callers never create two instances.
      *
      * @return the singleton instance of the DatabaseManager
      */
-    public static DatabaseManager getInstance() {
+    public static synchronized DatabaseManager getInstance() {
         if (instance == null) {
             instance = new DatabaseManager();
         }
@@ -46,7 +128,7 @@ public class DatabaseManager {
      * Initializes the database by creating the necessary tables if they don't exist.
      */
     private void initializeDatabase() {
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
             
             // Create employees table
@@ -69,6 +151,52 @@ public class DatabaseManager {
                          ")";
             stmt.execute(usersSql);
             
+            // Secondary indexes for lookups by account owner, department, salary and name
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_employee_id ON users(employee_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_employees_department ON employees(department)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_employees_salary ON employees(salary)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_employees_name ON employees(name)");
+            
+            // Create pay run and payment ledger tables
+            String payRunsSql = "CREATE TABLE IF NOT EXISTS pay_runs (" +
+                         "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                         "period TEXT NOT NULL UNIQUE, " +
+                         "status TEXT NOT NULL, " +
+                         "started_at TEXT NOT NULL, " +
+                         "last_checkpoint_at TEXT, " +
+                         "completed_at TEXT" +
+                         ")";
+            stmt.execute(payRunsSql);
+            
+            // One payment per employee per period; the unique key makes re-runs idempotent.
+            // A payment is RECORDED before its stub is handed to the sink and DELIVERED after.
+            String paymentsSql = "CREATE TABLE IF NOT EXISTS payments (" +
+                         "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                         "pay_run_id INTEGER NOT NULL, " +
+                         "period TEXT NOT NULL, " +
+                         "employee_id INTEGER NOT NULL, " +
+                         "amount REAL NOT NULL, " +
+                         "payment_method TEXT NOT NULL, " +
+                         "paid_at TEXT NOT NULL, " +
+                         "employee_name TEXT, " +
+                         "stub TEXT, " +
+                         "status TEXT NOT NULL, " +
+                         "UNIQUE (period, employee_id), " +
+                         "FOREIGN KEY (pay_run_id) REFERENCES pay_runs(id)" +
+                         ")";
+            stmt.execute(paymentsSql);
+            // Ledgers created before payments had a delivery status; their rows were all delivered
+            addColumnIfMissing(stmt, "payments", "employee_name", "TEXT");
+            addColumnIfMissing(stmt, "payments", "stub", "TEXT");
+            addColumnIfMissing(stmt, "payments", "status", "TEXT NOT NULL DEFAULT 'DELIVERED'");
+            
+            // Next value of numbers that must never repeat, such as check numbers
+            String sequencesSql = "CREATE TABLE IF NOT EXISTS sequences (" +
+                         "name TEXT PRIMARY KEY, " +
+                         "next_value INTEGER NOT NULL" +
+                         ")";
+            stmt.execute(sequencesSql);
+            
             // Create admin user if it doesn't exist
             String checkAdminSql = "SELECT COUNT(*) FROM users WHERE username = 'admin'";
             ResultSet rs = stmt.executeQuery(checkAdminSql);
@@ -95,17 +223,98 @@ public class DatabaseManager {
     }
     
     /**
-     * Establishes a connection to the database.
+     * Adds a column to a table created by an older version of the application.
+     *
+     * @param stmt the statement used to inspect and alter the table
+     * @param table the table name
+     * @param column the column name
+     * @param definition the column type and constraints
+     * @throws SQLException if the table cannot be altered
+     */
+    private void addColumnIfMissing(Statement stmt, String table, String column, String definition) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        logger.info("Added column " + column + " to table " + table);
+    }
+    
+    /**
+     * Borrows a connection to the database from the connection pool.
+     * Closing the returned connection hands it back to the pool.
      *
      * @return a Connection object to the database
      * @throws SQLException if a database access error occurs
      */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+        return connectionPool.getConnection();
     }
     
     /**
-     * Adds an employee to the database.
+     * Registers a listener to be notified of changes to the users table.
+     *
+     * @param listener the listener to add
+     */
+    public void addUserChangeListener(UserChangeListener listener) {
+        userChangeListeners.add(listener);
+    }
+    
+    /**
+     * Unregisters a listener previously added with addUserChangeListener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeUserChangeListener(UserChangeListener listener) {
+        userChangeListeners.remove(listener);
+    }
+    
+    private void fireUserChanged(String username) {
+        for (UserChangeListener listener : userChangeListeners) {
+            listener.userChanged(username);
+        }
+    }
+    
+    private void fireEmployeeUsersRemoved(int employeeId) {
+        for (UserChangeListener listener : userChangeListeners) {
+            listener.employeeUsersRemoved(employeeId);
+        }
+    }
+    
+    /**
+     * Returns usage statistics for the connection pool, such as active/idle counts,
+     * wait time and borrow latency.
+     *
+     * @return a snapshot of the connection pool metrics
+     */
+    public ConnectionPool.Metrics getPoolMetrics() {
+        return connectionPool.getMetrics();
+    }
+    
+    /**
+     * Returns the journal used by the WRITE_BEHIND cache policy: -Dems.writeBehind.journal if set,
+     * otherwise the database file name with ".writes" appended, so every database has its own.
+     *
+     * @return the path of the write-behind journal
+     */
+    Path getWriteBehindJournal() {
+        String journal = System.getProperty("ems.writeBehind.journal");
+        if (journal == null) {
+            String prefix = "jdbc:sqlite:";
+            String file = DB_URL.startsWith(prefix) ? DB_URL.substring(prefix.length()) : "employee_management.db";
+            journal = file + ".writes";
+        }
+        return Paths.get(journal);
+    }
+    
+    /**
+     * Adds an employee to the database, together with the employee's user account,
+     * in a single transaction on one pooled connection.
+     * If an account with the generated username already exists it is left untouched,
+     * as in addEmployees.
      *
      * @param employee the Employee object to be added
      * @return true if the operation was successful, false otherwise
@@ -113,71 +322,91 @@ public class DatabaseManager {
     public boolean addEmployee(Employee employee) {
         String sql = "INSERT INTO employees (id, name, department, salary, payment_method) VALUES (?, ?, ?, ?, ?)";
         
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, employee.getId());
-            pstmt.setString(2, employee.getName());
-            pstmt.setString(3, employee.getDepartment());
-            pstmt.setDouble(4, employee.getSalary());
-            
-            // Determine payment method from PaymentStrategy
-            String paymentMethod = "Direct Deposit"; // Default
-            if (employee.getPaymentStrategy() instanceof CheckPayment) {
-                paymentMethod = "Check";
-            }
-            pstmt.setString(5, paymentMethod);
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                // Create user account for the employee
-                createUserForEmployee(employee);
-                return true;
+        boolean userCreated;
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, employee.getId());
+                pstmt.setString(2, employee.getName());
+                pstmt.setString(3, employee.getDepartment());
+                pstmt.setDouble(4, employee.getSalary());
+                pstmt.setString(5, employee.getPaymentMethodName());
+                
+                if (pstmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+                // Create user account for the employee on the same connection
+                userCreated = createUserForEmployee(conn, employee);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
-            return false;
-            
         } catch (SQLException e) {
             logger.error("Error adding employee: " + e.getMessage(), e);
             return false;
         }
+        
+        if (userCreated) {
+            fireUserChanged(usernameFor(employee));
+        }
+        return true;
     }
     
     /**
-     * Creates a user account for an employee.
+     * Creates a user account for an employee, as part of the caller's transaction.
      * The username is the employee's name (lowercase, spaces replaced with underscores)
      * The default password is the employee's ID followed by their name (first 3 characters)
      *
+     * @param conn the connection of the transaction adding the employee
      * @param employee the Employee object
-     * @return true if successful, false otherwise
+     * @return true if the account was created, false if the username was already taken
+     * @throws SQLException if the account cannot be inserted
      */
-    private boolean createUserForEmployee(Employee employee) {
-        String username = employee.getName().toLowerCase().replace(' ', '_');
-        String password = employee.getId() + employee.getName().substring(0, Math.min(3, employee.getName().length()));
+    private boolean createUserForEmployee(Connection conn, Employee employee) throws SQLException {
+        String username = usernameFor(employee);
+        String password = defaultPasswordFor(employee);
         
-        String sql = "INSERT INTO users (username, password, role, employee_id) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT OR IGNORE INTO users (username, password, role, employee_id) VALUES (?, ?, ?, ?)";
         
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, username);
             pstmt.setString(2, password);
             pstmt.setString(3, "EMPLOYEE");
             pstmt.setInt(4, employee.getId());
             
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
+            if (pstmt.executeUpdate() > 0) {
                 logger.info("Created user account for employee: " + employee.getName() + " with username: " + username);
                 return true;
             }
-            return false;
-            
-        } catch (SQLException e) {
-            logger.error("Error creating user for employee: " + e.getMessage(), e);
+            logger.warning("User account " + username + " already exists; employee " + employee.getId() + " has no account of its own");
             return false;
         }
     }
     
+    /**
+     * Builds the login username for an employee's account.
+     *
+     * @param employee the Employee object
+     * @return the employee's name in lowercase with spaces replaced by underscores
+     */
+    private static String usernameFor(Employee employee) {
+        return employee.getName().toLowerCase().replace(' ', '_');
+    }
+    
+    /**
+     * Builds the initial password for an employee's account.
+     *
+     * @param employee the Employee object
+     * @return the employee's ID followed by the first 3 characters of their name
+     */
+    private static String defaultPasswordFor(Employee employee) {
+        return employee.getId() + employee.getName().substring(0, Math.min(3, employee.getName().length()));
+    }
+    
     /**
      * Updates an employee in the database.
      *
@@ -227,6 +456,7 @@ public class DatabaseManager {
             
             userStmt.setInt(1, id);
             userStmt.executeUpdate();
+            fireEmployeeUsersRemoved(id);
             
             // Then remove the employee
             String employeeSql = "DELETE FROM employees WHERE id = ?";
@@ -256,22 +486,7 @@ public class DatabaseManager {
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                int id = rs.getInt("id");
-                String name = rs.getString("name");
-                String department = rs.getString("department");
-                double salary = rs.getDouble("salary");
-                String paymentMethod = rs.getString("payment_method");
-                
-                Employee employee = new Employee(id, name, department, salary);
-                
-                // Set payment strategy based on stored value
-                if ("Check".equals(paymentMethod)) {
-                    employee.setPaymentStrategy(new CheckPayment());
-                } else {
-                    employee.setPaymentStrategy(new DirectDepositPayment());
-                }
-                
-                employees.add(employee);
+                employees.add(readEmployee(rs));
             }
             
         } catch (SQLException e) {
@@ -281,6 +496,320 @@ public class DatabaseManager {
         return employees;
     }
     
+    /**
+     * Streams all employees from the database with the default fetch size.
+     *
+     * @return a lazily populated stream of employees; must be closed after use
+     * @see #streamAllEmployees(int)
+     */
+    public Stream<Employee> streamAllEmployees() {
+        return streamAllEmployees(DEFAULT_FETCH_SIZE);
+    }
+    
+    /**
+     * Streams all employees from the database over a forward-only, read-only cursor.
+     * Rows are read from SQLite as the stream is consumed, so only fetchSize rows are
+     * held at a time regardless of the table size. The stream keeps a pooled connection
+     * until it is closed, so callers should use try-with-resources.
+     * If reading fails part way through, the stream throws an IllegalStateException
+     * rather than silently ending early.
+     *
+     * @param fetchSize the number of rows the driver fetches per round trip
+     * @return a lazily populated stream of employees; must be closed after use
+     */
+    public Stream<Employee> streamAllEmployees(int fetchSize) {
+        String sql = "SELECT * FROM employees";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            logger.error("Error streaming employees: " + e.getMessage(), e);
+            closeQuietly(rs, pstmt, conn);
+            return Stream.empty();
+        }
+        
+        final ResultSet cursor = rs;
+        Spliterator<Employee> rows = new Spliterators.AbstractSpliterator<Employee>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Employee> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(readEmployee(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    logger.error("Error streaming employees: " + e.getMessage(), e);
+                    throw new IllegalStateException("Error streaming employees", e);
+                }
+            }
+        };
+        
+        final PreparedStatement statement = pstmt;
+        final Connection connection = conn;
+        return StreamSupport.stream(rows, false).onClose(() -> closeQuietly(cursor, statement, connection));
+    }
+    
+    /**
+     * Retrieves the employees of one department, using the department index.
+     *
+     * @param department the department name
+     * @return the employees of the department, ordered by ID
+     */
+    public List<Employee> getEmployeesByDepartment(String department) {
+        String sql = "SELECT * FROM employees WHERE department = ? ORDER BY id";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, department);
+            return readEmployees(pstmt);
+        } catch (SQLException e) {
+            logger.error("Error retrieving employees of department " + department + ": " + e.getMessage(), e);
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Retrieves the employees whose salary lies in a range, using the salary index.
+     *
+     * @param minSalary the lowest salary included
+     * @param maxSalary the highest salary included
+     * @return the matching employees, ordered by salary
+     */
+    public List<Employee> getEmployeesBySalaryRange(double minSalary, double maxSalary) {
+        String sql = "SELECT * FROM employees WHERE salary BETWEEN ? AND ? ORDER BY salary, id";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setDouble(1, minSalary);
+            pstmt.setDouble(2, maxSalary);
+            return readEmployees(pstmt);
+        } catch (SQLException e) {
+            logger.error("Error retrieving employees by salary range: " + e.getMessage(), e);
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Retrieves one page of employees using keyset pagination.
+     * Rather than skipping rows with OFFSET, the query seeks past the (sort key, id) of
+     * the last employee of the previous page, so every page costs the same no matter
+     * how deep into the table it is, and rows added or removed meanwhile never shift
+     * a page boundary. The sort key is taken from the employee passed in, so the
+     * cursor row is not looked up again and may since have been changed or removed.
+     *
+     * @param after the last employee of the previous page, or null for the first page
+     * @param limit the maximum number of employees to return
+     * @param sort the order of the pages
+     * @return the employees of the page, or an empty list if there are no more employees
+     */
+    public List<Employee> getEmployeesPage(Employee after, int limit, EmployeeSort sort) {
+        String column = sort.getColumn();
+        String sql;
+        if (after == null) {
+            sql = "SELECT * FROM employees ORDER BY " + column + (sort == EmployeeSort.ID ? "" : ", id") + " LIMIT ?";
+        } else if (sort == EmployeeSort.ID) {
+            sql = "SELECT * FROM employees WHERE id > ? ORDER BY id LIMIT ?";
+        } else {
+            sql = "SELECT * FROM employees WHERE (" + column + ", id) > (?, ?) ORDER BY " + column + ", id LIMIT ?";
+        }
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int parameter = 1;
+            if (after != null) {
+                if (sort != EmployeeSort.ID) {
+                    pstmt.setObject(parameter++, sort.getKey(after));
+                }
+                pstmt.setInt(parameter++, after.getId());
+            }
+            pstmt.setInt(parameter, limit);
+            return readEmployees(pstmt);
+        } catch (SQLException e) {
+            logger.error("Error retrieving page of employees after " + (after != null ? after.getId() : null) +
+                         ": " + e.getMessage(), e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Retrieves the employees at a position in the given order.
+     * Used to jump straight to a row, for example when a scrollbar is dragged;
+     * getEmployeesPage is cheaper for reading on from an employee that is already known.
+     *
+     * @param offset the number of employees to skip
+     * @param limit the maximum number of employees to return
+     * @param sort the order of the employees
+     * @return the employees at positions offset to offset + limit - 1
+     */
+    public List<Employee> getEmployeesAt(int offset, int limit, EmployeeSort sort) {
+        String column = sort.getColumn();
+        String sql = "SELECT * FROM employees ORDER BY " + column + (sort == EmployeeSort.ID ? "" : ", id") + " LIMIT ? OFFSET ?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, limit);
+            pstmt.setInt(2, offset);
+            return readEmployees(pstmt);
+        } catch (SQLException e) {
+            logger.error("Error retrieving employees at position " + offset + ": " + e.getMessage(), e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Counts the employees of every department with a single GROUP BY query.
+     *
+     * @return the number of employees per department, ordered by department name
+     */
+    public Map<String, Integer> getEmployeeCountByDepartment() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        String sql = "SELECT department, COUNT(*) FROM employees GROUP BY department ORDER BY department";
+        
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                counts.put(rs.getString(1), rs.getInt(2));
+            }
+        } catch (SQLException e) {
+            logger.error("Error counting employees by department: " + e.getMessage(), e);
+        }
+        return counts;
+    }
+    
+    /**
+     * Sums the salaries of every department with a single GROUP BY query.
+     *
+     * @return the total salary per department, ordered by department name
+     */
+    public Map<String, Double> getTotalSalaryByDepartment() {
+        Map<String, Double> totals = new LinkedHashMap<>();
+        String sql = "SELECT department, SUM(salary) FROM employees GROUP BY department ORDER BY department";
+        
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                totals.put(rs.getString(1), rs.getDouble(2));
+            }
+        } catch (SQLException e) {
+            logger.error("Error summing salaries by department: " + e.getMessage(), e);
+        }
+        return totals;
+    }
+    
+    /**
+     * Executes a prepared employees query and reads every row.
+     *
+     * @param pstmt the prepared query with its parameters bound
+     * @return the employees returned by the query
+     * @throws SQLException if the query fails
+     */
+    private static List<Employee> readEmployees(PreparedStatement pstmt) throws SQLException {
+        List<Employee> employees = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                employees.add(readEmployee(rs));
+            }
+        }
+        return employees;
+    }
+    
+    /**
+     * Returns the number of employees in the database.
+     *
+     * @return the employee count, or 0 if the query fails
+     */
+    public int getEmployeeCount() {
+        String sql = "SELECT COUNT(*) FROM employees";
+        
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            logger.error("Error counting employees: " + e.getMessage(), e);
+            return 0;
+        }
+    }
+    
+    /**
+     * Returns the sum of all employee salaries, computed by the database.
+     *
+     * @return the total salary, or 0 if the query fails
+     */
+    public double getTotalSalary() {
+        String sql = "SELECT COALESCE(SUM(salary), 0) FROM employees";
+        
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            return rs.next() ? rs.getDouble(1) : 0;
+        } catch (SQLException e) {
+            logger.error("Error summing salaries: " + e.getMessage(), e);
+            return 0;
+        }
+    }
+    
+    /**
+     * Builds an Employee from the current row of a result set.
+     *
+     * @param rs a result set positioned on an employees row
+     * @return the Employee object
+     * @throws SQLException if a column cannot be read
+     */
+    private static Employee readEmployee(ResultSet rs) throws SQLException {
+        int id = rs.getInt("id");
+        String name = rs.getString("name");
+        String department = rs.getString("department");
+        double salary = rs.getDouble("salary");
+        String paymentMethod = rs.getString("payment_method");
+        
+        Employee employee = new Employee(id, name, department, salary);
+        
+        // Set payment strategy based on stored value
+        if ("Check".equals(paymentMethod)) {
+            employee.setPaymentStrategy(new CheckPayment());
+        } else {
+            employee.setPaymentStrategy(new DirectDepositPayment());
+        }
+        return employee;
+    }
+    
+    /**
+     * Closes JDBC resources, ignoring nulls and logging failures.
+     *
+     * @param resources the resources to close, innermost first
+     */
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                logger.warning("Error closing database resource: " + e.getMessage());
+            }
+        }
+    }
+    
     /**
      * Retrieves an employee from the database by ID.
      *
@@ -470,7 +999,11 @@ public class DatabaseManager {
             pstmt.setString(2, username);
             
             int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+            if (affectedRows > 0) {
+                fireUserChanged(username);
+                return true;
+            }
+            return false;
             
         } catch (SQLException e) {
             logger.error("Error updating user password: " + e.getMessage(), e);
@@ -502,11 +1035,634 @@ public class DatabaseManager {
             }
             
             int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+            if (affectedRows > 0) {
+                fireUserChanged(user.getUsername());
+                return true;
+            }
+            return false;
             
         } catch (SQLException e) {
             logger.error("Error adding user: " + e.getMessage(), e);
             return false;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Sets how many rows are sent to SQLite in a single JDBC batch by the bulk operations.
+     *
+     * @param chunkSize the number of rows per batch (must be positive)
+     */
+    public void setBatchChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Batch chunk size must be at least 1");
+        }
+        this.batchChunkSize = chunkSize;
+    }
+    
+    /**
+     * Adds many employees, and a user account for each, in a single transaction.
+     * Rows that cannot be inserted (for example a duplicate ID) are reported in the
+     * result and skipped; all other rows are committed. If an account with the
+     * generated username already exists it is left untouched.
+     *
+     * @param employees the employees to add
+     * @return the per-row outcome of the operation
+     */
+    public BatchResult addEmployees(Collection<Employee> employees) {
+        List<BatchStep<Employee>> steps = new ArrayList<>();
+        steps.add(new BatchStep<>(
+            "INSERT INTO employees (id, name, department, salary, payment_method) VALUES (?, ?, ?, ?, ?)",
+            (pstmt, e) -> {
+                pstmt.setInt(1, e.getId());
+                pstmt.setString(2, e.getName());
+                pstmt.setString(3, e.getDepartment());
+                pstmt.setDouble(4, e.getSalary());
+                pstmt.setString(5, e.getPaymentMethodName());
+            },
+            true));
+        steps.add(new BatchStep<>(
+            "INSERT OR IGNORE INTO users (username, password, role, employee_id) VALUES (?, ?, 'EMPLOYEE', ?)",
+            (pstmt, e) -> {
+                pstmt.setString(1, usernameFor(e));
+                pstmt.setString(2, defaultPasswordFor(e));
+                pstmt.setInt(3, e.getId());
+            },
+            false));
+        
+        return executeBatch("add", new ArrayList<>(employees), Employee::getId, steps);
+    }
+    
+    /**
+     * Updates many employees in a single transaction.
+     * Employees that do not exist are reported in the result as failures.
+     *
+     * @param employees the employees with updated information
+     * @return the per-row outcome of the operation
+     */
+    public BatchResult updateEmployees(Collection<Employee> employees) {
+        List<BatchStep<Employee>> steps = new ArrayList<>();
+        steps.add(new BatchStep<>(
+            "UPDATE employees SET name = ?, department = ?, salary = ?, payment_method = ? WHERE id = ?",
+            (pstmt, e) -> {
+                pstmt.setString(1, e.getName());
+                pstmt.setString(2, e.getDepartment());
+                pstmt.setDouble(3, e.getSalary());
+                pstmt.setString(4, e.getPaymentMethodName());
+                pstmt.setInt(5, e.getId());
+            },
+            true));
+        
+        return executeBatch("update", new ArrayList<>(employees), Employee::getId, steps);
+    }
+    
+    /**
+     * Removes many employees, and their user accounts, in a single transaction.
+     * IDs that do not exist are reported in the result as failures.
+     *
+     * @param ids the IDs of the employees to remove
+     * @return the per-row outcome of the operation
+     */
+    public BatchResult removeEmployees(Collection<Integer> ids) {
+        List<BatchStep<Integer>> steps = new ArrayList<>();
+        steps.add(new BatchStep<>(
+            "DELETE FROM users WHERE employee_id = ?",
+            (pstmt, id) -> pstmt.setInt(1, id),
+            false));
+        steps.add(new BatchStep<>(
+            "DELETE FROM employees WHERE id = ?",
+            (pstmt, id) -> pstmt.setInt(1, id),
+            true));
+        
+        List<Integer> rows = new ArrayList<>(ids);
+        BatchResult result = executeBatch("remove", rows, Integer::intValue, steps);
+        for (int i = 0; i < rows.size(); i++) {
+            if (!result.isRowFailed(i)) {
+                fireEmployeeUsersRemoved(rows.get(i));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Applies a set of employee changes in a single transaction: the removals first,
+     * together with the employees' user accounts, then every upserted employee is updated,
+     * and those that do not exist yet are inserted with a user account. Used by the
+     * write-behind queue, so a flush is committed completely or not at all.
+     * An upsert that violates a constraint is skipped and logged, as a failed row of
+     * addEmployees would be, and its ID is returned so the caller can bring its in-memory
+     * copy back in line with the database; any other error rolls the whole transaction back.
+     *
+     * @param removals the IDs of the employees to remove
+     * @param upserts the employees to insert or update
+     * @return the IDs of the skipped upserts, or null if the changes were rolled back
+     */
+    List<Integer> applyEmployeeChanges(Collection<Integer> removals, Collection<Employee> upserts) {
+        String deleteUsersSql = "DELETE FROM users WHERE employee_id = ?";
+        String deleteSql = "DELETE FROM employees WHERE id = ?";
+        String updateSql = "UPDATE employees SET name = ?, department = ?, salary = ?, payment_method = ? WHERE id = ?";
+        String insertSql = "INSERT INTO employees (id, name, department, salary, payment_method) VALUES (?, ?, ?, ?, ?)";
+        List<Employee> rows = new ArrayList<>(upserts);
+        List<String> createdUsers = new ArrayList<>();
+        List<Integer> skipped = new ArrayList<>();
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement deleteUsers = conn.prepareStatement(deleteUsersSql);
+                 PreparedStatement delete = conn.prepareStatement(deleteSql);
+                 PreparedStatement update = conn.prepareStatement(updateSql);
+                 PreparedStatement insert = conn.prepareStatement(insertSql)) {
+                
+                if (!removals.isEmpty()) {
+                    for (int id : removals) {
+                        deleteUsers.setInt(1, id);
+                        deleteUsers.addBatch();
+                        delete.setInt(1, id);
+                        delete.addBatch();
+                    }
+                    deleteUsers.executeBatch();
+                    delete.executeBatch();
+                }
+                
+                if (!rows.isEmpty()) {
+                    for (Employee e : rows) {
+                        update.setString(1, e.getName());
+                        update.setString(2, e.getDepartment());
+                        update.setDouble(3, e.getSalary());
+                        update.setString(4, e.getPaymentMethodName());
+                        update.setInt(5, e.getId());
+                        update.addBatch();
+                    }
+                    int[] updated = update.executeBatch();
+                    for (int i = 0; i < rows.size(); i++) {
+                        if (updated[i] != 0) {
+                            continue;
+                        }
+                        Employee e = rows.get(i);
+                        insert.setInt(1, e.getId());
+                        insert.setString(2, e.getName());
+                        insert.setString(3, e.getDepartment());
+                        insert.setDouble(4, e.getSalary());
+                        insert.setString(5, e.getPaymentMethodName());
+                        try {
+                            insert.executeUpdate();
+                        } catch (SQLException ex) {
+                            if ((ex.getErrorCode() & 0xFF) != SQLITE_CONSTRAINT) {
+                                throw ex;
+                            }
+                            // SQLite undoes just the failed statement; the rest of the transaction stands
+                            logger.warning("Dropped change to employee " + e.getId() + ": " + ex.getMessage());
+                            skipped.add(e.getId());
+                            continue;
+                        }
+                        if (createUserForEmployee(conn, e)) {
+                            createdUsers.add(usernameFor(e));
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("Error committing " + (removals.size() + rows.size()) + " employee changes: " + e.getMessage(), e);
+            return null;
+        }
+        
+        for (int id : removals) {
+            fireEmployeeUsersRemoved(id);
+        }
+        for (String username : createdUsers) {
+            fireUserChanged(username);
+        }
+        return skipped;
+    }
+    
+    /**
+     * Starts the pay run for a period, or returns the existing run if the period was
+     * started before, so an interrupted run is resumed rather than duplicated.
+     *
+     * @param period the pay period, for example "2025-03"
+     * @return the ID of the pay run, or -1 if it could not be started
+     */
+    public int startPayRun(String period) {
+        String insertSql = "INSERT OR IGNORE INTO pay_runs (period, status, started_at) VALUES (?, 'RUNNING', ?)";
+        String selectSql = "SELECT id, status FROM pay_runs WHERE period = ?";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement insert = conn.prepareStatement(insertSql);
+             PreparedStatement select = conn.prepareStatement(selectSql)) {
+            
+            insert.setString(1, period);
+            insert.setString(2, LocalDateTime.now().toString());
+            boolean created = insert.executeUpdate() > 0;
+            
+            select.setString(1, period);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    return -1;
+                }
+                int id = rs.getInt("id");
+                logger.info((created ? "Started" : "Resuming") + " pay run " + id + " for period " + period
+                            + " (status " + rs.getString("status") + ")");
+                return id;
+            }
+        } catch (SQLException e) {
+            logger.error("Error starting pay run for period " + period + ": " + e.getMessage(), e);
+            return -1;
+        }
+    }
+    
+    /**
+     * Returns the IDs of the employees already paid in a period.
+     * Employee IDs are non-negative, so they are returned as a BitSet to keep
+     * the set compact for very large payrolls.
+     *
+     * @param period the pay period
+     * @return the IDs of the employees paid, or null if the ledger could not be read
+     */
+    public BitSet getPaidEmployeeIds(String period) {
+        String sql = "SELECT employee_id FROM payments WHERE period = ?";
+        BitSet paid = new BitSet();
+        
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            pstmt.setString(1, period);
+            pstmt.setFetchSize(DEFAULT_FETCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    paid.set(rs.getInt(1));
+                }
+            }
+            return paid;
+        } catch (SQLException e) {
+            logger.error("Error reading payments for period " + period + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+    
+    /**
+     * Records a checkpoint of a pay run: writes one RECORDED ledger row per pay stub and
+     * advances the run's checkpoint time in a single transaction.
+     * Stubs of employees already paid in the period are ignored, so only the
+     * stubs that were newly recorded are returned. The rows keep the stub text, so a
+     * stub that was never delivered can be delivered when the run is resumed.
+     *
+     * @param payRunId the ID of the pay run
+     * @param period the pay period
+     * @param stubs the pay stubs of the checkpoint
+     * @return the stubs that were newly recorded, or null if the checkpoint failed and was rolled back
+     */
+    public List<PayStub> recordPayments(int payRunId, String period, List<PayStub> stubs) {
+        String insertSql = "INSERT OR IGNORE INTO payments (pay_run_id, period, employee_id, amount, payment_method, paid_at, " +
+                           "employee_name, stub, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'RECORDED')";
+        String checkpointSql = "UPDATE pay_runs SET last_checkpoint_at = ? WHERE id = ?";
+        String now = LocalDateTime.now().toString();
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement(insertSql);
+                 PreparedStatement checkpoint = conn.prepareStatement(checkpointSql)) {
+                
+                for (PayStub stub : stubs) {
+                    insert.setInt(1, payRunId);
+                    insert.setString(2, period);
+                    insert.setInt(3, stub.getEmployeeId());
+                    insert.setDouble(4, stub.getAmount());
+                    insert.setString(5, stub.getPaymentMethod());
+                    insert.setString(6, now);
+                    insert.setString(7, stub.getEmployeeName());
+                    insert.setString(8, stub.getText());
+                    insert.addBatch();
+                }
+                int[] counts = insert.executeBatch();
+                
+                checkpoint.setString(1, now);
+                checkpoint.setInt(2, payRunId);
+                checkpoint.executeUpdate();
+                conn.commit();
+                
+                List<PayStub> recorded = new ArrayList<>(stubs.size());
+                for (int i = 0; i < stubs.size(); i++) {
+                    if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                        recorded.add(stubs.get(i));
+                    }
+                }
+                return recorded;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("Error recording pay run checkpoint: " + e.getMessage(), e);
+            return null;
+        }
+    }
+    
+    /**
+     * Removes ledger rows, for example when the pay stubs of a checkpoint could not be
+     * delivered, so the employees are paid again when the run is resumed.
+     *
+     * @param period the pay period
+     * @param employeeIds the IDs of the employees whose payments are voided
+     * @return true if the operation was successful, false otherwise
+     */
+    public boolean voidPayments(String period, Collection<Integer> employeeIds) {
+        String sql = "DELETE FROM payments WHERE period = ? AND employee_id = ?";
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int employeeId : employeeIds) {
+                    pstmt.setString(1, period);
+                    pstmt.setInt(2, employeeId);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+                logger.warning("Voided " + employeeIds.size() + " payments for period " + period);
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("Error voiding payments for period " + period + ": " + e.getMessage(), e);
+            return false;
+        }
+    }
+    
+    /**
+     * Marks recorded payments as delivered once their stubs were accepted by the sink.
+     *
+     * @param period the pay period
+     * @param employeeIds the IDs of the employees whose stubs were delivered
+     * @return true if the operation was successful, false otherwise
+     */
+    public boolean markPaymentsDelivered(String period, Collection<Integer> employeeIds) {
+        String sql = "UPDATE payments SET status = 'DELIVERED' WHERE period = ? AND employee_id = ?";
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int employeeId : employeeIds) {
+                    pstmt.setString(1, period);
+                    pstmt.setInt(2, employeeId);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("Error marking payments delivered for period " + period + ": " + e.getMessage(), e);
+            return false;
+        }
+    }
+    
+    /**
+     * Returns the payments of a period that were recorded but never delivered,
+     * for example because the application stopped between the two steps.
+     *
+     * @param period the pay period
+     * @return the recorded pay stubs, in employee ID order, or null if the ledger could not be read
+     */
+    public List<PayStub> getUndeliveredPayments(String period) {
+        String sql = "SELECT employee_id, employee_name, payment_method, amount, stub FROM payments " +
+                     "WHERE period = ? AND status = 'RECORDED' ORDER BY employee_id";
+        List<PayStub> stubs = new ArrayList<>();
+        
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, period);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    stubs.add(new PayStub(rs.getInt("employee_id"), rs.getString("employee_name"),
+                                          rs.getString("payment_method"), rs.getDouble("amount"), rs.getString("stub")));
+                }
+            }
+            return stubs;
+        } catch (SQLException e) {
+            logger.error("Error reading undelivered payments for period " + period + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+    
+    /**
+     * Marks a pay run as completed.
+     *
+     * @param payRunId the ID of the pay run
+     * @return true if the operation was successful, false otherwise
+     */
+    public boolean completePayRun(int payRunId) {
+        String sql = "UPDATE pay_runs SET status = 'COMPLETED', completed_at = ? WHERE id = ?";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, LocalDateTime.now().toString());
+            pstmt.setInt(2, payRunId);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.error("Error completing pay run " + payRunId + ": " + e.getMessage(), e);
+            return false;
+        }
+    }
+    
+    /**
+     * Reserves a contiguous range of check numbers. The next free number is kept in the
+     * database, so numbering continues where the previous run left off, also after a restart.
+     *
+     * @param count the number of check numbers to reserve
+     * @param firstNumber the lowest number that may be handed out; numbering jumps ahead to it
+     *                    if the stored sequence is lower
+     * @return the first number of the range, or -1 if the range could not be reserved
+     */
+    public long reserveCheckNumbers(int count, long firstNumber) {
+        String insertSql = "INSERT OR IGNORE INTO sequences (name, next_value) VALUES ('check', ?)";
+        String updateSql = "UPDATE sequences SET next_value = MAX(next_value, ?) + ? WHERE name = 'check'";
+        String selectSql = "SELECT next_value FROM sequences WHERE name = 'check'";
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement(insertSql);
+                 PreparedStatement update = conn.prepareStatement(updateSql);
+                 PreparedStatement select = conn.prepareStatement(selectSql)) {
+                
+                insert.setLong(1, firstNumber);
+                insert.executeUpdate();
+                update.setLong(1, firstNumber);
+                update.setInt(2, count);
+                update.executeUpdate();
+                long next;
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                    next = rs.getLong(1);
+                }
+                conn.commit();
+                return next - count;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("Error reserving " + count + " check numbers: " + e.getMessage(), e);
+            return -1;
+        }
+    }
+    
+    /**
+     * Binds the parameters of one row to a prepared statement.
+     */
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        void bind(PreparedStatement pstmt, T row) throws SQLException;
+    }
+    
+    /**
+     * One SQL statement executed for every row of a bulk operation.
+     * If checksRowCount is set, a row for which the statement affects nothing is reported as not found.
+     */
+    private static class BatchStep<T> {
+        private final String sql;
+        private final RowBinder<T> binder;
+        private final boolean checksRowCount;
+        
+        BatchStep(String sql, RowBinder<T> binder, boolean checksRowCount) {
+            this.sql = sql;
+            this.binder = binder;
+            this.checksRowCount = checksRowCount;
+        }
+    }
+    
+    /**
+     * Runs a bulk operation as JDBC batches of batchChunkSize rows inside one transaction.
+     * If a chunk fails, it is rolled back to its savepoint and replayed row by row so
+     * that only the offending rows are rejected.
+     *
+     * @param operation the operation name used in the result and log messages
+     * @param rows the rows to process
+     * @param idOf extracts the employee ID of a row for error reporting
+     * @param steps the statements to execute for each row, in order
+     * @return the per-row outcome of the operation
+     */
+    private <T> BatchResult executeBatch(String operation, List<T> rows, ToIntFunction<T> idOf, List<BatchStep<T>> steps) {
+        BatchResult result = new BatchResult(operation, rows.size());
+        if (rows.isEmpty()) {
+            return result;
+        }
+        
+        int chunkSize = batchChunkSize;
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            List<PreparedStatement> statements = new ArrayList<>();
+            try {
+                for (BatchStep<T> step : steps) {
+                    statements.add(conn.prepareStatement(step.sql));
+                }
+                
+                for (int start = 0; start < rows.size(); start += chunkSize) {
+                    List<T> chunk = rows.subList(start, Math.min(start + chunkSize, rows.size()));
+                    Savepoint savepoint = conn.setSavepoint();
+                    try {
+                        executeChunk(chunk, start, idOf, steps, statements, result);
+                        conn.releaseSavepoint(savepoint);
+                    } catch (SQLException e) {
+                        conn.rollback(savepoint);
+                        for (PreparedStatement pstmt : statements) {
+                            pstmt.clearBatch();
+                        }
+                        executeRowByRow(conn, chunk, start, idOf, steps, statements, result);
+                    }
+                }
+                
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                result.failTransaction(e.getMessage());
+                logger.error("Error during bulk " + operation + " of employees: " + e.getMessage(), e);
+            } finally {
+                for (PreparedStatement pstmt : statements) {
+                    pstmt.close();
+                }
+            }
+        } catch (SQLException e) {
+            result.failTransaction(e.getMessage());
+            logger.error("Error during bulk " + operation + " of employees: " + e.getMessage(), e);
+        }
+        
+        logger.info(result.toString());
+        return result;
+    }
+    
+    /**
+     * Executes one chunk as a JDBC batch per step.
+     * Throws if any statement in the chunk fails so the caller can fall back to row-by-row mode.
+     */
+    private <T> void executeChunk(List<T> chunk, int offset, ToIntFunction<T> idOf, List<BatchStep<T>> steps,
+                                  List<PreparedStatement> statements, BatchResult result) throws SQLException {
+        int[] checkedCounts = null;
+        for (int s = 0; s < steps.size(); s++) {
+            BatchStep<T> step = steps.get(s);
+            PreparedStatement pstmt = statements.get(s);
+            for (T row : chunk) {
+                step.binder.bind(pstmt, row);
+                pstmt.addBatch();
+            }
+            int[] counts = pstmt.executeBatch();
+            if (step.checksRowCount) {
+                checkedCounts = counts;
+            }
+        }
+        
+        int succeeded = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            if (checkedCounts != null && checkedCounts[i] == 0) {
+                result.addFailure(offset + i, idOf.applyAsInt(chunk.get(i)), "Employee not found");
+            } else {
+                succeeded++;
+            }
+        }
+        result.addSucceeded(succeeded);
+    }
+    
+    /**
+     * Executes a chunk one row at a time, each under its own savepoint,
+     * recording the error for every row that fails.
+     */
+    private <T> void executeRowByRow(Connection conn, List<T> chunk, int offset, ToIntFunction<T> idOf,
+                                     List<BatchStep<T>> steps, List<PreparedStatement> statements,
+                                     BatchResult result) throws SQLException {
+        for (int i = 0; i < chunk.size(); i++) {
+            T row = chunk.get(i);
+            Savepoint savepoint = conn.setSavepoint();
+            String error = null;
+            try {
+                for (int s = 0; s < steps.size() && error == null; s++) {
+                    BatchStep<T> step = steps.get(s);
+                    PreparedStatement pstmt = statements.get(s);
+                    step.binder.bind(pstmt, row);
+                    int affectedRows = pstmt.executeUpdate();
+                    if (step.checksRowCount && affectedRows == 0) {
+                        error = "Employee not found";
+                    }
+                }
+            } catch (SQLException e) {
+                error = e.getMessage();
+            }
+            
+            if (error == null) {
+                conn.releaseSavepoint(savepoint);
+                result.addSucceeded(1);
+            } else {
+                conn.rollback(savepoint);
+                result.addFailure(offset + i, idOf.applyAsInt(row), error);
+            }
+        }
+    }
+}
@@ -7,15 +7,44 @@
  */
 package model;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import util.Logger;
+
 /**
  * The DirectDepositPayment class implements the PaymentStrategy interface
  * and provides a concrete implementation for making payments via direct deposit.
+ * Batches of payments are written to a single deposit batch file, in the spirit of
+ * an ACH file: a header record, one entry record per deposit, and a control record
+ * with the entry count and total.
  */
 public class DirectDepositPayment implements PaymentStrategy {
+    private static final Logger logger = Logger.getInstance();
+
+    private final Path outputDirectory;
+
+    /**
+     * Creates a direct deposit strategy that writes batch files to the default
+     * payments directory (overridable with -Dems.payments.dir).
+     */
+    public DirectDepositPayment() {
+        this(PaymentBatchFiles.DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * Creates a direct deposit strategy that writes batch files to the given directory.
+     *
+     * @param outputDirectory the directory for deposit batch files
+     */
+    public DirectDepositPayment(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
 
     /**
      * Processes the payment of the specified amount via direct deposit.
-     * 
+     *
      * @param amount the amount to be paid
      * @return a string confirming the payment via direct deposit
      */
@@ -23,4 +52,52 @@ public class DirectDepositPayment implements PaymentStrategy {
     public String pay(double amount) {
         return "Paid " + amount + " via Direct Deposit.";
     }
-}
\ No newline at end of file
+
+    /**
+     * Pays a batch of employees by writing one deposit batch file.
+     * Instructions with an amount that is not positive or a payee name that would break
+     * the record format are rejected individually;
+     * if the file cannot be written, every payment in the batch fails.
+     *
+     * @param instructions the payments to make
+     * @param checkNumbers not used; deposits have no check numbers
+     * @return one result per instruction, in the same order; references are "batchId/entryNumber"
+     */
+    @Override
+    public List<PaymentResult> payAll(List<PaymentInstruction> instructions, CheckNumberSource checkNumbers) {
+        String batchId = PaymentBatchFiles.newBatchId();
+        Path file = outputDirectory.resolve("deposit_batch_" + batchId + ".txt");
+
+        List<PaymentResult> results = new ArrayList<>(instructions.size());
+        List<String> lines = new ArrayList<>(instructions.size() + 2);
+        lines.add("HEADER|" + batchId + "|DIRECT DEPOSIT");
+
+        int entries = 0;
+        double total = 0;
+        for (PaymentInstruction instruction : instructions) {
+            String invalid = PaymentBatchFiles.validate(instruction);
+            if (invalid != null) {
+                results.add(PaymentResult.failed(instruction, invalid));
+                continue;
+            }
+            entries++;
+            total += instruction.getAmount();
+            lines.add("ENTRY|" + entries + "|" + instruction.getEmployeeId() + "|"
+                + instruction.getPayeeName() + "|" + PaymentBatchFiles.money(instruction.getAmount()));
+            results.add(PaymentResult.paid(instruction, batchId + "/" + entries, pay(instruction.getAmount())));
+        }
+        lines.add("CONTROL|" + entries + "|" + PaymentBatchFiles.money(total));
+
+        if (entries == 0) {
+            return results;
+        }
+        try {
+            PaymentBatchFiles.write(file, lines);
+            logger.info("Wrote deposit batch " + file + " with " + entries + " entries");
+            return results;
+        } catch (IOException e) {
+            logger.error("Failed to write deposit batch " + file, e);
+            return PaymentBatchFiles.failAll(instructions, "Deposit batch could not be written: " + e.getMessage());
+        }
+    }
+}
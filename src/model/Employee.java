@@ -12,6 +12,8 @@ package model;
  * Each employee has an ID, name, department, salary, and a payment strategy.
  * The default payment strategy is Direct Deposit.
  * Updated to include getter for PaymentStrategy.
+ * Employees held by the Database are shared between threads and must not be changed
+ * once stored; an update builds a new Employee instead.
  */
 public class Employee {
     private int id;
@@ -0,0 +1,322 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * EmployeeCache.java
+ */
+package model;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of employees keyed by ID, used by Database to serve repeated
+ * lookups without going back to SQLite.
+ * Entries expire after a configurable time-to-live, and when the cache is full
+ * the least recently used (LRU) or least frequently used (LFU) entry is evicted.
+ * Hit, miss, eviction and expiration counts are kept for monitoring.
+ *
+ * Hits take no lock: entries are looked up in a ConcurrentHashMap and the access is
+ * appended to a read buffer. The eviction order is only kept under a lock, which
+ * writers hold anyway; they replay the buffered accesses before changing the cache,
+ * so LRU and LFU decisions see every hit. Readers replay the buffer themselves only
+ * when it fills up and the lock is free, and drop the access if the buffer is full.
+ */
+public class EmployeeCache {
+    /**
+     * Strategy used to choose which entry to evict when the cache is full.
+     */
+    public enum EvictionPolicy {
+        LRU,
+        LFU
+    }
+
+    // Buffered accesses before a reader tries to replay them, and the most kept
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = 64;
+    private static final int READ_BUFFER_MAX_SIZE = 1024;
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final EvictionPolicy evictionPolicy;
+
+    private final ConcurrentHashMap<Integer, Entry> index = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> readBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger readBufferSize = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock: access order for LRU, and for LFU the access count -> IDs with that count, oldest first
+    private final LinkedHashMap<Integer, Entry> order;
+    private final Map<Integer, LinkedHashSet<Integer>> frequencyBuckets = new HashMap<>();
+    private int minFrequency = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize the maximum number of employees held
+     * @param ttlMillis how long an entry stays valid after it is stored (0 means no expiry)
+     * @param evictionPolicy the policy used when the cache is full
+     */
+    public EmployeeCache(int maxSize, long ttlMillis, EvictionPolicy evictionPolicy) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.evictionPolicy = evictionPolicy;
+        // Access order gives LRU ordering for free; LFU keeps its own buckets
+        this.order = new LinkedHashMap<>(16, 0.75f, evictionPolicy == EvictionPolicy.LRU);
+    }
+
+    /**
+     * Looks up an employee. A hit takes no lock.
+     *
+     * @param id the employee ID
+     * @return the cached employee, or null on a miss or if the entry has expired
+     */
+    public Employee get(int id) {
+        Entry entry = index.get(id);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            lock.lock();
+            try {
+                if (index.get(id) == entry) {
+                    removeEntry(id, entry);
+                    expirations.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        recordAccess(entry);
+        return entry.employee;
+    }
+
+    /**
+     * Stores an employee, replacing any existing entry for the same ID
+     * and evicting another entry if the cache is full.
+     *
+     * @param employee the employee to cache
+     */
+    public void put(Employee employee) {
+        int id = employee.getId();
+        long expiresAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
+
+        lock.lock();
+        try {
+            drainReadBuffer();
+            Entry entry = index.get(id);
+            if (entry != null) {
+                entry.employee = employee;
+                entry.expiresAt = expiresAt;
+                touch(id, entry);
+                return;
+            }
+
+            if (index.size() >= maxSize) {
+                evictOne();
+            }
+            entry = new Entry(id, employee, expiresAt);
+            order.put(id, entry);
+            index.put(id, entry);
+            if (evictionPolicy == EvictionPolicy.LFU) {
+                frequencyBuckets.computeIfAbsent(1, f -> new LinkedHashSet<>()).add(id);
+                minFrequency = 1;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes an employee from the cache.
+     *
+     * @param id the employee ID
+     */
+    public void invalidate(int id) {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            Entry entry = index.get(id);
+            if (entry != null) {
+                removeEntry(id, entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries. Statistics are kept.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            index.clear();
+            order.clear();
+            frequencyBuckets.clear();
+            minFrequency = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Buffers a hit for the eviction order. Replays the buffer if it is getting full
+     * and no writer holds the lock; drops the access if the buffer is already full.
+     */
+    private void recordAccess(Entry entry) {
+        int buffered = readBufferSize.get();
+        if (buffered < READ_BUFFER_MAX_SIZE) {
+            readBuffer.offer(entry);
+            buffered = readBufferSize.incrementAndGet();
+        }
+        if (buffered >= READ_BUFFER_DRAIN_THRESHOLD && lock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Applies the buffered hits to the eviction order, skipping entries removed since. Called under the lock.
+     */
+    private void drainReadBuffer() {
+        Entry entry;
+        while ((entry = readBuffer.poll()) != null) {
+            readBufferSize.decrementAndGet();
+            if (index.get(entry.id) == entry) {
+                touch(entry.id, entry);
+            }
+        }
+    }
+
+    /**
+     * Records an access for the eviction order. Called under the lock.
+     */
+    private void touch(int id, Entry entry) {
+        if (evictionPolicy != EvictionPolicy.LFU) {
+            // The access-ordered map moves the entry to the end
+            order.get(id);
+            return;
+        }
+        LinkedHashSet<Integer> bucket = frequencyBuckets.get(entry.frequency);
+        bucket.remove(id);
+        if (bucket.isEmpty()) {
+            frequencyBuckets.remove(entry.frequency);
+            if (minFrequency == entry.frequency) {
+                minFrequency++;
+            }
+        }
+        entry.frequency++;
+        frequencyBuckets.computeIfAbsent(entry.frequency, f -> new LinkedHashSet<>()).add(id);
+    }
+
+    private void evictOne() {
+        Integer victim = null;
+        if (evictionPolicy == EvictionPolicy.LFU) {
+            LinkedHashSet<Integer> bucket = frequencyBuckets.get(minFrequency);
+            if (bucket != null && !bucket.isEmpty()) {
+                victim = bucket.iterator().next();
+            }
+        } else {
+            Iterator<Integer> eldest = order.keySet().iterator();
+            if (eldest.hasNext()) {
+                victim = eldest.next();
+            }
+        }
+        if (victim != null) {
+            removeEntry(victim, index.get(victim));
+            evictions.increment();
+        }
+    }
+
+    private void removeEntry(int id, Entry entry) {
+        index.remove(id);
+        order.remove(id);
+        if (evictionPolicy == EvictionPolicy.LFU) {
+            LinkedHashSet<Integer> bucket = frequencyBuckets.get(entry.frequency);
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    frequencyBuckets.remove(entry.frequency);
+                }
+            }
+            if (frequencyBuckets.isEmpty()) {
+                minFrequency = 0;
+            } else if (!frequencyBuckets.containsKey(minFrequency)) {
+                minFrequency = frequencyBuckets.keySet().stream().min(Integer::compare).get();
+            }
+        }
+    }
+
+    public int size() { return index.size(); }
+    public int getMaxSize() { return maxSize; }
+    public long getTtlMillis() { return ttlMillis; }
+    public EvictionPolicy getEvictionPolicy() { return evictionPolicy; }
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+    public long getExpirations() { return expirations.sum(); }
+
+    /**
+     * Returns the fraction of lookups that were served from the cache.
+     *
+     * @return the hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d/%d, policy=%s, ttl=%dms, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, expirations=%d",
+            size(), maxSize, evictionPolicy, ttlMillis, getHits(), getMisses(), getHitRate() * 100,
+            getEvictions(), getExpirations());
+    }
+
+    /**
+     * A cached employee with its expiry time and access count.
+     * The employee and expiry are read without the lock, so they are volatile.
+     */
+    private static class Entry {
+        private final int id;
+        private volatile Employee employee;
+        private volatile long expiresAt;
+        private int frequency = 1;
+
+        Entry(int id, Employee employee, long expiresAt) {
+            this.id = id;
+            this.employee = employee;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
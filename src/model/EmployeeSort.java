@@ -0,0 +1,63 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * EmployeeSort.java
+ */
+package model;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Orders in which employees can be paged through.
+ * Every order ends with the employee ID, so it is total and a page can always be
+ * resumed from the last employee of the previous page (keyset pagination).
+ */
+public enum EmployeeSort {
+    /** By ID. */
+    ID("id", Employee::getId, Comparator.comparingInt(Employee::getId)),
+    /** By name, then ID. */
+    NAME("name", Employee::getName, Comparator.comparing(Employee::getName).thenComparingInt(Employee::getId)),
+    /** By salary, then ID. */
+    SALARY("salary", Employee::getSalary, Comparator.comparingDouble(Employee::getSalary).thenComparingInt(Employee::getId));
+
+    private final String column;
+    private final Function<Employee, Object> key;
+    private final Comparator<Employee> comparator;
+
+    EmployeeSort(String column, Function<Employee, Object> key, Comparator<Employee> comparator) {
+        this.column = column;
+        this.key = key;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Returns the employees column this order sorts on first.
+     *
+     * @return the column name
+     */
+    String getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns the value of an employee in the column this order sorts on first.
+     *
+     * @param employee the employee
+     * @return the sort key, bound as a query parameter when a page is resumed after the employee
+     */
+    Object getKey(Employee employee) {
+        return key.apply(employee);
+    }
+
+    /**
+     * Returns a comparator that orders employees the same way as the SQL query.
+     *
+     * @return the comparator
+     */
+    public Comparator<Employee> getComparator() {
+        return comparator;
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * EmployeeStore.java
+ */
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory employee store used by the Database cache.
+ * Employees are kept in insertion order in a slot array, and an open-addressing
+ * hash index maps primitive int IDs to slots, so lookups, updates and removals by
+ * ID are constant time without boxing the ID.
+ * Removed slots are left empty and compacted once they outnumber live employees.
+ *
+ * The store is safe for concurrent use. Writers are serialized by a StampedLock;
+ * readers first try an optimistic (lock-free) read and only fall back to the read
+ * lock if a write happened at the same time.
+ */
+public class EmployeeStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    private Employee[] slots = new Employee[INITIAL_CAPACITY];
+    private int used = 0;   // slots handed out so far, including removed ones
+    private int size = 0;   // live employees
+    private IdIndex index = new IdIndex(INITIAL_CAPACITY);
+
+    /**
+     * Adds an employee. If an employee with the same ID is already stored,
+     * it is replaced in place and keeps its position.
+     *
+     * @param employee the employee to add
+     */
+    public void add(Employee employee) {
+        long stamp = lock.writeLock();
+        try {
+            addUnlocked(employee);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds an employee unless an employee with the same ID is already stored.
+     *
+     * @param employee the employee to add
+     * @return true if the employee was added, false if the ID is taken
+     */
+    public boolean addIfAbsent(Employee employee) {
+        long stamp = lock.writeLock();
+        try {
+            if (index.get(employee.getId()) >= 0) {
+                return false;
+            }
+            addUnlocked(employee);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void addUnlocked(Employee employee) {
+        int slot = index.get(employee.getId());
+        if (slot >= 0) {
+            slots[slot] = employee;
+            return;
+        }
+
+        if (used == slots.length) {
+            if (size < used / 2) {
+                compact();
+            } else {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+            }
+        }
+        slots[used] = employee;
+        index.put(employee.getId(), used);
+        used++;
+        size++;
+    }
+
+    /**
+     * Returns the employee with the given ID.
+     *
+     * @param id the employee ID
+     * @return the employee, or null if none is stored
+     */
+    public Employee get(int id) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Employee[] currentSlots = slots;
+                int slot = index.get(id);
+                Employee employee = slot >= 0 ? currentSlots[slot] : null;
+                if (lock.validate(stamp)) {
+                    return employee;
+                }
+            } catch (RuntimeException e) {
+                // A concurrent write left the arrays inconsistent; retry under the read lock
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            int slot = index.get(id);
+            return slot >= 0 ? slots[slot] : null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Checks whether an employee with the given ID is stored.
+     *
+     * @param id the employee ID
+     * @return true if the employee is stored
+     */
+    public boolean contains(int id) {
+        return get(id) != null;
+    }
+
+    /**
+     * Replaces the stored employee that has the same ID.
+     *
+     * @param employee the new employee object
+     * @return true if an employee with that ID was stored, false otherwise
+     */
+    public boolean replace(Employee employee) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = index.get(employee.getId());
+            if (slot < 0) {
+                return false;
+            }
+            slots[slot] = employee;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the employee with the given ID.
+     *
+     * @param id the employee ID
+     * @return the removed employee, or null if none was stored
+     */
+    public Employee remove(int id) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = index.remove(id);
+            if (slot < 0) {
+                return null;
+            }
+            Employee removed = slots[slot];
+            slots[slot] = null;
+            size--;
+
+            if (used > INITIAL_CAPACITY && size < used / 2) {
+                compact();
+            }
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Replaces the contents of the store.
+     *
+     * @param employees the employees to store, in order
+     */
+    public void reset(Collection<Employee> employees) {
+        long stamp = lock.writeLock();
+        try {
+            int capacity = Math.max(INITIAL_CAPACITY, employees.size());
+            slots = new Employee[capacity];
+            index = new IdIndex(capacity);
+            used = 0;
+            size = 0;
+            for (Employee e : employees) {
+                addUnlocked(e);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of stored employees.
+     *
+     * @return the number of employees
+     */
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int currentSize = size;
+        if (lock.validate(stamp)) {
+            return currentSize;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the stored employees in insertion order.
+     *
+     * @return a new list containing the stored employees
+     */
+    public List<Employee> toList() {
+        long stamp = lock.readLock();
+        try {
+            List<Employee> list = new ArrayList<>(size);
+            for (int i = 0; i < used; i++) {
+                if (slots[i] != null) {
+                    list.add(slots[i]);
+                }
+            }
+            return list;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Moves live employees to the front of the slot array and rebuilds the index.
+     */
+    private void compact() {
+        Employee[] compacted = new Employee[Math.max(INITIAL_CAPACITY, size * 2)];
+        IdIndex rebuilt = new IdIndex(compacted.length);
+        int next = 0;
+        for (int i = 0; i < used; i++) {
+            if (slots[i] != null) {
+                compacted[next] = slots[i];
+                rebuilt.put(slots[i].getId(), next);
+                next++;
+            }
+        }
+        slots = compacted;
+        index = rebuilt;
+        used = next;
+    }
+
+    /**
+     * Open-addressing int-to-int hash map with linear probing and backward-shift deletion.
+     * Values are slot positions, so -1 is used to mean "not present".
+     * The arrays live in a Table that is swapped as a whole when the map grows, so an
+     * optimistic reader always sees arrays of matching size, and probing is bounded
+     * so a reader racing a writer always terminates.
+     */
+    private static final class IdIndex {
+        private Table table;
+        private int count;
+
+        IdIndex(int expected) {
+            table = new Table(Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1);
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        int get(int key) {
+            Table t = table;
+            int i = hash(key) & t.mask;
+            for (int probes = 0; probes <= t.mask && t.occupied[i]; probes++) {
+                if (t.keys[i] == key) {
+                    return t.values[i];
+                }
+                i = (i + 1) & t.mask;
+            }
+            return -1;
+        }
+
+        void put(int key, int value) {
+            if ((count + 1) * 2 > table.keys.length) {
+                grow();
+            }
+            if (insert(table, key, value)) {
+                count++;
+            }
+        }
+
+        /**
+         * Inserts or overwrites a key in the given table.
+         *
+         * @return true if the key was new
+         */
+        private static boolean insert(Table t, int key, int value) {
+            int i = hash(key) & t.mask;
+            while (t.occupied[i]) {
+                if (t.keys[i] == key) {
+                    t.values[i] = value;
+                    return false;
+                }
+                i = (i + 1) & t.mask;
+            }
+            t.keys[i] = key;
+            t.values[i] = value;
+            t.occupied[i] = true;
+            return true;
+        }
+
+        int remove(int key) {
+            Table t = table;
+            int i = hash(key) & t.mask;
+            while (t.occupied[i]) {
+                if (t.keys[i] == key) {
+                    int value = t.values[i];
+                    shiftBack(t, i);
+                    count--;
+                    return value;
+                }
+                i = (i + 1) & t.mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Closes the gap left at position hole by moving later entries of the
+         * same probe run back, so lookups never stop early at an empty bucket.
+         */
+        private static void shiftBack(Table t, int hole) {
+            int i = hole;
+            while (true) {
+                i = (i + 1) & t.mask;
+                if (!t.occupied[i]) {
+                    break;
+                }
+                int home = hash(t.keys[i]) & t.mask;
+                // Move the entry if its home bucket is not cyclically within (hole, i]
+                boolean movable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+                if (movable) {
+                    t.keys[hole] = t.keys[i];
+                    t.values[hole] = t.values[i];
+                    hole = i;
+                }
+            }
+            t.occupied[hole] = false;
+        }
+
+        private void grow() {
+            Table old = table;
+            Table bigger = new Table(old.keys.length * 2);
+            for (int i = 0; i < old.keys.length; i++) {
+                if (old.occupied[i]) {
+                    insert(bigger, old.keys[i], old.values[i]);
+                }
+            }
+            table = bigger;
+        }
+
+        private static final class Table {
+            final int[] keys;
+            final int[] values;
+            final boolean[] occupied;
+            final int mask;
+
+            Table(int capacity) {
+                keys = new int[capacity];
+                values = new int[capacity];
+                occupied = new boolean[capacity];
+                mask = capacity - 1;
+            }
+        }
+    }
+}
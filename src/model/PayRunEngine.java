@@ -0,0 +1,341 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PayRunEngine.java
+ */
+package model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import util.Logger;
+
+/**
+ * Pays a roster of employees in parallel.
+ * The roster is split recursively into fork-join tasks until each covers at most
+ * chunkSize employees. Each leaf runs the payment strategy of its employees, hands
+ * the resulting stubs to the sink as one chunk, and returns partial totals that are
+ * merged on the way back up, so no pay stub text is ever concatenated in memory.
+ */
+public class PayRunEngine {
+    private static final int DEFAULT_CHUNK_SIZE = Integer.getInteger("ems.payrun.chunkSize", 1000);
+    private static final Logger logger = Logger.getInstance();
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Creates an engine that runs on the common fork-join pool with the default chunk size.
+     */
+    public PayRunEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an engine.
+     *
+     * @param pool the fork-join pool that runs the chunks
+     * @param chunkSize the maximum number of employees paid by one task
+     */
+    public PayRunEngine(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Pays every employee in the roster and sends the stubs to the sink.
+     * The sink is not closed by this method.
+     *
+     * @param roster the employees to pay
+     * @param sink the destination for the pay stubs
+     * @return the totals of the run
+     * @throws IOException if the sink fails; stubs of other chunks may already have been written
+     */
+    public PayRunSummary run(List<Employee> roster, PayStubSink sink) throws IOException {
+        long start = System.nanoTime();
+        Totals totals;
+        try {
+            totals = pool.invoke(new ChunkTask(roster, 0, roster.size(), sink));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        PayRunSummary summary = new PayRunSummary(totals.count, totals.amount, totals.countByMethod,
+                                                  totals.amountByMethod, elapsedMillis);
+        logger.info("Pay run completed: " + totals.count + " employees paid in " + elapsedMillis + " ms ("
+                    + Math.round(summary.getStubsPerSecond()) + " stubs/s)");
+        return summary;
+    }
+
+    /**
+     * Runs the payroll of a period with checkpoints in the payment ledger.
+     * Employees already recorded as paid in the period are skipped. Every chunk is
+     * recorded in the ledger in one transaction before its stubs reach the sink, and
+     * marked as delivered once the sink has accepted them, so an interrupted run
+     * resumes from its last checkpoint and a repeated run never pays anyone twice.
+     * Stubs that were recorded but never delivered, for example because the application
+     * stopped in between, are delivered first when the run is resumed. If the sink
+     * rejects a chunk, that chunk's ledger rows are voided.
+     * Only the ledger writes are serialized; each chunk is handed to the sink on its own
+     * worker thread, so a sink that renders stubs, such as the PDF zip, renders chunks in parallel.
+     *
+     * @param period the pay period, for example "2025-03"
+     * @param roster the employees to pay
+     * @param sink the destination for the pay stubs; not closed by this method
+     * @param ledger the database holding the pay_runs and payments tables
+     * @return the totals of the stubs delivered by this run, including how many employees were skipped
+     * @throws IOException if the ledger cannot be read or written, or the sink fails
+     */
+    public PayRunSummary run(String period, List<Employee> roster, PayStubSink sink, DatabaseManager ledger) throws IOException {
+        long start = System.nanoTime();
+        int payRunId = ledger.startPayRun(period);
+        BitSet paid = payRunId < 0 ? null : ledger.getPaidEmployeeIds(period);
+        List<PayStub> undelivered = paid == null ? null : ledger.getUndeliveredPayments(period);
+        if (undelivered == null) {
+            throw new IOException("Could not open the pay run ledger for period " + period);
+        }
+
+        BitSet redelivered = new BitSet();
+        for (PayStub stub : undelivered) {
+            redelivered.set(stub.getEmployeeId());
+        }
+        List<Employee> remaining = new ArrayList<>(roster.size());
+        int alreadyPaid = 0;
+        for (Employee employee : roster) {
+            if (employee.getId() < 0 || !paid.get(employee.getId())) {
+                remaining.add(employee);
+            } else if (!redelivered.get(employee.getId())) {
+                alreadyPaid++;
+            }
+        }
+        if (alreadyPaid > 0) {
+            logger.info("Pay run for " + period + ": skipping " + alreadyPaid + " employees already paid");
+        }
+
+        LedgerSink checkpointed = new LedgerSink(payRunId, period, sink, ledger);
+        if (!undelivered.isEmpty()) {
+            logger.info("Pay run for " + period + ": delivering " + undelivered.size() + " recorded pay stubs");
+            for (int i = 0; i < undelivered.size(); i += chunkSize) {
+                checkpointed.deliver(undelivered.subList(i, Math.min(undelivered.size(), i + chunkSize)));
+            }
+        }
+        run(remaining, checkpointed);
+        ledger.completePayRun(payRunId);
+
+        Totals totals = checkpointed.getDelivered();
+        return new PayRunSummary(totals.count, totals.amount, totals.countByMethod, totals.amountByMethod,
+                                 (System.nanoTime() - start) / 1_000_000, alreadyPaid);
+    }
+
+    /**
+     * Disburses the payments of a roster through the batch contract of each payment strategy.
+     * Employees are grouped by the class of their strategy and each group is paid with a
+     * single payAll call, so a run costs one backend operation per payment method
+     * rather than one per employee.
+     *
+     * @param roster the employees to pay
+     * @param checkNumbers where check numbers are reserved for the employees paid by check
+     * @return the payment results, grouped by payment method
+     */
+    public List<PaymentResult> disburse(List<Employee> roster, CheckNumberSource checkNumbers) {
+        Map<Class<?>, PaymentStrategy> strategies = new LinkedHashMap<>();
+        Map<Class<?>, List<PaymentInstruction>> batches = new LinkedHashMap<>();
+        for (Employee employee : roster) {
+            PaymentStrategy strategy = employee.getPaymentStrategy();
+            strategies.putIfAbsent(strategy.getClass(), strategy);
+            batches.computeIfAbsent(strategy.getClass(), c -> new ArrayList<>())
+                   .add(PaymentInstruction.forEmployee(employee));
+        }
+
+        List<PaymentResult> results = new ArrayList<>(roster.size());
+        int failed = 0;
+        for (Map.Entry<Class<?>, List<PaymentInstruction>> batch : batches.entrySet()) {
+            for (PaymentResult result : strategies.get(batch.getKey()).payAll(batch.getValue(), checkNumbers)) {
+                if (!result.isSuccess()) {
+                    failed++;
+                }
+                results.add(result);
+            }
+        }
+        logger.info("Disbursed " + (results.size() - failed) + " payments in " + batches.size()
+                    + " batches, " + failed + " failed");
+        return results;
+    }
+
+    /**
+     * Pays the employees in roster[from, to), splitting the range while it is larger than a chunk.
+     */
+    private class ChunkTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Employee> roster;
+        private final int from;
+        private final int to;
+        private final PayStubSink sink;
+
+        ChunkTask(List<Employee> roster, int from, int to, PayStubSink sink) {
+            this.roster = roster;
+            this.from = from;
+            this.to = to;
+            this.sink = sink;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= chunkSize) {
+                return payChunk();
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(roster, from, mid, sink);
+            left.fork();
+            Totals right;
+            try {
+                right = new ChunkTask(roster, mid, to, sink).compute();
+            } catch (RuntimeException e) {
+                // Let the forked half finish, so no chunk is still being written once the run has failed
+                try {
+                    left.join();
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+            return left.join().merge(right);
+        }
+
+        private Totals payChunk() {
+            Totals totals = new Totals();
+            List<PayStub> stubs = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                PayStub stub = PayStub.forEmployee(roster.get(i));
+                stubs.add(stub);
+                totals.add(stub);
+            }
+            try {
+                sink.write(stubs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return totals;
+        }
+    }
+
+    /**
+     * Sink that records each chunk in the payment ledger before passing it on, and marks
+     * it as delivered afterwards. Only stubs that were newly recorded are passed on, and
+     * only those are counted in the totals.
+     * Ledger writes are serialized so the workers do not contend for the SQLite write lock;
+     * the sink itself is called outside that lock, from every worker at once.
+     */
+    private static class LedgerSink implements PayStubSink {
+        private final int payRunId;
+        private final String period;
+        private final PayStubSink sink;
+        private final DatabaseManager ledger;
+        private final Object ledgerLock = new Object();
+        // Guarded by itself
+        private final Totals delivered = new Totals();
+
+        LedgerSink(int payRunId, String period, PayStubSink sink, DatabaseManager ledger) {
+            this.payRunId = payRunId;
+            this.period = period;
+            this.sink = sink;
+            this.ledger = ledger;
+        }
+
+        @Override
+        public void write(List<PayStub> stubs) throws IOException {
+            List<PayStub> recorded;
+            synchronized (ledgerLock) {
+                recorded = ledger.recordPayments(payRunId, period, stubs);
+            }
+            if (recorded == null) {
+                throw new IOException("Could not record pay run checkpoint for period " + period);
+            }
+            deliver(recorded);
+        }
+
+        /**
+         * Hands recorded stubs to the sink and marks them as delivered.
+         * If the sink fails, the stubs are voided so the employees are paid again on resume.
+         */
+        void deliver(List<PayStub> recorded) throws IOException {
+            if (recorded.isEmpty()) {
+                return;
+            }
+            List<Integer> ids = new ArrayList<>(recorded.size());
+            for (PayStub stub : recorded) {
+                ids.add(stub.getEmployeeId());
+            }
+            try {
+                sink.write(recorded);
+            } catch (IOException e) {
+                synchronized (ledgerLock) {
+                    ledger.voidPayments(period, ids);
+                }
+                throw e;
+            }
+            boolean marked;
+            synchronized (ledgerLock) {
+                marked = ledger.markPaymentsDelivered(period, ids);
+            }
+            if (!marked) {
+                throw new IOException("Could not mark pay stubs as delivered for period " + period);
+            }
+            Totals chunk = new Totals();
+            for (PayStub stub : recorded) {
+                chunk.add(stub);
+            }
+            synchronized (delivered) {
+                delivered.merge(chunk);
+            }
+        }
+
+        /**
+         * Returns the totals of every stub delivered so far.
+         */
+        Totals getDelivered() {
+            synchronized (delivered) {
+                return delivered;
+            }
+        }
+    }
+
+    /**
+     * Partial totals of one or more chunks.
+     */
+    private static class Totals {
+        private int count;
+        private double amount;
+        private final Map<String, Integer> countByMethod = new HashMap<>();
+        private final Map<String, Double> amountByMethod = new HashMap<>();
+
+        void add(PayStub stub) {
+            count++;
+            amount += stub.getAmount();
+            countByMethod.merge(stub.getPaymentMethod(), 1, Integer::sum);
+            amountByMethod.merge(stub.getPaymentMethod(), stub.getAmount(), Double::sum);
+        }
+
+        Totals merge(Totals other) {
+            count += other.count;
+            amount += other.amount;
+            other.countByMethod.forEach((method, n) -> countByMethod.merge(method, n, Integer::sum));
+            other.amountByMethod.forEach((method, sum) -> amountByMethod.merge(method, sum, Double::sum));
+            return this;
+        }
+    }
+}
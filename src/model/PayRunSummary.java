@@ -0,0 +1,97 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PayRunSummary.java
+ */
+package model;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Totals of a completed pay run: how many employees were paid, how much was paid,
+ * the same figures broken down by payment method, and how long the run took.
+ */
+public class PayRunSummary {
+    private final int employeesPaid;
+    private final double totalAmount;
+    private final Map<String, Integer> countByMethod;
+    private final Map<String, Double> amountByMethod;
+    private final long elapsedMillis;
+    private final int alreadyPaid;
+
+    /**
+     * Creates a summary of a run in which nobody had been paid before.
+     *
+     * @param employeesPaid the number of employees paid
+     * @param totalAmount the total amount paid
+     * @param countByMethod the number of employees paid per payment method
+     * @param amountByMethod the amount paid per payment method
+     * @param elapsedMillis the duration of the run in milliseconds
+     */
+    public PayRunSummary(int employeesPaid, double totalAmount, Map<String, Integer> countByMethod,
+                         Map<String, Double> amountByMethod, long elapsedMillis) {
+        this(employeesPaid, totalAmount, countByMethod, amountByMethod, elapsedMillis, 0);
+    }
+
+    /**
+     * Creates a summary of a resumed run.
+     *
+     * @param employeesPaid the number of employees paid by this run
+     * @param totalAmount the total amount paid by this run
+     * @param countByMethod the number of employees paid per payment method
+     * @param amountByMethod the amount paid per payment method
+     * @param elapsedMillis the duration of the run in milliseconds
+     * @param alreadyPaid the number of employees skipped because they were paid before
+     */
+    public PayRunSummary(int employeesPaid, double totalAmount, Map<String, Integer> countByMethod,
+                         Map<String, Double> amountByMethod, long elapsedMillis, int alreadyPaid) {
+        this.employeesPaid = employeesPaid;
+        this.totalAmount = totalAmount;
+        this.countByMethod = Collections.unmodifiableMap(new TreeMap<>(countByMethod));
+        this.amountByMethod = Collections.unmodifiableMap(new TreeMap<>(amountByMethod));
+        this.elapsedMillis = elapsedMillis;
+        this.alreadyPaid = alreadyPaid;
+    }
+
+    public int getEmployeesPaid() { return employeesPaid; }
+    public double getTotalAmount() { return totalAmount; }
+    public Map<String, Integer> getCountByMethod() { return countByMethod; }
+    public Map<String, Double> getAmountByMethod() { return amountByMethod; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public int getAlreadyPaid() { return alreadyPaid; }
+
+    /**
+     * Returns the throughput of the run, including the time the sink took to write the stubs.
+     *
+     * @return the number of pay stubs produced per second
+     */
+    public double getStubsPerSecond() {
+        return employeesPaid * 1000.0 / Math.max(1, elapsedMillis);
+    }
+
+    /**
+     * Returns a multi-line description suitable for showing to the user.
+     *
+     * @return the formatted summary
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append("Employees Paid: ").append(employeesPaid).append('\n');
+        text.append("Total Paid: $").append(String.format("%.2f", totalAmount)).append('\n');
+        for (Map.Entry<String, Integer> entry : countByMethod.entrySet()) {
+            text.append(entry.getKey()).append(": ").append(entry.getValue()).append(" employees, $")
+                .append(String.format("%.2f", amountByMethod.getOrDefault(entry.getKey(), 0.0))).append('\n');
+        }
+        if (alreadyPaid > 0) {
+            text.append("Already Paid (skipped): ").append(alreadyPaid).append('\n');
+        }
+        text.append("Elapsed Time: ").append(elapsedMillis).append(" ms").append('\n');
+        text.append("Throughput: ").append(Math.round(getStubsPerSecond())).append(" stubs/s");
+        return text.toString();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PayStub.java
+ */
+package model;
+
+/**
+ * A single pay stub produced by a pay run.
+ * Holds the figures the run summarises alongside the text returned by the payment strategy.
+ */
+public class PayStub {
+    private final int employeeId;
+    private final String employeeName;
+    private final String paymentMethod;
+    private final double amount;
+    private final String text;
+
+    /**
+     * Creates a pay stub.
+     *
+     * @param employeeId the ID of the employee paid
+     * @param employeeName the name of the employee paid
+     * @param paymentMethod the payment method name ("Direct Deposit" or "Check")
+     * @param amount the amount paid
+     * @param text the pay stub text
+     */
+    public PayStub(int employeeId, String employeeName, String paymentMethod, double amount, String text) {
+        this.employeeId = employeeId;
+        this.employeeName = employeeName;
+        this.paymentMethod = paymentMethod;
+        this.amount = amount;
+        this.text = text;
+    }
+
+    /**
+     * Creates the pay stub for an employee by running their payment strategy.
+     *
+     * @param employee the employee to pay
+     * @return the pay stub
+     */
+    public static PayStub forEmployee(Employee employee) {
+        return new PayStub(employee.getId(), employee.getName(), employee.getPaymentMethodName(),
+                           employee.getSalary(), employee.generatePayStub());
+    }
+
+    public int getEmployeeId() { return employeeId; }
+    public String getEmployeeName() { return employeeName; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public double getAmount() { return amount; }
+    public String getText() { return text; }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PayStubSink.java
+ */
+package model;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Destination for the pay stubs produced by a PayRunEngine.
+ * The engine hands over one chunk of stubs at a time from several worker threads,
+ * so implementations must be safe to call concurrently. Chunks arrive in completion
+ * order, not roster order.
+ */
+public interface PayStubSink extends Closeable {
+
+    /**
+     * Receives a chunk of pay stubs.
+     *
+     * @param stubs the pay stubs of one chunk of the roster
+     * @throws IOException if the stubs cannot be written
+     */
+    void write(List<PayStub> stubs) throws IOException;
+
+    /**
+     * Releases any resources held by the sink. Does nothing by default.
+     *
+     * @throws IOException if the sink cannot be closed cleanly
+     */
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * Returns a sink that passes every stub to a callback.
+     * The callback is invoked from the engine's worker threads.
+     *
+     * @param callback the callback to invoke for each stub
+     * @return the sink
+     */
+    static PayStubSink callback(Consumer<PayStub> callback) {
+        return stubs -> stubs.forEach(callback);
+    }
+
+    /**
+     * Returns a sink that writes one stub per line to a text file.
+     * Each chunk is written with a single buffered write, and the file is flushed
+     * and closed when the sink is closed.
+     *
+     * @param file the file to write; it is created or truncated
+     * @return the sink
+     * @throws IOException if the file cannot be opened
+     */
+    static PayStubSink toFile(Path file) throws IOException {
+        BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        return new PayStubSink() {
+            @Override
+            public void write(List<PayStub> stubs) throws IOException {
+                StringBuilder chunk = new StringBuilder(stubs.size() * 96);
+                for (PayStub stub : stubs) {
+                    chunk.append(stub.getText()).append(System.lineSeparator());
+                }
+                synchronized (writer) {
+                    writer.write(chunk.toString());
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                synchronized (writer) {
+                    writer.close();
+                }
+            }
+        };
+    }
+}
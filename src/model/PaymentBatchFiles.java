@@ -0,0 +1,106 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PaymentBatchFiles.java
+ */
+package model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helpers shared by the batch payment strategies for naming and writing batch files.
+ */
+final class PaymentBatchFiles {
+    /** Directory batch files are written to unless a strategy is given one. */
+    static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("ems.payments.dir", "payments"));
+
+    private static final DateTimeFormatter BATCH_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    private PaymentBatchFiles() {
+    }
+
+    /**
+     * Returns a new batch ID, unique within this process.
+     *
+     * @return the batch ID
+     */
+    static String newBatchId() {
+        return BATCH_ID_FORMAT.format(LocalDateTime.now()) + "-" + sequence.incrementAndGet();
+    }
+
+    /**
+     * Writes a whole batch file through one buffered writer, creating the directory if needed.
+     *
+     * @param file the file to write
+     * @param lines the lines of the file
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path file, List<String> lines) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Marks every instruction of a batch as failed.
+     *
+     * @param instructions the instructions of the batch
+     * @param message the reason for the failure
+     * @return one failed result per instruction
+     */
+    static List<PaymentResult> failAll(List<PaymentInstruction> instructions, String message) {
+        List<PaymentResult> results = new ArrayList<>(instructions.size());
+        for (PaymentInstruction instruction : instructions) {
+            results.add(PaymentResult.failed(instruction, message));
+        }
+        return results;
+    }
+
+    /**
+     * Checks whether an instruction can be written to a batch file.
+     * Fields are separated by '|' and records by line breaks, so neither may appear in a payee name.
+     *
+     * @param instruction the instruction
+     * @return the reason the instruction is rejected, or null if it is valid
+     */
+    static String validate(PaymentInstruction instruction) {
+        if (!(instruction.getAmount() > 0)) {
+            return "Invalid amount " + instruction.getAmount();
+        }
+        String payee = instruction.getPayeeName();
+        if (payee == null || payee.indexOf('|') >= 0 || payee.indexOf('\n') >= 0 || payee.indexOf('\r') >= 0) {
+            return "Invalid payee name; it may not contain '|' or line breaks";
+        }
+        return null;
+    }
+
+    /**
+     * Formats an amount with exactly two decimals and a '.' separator, whatever the default locale.
+     *
+     * @param amount the amount
+     * @return the formatted amount
+     */
+    static String money(double amount) {
+        return String.format(Locale.ROOT, "%.2f", amount);
+    }
+}
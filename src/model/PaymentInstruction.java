@@ -0,0 +1,44 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PaymentInstruction.java
+ */
+package model;
+
+/**
+ * A request to pay one employee, passed to PaymentStrategy.payAll.
+ */
+public class PaymentInstruction {
+    private final int employeeId;
+    private final String payeeName;
+    private final double amount;
+
+    /**
+     * Creates a payment instruction.
+     *
+     * @param employeeId the ID of the employee to pay
+     * @param payeeName the name the payment is made out to
+     * @param amount the amount to pay
+     */
+    public PaymentInstruction(int employeeId, String payeeName, double amount) {
+        this.employeeId = employeeId;
+        this.payeeName = payeeName;
+        this.amount = amount;
+    }
+
+    /**
+     * Creates the instruction to pay an employee their salary.
+     *
+     * @param employee the employee to pay
+     * @return the payment instruction
+     */
+    public static PaymentInstruction forEmployee(Employee employee) {
+        return new PaymentInstruction(employee.getId(), employee.getName(), employee.getSalary());
+    }
+
+    public int getEmployeeId() { return employeeId; }
+    public String getPayeeName() { return payeeName; }
+    public double getAmount() { return amount; }
+}
@@ -0,0 +1,72 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PaymentResult.java
+ */
+package model;
+
+/**
+ * The outcome of one PaymentInstruction.
+ * Successful payments carry a reference that identifies them in the backend output,
+ * such as a deposit batch entry or a check number.
+ */
+public class PaymentResult {
+    private final int employeeId;
+    private final double amount;
+    private final boolean success;
+    private final String reference;
+    private final String message;
+
+    /**
+     * Creates a payment result.
+     *
+     * @param employeeId the ID of the employee
+     * @param amount the amount of the payment
+     * @param success whether the payment was made
+     * @param reference the backend reference of the payment, or null if it failed
+     * @param message a human-readable description of the outcome
+     */
+    public PaymentResult(int employeeId, double amount, boolean success, String reference, String message) {
+        this.employeeId = employeeId;
+        this.amount = amount;
+        this.success = success;
+        this.reference = reference;
+        this.message = message;
+    }
+
+    /**
+     * Creates a successful result.
+     *
+     * @param instruction the instruction that was paid
+     * @param reference the backend reference of the payment
+     * @param message a description of the payment
+     * @return the result
+     */
+    public static PaymentResult paid(PaymentInstruction instruction, String reference, String message) {
+        return new PaymentResult(instruction.getEmployeeId(), instruction.getAmount(), true, reference, message);
+    }
+
+    /**
+     * Creates a failed result.
+     *
+     * @param instruction the instruction that could not be paid
+     * @param message the reason for the failure
+     * @return the result
+     */
+    public static PaymentResult failed(PaymentInstruction instruction, String message) {
+        return new PaymentResult(instruction.getEmployeeId(), instruction.getAmount(), false, null, message);
+    }
+
+    public int getEmployeeId() { return employeeId; }
+    public double getAmount() { return amount; }
+    public boolean isSuccess() { return success; }
+    public String getReference() { return reference; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return "Employee " + employeeId + ": " + (success ? reference + " " : "FAILED ") + message;
+    }
+}
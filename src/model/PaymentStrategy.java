@@ -7,6 +7,9 @@
  */
 package model;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * PaymentStrategy is an interface for defining different payment strategies.
  * Implementing classes should provide their own implementation of the pay method.
@@ -19,4 +22,21 @@ public interface PaymentStrategy {
      * @return a String message indicating the result of the payment process
      */
     String pay(double amount);
+    
+    /**
+     * Pays a batch of employees.
+     * The default implementation calls pay once per instruction; batch-oriented
+     * strategies override it to make all payments with a single backend operation.
+     *
+     * @param instructions the payments to make
+     * @param checkNumbers where strategies that print checks reserve their check numbers
+     * @return one result per instruction, in the same order
+     */
+    default List<PaymentResult> payAll(List<PaymentInstruction> instructions, CheckNumberSource checkNumbers) {
+        List<PaymentResult> results = new ArrayList<>(instructions.size());
+        for (PaymentInstruction instruction : instructions) {
+            results.add(PaymentResult.paid(instruction, null, pay(instruction.getAmount())));
+        }
+        return results;
+    }
 }
\ No newline at end of file
@@ -7,29 +7,37 @@
  */
 package model;
 
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import util.Logger;
 
 /**
  * Singleton class for managing users and authentication.
  * Updated to work with the database for persistent storage.
+ * The manager can be shared between threads. The directory is a concurrent map, so lookups take no
+ * lock, and accounts are read from the database outside any lock, so logins run in parallel.
+ *
+ * Users are kept in a lazily populated directory: an account is loaded with a single-row
+ * query the first time it is needed, and the entry is dropped whenever DatabaseManager
+ * reports that the row changed. Login cost therefore does not grow with the number of users.
  */
-public class UserManager {
+public class UserManager implements DatabaseManager.UserChangeListener {
     private static UserManager instance;
-    private Map<String, User> users;
-    private User currentUser;
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final Map<Integer, String> usernamesByEmployeeId = new ConcurrentHashMap<>();
+    // Bumped by every invalidation, so a row read before a change is not cached after it
+    private final AtomicLong directoryVersion = new AtomicLong();
+    private volatile User currentUser;
     private final Logger logger = Logger.getInstance();
     private final DatabaseManager dbManager = DatabaseManager.getInstance();
     
     /**
      * Private constructor to prevent instantiation.
-     * Loads users from the database.
+     * Starts with an empty user directory and subscribes to user table changes.
      */
     private UserManager() {
-        users = new HashMap<>();
-        loadUsersFromDatabase();
+        dbManager.addUserChangeListener(this);
     }
     
     /**
@@ -38,7 +46,7 @@ public class UserManager {
      *
      * @return the singleton instance of the UserManager
      */
-    public static UserManager getInstance() {
+    public static synchronized UserManager getInstance() {
         if (instance == null) {
             instance = new UserManager();
         }
@@ -46,17 +54,95 @@ public class UserManager {
     }
     
     /**
-     * Loads all users from the database into memory.
+     * Returns a user from the directory, loading just that row from the database on a miss.
+     * Unknown usernames are not remembered, so accounts created later are found.
+     * The database is queried without holding any lock.
+     *
+     * @param username the username to look up
+     * @return the User object if found, null otherwise
      */
-    private void loadUsersFromDatabase() {
-        users.clear();
-        List<User> userList = dbManager.getAllUsers();
-        
-        for (User user : userList) {
-            users.put(user.getUsername(), user);
+    private User lookupUser(String username) {
+        User user = users.get(username);
+        if (user == null) {
+            long version = directoryVersion.get();
+            user = dbManager.getUserByUsername(username);
+            if (user != null) {
+                cacheUser(user, version);
+            }
+        }
+        return user;
+    }
+    
+    /**
+     * Stores a user in the directory, unless an account changed since the user was read.
+     *
+     * @param user the user to store
+     * @param version the directory version read before the user was loaded
+     */
+    private synchronized void cacheUser(User user, long version) {
+        if (directoryVersion.get() != version) {
+            return;
+        }
+        users.put(user.getUsername(), user);
+        if (user.getEmployeeId() != null) {
+            usernamesByEmployeeId.put(user.getEmployeeId(), user.getUsername());
+        }
+    }
+    
+    /**
+     * Re-reads one user's row and replaces the directory entry, unless the entry changed
+     * while the row was read. Only this entry is touched and the directory version is not
+     * bumped, so repeated failed logins never stop other accounts from being cached.
+     *
+     * @param username the username to re-read
+     * @param stale the directory entry the caller found out of date
+     * @return the user as now stored, or null if the account no longer exists
+     */
+    private User reloadUser(String username, User stale) {
+        User fresh = dbManager.getUserByUsername(username);
+        synchronized (this) {
+            if (users.get(username) == stale) {
+                users.remove(username);
+                if (stale.getEmployeeId() != null) {
+                    usernamesByEmployeeId.remove(stale.getEmployeeId(), username);
+                }
+                if (fresh != null) {
+                    users.put(username, fresh);
+                    if (fresh.getEmployeeId() != null) {
+                        usernamesByEmployeeId.put(fresh.getEmployeeId(), username);
+                    }
+                }
+            }
+        }
+        return fresh;
+    }
+    
+    /**
+     * Drops a user from the directory after its row was added or changed.
+     *
+     * @param username the username of the changed account
+     */
+    @Override
+    public synchronized void userChanged(String username) {
+        directoryVersion.incrementAndGet();
+        User removed = users.remove(username);
+        if (removed != null && removed.getEmployeeId() != null) {
+            usernamesByEmployeeId.remove(removed.getEmployeeId());
+        }
+    }
+    
+    /**
+     * Drops an employee's accounts from the directory after they were deleted.
+     *
+     * @param employeeId the ID of the employee whose accounts were removed
+     */
+    @Override
+    public synchronized void employeeUsersRemoved(int employeeId) {
+        directoryVersion.incrementAndGet();
+        String username = usernamesByEmployeeId.remove(employeeId);
+        if (username != null) {
+            users.remove(username);
         }
-        
-        logger.info("Loaded " + users.size() + " users from database");
     }
     
     /**
@@ -66,7 +152,7 @@ public class UserManager {
      * @return true if the user was added successfully, false if the username already exists
      */
     public boolean addUser(User user) {
-        if (users.containsKey(user.getUsername())) {
+        if (lookupUser(user.getUsername()) != null) {
             logger.warning("Failed to add user: Username '" + user.getUsername() + "' already exists");
             return false;
         }
@@ -75,8 +161,7 @@ public class UserManager {
         boolean success = dbManager.addUser(user);
         
         if (success) {
-            // Add to in-memory map
-            users.put(user.getUsername(), user);
+            // The directory picks the new row up on its next lookup
             logger.info("User added: " + user.getUsername() + " with role " + user.getRole());
         }
         
@@ -91,10 +176,12 @@ public class UserManager {
      * @return true if authentication was successful, false otherwise
      */
     public boolean authenticate(String username, String password) {
-        // Refresh users from database to ensure up-to-date data
-        loadUsersFromDatabase();
+        User user = lookupUser(username);
+        if (user != null && !user.validatePassword(password)) {
+            // The password may have been changed outside this manager; re-read just this row
+            user = reloadUser(username, user);
+        }
         
-        User user = users.get(username);
         if (user != null && user.validatePassword(password)) {
             currentUser = user;
             logger.info("User authenticated: " + username);
@@ -109,8 +196,9 @@ public class UserManager {
      * Logs out the current user.
      */
     public void logout() {
-        if (currentUser != null) {
-            logger.info("User logged out: " + currentUser.getUsername());
+        User user = currentUser;
+        if (user != null) {
+            logger.info("User logged out: " + user.getUsername());
             currentUser = null;
         }
     }
@@ -160,18 +248,17 @@ public class UserManager {
      * @return true if the password was updated successfully, false otherwise
      */
     public boolean updatePassword(String username, String oldPassword, String newPassword) {
-        // Refresh from database first
-        loadUsersFromDatabase();
+        // Re-read this user's row so the old password is checked against the stored value
+        userChanged(username);
         
-        User user = users.get(username);
+        User user = lookupUser(username);
         if (user != null && user.validatePassword(oldPassword)) {
-            // Update user's password
-            user.setPassword(newPassword);
-            
             // Update in database
             boolean success = dbManager.updateUserPassword(username, newPassword);
             
             if (success) {
+                // Keep the object current for callers holding it; the directory re-reads the row on next use
+                user.setPassword(newPassword);
                 logger.info("Password updated for user: " + username);
                 return true;
             }
@@ -188,10 +275,7 @@ public class UserManager {
      * @return the User object if found, null otherwise
      */
     public User getUserByUsername(String username) {
-        // Refresh from database first
-        loadUsersFromDatabase();
-        
-        return users.get(username);
+        return lookupUser(username);
     }
     
     /**
@@ -201,22 +285,28 @@ public class UserManager {
      * @return the User object if found, null otherwise
      */
     public User getUserByEmployeeId(int employeeId) {
-        for (User user : users.values()) {
-            Integer id = user.getEmployeeId();
-            if (id != null && id == employeeId) {
-                return user;
-            }
+        String username = usernamesByEmployeeId.get(employeeId);
+        User user = username != null ? users.get(username) : null;
+        if (user != null) {
+            return user;
         }
         
-        // If not found in memory, try database
-        return dbManager.getUserByEmployeeId(employeeId);
+        // If not found in the directory, load just this row from the database
+        long version = directoryVersion.get();
+        user = dbManager.getUserByEmployeeId(employeeId);
+        if (user != null) {
+            cacheUser(user, version);
+        }
+        return user;
     }
     
     /**
-     * Refreshes the user list from the database.
+     * Clears the user directory so every account is re-read from the database on next use.
      */
-    public void refreshUsers() {
-        loadUsersFromDatabase();
+    public synchronized void refreshUsers() {
+        directoryVersion.incrementAndGet();
+        users.clear();
+        usernamesByEmployeeId.clear();
     }
     
     /**
@@ -0,0 +1,526 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * WriteBehindQueue.java
+ */
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import util.Logger;
+
+/**
+ * Persists employee mutations to SQLite in the background for the WRITE_BEHIND cache policy.
+ *
+ * Every mutation is first appended to a local journal, so it survives a crash, and kept in
+ * a pending map keyed by employee ID, where later mutations of the same employee replace
+ * earlier ones. A flusher thread commits the pending mutations in batched transactions once
+ * the oldest has waited maxLagMillis or batchSize employees are pending; flush() does the
+ * same on the caller's thread.
+ *
+ * The journal is a series of segment files (base.1, base.2, ...). Each flush starts a new
+ * segment and deletes the older ones once their mutations are committed. Segments left
+ * behind by a crash are replayed on startup. Mutations are stored as the employee's latest
+ * state ("upsert") or as a removal, so replaying a mutation that was already committed is
+ * harmless. A queued insert that the database rejects with a constraint violation is
+ * dropped; the IDs of dropped changes are passed to a listener so the in-memory copy can be
+ * brought back in line with SQLite.
+ */
+class WriteBehindQueue {
+    private static final Logger logger = Logger.getInstance();
+    private static final boolean FSYNC = Boolean.getBoolean("ems.writeBehind.fsync");
+    private static final byte UPSERT = 'U';
+    private static final byte DELETE = 'D';
+    private static final byte REPLACE = 'R';
+    // writeUTF limits each text field to 64 KB
+    private static final int MAX_RECORD_LENGTH = 2 * 65_538 + 32;
+
+    private final DatabaseManager dbManager;
+    private final Path journalBase;
+    private final long maxLagNanos;
+    private final int batchSize;
+    private final Consumer<List<Integer>> droppedListener;
+
+    // Guards pending, the journal and the segment list; held only briefly by writers
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition due = lock.newCondition();
+    // Serializes flushes, which run without holding lock
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Map<Integer, Mutation> pending = new LinkedHashMap<>();
+    private long oldestPendingNanos;
+    private final List<Path> segments = new ArrayList<>();
+    private int segmentNumber;
+    private FileChannel journal;
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream record = new DataOutputStream(recordBytes);
+
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    /**
+     * Opens the journal, recovering mutations left in it by a previous run, and starts the flusher.
+     *
+     * @param dbManager the database the mutations are committed to
+     * @param journalBase the path of the journal; segments get a numeric suffix
+     * @param maxLagMillis the longest a mutation waits before the flusher commits it
+     * @param batchSize the number of pending employees that triggers a commit before maxLagMillis
+     * @param droppedListener receives the IDs of employees whose change the database rejected,
+     *                        after the rest of the flush is committed
+     * @throws IOException if the journal cannot be read or created
+     */
+    WriteBehindQueue(DatabaseManager dbManager, Path journalBase, long maxLagMillis, int batchSize,
+                     Consumer<List<Integer>> droppedListener) throws IOException {
+        if (maxLagMillis < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Write-behind lag and batch size must be positive");
+        }
+        this.dbManager = dbManager;
+        this.journalBase = journalBase;
+        this.maxLagNanos = TimeUnit.MILLISECONDS.toNanos(maxLagMillis);
+        this.batchSize = batchSize;
+        this.droppedListener = droppedListener;
+
+        TreeMap<Integer, Path> existing = findSegments(journalBase);
+        for (Path segment : existing.values()) {
+            readSegment(segment, pending);
+            segments.add(segment);
+        }
+        if (!pending.isEmpty()) {
+            oldestPendingNanos = System.nanoTime();
+            logger.warning("Recovered " + pending.size() + " uncommitted employee changes from " + journalBase);
+        }
+        segmentNumber = existing.isEmpty() ? 0 : existing.lastKey();
+        openSegment();
+
+        flusher = new Thread(this::flushLoop, "write-behind-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Commits the mutations left in a journal by a previous run, then deletes the journal.
+     * Used at startup so the database is complete before it is loaded into memory.
+     * If the mutations cannot be committed the journal is kept for the next attempt.
+     *
+     * @param dbManager the database the mutations are committed to
+     * @param journalBase the path of the journal
+     * @return true if there was nothing to replay or everything was committed
+     */
+    static boolean replay(DatabaseManager dbManager, Path journalBase) {
+        try {
+            TreeMap<Integer, Path> segments = findSegments(journalBase);
+            if (segments.isEmpty()) {
+                return true;
+            }
+            Map<Integer, Mutation> mutations = new LinkedHashMap<>();
+            for (Path segment : segments.values()) {
+                readSegment(segment, mutations);
+            }
+            if (commit(dbManager, mutations) == null) {
+                logger.error("Could not replay " + mutations.size() + " employee changes from " + journalBase
+                             + "; the journal is kept for the next start");
+                return false;
+            }
+            for (Path segment : segments.values()) {
+                Files.deleteIfExists(segment);
+            }
+            logger.info("Replayed " + mutations.size() + " employee changes from " + journalBase);
+            return true;
+        } catch (IOException e) {
+            logger.error("Could not read write-behind journal " + journalBase, e);
+            return false;
+        }
+    }
+
+    /**
+     * Queues the current state of an employee, to be inserted or updated.
+     *
+     * @param e the employee
+     */
+    void upsert(Employee e) {
+        enqueue(e.getId(), new Mutation(UPSERT, copyOf(e)));
+    }
+
+    /**
+     * Queues the removal of an employee and its user account.
+     *
+     * @param id the employee ID
+     */
+    void delete(int id) {
+        enqueue(id, new Mutation(DELETE, null));
+    }
+
+    /**
+     * Returns the number of employees with changes not yet committed.
+     *
+     * @return the pending employee count
+     */
+    int getPendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether a change to an employee is waiting to be committed.
+     *
+     * @param id the employee ID
+     * @return true if the employee has a pending change
+     */
+    boolean isPending(int id) {
+        lock.lock();
+        try {
+            return pending.containsKey(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Commits every pending mutation on the calling thread.
+     * Mutations that cannot be committed stay pending, and in the journal, for the next flush.
+     *
+     * @return true if every mutation queued before the call was committed
+     */
+    boolean flush() {
+        flushLock.lock();
+        try {
+            Map<Integer, Mutation> batch;
+            List<Path> committedSegments;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return true;
+                }
+                // Mutations queued from now on go to a new segment, so the old ones can be deleted after the commit
+                committedSegments = new ArrayList<>(segments);
+                openSegment();
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            } catch (IOException e) {
+                logger.error("Could not start a new write-behind journal segment", e);
+                return false;
+            } finally {
+                lock.unlock();
+            }
+
+            List<Integer> dropped = commit(dbManager, batch);
+            if (dropped != null) {
+                deleteSegments(committedSegments);
+                if (!dropped.isEmpty()) {
+                    droppedListener.accept(dropped);
+                }
+                return true;
+            }
+            requeue(batch);
+            return false;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the flusher, commits what is pending and closes the journal.
+     * The journal is deleted if everything was committed, and replayed on the next start otherwise.
+     */
+    void close() {
+        closed = true;
+        flusher.interrupt();
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        boolean committed = flush();
+        lock.lock();
+        try {
+            journal.close();
+            if (committed && pending.isEmpty()) {
+                deleteSegments(new ArrayList<>(segments));
+            }
+        } catch (IOException e) {
+            logger.error("Could not close write-behind journal " + journalBase, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(int id, Mutation mutation) {
+        lock.lock();
+        try {
+            try {
+                appendToJournal(id, mutation);
+            } catch (IOException e) {
+                // The change is still committed by the next flush, it is just not crash-safe until then
+                logger.error("Could not journal the change to employee " + id, e);
+            }
+            if (pending.isEmpty()) {
+                oldestPendingNanos = System.nanoTime();
+                due.signal();
+            }
+            pending.merge(id, mutation, Mutation::then);
+            if (pending.size() >= batchSize) {
+                due.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts the mutations of a failed commit back, under any that were queued since.
+     */
+    private void requeue(Map<Integer, Mutation> failed) {
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            pending = merge(failed, pending);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Map<Integer, Mutation> merge(Map<Integer, Mutation> older, Map<Integer, Mutation> newer) {
+        Map<Integer, Mutation> merged = new LinkedHashMap<>(older);
+        newer.forEach((id, mutation) -> merged.merge(id, mutation, Mutation::then));
+        return merged;
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            lock.lock();
+            try {
+                while (pending.isEmpty()) {
+                    due.await();
+                }
+                long wait = oldestPendingNanos + maxLagNanos - System.nanoTime();
+                while (wait > 0 && pending.size() < batchSize) {
+                    wait = due.awaitNanos(wait);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            if (!flush()) {
+                // The database is unavailable; try again after another lag period
+                try {
+                    TimeUnit.NANOSECONDS.sleep(maxLagNanos);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Commits mutations in one transaction: removals first, then every upserted employee is
+     * updated, and those that do not exist yet are inserted together with their user accounts.
+     *
+     * @return the IDs of upserts the database rejected, or null if the transaction failed,
+     *         in which case all mutations should be retried
+     */
+    private static List<Integer> commit(DatabaseManager dbManager, Map<Integer, Mutation> mutations) {
+        List<Integer> removals = new ArrayList<>();
+        List<Employee> upserts = new ArrayList<>();
+        for (Map.Entry<Integer, Mutation> entry : mutations.entrySet()) {
+            Mutation mutation = entry.getValue();
+            if (mutation.type != UPSERT) {
+                removals.add(entry.getKey());
+            }
+            if (mutation.type != DELETE) {
+                upserts.add(mutation.employee);
+            }
+        }
+        return dbManager.applyEmployeeChanges(removals, upserts);
+    }
+
+    /**
+     * Appends a mutation to the journal as [length][crc32][type][id][employee fields].
+     */
+    private void appendToJournal(int id, Mutation mutation) throws IOException {
+        recordBytes.reset();
+        record.writeInt(0);
+        record.writeInt(0);
+        record.writeByte(mutation.type);
+        record.writeInt(id);
+        if (mutation.employee != null) {
+            record.writeUTF(mutation.employee.getName());
+            record.writeUTF(mutation.employee.getDepartment());
+            record.writeDouble(mutation.employee.getSalary());
+            record.writeBoolean(mutation.employee.getPaymentStrategy() instanceof CheckPayment);
+        }
+        byte[] bytes = recordBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 8, bytes.length - 8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putInt(0, bytes.length - 8);
+        buffer.putInt(4, (int) crc.getValue());
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        if (FSYNC) {
+            journal.force(false);
+        }
+    }
+
+    /**
+     * Reads the mutations of a segment into a map, combining them with those already read.
+     * Reading stops at the first incomplete or damaged record, which is what a crash in
+     * the middle of a write leaves behind.
+     */
+    private static void readSegment(Path segment, Map<Integer, Mutation> mutations) throws IOException {
+        try (InputStream file = Files.newInputStream(segment);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            while (true) {
+                byte[] bytes;
+                int expectedCrc;
+                try {
+                    int length = in.readInt();
+                    expectedCrc = in.readInt();
+                    if (length < 5 || length > MAX_RECORD_LENGTH) {
+                        throw new EOFException();
+                    }
+                    bytes = new byte[length];
+                    in.readFully(bytes);
+                } catch (EOFException e) {
+                    return;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(bytes);
+                if ((int) crc.getValue() != expectedCrc) {
+                    logger.warning("Ignoring damaged record at the end of " + segment);
+                    return;
+                }
+                DataInputStream fields = new DataInputStream(new ByteArrayInputStream(bytes));
+                byte type = fields.readByte();
+                int id = fields.readInt();
+                Mutation mutation;
+                if (type == DELETE) {
+                    mutation = new Mutation(DELETE, null);
+                } else {
+                    Employee e = new Employee(id, fields.readUTF(), fields.readUTF(), fields.readDouble());
+                    if (fields.readBoolean()) {
+                        e.setPaymentStrategy(new CheckPayment());
+                    }
+                    mutation = new Mutation(UPSERT, e);
+                }
+                mutations.merge(id, mutation, Mutation::then);
+            }
+        }
+    }
+
+    /**
+     * Closes the current segment, if any, and starts the next one. Called with lock held.
+     */
+    private void openSegment() throws IOException {
+        Path segment = journalBase.resolveSibling(journalBase.getFileName() + "." + (segmentNumber + 1));
+        FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (journal != null) {
+            journal.close();
+        }
+        journal = channel;
+        segmentNumber++;
+        segments.add(segment);
+    }
+
+    private void deleteSegments(List<Path> committed) {
+        for (Path segment : committed) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                logger.warning("Could not delete write-behind journal segment " + segment + ": " + e.getMessage());
+            }
+        }
+        lock.lock();
+        try {
+            segments.removeAll(committed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the segments of a journal, ordered by number.
+     */
+    private static TreeMap<Integer, Path> findSegments(Path journalBase) throws IOException {
+        TreeMap<Integer, Path> segments = new TreeMap<>();
+        Path directory = journalBase.toAbsolutePath().getParent();
+        String prefix = journalBase.getFileName() + ".";
+        if (directory == null || !Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (suffix.matches("\\d{1,9}")) {
+                    segments.put(Integer.parseInt(suffix), file);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static Employee copyOf(Employee e) {
+        Employee copy = new Employee(e.getId(), e.getName(), e.getDepartment(), e.getSalary());
+        if (e.getPaymentStrategy() instanceof CheckPayment) {
+            copy.setPaymentStrategy(new CheckPayment());
+        }
+        return copy;
+    }
+
+    /**
+     * The change still to be made to one employee.
+     */
+    private static final class Mutation {
+        final byte type;
+        final Employee employee;
+
+        Mutation(byte type, Employee employee) {
+            this.type = type;
+            this.employee = employee;
+        }
+
+        /**
+         * Combines this mutation with a later one of the same employee.
+         * A removal followed by an upsert must still remove the old row (and its account) first.
+         */
+        Mutation then(Mutation later) {
+            if (later.type == DELETE) {
+                return later;
+            }
+            return new Mutation(type == UPSERT ? UPSERT : REPLACE, later.employee);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * AsyncLogWriter.java
+ */
+package util;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background writer used by Logger in asynchronous mode.
+ * Logging threads publish formatted entries into a bounded lock-free ring buffer
+ * (a multi-producer, single-consumer array queue where each slot carries a sequence
+ * number), and a single daemon thread drains the buffer in batches. Each batch is
+ * written to the console once and to the log file with one channel write, so the
+ * file is opened only once for the lifetime of the writer.
+ */
+class AsyncLogWriter {
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AtomicReferenceArray<Record> records;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();    // next position claimed by a producer
+    private long head = 0;                                // next position read by the consumer
+    private volatile long processed = 0;                  // entries written so far
+
+    private final Logger.BackPressure backPressure;
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported = 0;
+
+    private final FileChannel channel;
+    private final Thread drainThread;
+    private volatile boolean sleeping = false;
+    private volatile boolean closed = false;
+    // Producers inside submit; the drain thread does not exit while any of them may still publish
+    private final AtomicInteger submitting = new AtomicInteger();
+
+    /**
+     * Opens the log file and starts the drain thread.
+     *
+     * @param logFile the file entries are appended to
+     * @param capacity the ring buffer size, rounded up to a power of two
+     * @param backPressure what to do when the buffer is full
+     * @throws IOException if the log file cannot be opened
+     */
+    AsyncLogWriter(String logFile, int capacity, Logger.BackPressure backPressure) throws IOException {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.records = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.backPressure = backPressure;
+        this.channel = FileChannel.open(Paths.get(logFile),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        this.drainThread = new Thread(this::drainLoop, "logger-writer");
+        drainThread.setDaemon(true);
+        drainThread.start();
+    }
+
+    /**
+     * Queues an entry, applying the back-pressure policy if the buffer is full.
+     *
+     * @param level the log level
+     * @param text the formatted entry, possibly spanning several lines
+     * @return true if the entry was queued or dropped by the back-pressure policy,
+     *         false if the writer is closed and the caller should write the entry itself
+     */
+    boolean submit(Logger.LogLevel level, String text) {
+        // Registered before closed is checked, so close() waits for this entry to be written
+        submitting.incrementAndGet();
+        try {
+            if (closed) {
+                return false;
+            }
+            Record record = new Record(level, text);
+            while (!tryOffer(record)) {
+                if (closed) {
+                    return false;
+                }
+                if (backPressure == Logger.BackPressure.DROP
+                        || (backPressure == Logger.BackPressure.DROP_DEBUG && level == Logger.LogLevel.DEBUG)) {
+                    dropped.incrementAndGet();
+                    return true;
+                }
+                // BLOCK: wake the consumer and wait for it to free a slot
+                LockSupport.unpark(drainThread);
+                Thread.onSpinWait();
+                LockSupport.parkNanos(1_000);
+            }
+        } finally {
+            submitting.decrementAndGet();
+        }
+        if (sleeping) {
+            LockSupport.unpark(drainThread);
+        }
+        return true;
+    }
+
+    /**
+     * Claims the next free slot and publishes the record into it.
+     *
+     * @return false if the buffer is full
+     */
+    private boolean tryOffer(Record record) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    records.set(index, record);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the next published record. Only called by the drain thread.
+     *
+     * @return the record, or null if none is ready
+     */
+    private Record poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        Record record = records.get(index);
+        records.set(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        return record;
+    }
+
+    /**
+     * Drains the buffer until the writer is closed and the buffer is empty.
+     */
+    private void drainLoop() {
+        StringBuilder out = new StringBuilder(8192);
+        StringBuilder err = new StringBuilder(1024);
+        StringBuilder file = new StringBuilder(8192);
+
+        while (true) {
+            int count = 0;
+            Record record;
+            while (count < MAX_BATCH && (record = poll()) != null) {
+                (record.level == Logger.LogLevel.ERROR ? err : out).append(record.text).append(System.lineSeparator());
+                file.append(record.text).append(System.lineSeparator());
+                count++;
+            }
+
+            long droppedNow = dropped.get();
+            if (droppedNow != droppedReported) {
+                String note = Logger.formatEntry(Logger.LogLevel.WARNING,
+                    (droppedNow - droppedReported) + " log messages dropped because the log buffer was full");
+                out.append(note).append(System.lineSeparator());
+                file.append(note).append(System.lineSeparator());
+                droppedReported = droppedNow;
+            }
+
+            if (file.length() > 0) {
+                writeBatch(out, err, file);
+                processed += count;
+                continue;
+            }
+
+            // Producers are checked before the tail, so an entry published by one is never missed
+            if (closed && submitting.get() == 0 && tail.get() == head) {
+                break;
+            }
+            sleeping = true;
+            if (tail.get() == head && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            sleeping = false;
+        }
+
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close log file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes one batch to the console and the log file, then clears the builders.
+     */
+    private void writeBatch(StringBuilder out, StringBuilder err, StringBuilder file) {
+        printTo(System.out, out);
+        printTo(System.err, err);
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(file.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write to log file: " + e.getMessage());
+        }
+        file.setLength(0);
+    }
+
+    private static void printTo(PrintStream stream, StringBuilder text) {
+        if (text.length() > 0) {
+            stream.print(text);
+            stream.flush();
+            text.setLength(0);
+        }
+    }
+
+    /**
+     * Waits until every entry queued before this call has been written.
+     *
+     * @param timeoutMillis the maximum time to wait
+     * @return true if everything was written in time
+     */
+    boolean flush(long timeoutMillis) {
+        long target = tail.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (processed < target && drainThread.isAlive()) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            LockSupport.unpark(drainThread);
+            LockSupport.parkNanos(100_000);
+        }
+        return processed >= target || !drainThread.isAlive();
+    }
+
+    /**
+     * Stops accepting entries, writes everything still queued and closes the log file.
+     *
+     * @param timeoutMillis the maximum time to wait for the drain thread
+     */
+    void close(long timeoutMillis) {
+        closed = true;
+        LockSupport.unpark(drainThread);
+        try {
+            drainThread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of entries dropped because the buffer was full.
+     *
+     * @return the dropped entry count
+     */
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * A queued log entry.
+     */
+    private static final class Record {
+        final Logger.LogLevel level;
+        final String text;
+
+        Record(Logger.LogLevel level, String text) {
+            this.level = level;
+            this.text = text;
+        }
+    }
+}
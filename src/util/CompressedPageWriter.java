@@ -0,0 +1,150 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * CompressedPageWriter.java
+ */
+package util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * PDFPageWriter that builds the content stream of each page itself and hands it on,
+ * deflated, as soon as the page is full. Subclasses decide where finished pages go.
+ * Fonts are referred to by their PostScript name (for example /Helvetica-Bold), so
+ * pages produced by different writers can share one resource dictionary. Text is
+ * encoded with PDFTextEncoder, so writers on different threads can share fonts; only
+ * fonts that PDFBox can encode without embedding (the standard 14 fonts) are supported.
+ */
+abstract class CompressedPageWriter extends PDFPageWriter {
+    // Fonts used so far, by resource name
+    private final Map<String, PDFont> fonts = new LinkedHashMap<>();
+    private final PDFTextEncoder encoder = new PDFTextEncoder();
+
+    // Reused for every page
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream(8 * 1024);
+    private final Deflater deflater = new Deflater();
+    private byte[] compressed = new byte[8 * 1024];
+    private final StringBuilder operators = new StringBuilder(128);
+
+    /**
+     * Creates a writer.
+     *
+     * @param progress receives the rows and pages written and can cancel the export
+     */
+    protected CompressedPageWriter(Progress progress) {
+        super(progress);
+    }
+
+    @Override
+    protected void beginPage() {
+        content.reset();
+    }
+
+    @Override
+    protected void endPage() throws IOException {
+        deflater.reset();
+        deflater.setInput(content.toByteArray());
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        writePage(compressed, length);
+    }
+
+    @Override
+    protected void setFont(PDFont font, float fontSize) throws IOException {
+        addFont(font);
+        operators.setLength(0);
+        operators.append('/').append(font.getName()).append(' ').append(number(fontSize)).append(" Tf\n");
+        appendContent(operators);
+    }
+
+    @Override
+    protected void showText(PDFont font, float x, float y, String text) throws IOException {
+        operators.setLength(0);
+        operators.append("BT\n").append(number(x)).append(' ').append(number(y)).append(" Td\n");
+        encoder.appendHex(font, text, operators);
+        operators.append(" Tj\nET\n");
+        appendContent(operators);
+    }
+
+    /**
+     * Handles the content stream of a finished page.
+     *
+     * @param data the deflated content stream; the array is reused for the next page
+     * @param length the number of bytes of data that belong to the page
+     * @throws IOException if the page cannot be written
+     */
+    protected abstract void writePage(byte[] data, int length) throws IOException;
+
+    /**
+     * Records that a font is used by the pages of this writer.
+     *
+     * @param font the font
+     * @throws IOException if the font is not one of the standard 14 fonts
+     */
+    protected void addFont(PDFont font) throws IOException {
+        if (!fonts.containsKey(font.getName())) {
+            if (!font.isStandard14()) {
+                throw new IOException("Only the standard 14 fonts can be streamed, not " + font.getName());
+            }
+            fonts.put(font.getName(), font);
+        }
+    }
+
+    /**
+     * Returns the fonts used by the pages written so far, in order of first use.
+     *
+     * @return the fonts
+     */
+    protected Collection<PDFont> getFonts() {
+        return fonts.values();
+    }
+
+    /**
+     * Releases the compressor.
+     *
+     * @throws IOException if a subclass cannot close its output
+     */
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+    }
+
+    /**
+     * Adds PDF operators to the content of the current page.
+     */
+    private void appendContent(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            content.write(text.charAt(i));
+        }
+    }
+
+    /**
+     * Formats a number the way PDF expects it: no exponent, no trailing zeros.
+     *
+     * @param value the number
+     * @return the number as PDF text
+     */
+    static String number(float value) {
+        if (value == (int) value) {
+            return Integer.toString((int) value);
+        }
+        return new BigDecimal(Float.toString(value)).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * CsvWriter.java
+ */
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes CSV rows as UTF-8 straight into a reusable byte buffer, which is flushed to a
+ * channel when full. Fields are escaped while they are copied, numbers are formatted
+ * digit by digit, and no strings are built per row. The buffer size can be set with
+ * -Dems.csv.bufferSize (bytes).
+ *
+ * Fields containing a comma, a quote or a newline are enclosed in quotes with their
+ * quotes doubled, and numbers are written exactly as String.valueOf would write them,
+ * so the output is the same as that of the string-based report code.
+ */
+public class CsvWriter implements Closeable {
+    private static final int BUFFER_SIZE = Integer.getInteger("ems.csv.bufferSize", 256 * 1024);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    // Doubles in [0.01, 1e7) that are whole cents take the fast path; Double.toString switches to E notation at 1e7
+    private static final double FAST_DOUBLE_LIMIT = 1e7;
+
+    private final WritableByteChannel channel;
+    private final byte[] buffer;
+    private final ByteBuffer view;
+    private int count;
+    private boolean firstField = true;
+
+    /**
+     * Creates a writer on a channel, with the default buffer size.
+     *
+     * @param channel the channel the rows are written to; closed with the writer
+     */
+    public CsvWriter(WritableByteChannel channel) {
+        this(channel, BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a writer on a channel.
+     *
+     * @param channel the channel the rows are written to; closed with the writer
+     * @param bufferSize the number of bytes collected before each write to the channel
+     */
+    public CsvWriter(WritableByteChannel channel, int bufferSize) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("CSV buffer size must be at least 64 bytes: " + bufferSize);
+        }
+        this.channel = channel;
+        this.buffer = new byte[bufferSize];
+        this.view = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Creates a writer on a new file, replacing any existing file.
+     *
+     * @param filePath the path of the CSV file
+     * @param compression whether the file is compressed while it is written
+     * @return the writer
+     * @throws IOException if the file cannot be created
+     */
+    public static CsvWriter open(String filePath, ReportCompression compression) throws IOException {
+        return new CsvWriter(compression.newChannel(filePath));
+    }
+
+    /**
+     * Writes a text field, quoting it if needed. A null field is written as an empty field.
+     *
+     * @param value the field
+     * @return this writer
+     * @throws IOException if the buffer cannot be flushed
+     */
+    public CsvWriter field(String value) throws IOException {
+        separate();
+        if (value == null) {
+            return this;
+        }
+        // Every char takes at most three bytes (a surrogate pair four for two chars), a doubled quote two
+        int maxBytes = value.length() * 3 + 2;
+        if (maxBytes > buffer.length) {
+            writeBytes(escape(value).getBytes(StandardCharsets.UTF_8));
+            return this;
+        }
+        ensureCapacity(maxBytes);
+        int start = count;
+        if (!encode(value, false)) {
+            // Found a character that needs quoting; copy the field again, quoted
+            count = start;
+            buffer[count++] = '"';
+            encode(value, true);
+            buffer[count++] = '"';
+        }
+        return this;
+    }
+
+    /**
+     * Writes a whole number field.
+     *
+     * @param value the field
+     * @return this writer
+     * @throws IOException if the buffer cannot be flushed
+     */
+    public CsvWriter field(long value) throws IOException {
+        separate();
+        ensureCapacity(20);
+        writeLong(value);
+        return this;
+    }
+
+    /**
+     * Writes a decimal field, formatted as Double.toString formats it.
+     * Amounts in whole cents below ten million are formatted without building a string.
+     *
+     * @param value the field
+     * @return this writer
+     * @throws IOException if the buffer cannot be flushed
+     */
+    public CsvWriter field(double value) throws IOException {
+        separate();
+        double magnitude = Math.abs(value);
+        if (magnitude >= 0.01 && magnitude < FAST_DOUBLE_LIMIT) {
+            long cents = Math.round(magnitude * 100);
+            if (cents / 100.0 == magnitude) {
+                ensureCapacity(12);
+                if (value < 0) {
+                    buffer[count++] = '-';
+                }
+                writeLong(cents / 100);
+                buffer[count++] = '.';
+                int fraction = (int) (cents % 100);
+                if (fraction % 10 == 0) {
+                    buffer[count++] = (byte) ('0' + fraction / 10);
+                } else {
+                    buffer[count++] = (byte) ('0' + fraction / 10);
+                    buffer[count++] = (byte) ('0' + fraction % 10);
+                }
+                return this;
+            }
+        }
+        writeBytes(Double.toString(value).getBytes(StandardCharsets.US_ASCII));
+        return this;
+    }
+
+    /**
+     * Ends the current row.
+     *
+     * @return this writer
+     * @throws IOException if the buffer cannot be flushed
+     */
+    public CsvWriter endRow() throws IOException {
+        writeBytes(LINE_SEPARATOR);
+        firstField = true;
+        return this;
+    }
+
+    /**
+     * Writes a row of text fields.
+     *
+     * @param fields the fields
+     * @return this writer
+     * @throws IOException if the buffer cannot be flushed
+     */
+    public CsvWriter row(String... fields) throws IOException {
+        for (String field : fields) {
+            field(field);
+        }
+        return endRow();
+    }
+
+    /**
+     * Writes the buffered bytes to the channel.
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    public void flush() throws IOException {
+        view.clear().limit(count);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+        count = 0;
+    }
+
+    /**
+     * Flushes the buffered bytes and closes the channel.
+     *
+     * @throws IOException if the channel cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Escapes a CSV field. Used for fields too large for the buffer.
+     *
+     * @param field the field
+     * @return the field, quoted if it contains a comma, a quote or a newline
+     */
+    static String escape(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0) {
+            return field;
+        }
+        return "\"" + field.replace("\"", "\"\"") + "\"";
+    }
+
+    private void separate() throws IOException {
+        if (firstField) {
+            firstField = false;
+        } else {
+            ensureCapacity(1);
+            buffer[count++] = ',';
+        }
+    }
+
+    /**
+     * Copies a field into the buffer as UTF-8. The caller has made room for the worst case.
+     *
+     * @param value the field
+     * @param quoted whether the field is being quoted, so quotes are doubled
+     * @return false if the field is not quoted but needs to be; the buffer is then left as it was
+     */
+    private boolean encode(String value, boolean quoted) {
+        byte[] b = buffer;
+        int n = count;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == ',' || c == '"' || c == '\n') {
+                    if (!quoted) {
+                        return false;
+                    }
+                    if (c == '"') {
+                        b[n++] = '"';
+                    }
+                }
+                b[n++] = (byte) c;
+            } else if (c < 0x800) {
+                b[n++] = (byte) (0xC0 | (c >> 6));
+                b[n++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    b[n++] = (byte) (0xF0 | (codePoint >> 18));
+                    b[n++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    b[n++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    b[n++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    // Unpaired surrogate, replaced as String.getBytes does
+                    b[n++] = '?';
+                }
+            } else {
+                b[n++] = (byte) (0xE0 | (c >> 12));
+                b[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[n++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        count = n;
+        return true;
+    }
+
+    /**
+     * Writes the digits of a number. The caller has made room for 20 bytes.
+     */
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            byte[] digits = Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(digits, 0, buffer, count, digits.length);
+            count += digits.length;
+            return;
+        }
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int end = count + digits;
+        for (int i = end - 1; i >= count; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        count = end;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (count == buffer.length) {
+                flush();
+            }
+            int length = Math.min(bytes.length - offset, buffer.length - count);
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+            offset += length;
+        }
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.length - count < bytes) {
+            flush();
+        }
+    }
+}
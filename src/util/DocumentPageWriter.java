@@ -0,0 +1,109 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * DocumentPageWriter.java
+ */
+package util;
+
+import java.io.IOException;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * PDFPageWriter that builds a PDFBox document and saves it when finished.
+ * The document's stream buffers are capped at -Dems.pdf.maxMainMemoryBytes of heap and
+ * spill to temporary files beyond that, and each page's content stream is closed as
+ * soon as the page is full. PDFBox still keeps every page object until the document
+ * is saved, so memory use grows with the page count; StreamingPageWriter avoids that.
+ */
+class DocumentPageWriter extends PDFPageWriter {
+    // Heap the buffers of one document may use before spilling to a temporary file;
+    // a negative value keeps everything in memory
+    private static final long MAX_MAIN_MEMORY_BYTES = Long.getLong("ems.pdf.maxMainMemoryBytes", 16L * 1024 * 1024);
+
+    private final PDDocument document;
+    private final String filePath;
+    private PDPageContentStream contentStream;
+
+    /**
+     * Creates a writer that saves to a file when finished.
+     *
+     * @param filePath the path of the PDF file to write
+     * @param progress receives the rows and pages written and can cancel the export
+     */
+    DocumentPageWriter(String filePath, Progress progress) {
+        super(progress);
+        this.document = newDocument();
+        this.filePath = filePath;
+    }
+
+    /**
+     * Creates an empty document whose buffers are capped at -Dems.pdf.maxMainMemoryBytes
+     * of heap and spill to temporary files beyond that.
+     * The temporary files are deleted when the document is closed.
+     *
+     * @return the new document
+     */
+    static PDDocument newDocument() {
+        if (MAX_MAIN_MEMORY_BYTES < 0) {
+            return new PDDocument(MemoryUsageSetting.setupMainMemoryOnly());
+        }
+        return new PDDocument(MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY_BYTES));
+    }
+
+    @Override
+    protected void beginPage() throws IOException {
+        PDPage page = new PDPage(PAGE_SIZE);
+        document.addPage(page);
+        contentStream = new PDPageContentStream(document, page);
+    }
+
+    @Override
+    protected void endPage() throws IOException {
+        contentStream.close();
+        contentStream = null;
+    }
+
+    @Override
+    protected void setFont(PDFont font, float fontSize) throws IOException {
+        contentStream.setFont(font, fontSize);
+    }
+
+    @Override
+    protected void showText(PDFont font, float x, float y, String text) throws IOException {
+        contentStream.beginText();
+        contentStream.newLineAtOffset(x, y);
+        // Encoding uses a cache inside the font, which other reports may be using at the same time
+        synchronized (font) {
+            contentStream.showText(text);
+        }
+        contentStream.endText();
+    }
+
+    @Override
+    protected void save() throws IOException {
+        document.save(filePath);
+    }
+
+    /**
+     * Closes the current page, if any, and the document, deleting its temporary files.
+     *
+     * @throws IOException if the document cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (contentStream != null) {
+                contentStream.close();
+            }
+        } finally {
+            document.close();
+        }
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * EmployeeCSVImporter.java
+ */
+package util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+import model.BatchResult;
+import model.CheckPayment;
+import model.Employee;
+
+/**
+ * Imports employees from a CSV file in the layout of the employee CSV report
+ * (ID, Name, Department, Salary, Payment Method), so an exported report can be loaded back.
+ *
+ * The calling thread reads the file in chunks of -Dems.import.chunkSize bytes, cut at record
+ * boundaries (quoted fields may contain newlines), and a pool of -Dems.import.threads workers
+ * parses and validates the chunks in parallel. The rows are then checked for duplicate IDs
+ * in file order and stored in batches of -Dems.import.batchSize employees, each batch in one
+ * transaction. Rows that are rejected, either by validation or by the database, are written
+ * to a reject file together with their line number and the reason.
+ */
+public class EmployeeCSVImporter {
+    private static final Logger logger = Logger.getInstance();
+    private static final int THREADS = Integer.getInteger("ems.import.threads", Runtime.getRuntime().availableProcessors());
+    private static final int CHUNK_SIZE = Integer.getInteger("ems.import.chunkSize", 1024 * 1024);
+    private static final int BATCH_SIZE = Integer.getInteger("ems.import.batchSize", 5000);
+    private static final String[] HEADER = {"ID", "Name", "Department", "Salary", "Payment Method"};
+
+    private final Function<List<Employee>, BatchResult> store;
+    private final IntPredicate exists;
+
+    /**
+     * Creates an importer.
+     *
+     * @param store adds a batch of employees, for example EmployeeController.addEmployees
+     * @param exists tells whether an employee ID is already taken
+     */
+    public EmployeeCSVImporter(Function<List<Employee>, BatchResult> store, IntPredicate exists) {
+        this.store = store;
+        this.exists = exists;
+    }
+
+    /**
+     * Returns the default reject file for an import: the input name with ".rejects.csv"
+     * in place of its extension.
+     *
+     * @param filePath the path of the file being imported
+     * @return the path of the reject file
+     */
+    public static String rejectFileFor(String filePath) {
+        int dot = filePath.lastIndexOf('.');
+        int separator = Math.max(filePath.lastIndexOf('/'), filePath.lastIndexOf('\\'));
+        String base = dot > separator ? filePath.substring(0, dot) : filePath;
+        return base + ".rejects.csv";
+    }
+
+    /**
+     * Imports the employees of a CSV file. A header row is skipped if present.
+     * Cancelling stops the import; batches already stored are kept.
+     *
+     * @param filePath the CSV file to import
+     * @param rejectFilePath where rejected rows are written; the file is only kept if a row was rejected
+     * @param progress receives the number of rows read and can cancel the import
+     * @return the totals of the import
+     * @throws IOException if the CSV file cannot be read or the reject file cannot be written
+     */
+    public ImportSummary importFile(String filePath, String rejectFilePath, Progress progress) throws IOException {
+        long startTime = System.currentTimeMillis();
+        Run run = new Run(rejectFilePath, progress);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, THREADS), r -> {
+            Thread t = new Thread(r, "csv-import");
+            t.setDaemon(true);
+            return t;
+        });
+        Deque<Future<List<Row>>> pending = new ArrayDeque<>();
+        boolean cancelled = false;
+
+        try (InputStream in = Files.newInputStream(Paths.get(filePath))) {
+            byte[] carry = new byte[0];
+            int line = 1;
+            boolean eof = false;
+            while (!eof) {
+                byte[] data = new byte[carry.length + CHUNK_SIZE];
+                System.arraycopy(carry, 0, data, 0, carry.length);
+                int length = carry.length + in.readNBytes(data, carry.length, CHUNK_SIZE);
+                eof = length < data.length;
+
+                int[] end = findLastRecordEnd(data, length);
+                int boundary = eof ? length : end[0];
+                if (boundary > 0) {
+                    Chunk chunk = new Chunk(data, boundary, line);
+                    pending.add(pool.submit(() -> parse(chunk)));
+                    line += eof ? countNewlines(data, length) : end[1];
+                }
+                carry = Arrays.copyOfRange(data, boundary, length);
+
+                // Keep a bounded number of chunks in flight, consuming them in file order
+                while (pending.size() > 2 * THREADS) {
+                    run.accept(pending.removeFirst().get());
+                }
+            }
+            while (!pending.isEmpty()) {
+                run.accept(pending.removeFirst().get());
+            }
+            run.storeBatch();
+        } catch (CancellationException e) {
+            cancelled = true;
+            logger.info("Import of " + filePath + " cancelled after " + run.rowsRead + " rows");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+            logger.warning("Import of " + filePath + " interrupted after " + run.rowsRead + " rows");
+        } catch (ExecutionException e) {
+            throw new IOException("Could not parse " + filePath, e.getCause());
+        } finally {
+            pool.shutdownNow();
+            run.close();
+        }
+
+        ImportSummary summary = new ImportSummary(run.rowsRead, run.imported, run.rejected,
+            run.rejected > 0 ? rejectFilePath : null, System.currentTimeMillis() - startTime, cancelled);
+        logger.info("Imported " + summary.getImported() + " of " + summary.getRowsRead() + " employees from " + filePath
+                    + " (" + summary.getRejected() + " rejected, " + Math.round(summary.getRowsPerSecond()) + " rows/s)");
+        return summary;
+    }
+
+    /**
+     * Finds the end of the last complete record in a buffer that starts at a record boundary,
+     * following the same quoting rules as the parser: a quote opens a quoted field only at the
+     * start of a field, and inside a quoted field a doubled quote stands for one quote.
+     *
+     * @return the offset just after the last newline outside quotes (0 if there is none),
+     *         and the number of newlines before that offset
+     */
+    private static int[] findLastRecordEnd(byte[] data, int length) {
+        int lastEnd = 0;
+        int newlines = 0;
+        int newlinesAtEnd = 0;
+        boolean inQuotes = false;
+        boolean fieldStart = true;
+        for (int i = 0; i < length; i++) {
+            byte b = data[i];
+            if (b == '\n') {
+                newlines++;
+            }
+            if (inQuotes) {
+                if (b == '"') {
+                    if (i + 1 < length && data[i + 1] == '"') {
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                }
+            } else if (b == '"' && fieldStart) {
+                inQuotes = true;
+                fieldStart = false;
+            } else if (b == ',') {
+                fieldStart = true;
+            } else if (b == '\n') {
+                fieldStart = true;
+                lastEnd = i + 1;
+                newlinesAtEnd = newlines;
+            } else {
+                fieldStart = false;
+            }
+        }
+        return new int[] {lastEnd, newlinesAtEnd};
+    }
+
+    private static int countNewlines(byte[] data, int length) {
+        int newlines = 0;
+        for (int i = 0; i < length; i++) {
+            if (data[i] == '\n') {
+                newlines++;
+            }
+        }
+        return newlines;
+    }
+
+    /**
+     * Parses and validates the records of a chunk. Runs on a worker thread.
+     */
+    private static List<Row> parse(Chunk chunk) {
+        String text = new String(chunk.data, 0, chunk.length, StandardCharsets.UTF_8);
+        List<Row> rows = new ArrayList<>(chunk.length / 48);
+        StringBuilder field = new StringBuilder();
+        int line = chunk.firstLine;
+        int pos = 0;
+        int length = text.length();
+        while (pos < length) {
+            int recordLine = line;
+            List<String> fields = new ArrayList<>(HEADER.length);
+            boolean inQuotes = false;
+            boolean quoted = false;
+            field.setLength(0);
+            for (; pos < length; pos++) {
+                char c = text.charAt(pos);
+                if (inQuotes) {
+                    if (c == '"') {
+                        if (pos + 1 < length && text.charAt(pos + 1) == '"') {
+                            field.append('"');
+                            pos++;
+                        } else {
+                            inQuotes = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append(c);
+                    }
+                } else if (c == '"' && field.length() == 0 && !quoted) {
+                    inQuotes = true;
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    quoted = false;
+                } else if (c == '\n') {
+                    line++;
+                    pos++;
+                    break;
+                } else if (c != '\r' || pos + 1 >= length || text.charAt(pos + 1) != '\n') {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+
+            if (fields.size() == 1 && fields.get(0).trim().isEmpty()) {
+                continue; // Blank line
+            }
+            if (recordLine == 1 && fields.get(0).trim().equals(HEADER[0])) {
+                continue;
+            }
+            rows.add(validate(recordLine, fields));
+        }
+        return rows;
+    }
+
+    /**
+     * Checks one record and builds its employee, or records why it was rejected.
+     */
+    private static Row validate(int line, List<String> fields) {
+        if (fields.size() != HEADER.length) {
+            return Row.rejected(line, fields, "Expected " + HEADER.length + " fields but found " + fields.size());
+        }
+        int id;
+        try {
+            id = Integer.parseInt(fields.get(0).trim());
+        } catch (NumberFormatException e) {
+            return Row.rejected(line, fields, "ID must be a valid number");
+        }
+        if (id <= 0) {
+            return Row.rejected(line, fields, "ID must be a positive number");
+        }
+        String name = fields.get(1);
+        if (name.trim().isEmpty()) {
+            return Row.rejected(line, fields, "Name cannot be empty");
+        }
+        String department = fields.get(2);
+        if (department.trim().isEmpty()) {
+            return Row.rejected(line, fields, "Department cannot be empty");
+        }
+        double salary;
+        try {
+            salary = Double.parseDouble(fields.get(3).trim());
+        } catch (NumberFormatException e) {
+            return Row.rejected(line, fields, "Salary must be a valid number");
+        }
+        if (Double.isNaN(salary) || Double.isInfinite(salary)) {
+            return Row.rejected(line, fields, "Salary must be a valid number");
+        }
+        if (salary < 0) {
+            return Row.rejected(line, fields, "Salary cannot be negative");
+        }
+
+        Employee employee = new Employee(id, name, department, salary);
+        String paymentMethod = fields.get(4).trim();
+        if ("Check".equals(paymentMethod)) {
+            employee.setPaymentStrategy(new CheckPayment());
+        } else if (!"Direct Deposit".equals(paymentMethod)) {
+            return Row.rejected(line, fields, "Unknown payment method: " + paymentMethod);
+        }
+        return new Row(line, fields, employee, null);
+    }
+
+    /**
+     * A run of the import: checks the parsed rows in file order, stores them in batches
+     * and writes the rejected rows. Used by the reading thread only.
+     */
+    private final class Run {
+        private final String rejectFilePath;
+        private final Progress progress;
+        private final BitSet seenIds = new BitSet();
+        private final List<Row> batch = new ArrayList<>(BATCH_SIZE);
+        private CsvWriter rejects;
+        private int rowsRead;
+        private int imported;
+        private int rejected;
+
+        Run(String rejectFilePath, Progress progress) {
+            this.rejectFilePath = rejectFilePath;
+            this.progress = progress;
+        }
+
+        void accept(List<Row> rows) throws IOException {
+            for (Row row : rows) {
+                progress.checkpoint(++rowsRead, 0);
+                if (row.error != null) {
+                    reject(row, row.error);
+                } else if (seenIds.get(row.employee.getId())) {
+                    reject(row, "Duplicate employee ID " + row.employee.getId() + " in the file");
+                } else if (exists.test(row.employee.getId())) {
+                    seenIds.set(row.employee.getId());
+                    reject(row, "Employee ID " + row.employee.getId() + " already exists");
+                } else {
+                    seenIds.set(row.employee.getId());
+                    batch.add(row);
+                    if (batch.size() == BATCH_SIZE) {
+                        storeBatch();
+                    }
+                }
+            }
+        }
+
+        void storeBatch() throws IOException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Employee> employees = new ArrayList<>(batch.size());
+            for (Row row : batch) {
+                employees.add(row.employee);
+            }
+            BatchResult result = store.apply(employees);
+            if (result.getTransactionError() != null) {
+                for (Row row : batch) {
+                    reject(row, "Not stored: " + result.getTransactionError());
+                }
+            } else {
+                imported += result.getSucceeded();
+                for (BatchResult.Failure failure : result.getFailures()) {
+                    reject(batch.get(failure.getRow()), "Not stored: " + failure.getMessage());
+                }
+            }
+            batch.clear();
+            progress.update(rowsRead, 0);
+        }
+
+        private void reject(Row row, String reason) throws IOException {
+            if (rejects == null) {
+                rejects = CsvWriter.open(rejectFilePath, ReportCompression.NONE);
+                for (String column : HEADER) {
+                    rejects.field(column);
+                }
+                rejects.field("Line").field("Error").endRow();
+            }
+            for (String field : row.fields) {
+                rejects.field(field);
+            }
+            rejects.field(row.line).field(reason).endRow();
+            rejected++;
+        }
+
+        void close() throws IOException {
+            if (rejects != null) {
+                rejects.close();
+            } else {
+                Files.deleteIfExists(Paths.get(rejectFilePath));
+            }
+        }
+    }
+
+    /**
+     * Part of the file that ends at a record boundary.
+     */
+    private static final class Chunk {
+        final byte[] data;
+        final int length;
+        final int firstLine;
+
+        Chunk(byte[] data, int length, int firstLine) {
+            this.data = data;
+            this.length = length;
+            this.firstLine = firstLine;
+        }
+    }
+
+    /**
+     * One parsed record: its employee, or the reason it was rejected.
+     */
+    private static final class Row {
+        final int line;
+        final List<String> fields;
+        final Employee employee;
+        final String error;
+
+        Row(int line, List<String> fields, Employee employee, String error) {
+            this.line = line;
+            this.fields = fields;
+            this.employee = employee;
+            this.error = error;
+        }
+
+        static Row rejected(int line, List<String> fields, String error) {
+            return new Row(line, fields, null, error);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * ImportSummary.java
+ */
+package util;
+
+/**
+ * Totals of a CSV import: how many rows were read, imported and rejected,
+ * where the rejected rows were written, and how long the import took.
+ */
+public class ImportSummary {
+    private final int rowsRead;
+    private final int imported;
+    private final int rejected;
+    private final String rejectFilePath;
+    private final long elapsedMillis;
+    private final boolean cancelled;
+
+    /**
+     * Creates a summary of an import.
+     *
+     * @param rowsRead the number of data rows read from the file, not counting the header
+     * @param imported the number of employees added
+     * @param rejected the number of rows rejected
+     * @param rejectFilePath the file listing the rejected rows, or null if none were rejected
+     * @param elapsedMillis the duration of the import in milliseconds
+     * @param cancelled whether the import was stopped before the end of the file
+     */
+    public ImportSummary(int rowsRead, int imported, int rejected, String rejectFilePath,
+                         long elapsedMillis, boolean cancelled) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.rejectFilePath = rejectFilePath;
+        this.elapsedMillis = elapsedMillis;
+        this.cancelled = cancelled;
+    }
+
+    public int getRowsRead() { return rowsRead; }
+    public int getImported() { return imported; }
+    public int getRejected() { return rejected; }
+    public String getRejectFilePath() { return rejectFilePath; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public boolean isCancelled() { return cancelled; }
+
+    /**
+     * Returns the throughput of the import, including the time spent storing the employees.
+     *
+     * @return the number of rows read per second
+     */
+    public double getRowsPerSecond() {
+        return rowsRead * 1000.0 / Math.max(1, elapsedMillis);
+    }
+
+    /**
+     * Returns a multi-line description suitable for showing to the user.
+     *
+     * @return the formatted summary
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        if (cancelled) {
+            text.append("Import cancelled; employees imported before that were kept").append('\n');
+        }
+        text.append("Rows Read: ").append(rowsRead).append('\n');
+        text.append("Employees Imported: ").append(imported).append('\n');
+        text.append("Rows Rejected: ").append(rejected).append('\n');
+        if (rejectFilePath != null) {
+            text.append("Rejected Rows: ").append(rejectFilePath).append('\n');
+        }
+        text.append("Elapsed Time: ").append(elapsedMillis).append(" ms").append('\n');
+        text.append("Throughput: ").append(Math.round(getRowsPerSecond())).append(" rows/s");
+        return text.toString();
+    }
+}
@@ -10,16 +10,28 @@ package util;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Logger utility class for logging system events, errors, and information.
+ *
+ * By default every entry is written synchronously. In asynchronous mode entries are
+ * handed to an AsyncLogWriter, which writes them from a background thread in batches
+ * through a single open file channel; see enableAsync.
+ * Asynchronous mode can also be switched on at startup with -Dems.log.async=true.
  */
 public class Logger {
     private static final String LOG_FILE = "employee_system.log";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final int DEFAULT_BUFFER_SIZE = Integer.getInteger("ems.log.bufferSize", 8192);
+    private static final long SHUTDOWN_FLUSH_TIMEOUT_MS = 5000;
     private static Logger instance;
     
+    private volatile AsyncLogWriter asyncWriter;
+    private boolean shutdownHookRegistered = false;
+    
     /**
      * Log level enumeration.
      */
@@ -30,6 +42,18 @@ public class Logger {
         DEBUG
     }
     
+    /**
+     * What an asynchronous logger does when its buffer is full.
+     */
+    public enum BackPressure {
+        /** Wait until the writer thread frees space. */
+        BLOCK,
+        /** Discard the entry. */
+        DROP,
+        /** Discard DEBUG entries and wait for space for everything else. */
+        DROP_DEBUG
+    }
+    
     /**
      * Private constructor to prevent instantiation.
      */
@@ -40,6 +64,11 @@ public class Logger {
         } catch (IOException e) {
             System.err.println("Failed to initialize logger: " + e.getMessage());
         }
+        
+        if (Boolean.getBoolean("ems.log.async")) {
+            BackPressure policy = BackPressure.valueOf(System.getProperty("ems.log.backPressure", BackPressure.BLOCK.name()));
+            enableAsync(DEFAULT_BUFFER_SIZE, policy);
+        }
     }
     
     /**
@@ -54,6 +83,77 @@ public class Logger {
         return instance;
     }
     
+    /**
+     * Switches to asynchronous logging with the default buffer size, blocking when the buffer is full.
+     */
+    public void enableAsync() {
+        enableAsync(DEFAULT_BUFFER_SIZE, BackPressure.BLOCK);
+    }
+    
+    /**
+     * Switches to asynchronous logging. Entries are queued in a bounded buffer and
+     * written by a background thread; anything still queued is written on shutdown.
+     *
+     * @param bufferSize the number of entries the buffer holds
+     * @param backPressure what to do when the buffer is full
+     */
+    public synchronized void enableAsync(int bufferSize, BackPressure backPressure) {
+        if (asyncWriter != null) {
+            return;
+        }
+        try {
+            asyncWriter = new AsyncLogWriter(LOG_FILE, bufferSize, backPressure);
+        } catch (IOException e) {
+            System.err.println("Failed to start asynchronous logging: " + e.getMessage());
+            return;
+        }
+        if (!shutdownHookRegistered) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::disableAsync, "logger-shutdown"));
+            shutdownHookRegistered = true;
+        }
+    }
+    
+    /**
+     * Writes everything still queued and switches back to synchronous logging.
+     */
+    public synchronized void disableAsync() {
+        AsyncLogWriter async = asyncWriter;
+        if (async != null) {
+            asyncWriter = null;
+            async.close(SHUTDOWN_FLUSH_TIMEOUT_MS);
+        }
+    }
+    
+    /**
+     * Checks whether asynchronous logging is active.
+     *
+     * @return true if entries are written by the background thread
+     */
+    public boolean isAsync() {
+        return asyncWriter != null;
+    }
+    
+    /**
+     * Waits until every entry logged before this call has been written.
+     * Does nothing in synchronous mode.
+     */
+    public void flush() {
+        AsyncLogWriter async = asyncWriter;
+        if (async != null) {
+            async.flush(SHUTDOWN_FLUSH_TIMEOUT_MS);
+        }
+    }
+    
+    /**
+     * Returns the number of entries dropped because the asynchronous buffer was full.
+     *
+     * @return the dropped entry count, or 0 in synchronous mode
+     */
+    public long getDroppedCount() {
+        AsyncLogWriter async = asyncWriter;
+        return async != null ? async.getDroppedCount() : 0;
+    }
+    
     /**
      * Logs a message with the specified log level.
      *
@@ -61,7 +161,12 @@ public class Logger {
      * @param message the message to log
      */
     public void log(LogLevel level, String message) {
-        String logEntry = getCurrentTimestamp() + " [" + level + "] " + message;
+        String logEntry = formatEntry(level, message);
+        
+        AsyncLogWriter async = asyncWriter;
+        if (async != null && async.submit(level, logEntry)) {
+            return;
+        }
         
         // Print to console
         if (level == LogLevel.ERROR) {
@@ -94,6 +199,18 @@ public class Logger {
      * @param e the exception
      */
     public void error(String message, Exception e) {
+        AsyncLogWriter async = asyncWriter;
+        if (async != null) {
+            // Queue the message and stack trace as one entry so they stay together
+            String entry = formatEntry(LogLevel.ERROR, message + ": " + e.getMessage());
+            StringWriter trace = new StringWriter();
+            e.printStackTrace(new PrintWriter(trace));
+            entry += System.lineSeparator() + getCurrentTimestamp() + " [STACK TRACE] " + trace.toString().trim();
+            if (async.submit(LogLevel.ERROR, entry)) {
+                return;
+            }
+        }
+        
         log(LogLevel.ERROR, message + ": " + e.getMessage());
         
         // Write stack trace to log file
@@ -132,13 +249,24 @@ public class Logger {
         log(LogLevel.DEBUG, message);
     }
     
+    /**
+     * Formats a log entry with the current timestamp and level.
+     *
+     * @param level the log level
+     * @param message the message to log
+     * @return the formatted entry
+     */
+    static String formatEntry(LogLevel level, String message) {
+        return getCurrentTimestamp() + " [" + level + "] " + message;
+    }
+    
     /**
      * Gets the current timestamp formatted for logging.
+     * The formatter is immutable and thread-safe, so one instance is shared.
      *
      * @return the formatted timestamp
      */
-    private String getCurrentTimestamp() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
-        return dateFormat.format(new Date());
+    private static String getCurrentTimestamp() {
+        return TIMESTAMP_FORMAT.format(LocalDateTime.now());
     }
 }
\ No newline at end of file
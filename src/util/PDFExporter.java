@@ -9,23 +9,42 @@ package util;
 
 import model.Employee;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 
 /**
  * SimplePDFExporter utility class for generating minimalistic PDF reports.
  * Uses a simplified approach that avoids version compatibility issues.
+ * Reports are streamed: employees are read one at a time and each page is written to
+ * the file as soon as it is full (see StreamingPageWriter), so memory use stays flat
+ * however many employees are exported. Payroll reports can also be split by department
+ * and rendered on all cores (see exportPayrollToPDFByDepartment). The employee and
+ * payroll reports are available as ReportSinks for single-pass exports with ReportPipeline.
  */
 public class PDFExporter {
     private static final Logger logger = Logger.getInstance();
+    private static final PDFont FONT = PDType1Font.HELVETICA;
+    private static final PDFont BOLD_FONT = PDType1Font.HELVETICA_BOLD;
+    // Workers used by the parallel exports
+    private static final int THREADS = Integer.getInteger("ems.pdf.threads", Runtime.getRuntime().availableProcessors());
 
     /**
      * Exports employee data to a PDF file.
@@ -35,303 +54,534 @@ public class PDFExporter {
      * @return true if the operation was successful, false otherwise
      */
     public static boolean exportEmployeesToPDF(List<Employee> employees, String filePath) {
-        logger.info("Starting simple PDF export to: " + filePath);
-        
-        PDDocument document = null;
-        
-        try {
-            document = new PDDocument();
-            PDFont font = PDType1Font.HELVETICA;
-            PDFont boldFont = PDType1Font.HELVETICA_BOLD;
-            
-            // Create first page
-            PDPage page = new PDPage(PDRectangle.A4);
-            document.addPage(page);
-            
-            PDPageContentStream contentStream = new PDPageContentStream(document, page);
-            
-            // Add title
-            float margin = 50;
-            float yPosition = page.getMediaBox().getHeight() - margin;
-            float lineHeight = 15;
-            
-            contentStream.setFont(boldFont, 16);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin, yPosition);
-            contentStream.showText("Employee Report");
-            contentStream.endText();
-            
-            yPosition -= lineHeight * 2;
-            
-            // Add timestamp
-            contentStream.setFont(font, 12);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin, yPosition);
-            contentStream.showText("Generated on: " + getCurrentTimestamp());
-            contentStream.endText();
+        return exportEmployeesToPDF(employees.stream(), filePath);
+    }
+
+    /**
+     * Exports employee data from a stream to a PDF file.
+     * Employees are read from the stream one at a time as pages are laid out.
+     *
+     * @param employees the employees to include in the report
+     * @param filePath the path where the PDF file should be saved
+     * @return true if the operation was successful, false otherwise
+     */
+    public static boolean exportEmployeesToPDF(Stream<Employee> employees, String filePath) {
+        return exportEmployeesToPDF(employees, filePath, Progress.NONE);
+    }
+
+    /**
+     * Exports employee data from a stream to a PDF file, reporting progress.
+     * If the export is cancelled or fails, no file is left behind.
+     *
+     * @param employees the employees to include in the report
+     * @param filePath the path where the PDF file should be saved
+     * @param progress receives the number of rows written and pages produced, and can cancel the export
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public static boolean exportEmployeesToPDF(Stream<Employee> employees, String filePath, Progress progress) {
+        return ReportPipeline.export(employees, new ReportContext(), employeeSink(filePath), progress);
+    }
+
+    /**
+     * Exports payroll data to a PDF file.
+     *
+     * @param employees the list of employees to include in the report
+     * @param filePath the path where the PDF file should be saved
+     * @return true if the operation was successful, false otherwise
+     */
+    public static boolean exportPayrollToPDF(List<Employee> employees, String filePath) {
+        // Calculate total salary
+        double totalSalary = 0;
+        for (Employee e : employees) {
+            totalSalary += e.getSalary();
+        }
+        return exportPayrollToPDF(employees.stream(), employees.size(), totalSalary, filePath);
+    }
+
+    /**
+     * Exports payroll data from a stream to a PDF file.
+     * The summary comes first in the report, so the totals are passed in
+     * (for example computed by the database) instead of being gathered from the stream.
+     *
+     * @param employees the employees to include in the report
+     * @param employeeCount the total number of employees
+     * @param totalSalary the sum of all salaries
+     * @param filePath the path where the PDF file should be saved
+     * @return true if the operation was successful, false otherwise
+     */
+    public static boolean exportPayrollToPDF(Stream<Employee> employees, int employeeCount, double totalSalary, String filePath) {
+        return exportPayrollToPDF(employees, employeeCount, totalSalary, filePath, Progress.NONE);
+    }
+
+    /**
+     * Exports payroll data from a stream to a PDF file, reporting progress.
+     * If the export is cancelled or fails, no file is left behind.
+     *
+     * @param employees the employees to include in the report
+     * @param employeeCount the total number of employees
+     * @param totalSalary the sum of all salaries
+     * @param filePath the path where the PDF file should be saved
+     * @param progress receives the number of rows written and pages produced, and can cancel the export
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public static boolean exportPayrollToPDF(Stream<Employee> employees, int employeeCount, double totalSalary,
+                                             String filePath, Progress progress) {
+        return ReportPipeline.export(employees, new ReportContext(employeeCount, totalSalary), payrollSink(filePath), progress);
+    }
+    
+    /**
+     * Returns a sink that writes the PDF report of employees.
+     *
+     * @param filePath the path where the PDF file should be saved
+     * @return the sink
+     */
+    public static ReportSink employeeSink(String filePath) {
+        return new PDFSink("Employee PDF report " + filePath, filePath) {
+            @Override
+            protected void writeHeader(PDFPageWriter writer, ReportContext context) throws IOException {
+                logger.info("Starting simple PDF export to: " + filePath);
+                
+                // Add title and timestamp
+                writer.writeLine(BOLD_FONT, 16, 0, "Employee Report", 2);
+                writer.writeLine(FONT, 12, 0, "Generated on: " + context.getGeneratedOn(), 3);
+            }
             
-            yPosition -= lineHeight * 3;
+            @Override
+            protected void writeEmployee(PDFPageWriter writer, Employee e) throws IOException {
+                writer.writeLine(BOLD_FONT, 12, 0, "Employee #" + (writer.getRowCount() + 1) + ": " + e.getName(), 1);
+                writer.writeLine(FONT, 10, 20, "ID: " + e.getId(), 1);
+                writer.writeLine(FONT, 10, 20, "Department: " + e.getDepartment(), 1);
+                writer.writeLine(FONT, 10, 20, "Salary: $" + String.format("%.2f", e.getSalary()), 1);
+                writer.writeLine(FONT, 10, 20, "Payment Method: " + e.getPaymentMethodName(), 2);
+                writer.rowWritten();
+            }
             
-            // Add employee data
-            for (int i = 0; i < employees.size(); i++) {
-                Employee e = employees.get(i);
-                
-                // Check if we need a new page
-                if (yPosition < 100) {
-                    contentStream.close();
-                    page = new PDPage(PDRectangle.A4);
-                    document.addPage(page);
-                    contentStream = new PDPageContentStream(document, page);
-                    yPosition = page.getMediaBox().getHeight() - margin;
-                }
-                
-                // Employee name
-                contentStream.setFont(boldFont, 12);
-                contentStream.beginText();
-                contentStream.newLineAtOffset(margin, yPosition);
-                contentStream.showText("Employee #" + (i+1) + ": " + e.getName());
-                contentStream.endText();
-                
-                yPosition -= lineHeight;
-                
-                // Employee details
-                contentStream.setFont(font, 10);
-                contentStream.beginText();
-                contentStream.newLineAtOffset(margin + 20, yPosition);
-                contentStream.showText("ID: " + e.getId());
-                contentStream.endText();
-                
-                yPosition -= lineHeight;
-                
-                contentStream.beginText();
-                contentStream.newLineAtOffset(margin + 20, yPosition);
-                contentStream.showText("Department: " + e.getDepartment());
-                contentStream.endText();
-                
-                yPosition -= lineHeight;
-                
-                contentStream.beginText();
-                contentStream.newLineAtOffset(margin + 20, yPosition);
-                contentStream.showText("Salary: $" + String.format("%.2f", e.getSalary()));
-                contentStream.endText();
+            @Override
+            protected void writeFooter(PDFPageWriter writer) throws IOException {
+                writer.writeFooter(FONT, 10, "Total Employees: " + writer.getRowCount());
+                logger.info("Simple PDF export completed successfully");
+            }
+        };
+    }
+    
+    /**
+     * Returns a sink that writes the PDF payroll report.
+     * The summary comes from the report context, so the employees are only read once.
+     *
+     * @param filePath the path where the PDF file should be saved
+     * @return the sink
+     */
+    public static ReportSink payrollSink(String filePath) {
+        return new PDFSink("Payroll PDF report " + filePath, filePath) {
+            @Override
+            protected void writeHeader(PDFPageWriter writer, ReportContext context) throws IOException {
+                logger.info("Starting simple payroll PDF export to: " + filePath);
                 
-                yPosition -= lineHeight;
+                // Add title and timestamp
+                writer.writeLine(BOLD_FONT, 16, 0, "Payroll Report", 2);
+                writer.writeLine(FONT, 12, 0, "Generated on: " + context.getGeneratedOn(), 3);
                 
-                contentStream.beginText();
-                contentStream.newLineAtOffset(margin + 20, yPosition);
-                contentStream.showText("Payment Method: " + e.getPaymentMethodName());
-                contentStream.endText();
+                // Add summary
+                writer.writeLine(BOLD_FONT, 12, 0, "Summary:", 1.5f);
+                writer.writeLine(FONT, 10, 20, "Total Employees: " + context.getEmployeeCount(), 1);
+                writer.writeLine(FONT, 10, 20, "Total Monthly Salary: $" + String.format("%.2f", context.getTotalSalary()), 1);
+                writer.writeLine(FONT, 10, 20, "Average Salary: $" + String.format("%.2f", context.getAverageSalary()), 3);
                 
-                yPosition -= lineHeight * 2;
+                // Add employee data
+                writer.writeLine(BOLD_FONT, 12, 0, "Individual Pay Details:", 2);
             }
             
-            // Add footer
-            contentStream.setFont(font, 10);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin, 50);
-            contentStream.showText("Total Employees: " + employees.size());
-            contentStream.endText();
-            
-            contentStream.close();
-            document.save(filePath);
+            @Override
+            protected void writeEmployee(PDFPageWriter writer, Employee e) throws IOException {
+                writePayrollEntry(writer, e, FONT, BOLD_FONT);
+            }
             
-            logger.info("Simple PDF export completed successfully");
-            return true;
-        } catch (IOException e) {
-            logger.error("Failed to export employees to PDF", e);
-            return false;
-        } finally {
-            if (document != null) {
+            @Override
+            protected void writeFooter(PDFPageWriter writer) throws IOException {
+                writer.writeFooter(FONT, 10, "End of Payroll Report");
+                logger.info("Simple payroll PDF export completed successfully");
+            }
+        };
+    }
+    
+    /**
+     * A report laid out by a PDFPageWriter, one block per employee.
+     */
+    private abstract static class PDFSink implements ReportSink {
+        private final String description;
+        private final String filePath;
+        private PDFPageWriter writer;
+        
+        PDFSink(String description, String filePath) {
+            this.description = description;
+            this.filePath = filePath;
+        }
+        
+        protected abstract void writeHeader(PDFPageWriter writer, ReportContext context) throws IOException;
+        
+        protected abstract void writeEmployee(PDFPageWriter writer, Employee e) throws IOException;
+        
+        protected abstract void writeFooter(PDFPageWriter writer) throws IOException;
+        
+        @Override
+        public void open(ReportContext context, Progress progress) throws IOException {
+            writer = PDFPageWriter.open(filePath, progress);
+            writeHeader(writer, context);
+        }
+        
+        @Override
+        public void write(Employee employee) throws IOException {
+            // Check if we need a new page
+            writer.ensureSpace();
+            writeEmployee(writer, employee);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            writeFooter(writer);
+            writer.finish();
+            writer.close();
+        }
+        
+        @Override
+        public void abort() {
+            if (writer != null) {
                 try {
-                    document.close();
+                    writer.close();
                 } catch (IOException e) {
-                    logger.error("Error closing PDF document", e);
+                    logger.warning("Could not close " + description + ": " + e.getMessage());
                 }
             }
+            deletePartialFile(filePath);
+        }
+        
+        @Override
+        public String getDescription() {
+            return description;
         }
     }
-
+    
     /**
-     * Exports payroll data to a PDF file.
+     * Exports payroll data to a PDF file with one section per department, rendering the
+     * departments in parallel.
+     * Every department is rendered by a worker of a pool of -Dems.pdf.threads threads
+     * (default: one per core), which loads the department's employees and writes its pages
+     * to a temporary part. The parts are then merged in department order behind a summary
+     * with the totals of every department, so the result does not depend on which worker
+     * finished first. If the export is cancelled or any department fails, the other
+     * workers stop and no file is left behind.
      *
-     * @param employees the list of employees to include in the report
+     * @param countByDepartment the number of employees of each department, in the order of the report
+     * @param salaryByDepartment the sum of the salaries of each department
+     * @param departmentEmployees loads the employees of a department; called from the worker threads
      * @param filePath the path where the PDF file should be saved
-     * @return true if the operation was successful, false otherwise
+     * @param progress receives the number of rows written and pages produced, and can cancel the export
+     * @return true if the operation was successful, false if it failed or was cancelled
      */
-    public static boolean exportPayrollToPDF(List<Employee> employees, String filePath) {
-        logger.info("Starting simple payroll PDF export to: " + filePath);
+    public static boolean exportPayrollToPDFByDepartment(Map<String, Integer> countByDepartment,
+                                                         Map<String, Double> salaryByDepartment,
+                                                         Function<String, List<Employee>> departmentEmployees,
+                                                         String filePath, Progress progress) {
+        logger.info("Starting parallel payroll PDF export of " + countByDepartment.size() + " departments to: " + filePath);
+        long start = System.nanoTime();
         
-        PDDocument document = null;
+        List<String> departments = new ArrayList<>(countByDepartment.keySet());
+        PartProgress partProgress = new PartProgress(progress);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(THREADS, departments.size())), r -> {
+            Thread t = new Thread(r, "pdf-render");
+            t.setDaemon(true);
+            return t;
+        });
         
-        try {
-            document = new PDDocument();
-            PDFont font = PDType1Font.HELVETICA;
-            PDFont boldFont = PDType1Font.HELVETICA_BOLD;
-            
-            // Calculate total salary
-            double totalSalary = 0;
-            for (Employee e : employees) {
-                totalSalary += e.getSalary();
+        // Part 0 is the summary; the last department ends the report
+        List<Future<PagePartWriter>> futures = new ArrayList<>();
+        futures.add(pool.submit(() -> renderPart(partProgress, (writer, font, boldFont) -> {
+            writeDepartmentSummary(writer, countByDepartment, salaryByDepartment, font, boldFont);
+            if (departments.isEmpty()) {
+                writer.writeFooter(font, 10, "End of Payroll Report");
             }
-            double averageSalary = employees.size() > 0 ? totalSalary / employees.size() : 0;
-            
-            // Create first page
-            PDPage page = new PDPage(PDRectangle.A4);
-            document.addPage(page);
-            
-            PDPageContentStream contentStream = new PDPageContentStream(document, page);
-            
-            // Add title
-            float margin = 50;
-            float yPosition = page.getMediaBox().getHeight() - margin;
-            float lineHeight = 15;
-            
-            contentStream.setFont(boldFont, 16);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin, yPosition);
-            contentStream.showText("Payroll Report");
-            contentStream.endText();
-            
-            yPosition -= lineHeight * 2;
-            
-            // Add timestamp
-            contentStream.setFont(font, 12);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin, yPosition);
-            contentStream.showText("Generated on: " + getCurrentTimestamp());
-            contentStream.endText();
-            
-            yPosition -= lineHeight * 3;
-            
-            // Add summary
-            contentStream.setFont(boldFont, 12);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin, yPosition);
-            contentStream.showText("Summary:");
-            contentStream.endText();
-            
-            yPosition -= lineHeight * 1.5;
-            
-            contentStream.setFont(font, 10);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin + 20, yPosition);
-            contentStream.showText("Total Employees: " + employees.size());
-            contentStream.endText();
-            
-            yPosition -= lineHeight;
-            
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin + 20, yPosition);
-            contentStream.showText("Total Monthly Salary: $" + String.format("%.2f", totalSalary));
-            contentStream.endText();
-            
-            yPosition -= lineHeight;
-            
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin + 20, yPosition);
-            contentStream.showText("Average Salary: $" + String.format("%.2f", averageSalary));
-            contentStream.endText();
-            
-            yPosition -= lineHeight * 3;
-            
-            // Add employee data
-            contentStream.setFont(boldFont, 12);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin, yPosition);
-            contentStream.showText("Individual Pay Details:");
-            contentStream.endText();
-            
-            yPosition -= lineHeight * 2;
-            
-            for (int i = 0; i < employees.size(); i++) {
-                Employee e = employees.get(i);
-                
-                // Check if we need a new page
-                if (yPosition < 100) {
-                    contentStream.close();
-                    page = new PDPage(PDRectangle.A4);
-                    document.addPage(page);
-                    contentStream = new PDPageContentStream(document, page);
-                    yPosition = page.getMediaBox().getHeight() - margin;
+        })));
+        for (int i = 0; i < departments.size(); i++) {
+            String department = departments.get(i);
+            boolean last = i == departments.size() - 1;
+            futures.add(pool.submit(() -> renderPart(partProgress, (writer, font, boldFont) -> {
+                List<Employee> employees = departmentEmployees.apply(department);
+                writer.writeLine(boldFont, 14, 0, "Department: " + department, 1.5f);
+                writer.writeLine(font, 10, 20, "Employees: " + employees.size() + ", Total Salary: $"
+                                 + String.format("%.2f", salaryByDepartment.getOrDefault(department, 0.0)), 2);
+                for (Employee e : employees) {
+                    writer.ensureSpace();
+                    writePayrollEntry(writer, e, font, boldFont);
                 }
-                
-                // Employee name
-                contentStream.setFont(boldFont, 12);
-                contentStream.beginText();
-                contentStream.newLineAtOffset(margin, yPosition);
-                contentStream.showText("Employee: " + e.getName());
-                contentStream.endText();
-                
-                yPosition -= lineHeight;
-                
-                // Employee details
-                contentStream.setFont(font, 10);
-                contentStream.beginText();
-                contentStream.newLineAtOffset(margin + 20, yPosition);
-                contentStream.showText("ID: " + e.getId());
-                contentStream.endText();
-                
-                yPosition -= lineHeight;
-                
-                contentStream.beginText();
-                contentStream.newLineAtOffset(margin + 20, yPosition);
-                contentStream.showText("Department: " + e.getDepartment());
-                contentStream.endText();
-                
-                yPosition -= lineHeight;
-                
-                contentStream.beginText();
-                contentStream.newLineAtOffset(margin + 20, yPosition);
-                contentStream.showText("Salary: $" + String.format("%.2f", e.getSalary()));
-                contentStream.endText();
-                
-                yPosition -= lineHeight;
-                
-                contentStream.beginText();
-                contentStream.newLineAtOffset(margin + 20, yPosition);
-                contentStream.showText("Payment Method: " + e.getPaymentMethodName());
-                contentStream.endText();
-                
-                yPosition -= lineHeight;
-                
-                // Truncate paystub if too long
-                String payStub = e.generatePayStub();
-                if (payStub.length() > 50) {
-                    payStub = payStub.substring(0, 50) + "...";
+                if (last) {
+                    writer.writeFooter(font, 10, "End of Payroll Report");
                 }
-                
-                contentStream.beginText();
-                contentStream.newLineAtOffset(margin + 20, yPosition);
-                contentStream.showText("Payment: " + payStub);
-                contentStream.endText();
-                
-                yPosition -= lineHeight * 2;
+            })));
+        }
+        pool.shutdown();
+        
+        try {
+            List<PagePartWriter> parts = new ArrayList<>(futures.size());
+            for (Future<PagePartWriter> future : futures) {
+                parts.add(future.get());
             }
+            StreamingPageWriter.merge(Paths.get(filePath), parts);
+            progress.update(partProgress.getRows(), partProgress.getPages());
             
-            // Add footer
-            contentStream.setFont(font, 10);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin, 50);
-            contentStream.showText("End of Payroll Report");
-            contentStream.endText();
-            
-            contentStream.close();
-            document.save(filePath);
-            
-            logger.info("Simple payroll PDF export completed successfully");
+            logger.info("Parallel payroll PDF export completed: " + partProgress.getRows() + " employees on "
+                        + partProgress.getPages() + " pages in " + (System.nanoTime() - start) / 1_000_000 + " ms");
             return true;
+        } catch (ExecutionException e) {
+            // Report the first failure, not a worker that merely stopped because of it
+            Exception failure = partProgress.getFailure() != null ? partProgress.getFailure() : e;
+            if (failure instanceof CancellationException) {
+                logger.info("Payroll PDF export to " + filePath + " cancelled");
+            } else {
+                logger.error("Failed to export payroll to PDF by department", failure);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warning("Payroll PDF export to " + filePath + " interrupted");
         } catch (IOException e) {
-            logger.error("Failed to export payroll to PDF", e);
-            return false;
+            logger.error("Failed to merge payroll PDF parts", e);
         } finally {
-            if (document != null) {
-                try {
-                    document.close();
-                } catch (IOException e) {
-                    logger.error("Error closing PDF document", e);
+            // Stop any workers still running, then remove every part that was rendered
+            partProgress.stop();
+            awaitTermination(pool);
+            for (Future<PagePartWriter> future : futures) {
+                PagePartWriter part = getCompletedPart(future);
+                if (part != null) {
+                    part.delete();
+                }
+            }
+        }
+        deletePartialFile(filePath);
+        return false;
+    }
+    
+    /**
+     * Writes the entry of one employee in a payroll report.
+     *
+     * @param writer the page writer
+     * @param e the employee
+     * @param font the regular font
+     * @param boldFont the bold font
+     * @throws IOException if the text cannot be written
+     */
+    private static void writePayrollEntry(PDFPageWriter writer, Employee e, PDFont font, PDFont boldFont) throws IOException {
+        writer.writeLine(boldFont, 12, 0, "Employee: " + e.getName(), 1);
+        writer.writeLine(font, 10, 20, "ID: " + e.getId(), 1);
+        writer.writeLine(font, 10, 20, "Department: " + e.getDepartment(), 1);
+        writer.writeLine(font, 10, 20, "Salary: $" + String.format("%.2f", e.getSalary()), 1);
+        writer.writeLine(font, 10, 20, "Payment Method: " + e.getPaymentMethodName(), 1);
+        
+        // Truncate paystub if too long
+        String payStub = e.generatePayStub();
+        if (payStub.length() > 50) {
+            payStub = payStub.substring(0, 50) + "...";
+        }
+        writer.writeLine(font, 10, 20, "Payment: " + payStub, 2);
+        writer.rowWritten();
+    }
+    
+    /**
+     * Writes the title and the summary of a payroll report split by department.
+     *
+     * @param writer the page writer
+     * @param countByDepartment the number of employees of each department
+     * @param salaryByDepartment the sum of the salaries of each department
+     * @param font the regular font
+     * @param boldFont the bold font
+     * @throws IOException if the text cannot be written
+     */
+    private static void writeDepartmentSummary(PDFPageWriter writer, Map<String, Integer> countByDepartment,
+                                               Map<String, Double> salaryByDepartment,
+                                               PDFont font, PDFont boldFont) throws IOException {
+        int employeeCount = 0;
+        double totalSalary = 0;
+        for (Map.Entry<String, Integer> department : countByDepartment.entrySet()) {
+            employeeCount += department.getValue();
+            totalSalary += salaryByDepartment.getOrDefault(department.getKey(), 0.0);
+        }
+        
+        writer.writeLine(boldFont, 16, 0, "Payroll Report", 2);
+        writer.writeLine(font, 12, 0, "Generated on: " + getCurrentTimestamp(), 3);
+        
+        writer.writeLine(boldFont, 12, 0, "Summary:", 1.5f);
+        writer.writeLine(font, 10, 20, "Total Employees: " + employeeCount, 1);
+        writer.writeLine(font, 10, 20, "Total Monthly Salary: $" + String.format("%.2f", totalSalary), 1);
+        writer.writeLine(font, 10, 20, "Average Salary: $"
+                         + String.format("%.2f", employeeCount > 0 ? totalSalary / employeeCount : 0), 3);
+        
+        writer.writeLine(boldFont, 12, 0, "Departments:", 2);
+        for (Map.Entry<String, Integer> department : countByDepartment.entrySet()) {
+            writer.ensureSpace();
+            int count = department.getValue();
+            double salary = salaryByDepartment.getOrDefault(department.getKey(), 0.0);
+            writer.writeLine(font, 10, 20, department.getKey() + ": " + count + " employees, Total Salary: $"
+                             + String.format("%.2f", salary) + ", Average Salary: $"
+                             + String.format("%.2f", count > 0 ? salary / count : 0), 1);
+        }
+    }
+    
+    /**
+     * Renders one part of a report into a temporary file.
+     * If rendering fails, the part's file is deleted and the other parts are told to stop.
+     *
+     * @param partProgress the progress shared by all parts
+     * @param renderer writes the content of the part
+     * @return the finished and closed part
+     * @throws IOException if the part cannot be written
+     */
+    private static PagePartWriter renderPart(PartProgress partProgress, PartRenderer renderer) throws IOException {
+        PagePartWriter writer = PDFPageWriter.openPart(partProgress.forPart());
+        boolean finished = false;
+        try {
+            renderer.render(writer, FONT, BOLD_FONT);
+            writer.finish();
+            finished = true;
+            return writer;
+        } catch (IOException | RuntimeException e) {
+            partProgress.fail(e);
+            throw e;
+        } finally {
+            writer.close();
+            if (!finished) {
+                writer.delete();
+            }
+        }
+    }
+    
+    /**
+     * Waits until every worker of a pool that was shut down has stopped.
+     *
+     * @param pool the pool
+     */
+    private static void awaitTermination(ExecutorService pool) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
                 }
+            } catch (InterruptedException e) {
+                interrupted = true;
             }
         }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Returns the part rendered by a finished worker.
+     *
+     * @param future the worker's result
+     * @return the part, or null if the worker failed
+     */
+    private static PagePartWriter getCompletedPart(Future<PagePartWriter> future) {
+        try {
+            return future.isDone() ? future.get() : null;
+        } catch (ExecutionException | InterruptedException | CancellationException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Writes the content of one part of a report rendered in parallel.
+     */
+    private interface PartRenderer {
+        /**
+         * Writes the content of the part.
+         *
+         * @param writer the page writer of the part
+         * @param font the regular font
+         * @param boldFont the bold font
+         * @throws IOException if the content cannot be written
+         */
+        void render(PDFPageWriter writer, PDFont font, PDFont boldFont) throws IOException;
+    }
+    
+    /**
+     * Adds up the progress of parts rendered in parallel.
+     * Each part reports its own row and page counts; the increases are added to shared
+     * totals, which are forwarded to the export's progress one update at a time.
+     * Stopping, or a failure of any part, cancels all the others.
+     */
+    private static final class PartProgress {
+        private final Progress target;
+        private final AtomicInteger rows = new AtomicInteger();
+        private final AtomicInteger pages = new AtomicInteger();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private volatile boolean stopped;
+        
+        PartProgress(Progress target) {
+            this.target = target;
+        }
+        
+        /**
+         * Creates the progress of one part, to be used by one thread.
+         *
+         * @return the part's progress
+         */
+        Progress forPart() {
+            return new Progress() {
+                private int partRows;
+                private int partPages;
+                
+                @Override
+                public void update(int rowsWritten, int pagesProduced) {
+                    rows.addAndGet(rowsWritten - partRows);
+                    pages.addAndGet(pagesProduced - partPages);
+                    partRows = rowsWritten;
+                    partPages = pagesProduced;
+                    forward();
+                }
+                
+                @Override
+                public boolean isCancelled() {
+                    return stopped || target.isCancelled();
+                }
+            };
+        }
+        
+        private synchronized void forward() {
+            target.update(rows.get(), pages.get());
+        }
+        
+        void fail(Exception e) {
+            failure.compareAndSet(null, e);
+            stopped = true;
+        }
+        
+        void stop() {
+            stopped = true;
+        }
+        
+        Exception getFailure() {
+            return failure.get();
+        }
+        
+        int getRows() {
+            return rows.get();
+        }
+        
+        int getPages() {
+            return pages.get();
+        }
+    }
+    
+    /**
+     * Deletes the output of an export that did not complete, in case saving had already started.
+     *
+     * @param filePath the path of the partial file
+     */
+    private static void deletePartialFile(String filePath) {
+        try {
+            Files.deleteIfExists(Paths.get(filePath));
+        } catch (IOException e) {
+            logger.error("Could not delete partial PDF " + filePath, e);
+        }
     }
     
     /**
@@ -0,0 +1,226 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PDFPageWriter.java
+ */
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * Lays out lines of text top to bottom on A4 pages of a PDF file, starting a new page
+ * when the current one is full.
+ * StreamingPageWriter writes every page to the file as soon as it is full, so memory
+ * use does not grow with the length of the report; PagePartWriter does the same into a
+ * temporary file, for reports whose parts are rendered in parallel and merged; and
+ * DocumentPageWriter builds a PDFBox document that is saved at the end.
+ * Call finish to complete the file; closing a writer that was not finished leaves
+ * an incomplete file behind for the caller to delete.
+ */
+abstract class PDFPageWriter implements Closeable {
+    static final PDRectangle PAGE_SIZE = PDRectangle.A4;
+    static final float MARGIN = 50;
+    static final float LINE_HEIGHT = 15;
+    // A new page is started when the next block would begin below this height
+    private static final float PAGE_BREAK_Y = 100;
+    // Streaming is the default; -Dems.pdf.streaming=false builds the whole document with PDFBox instead
+    private static final boolean STREAMING = Boolean.parseBoolean(System.getProperty("ems.pdf.streaming", "true"));
+
+    private final Progress progress;
+    private float yPosition;
+    private int pages;
+    private int rows;
+    private PDFont currentFont;
+    private float currentFontSize;
+
+    /**
+     * Creates a writer.
+     *
+     * @param progress receives the rows and pages written and can cancel the export
+     */
+    protected PDFPageWriter(Progress progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Opens a writer for a PDF file and starts its first page.
+     * Whether pages are streamed is controlled by -Dems.pdf.streaming (default true).
+     *
+     * @param filePath the path of the PDF file to write
+     * @param progress receives the rows and pages written and can cancel the export
+     * @return the writer
+     * @throws IOException if the file cannot be created
+     */
+    static PDFPageWriter open(String filePath, Progress progress) throws IOException {
+        return start(STREAMING
+            ? new StreamingPageWriter(Paths.get(filePath), progress)
+            : new DocumentPageWriter(filePath, progress));
+    }
+
+    /**
+     * Opens a writer for one part of a report rendered in parallel, and starts its first page.
+     * The finished parts are combined with StreamingPageWriter.merge.
+     *
+     * @param progress receives the rows and pages written and can cancel the export
+     * @return the writer
+     * @throws IOException if the temporary file of the part cannot be created
+     */
+    static PagePartWriter openPart(Progress progress) throws IOException {
+        return start(new PagePartWriter(progress));
+    }
+
+    /**
+     * Starts the first page of a new writer, closing the writer if that fails.
+     */
+    private static <W extends PDFPageWriter> W start(W writer) throws IOException {
+        try {
+            ((PDFPageWriter) writer).startPage();
+        } catch (IOException e) {
+            writer.close();
+            throw e;
+        }
+        return writer;
+    }
+
+    /**
+     * Writes a line of text at the current position and moves down.
+     *
+     * @param font the font of the text
+     * @param fontSize the font size
+     * @param indent the distance from the left margin
+     * @param text the text to write
+     * @param linesAfter how many line heights to move down afterwards
+     * @throws IOException if the text cannot be written
+     */
+    void writeLine(PDFont font, float fontSize, float indent, String text, float linesAfter) throws IOException {
+        if (font != currentFont || fontSize != currentFontSize) {
+            setFont(font, fontSize);
+            currentFont = font;
+            currentFontSize = fontSize;
+        }
+        showText(font, MARGIN + indent, yPosition, text);
+        yPosition -= LINE_HEIGHT * linesAfter;
+    }
+
+    /**
+     * Writes a line of text at the bottom of the current page, without moving.
+     *
+     * @param font the font of the text
+     * @param fontSize the font size
+     * @param text the text to write
+     * @throws IOException if the text cannot be written
+     */
+    void writeFooter(PDFont font, float fontSize, String text) throws IOException {
+        float y = yPosition;
+        yPosition = MARGIN;
+        writeLine(font, fontSize, 0, text, 0);
+        yPosition = y;
+    }
+
+    /**
+     * Starts a new page if the current one has no room for another block.
+     *
+     * @throws IOException if the page cannot be written or created
+     */
+    void ensureSpace() throws IOException {
+        if (yPosition < PAGE_BREAK_Y) {
+            endPage();
+            startPage();
+            progress.update(rows, pages);
+        }
+    }
+
+    /**
+     * Records that one more employee has been written, and stops if the export was cancelled.
+     */
+    void rowWritten() {
+        progress.checkpoint(++rows, pages);
+    }
+
+    /**
+     * Returns the number of employees written.
+     *
+     * @return the row count
+     */
+    int getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of pages started.
+     *
+     * @return the page count
+     */
+    int getPageCount() {
+        return pages;
+    }
+
+    /**
+     * Completes the last page and the file. The writer must still be closed afterwards.
+     *
+     * @throws IOException if the file cannot be completed
+     */
+    void finish() throws IOException {
+        endPage();
+        save();
+        progress.update(rows, pages);
+    }
+
+    /**
+     * Begins a page and resets the layout to its top.
+     */
+    private void startPage() throws IOException {
+        beginPage();
+        currentFont = null;
+        yPosition = PAGE_SIZE.getHeight() - MARGIN;
+        pages++;
+    }
+
+    /**
+     * Adds a page to the output and makes it the current page.
+     *
+     * @throws IOException if the page cannot be created
+     */
+    protected abstract void beginPage() throws IOException;
+
+    /**
+     * Completes the current page.
+     *
+     * @throws IOException if the page cannot be written
+     */
+    protected abstract void endPage() throws IOException;
+
+    /**
+     * Selects the font for the following text on the current page.
+     *
+     * @param font the font
+     * @param fontSize the font size
+     * @throws IOException if the font cannot be selected
+     */
+    protected abstract void setFont(PDFont font, float fontSize) throws IOException;
+
+    /**
+     * Draws text on the current page.
+     *
+     * @param font the font selected for the text, used to encode it
+     * @param x the horizontal position of the text
+     * @param y the vertical position of the baseline
+     * @param text the text to draw
+     * @throws IOException if the text cannot be drawn
+     */
+    protected abstract void showText(PDFont font, float x, float y, String text) throws IOException;
+
+    /**
+     * Writes whatever the file still needs after its last page.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    protected abstract void save() throws IOException;
+}
@@ -0,0 +1,55 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PDFTextEncoder.java
+ */
+package util;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * Encodes text for a page content stream, as a hex string in the encoding of a font.
+ * Each character is encoded with PDFBox the first time it is seen and cached by the
+ * encoder afterwards. PDFBox fonts cache encoded characters in an unsynchronized map
+ * and the standard fonts are shared, so a font is only asked under its lock; an
+ * encoder itself belongs to one thread.
+ */
+final class PDFTextEncoder {
+    // Encoded form of every character seen so far, per font
+    private final Map<PDFont, Map<Integer, byte[]>> encodings = new IdentityHashMap<>();
+
+    /**
+     * Appends text as a PDF hex string, including the angle brackets.
+     *
+     * @param font the font the text is shown in
+     * @param text the text
+     * @param out the buffer to append to
+     * @throws IOException if the font cannot be read
+     * @throws IllegalArgumentException if the font cannot encode a character of the text
+     */
+    void appendHex(PDFont font, String text, StringBuilder out) throws IOException {
+        Map<Integer, byte[]> encoding = encodings.computeIfAbsent(font, f -> new HashMap<>());
+        out.append('<');
+        for (int i = 0; i < text.length(); i += Character.charCount(text.codePointAt(i))) {
+            int codePoint = text.codePointAt(i);
+            byte[] encoded = encoding.get(codePoint);
+            if (encoded == null) {
+                synchronized (font) {
+                    encoded = font.encode(new String(Character.toChars(codePoint)));
+                }
+                encoding.put(codePoint, encoded);
+            }
+            for (byte b : encoded) {
+                out.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+        }
+        out.append('>');
+    }
+}
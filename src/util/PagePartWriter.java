@@ -0,0 +1,94 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PagePartWriter.java
+ */
+package util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * PDFPageWriter that renders one part of a report into a temporary file, so that
+ * several parts can be rendered at the same time and then merged in order by
+ * StreamingPageWriter.merge. The temporary file holds nothing but the deflated
+ * content stream of each page, each preceded by its length.
+ * A part writer is used by one thread at a time; call delete once the part has
+ * been merged or is no longer needed.
+ */
+class PagePartWriter extends CompressedPageWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final DataOutputStream out;
+    private int pagesWritten;
+
+    /**
+     * Creates a temporary file for the part.
+     *
+     * @param progress receives the rows and pages written and can cancel the export
+     * @throws IOException if the temporary file cannot be created
+     */
+    PagePartWriter(Progress progress) throws IOException {
+        super(progress);
+        file = Files.createTempFile("ems-pdf-part", ".tmp");
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+    }
+
+    @Override
+    protected void writePage(byte[] data, int length) throws IOException {
+        out.writeInt(length);
+        out.write(data, 0, length);
+        pagesWritten++;
+    }
+
+    @Override
+    protected void save() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Returns the temporary file holding the pages of this part.
+     *
+     * @return the part file
+     */
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the number of pages in the part file.
+     *
+     * @return the number of finished pages
+     */
+    int getPagesWritten() {
+        return pagesWritten;
+    }
+
+    /**
+     * Closes the temporary file and releases the compressor. The file is kept until delete is called.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        super.close();
+        out.close();
+    }
+
+    /**
+     * Deletes the temporary file.
+     */
+    void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            Logger.getInstance().warning("Could not delete temporary PDF part " + file + ": " + e.getMessage());
+        }
+    }
+}
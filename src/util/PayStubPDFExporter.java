@@ -0,0 +1,136 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PayStubPDFExporter.java
+ */
+package util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import model.PayStub;
+import model.PayStubSink;
+
+/**
+ * Produces one PDF file per pay stub, either in a directory or in a zip archive.
+ * The sinks are meant for a pay run (see EmployeeController.runPayroll), whose worker
+ * threads hand them chunks of stubs: every chunk is rendered on the thread that
+ * delivers it, from a PayStubTemplate shared by the whole run, so stubs are rendered
+ * on all cores and nothing but the current chunk is held in memory.
+ */
+public class PayStubPDFExporter {
+    private static final Logger logger = Logger.getInstance();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Returns a sink that writes each stub to its own PDF file in a directory.
+     * The files are named paystub_ID.pdf and replace any file of the same name.
+     *
+     * @param directory the directory for the PDF files; it is created if necessary
+     * @return the sink
+     * @throws IOException if the directory cannot be created
+     */
+    public static PayStubSink toDirectory(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        PayStubTemplate template = newTemplate();
+        AtomicInteger written = new AtomicInteger();
+        return new PayStubSink() {
+            @Override
+            public void write(List<PayStub> stubs) throws IOException {
+                PayStubTemplate.Renderer renderer = template.newRenderer();
+                for (PayStub stub : stubs) {
+                    Files.write(directory.resolve(getFileName(stub)), renderer.render(stub));
+                }
+                written.addAndGet(stubs.size());
+            }
+
+            @Override
+            public void close() {
+                logger.info("Wrote " + written.get() + " pay stub PDFs to " + directory);
+            }
+        };
+    }
+
+    /**
+     * Returns a sink that writes each stub as a PDF file named paystub_ID.pdf into a zip archive.
+     * The PDFs are stored without further compression, since their content is small and
+     * the archive entries are written one chunk at a time; the archive is completed when
+     * the sink is closed.
+     *
+     * @param file the zip file to write; it is created or truncated
+     * @return the sink
+     * @throws IOException if the file cannot be opened
+     */
+    public static PayStubSink toZip(Path file) throws IOException {
+        PayStubTemplate template = newTemplate();
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+        zip.setMethod(ZipOutputStream.STORED);
+        AtomicInteger written = new AtomicInteger();
+        return new PayStubSink() {
+            @Override
+            public void write(List<PayStub> stubs) throws IOException {
+                // Render and checksum on the calling thread; only the copy into the archive is serialized
+                PayStubTemplate.Renderer renderer = template.newRenderer();
+                CRC32 crc = new CRC32();
+                List<ZipEntry> entries = new ArrayList<>(stubs.size());
+                List<byte[]> pdfs = new ArrayList<>(stubs.size());
+                for (PayStub stub : stubs) {
+                    byte[] pdf = renderer.render(stub);
+                    crc.reset();
+                    crc.update(pdf);
+                    ZipEntry entry = new ZipEntry(getFileName(stub));
+                    entry.setSize(pdf.length);
+                    entry.setCompressedSize(pdf.length);
+                    entry.setCrc(crc.getValue());
+                    entries.add(entry);
+                    pdfs.add(pdf);
+                }
+                synchronized (zip) {
+                    for (int i = 0; i < entries.size(); i++) {
+                        zip.putNextEntry(entries.get(i));
+                        zip.write(pdfs.get(i));
+                        zip.closeEntry();
+                    }
+                }
+                written.addAndGet(stubs.size());
+            }
+
+            @Override
+            public void close() throws IOException {
+                synchronized (zip) {
+                    zip.close();
+                }
+                logger.info("Wrote " + written.get() + " pay stub PDFs to " + file);
+            }
+        };
+    }
+
+    /**
+     * Returns the name of the PDF file of a pay stub.
+     *
+     * @param stub the pay stub
+     * @return the file name
+     */
+    public static String getFileName(PayStub stub) {
+        return "paystub_" + stub.getEmployeeId() + ".pdf";
+    }
+
+    /**
+     * Creates the template of a pay run, dated now.
+     */
+    private static PayStubTemplate newTemplate() throws IOException {
+        return new PayStubTemplate(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+    }
+}
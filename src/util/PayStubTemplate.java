@@ -0,0 +1,213 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * PayStubTemplate.java
+ */
+package util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.PayStub;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+/**
+ * A one-page pay stub PDF in which everything except the employee's own details is
+ * prepared once. The catalog, page tree, fonts, page dictionary and the text that is
+ * the same on every stub are built when the template is created. The page content is
+ * the last object in the file, so the cross-reference table is the same for every stub
+ * as well. Rendering a stub only lays out and encodes its own values and copies the
+ * prepared bytes around them. The content stream is not compressed; it is small, and
+ * deflating it would cost more than the rest of the stub.
+ * A template can be shared between threads, each rendering with its own Renderer.
+ */
+final class PayStubTemplate {
+    private static final PDFont FONT = PDType1Font.HELVETICA;
+    private static final PDFont BOLD_FONT = PDType1Font.HELVETICA_BOLD;
+    private static final float TOP = PDFPageWriter.PAGE_SIZE.getHeight() - PDFPageWriter.MARGIN;
+    private static final float LABEL_X = PDFPageWriter.MARGIN;
+    private static final float VALUE_X = LABEL_X + 120;
+    private static final float LINE_HEIGHT = PDFPageWriter.LINE_HEIGHT;
+    // Positions of the variable fields
+    private static final float DETAILS_Y = TOP - 140;
+    private static final float LAST_DETAILS_Y = PDFPageWriter.MARGIN + 3 * LINE_HEIGHT;
+    // Lines of the pay stub text longer than this are wrapped at a space
+    private static final int WRAP_COLUMNS = 90;
+    private static final int CONTENTS = 7;
+
+    // Header, objects 1 to 6, and the start of the contents object up to its length
+    private final byte[] head;
+    // Content stream operators shared by every stub
+    private final byte[] fixedContent;
+    private final byte[] endContents = ascii("\nendstream\nendobj\n");
+    // Cross-reference table and trailer, up to the offset of the table
+    private final byte[] xref;
+
+    /**
+     * Prepares the parts of the file that every stub shares.
+     *
+     * @param generatedOn the time of the pay run, printed on every stub
+     * @throws IOException if the fixed text cannot be encoded
+     */
+    PayStubTemplate(String generatedOn) throws IOException {
+        String[] objects = {
+            null,
+            "<< /Type /Catalog /Pages 2 0 R >>",
+            "<< /Type /Pages /Count 1 /Kids [4 0 R] >>",
+            "<< /ProcSet [/PDF /Text] /Font << /" + FONT.getName() + " 5 0 R /" + BOLD_FONT.getName() + " 6 0 R >> >>",
+            "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + CompressedPageWriter.number(PDFPageWriter.PAGE_SIZE.getWidth())
+                + " " + CompressedPageWriter.number(PDFPageWriter.PAGE_SIZE.getHeight())
+                + "] /Resources 3 0 R /Contents " + CONTENTS + " 0 R >>",
+            StreamingPageWriter.fontDictionary(FONT),
+            StreamingPageWriter.fontDictionary(BOLD_FONT)
+        };
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(StreamingPageWriter.HEADER);
+        long[] offsets = new long[CONTENTS + 1];
+        for (int object = 1; object < CONTENTS; object++) {
+            offsets[object] = file.size();
+            file.write(ascii(object + " 0 obj\n" + objects[object] + "\nendobj\n"));
+        }
+        offsets[CONTENTS] = file.size();
+        file.write(ascii(CONTENTS + " 0 obj\n<< /Length "));
+        head = file.toByteArray();
+
+        StringBuilder table = new StringBuilder("xref\n0 " + (CONTENTS + 1) + "\n0000000000 65535 f \n");
+        for (int object = 1; object <= CONTENTS; object++) {
+            table.append(String.format("%010d 00000 n \n", offsets[object]));
+        }
+        table.append("trailer\n<< /Size ").append(CONTENTS + 1).append(" /Root 1 0 R >>\nstartxref\n");
+        xref = ascii(table.toString());
+
+        PDFTextEncoder encoder = new PDFTextEncoder();
+        StringBuilder content = new StringBuilder(1024);
+        setFont(content, BOLD_FONT, 16);
+        showText(content, encoder, BOLD_FONT, LABEL_X, TOP, "Pay Stub");
+        setFont(content, FONT, 10);
+        showText(content, encoder, FONT, LABEL_X, TOP - 2 * LINE_HEIGHT, "Generated on: " + generatedOn);
+        showText(content, encoder, FONT, LABEL_X, PDFPageWriter.MARGIN,
+                 "This pay stub was generated by the Employee Management System.");
+        setFont(content, BOLD_FONT, 10);
+        String[] labels = {"Employee:", "Employee ID:", "Payment Method:", "Amount Paid:"};
+        for (int i = 0; i < labels.length; i++) {
+            showText(content, encoder, BOLD_FONT, LABEL_X, fieldY(i), labels[i]);
+        }
+        showText(content, encoder, BOLD_FONT, LABEL_X, DETAILS_Y + 1.5f * LINE_HEIGHT, "Details:");
+        fixedContent = ascii(content.toString());
+    }
+
+    /**
+     * Creates a renderer for the calling thread.
+     *
+     * @return a new renderer
+     */
+    Renderer newRenderer() {
+        return new Renderer();
+    }
+
+    /**
+     * Renders stubs from the template. A renderer reuses its buffers and belongs to one thread.
+     */
+    final class Renderer {
+        private final PDFTextEncoder encoder = new PDFTextEncoder();
+        private final StringBuilder content = new StringBuilder(1024);
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+
+        private Renderer() {
+        }
+
+        /**
+         * Renders the PDF file of one pay stub.
+         *
+         * @param stub the pay stub
+         * @return the complete PDF file
+         * @throws IOException if the stub contains characters the font cannot show
+         */
+        byte[] render(PayStub stub) throws IOException {
+            content.setLength(0);
+            setFont(content, FONT, 10);
+            try {
+                String[] values = {stub.getEmployeeName(), Integer.toString(stub.getEmployeeId()),
+                                   stub.getPaymentMethod(), "$" + String.format("%.2f", stub.getAmount())};
+                for (int i = 0; i < values.length; i++) {
+                    showText(content, encoder, FONT, VALUE_X, fieldY(i), values[i]);
+                }
+                float y = DETAILS_Y;
+                List<String> lines = wrap(stub.getText());
+                for (int i = 0; i < lines.size(); i++) {
+                    String line = lines.get(i);
+                    if (y - LINE_HEIGHT < LAST_DETAILS_Y && i < lines.size() - 1) {
+                        // No room for the rest of the text
+                        showText(content, encoder, FONT, LABEL_X, y, line + " ...");
+                        break;
+                    }
+                    showText(content, encoder, FONT, LABEL_X, y, line);
+                    y -= LINE_HEIGHT;
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Cannot render the pay stub of employee " + stub.getEmployeeId() + ": " + e.getMessage(), e);
+            }
+
+            out.reset();
+            out.write(head);
+            out.write(ascii((fixedContent.length + content.length()) + " >>\nstream\n"));
+            out.write(fixedContent);
+            for (int i = 0; i < content.length(); i++) {
+                out.write(content.charAt(i));
+            }
+            out.write(endContents);
+            int xrefOffset = out.size();
+            out.write(xref);
+            out.write(ascii(xrefOffset + "\n%%EOF\n"));
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Returns the baseline of the field in the given row.
+     */
+    private static float fieldY(int row) {
+        return TOP - (4 + row) * LINE_HEIGHT;
+    }
+
+    /**
+     * Splits pay stub text into lines, wrapping long lines at a space.
+     */
+    private static List<String> wrap(String text) {
+        List<String> lines = new ArrayList<>();
+        for (String line : text.split("\r?\n")) {
+            while (line.length() > WRAP_COLUMNS) {
+                int end = line.lastIndexOf(' ', WRAP_COLUMNS);
+                if (end <= 0) {
+                    end = WRAP_COLUMNS;
+                }
+                lines.add(line.substring(0, end));
+                line = line.substring(end).trim();
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private static void setFont(StringBuilder content, PDFont font, float fontSize) {
+        content.append('/').append(font.getName()).append(' ').append(CompressedPageWriter.number(fontSize)).append(" Tf\n");
+    }
+
+    private static void showText(StringBuilder content, PDFTextEncoder encoder, PDFont font,
+                                 float x, float y, String text) throws IOException {
+        content.append("BT\n").append(CompressedPageWriter.number(x)).append(' ')
+               .append(CompressedPageWriter.number(y)).append(" Td\n");
+        encoder.appendHex(font, text, content);
+        content.append(" Tj\nET\n");
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
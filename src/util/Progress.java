@@ -0,0 +1,71 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * Progress.java
+ */
+package util;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Receives progress updates from a long-running export and tells it when to stop.
+ * Exporters call checkpoint after every row, and update whenever they start a new
+ * page and when they finish, from the thread that runs the export. Exports that render
+ * in parallel still deliver their updates one at a time, but possibly from different threads.
+ * A cancelled export stops, deletes its partial output file and reports failure.
+ */
+public interface Progress {
+
+    /**
+     * Number of rows an exporter writes between two updates.
+     */
+    int UPDATE_INTERVAL = 500;
+
+    /**
+     * Progress that ignores updates and is never cancelled.
+     */
+    Progress NONE = new Progress() {
+        @Override
+        public void update(int rowsWritten, int pagesProduced) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    /**
+     * Reports how far the export has got.
+     *
+     * @param rowsWritten the number of employees written so far
+     * @param pagesProduced the number of pages produced so far, or 0 for formats without pages
+     */
+    void update(int rowsWritten, int pagesProduced);
+
+    /**
+     * Checks whether the export should stop.
+     *
+     * @return true if the export was cancelled
+     */
+    boolean isCancelled();
+
+    /**
+     * Called by exporters after each row: stops the export if it was cancelled and
+     * sends an update every UPDATE_INTERVAL rows.
+     *
+     * @param rowsWritten the number of employees written so far
+     * @param pagesProduced the number of pages produced so far, or 0 for formats without pages
+     * @throws CancellationException if the export was cancelled
+     */
+    default void checkpoint(int rowsWritten, int pagesProduced) {
+        if (isCancelled()) {
+            throw new CancellationException("Export cancelled after " + rowsWritten + " rows");
+        }
+        if (rowsWritten % UPDATE_INTERVAL == 0) {
+            update(rowsWritten, pagesProduced);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * ReportCompression.java
+ */
+package util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * How a text report is written to its file. GZIP compresses the report while it is
+ * written, so the uncompressed report never exists on disk. The compression level
+ * (1 = fastest, 9 = smallest) is set with -Dems.report.gzipLevel and the size of the
+ * compressor's output buffer with -Dems.report.gzipBufferSize (bytes).
+ */
+public enum ReportCompression {
+    NONE,
+    GZIP;
+
+    private static final int GZIP_LEVEL = Integer.getInteger("ems.report.gzipLevel", 6);
+    private static final int GZIP_BUFFER_SIZE = Integer.getInteger("ems.report.gzipBufferSize", 64 * 1024);
+
+    /**
+     * Chooses the compression from the file name: GZIP for names ending in .gz.
+     *
+     * @param filePath the path of the report
+     * @return the compression for the file
+     */
+    public static ReportCompression forFile(String filePath) {
+        return filePath.toLowerCase().endsWith(".gz") ? GZIP : NONE;
+    }
+
+    /**
+     * Creates the report file, replacing any existing file, and opens it as a stream.
+     *
+     * @param filePath the path of the report
+     * @return a stream that writes the report, compressed if needed
+     * @throws IOException if the file cannot be created
+     */
+    public OutputStream newOutputStream(String filePath) throws IOException {
+        OutputStream out = Files.newOutputStream(Paths.get(filePath));
+        if (this == NONE) {
+            return out;
+        }
+        try {
+            return new GZIPOutputStream(out, GZIP_BUFFER_SIZE) {
+                {
+                    def.setLevel(GZIP_LEVEL);
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates the report file, replacing any existing file, and opens it as a channel.
+     *
+     * @param filePath the path of the report
+     * @return a channel that writes the report, compressed if needed
+     * @throws IOException if the file cannot be created
+     */
+    public WritableByteChannel newChannel(String filePath) throws IOException {
+        if (this == NONE) {
+            return FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+        return Channels.newChannel(newOutputStream(filePath));
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * ReportContext.java
+ */
+package util;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Facts shared by every report of one export: the time it was generated and the
+ * payroll totals. Payroll reports print their summary before the details, so the
+ * totals are gathered before the employees are read (for example by the database)
+ * rather than in a second pass.
+ */
+public class ReportContext {
+    private final int employeeCount;
+    private final double totalSalary;
+    private final String generatedOn;
+
+    /**
+     * Creates a context for reports that print no totals.
+     */
+    public ReportContext() {
+        this(0, 0);
+    }
+
+    /**
+     * Creates a context dated now.
+     *
+     * @param employeeCount the total number of employees
+     * @param totalSalary the sum of all salaries
+     */
+    public ReportContext(int employeeCount, double totalSalary) {
+        this.employeeCount = employeeCount;
+        this.totalSalary = totalSalary;
+        this.generatedOn = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
+    }
+
+    public int getEmployeeCount() { return employeeCount; }
+    public double getTotalSalary() { return totalSalary; }
+    public String getGeneratedOn() { return generatedOn; }
+
+    /**
+     * Returns the average salary.
+     *
+     * @return the total salary divided by the number of employees, or 0 if there are none
+     */
+    public double getAverageSalary() {
+        return employeeCount > 0 ? totalSalary / employeeCount : 0;
+    }
+}
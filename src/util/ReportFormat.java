@@ -0,0 +1,45 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * ReportFormat.java
+ */
+package util;
+
+import java.util.function.Function;
+
+/**
+ * The reports that can be exported, each with the sink that writes it.
+ * New formats only need a ReportSink and an entry here to take part in a
+ * single-pass export with ReportPipeline.
+ */
+public enum ReportFormat {
+    EMPLOYEE_CSV("Employee CSV report", "employee_report.csv", ReportGenerator::employeeCSVSink),
+    PAYROLL_TEXT("Payroll report", "payroll_report.txt", ReportGenerator::payrollSink),
+    EMPLOYEE_PDF("Employee PDF report", "employee_report.pdf", PDFExporter::employeeSink),
+    PAYROLL_PDF("Payroll PDF report", "payroll_report.pdf", PDFExporter::payrollSink);
+
+    private final String title;
+    private final String defaultFileName;
+    private final Function<String, ReportSink> sinkFactory;
+
+    ReportFormat(String title, String defaultFileName, Function<String, ReportSink> sinkFactory) {
+        this.title = title;
+        this.defaultFileName = defaultFileName;
+        this.sinkFactory = sinkFactory;
+    }
+
+    public String getTitle() { return title; }
+    public String getDefaultFileName() { return defaultFileName; }
+
+    /**
+     * Creates the sink that writes this report to a file.
+     *
+     * @param filePath the path where the report should be saved
+     * @return the sink
+     */
+    public ReportSink newSink(String filePath) {
+        return sinkFactory.apply(filePath);
+    }
+}
@@ -8,15 +8,22 @@
 package util;
 
 import model.Employee;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * ReportGenerator class for generating and exporting reports.
+ * Each report can be written from a list or from a stream of employees; the stream
+ * versions write rows as they arrive, so memory use does not depend on the number of employees.
+ * The reports are also available as ReportSinks, so that ReportPipeline can write
+ * several of them from one pass over the employees.
+ * Reports whose file name ends in .gz are gzip-compressed while they are written;
+ * the methods taking a ReportCompression choose the compression explicitly.
  */
 public class ReportGenerator {
     /**
@@ -27,27 +34,47 @@ public class ReportGenerator {
      * @return true if the operation was successful, false otherwise
      */
     public static boolean generateEmployeeCSVReport(List<Employee> employees, String filePath) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            // Write CSV header
-            writer.println("ID,Name,Department,Salary,Payment Method");
-            
-            // Write employee data
-            for (Employee e : employees) {
-                writer.println(
-                    e.getId() + "," +
-                    escapeCsvField(e.getName()) + "," +
-                    escapeCsvField(e.getDepartment()) + "," +
-                    e.getSalary() + "," +
-                    escapeCsvField(e.getPaymentMethodName())
-                );
-            }
-            
-            return true;
-        } catch (IOException e) {
-            System.err.println("Error generating CSV report: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+        return generateEmployeeCSVReport(employees.stream(), filePath);
+    }
+    
+    /**
+     * Generates and exports a CSV report from a stream of employees.
+     * Rows are written as they are read from the stream.
+     *
+     * @param employees the employees to include in the report
+     * @param filePath the path where the CSV file should be saved
+     * @return true if the operation was successful, false otherwise
+     */
+    public static boolean generateEmployeeCSVReport(Stream<Employee> employees, String filePath) {
+        return generateEmployeeCSVReport(employees, filePath, Progress.NONE);
+    }
+    
+    /**
+     * Generates and exports a CSV report from a stream of employees, reporting progress.
+     * If the export is cancelled or fails, the partial file is deleted.
+     *
+     * @param employees the employees to include in the report
+     * @param filePath the path where the CSV file should be saved
+     * @param progress receives the number of rows written and can cancel the export
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public static boolean generateEmployeeCSVReport(Stream<Employee> employees, String filePath, Progress progress) {
+        return generateEmployeeCSVReport(employees, filePath, progress, ReportCompression.forFile(filePath));
+    }
+    
+    /**
+     * Generates and exports a CSV report from a stream of employees with the given compression.
+     * If the export is cancelled or fails, the partial file is deleted.
+     *
+     * @param employees the employees to include in the report
+     * @param filePath the path where the CSV file should be saved
+     * @param progress receives the number of rows written and can cancel the export
+     * @param compression whether the file is compressed while it is written
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public static boolean generateEmployeeCSVReport(Stream<Employee> employees, String filePath, Progress progress,
+                                                    ReportCompression compression) {
+        return ReportPipeline.export(employees, new ReportContext(), employeeCSVSink(filePath, compression), progress);
     }
     
     /**
@@ -58,29 +85,126 @@ public class ReportGenerator {
      * @return true if the operation was successful, false otherwise
      */
     public static boolean generatePayrollReport(List<Employee> employees, String filePath) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-            String currentDate = dateFormat.format(new Date());
-            
-            // Write report header
-            writer.println("Payroll Report - Generated on " + currentDate);
-            writer.println("====================================================");
-            writer.println();
-            
-            // Write summary statistics
-            double totalSalary = 0;
-            for (Employee e : employees) {
-                totalSalary += e.getSalary();
+        double totalSalary = 0;
+        for (Employee e : employees) {
+            totalSalary += e.getSalary();
+        }
+        return generatePayrollReport(employees.stream(), employees.size(), totalSalary, filePath);
+    }
+    
+    /**
+     * Generates and exports a payroll report from a stream of employees.
+     * The summary is printed before the details, so the totals are passed in
+     * (for example computed by the database) instead of being gathered from the stream.
+     *
+     * @param employees the employees to include in the report
+     * @param employeeCount the total number of employees
+     * @param totalSalary the sum of all salaries
+     * @param filePath the path where the report file should be saved
+     * @return true if the operation was successful, false otherwise
+     */
+    public static boolean generatePayrollReport(Stream<Employee> employees, int employeeCount, double totalSalary, String filePath) {
+        return generatePayrollReport(employees, employeeCount, totalSalary, filePath, Progress.NONE);
+    }
+    
+    /**
+     * Generates and exports a payroll report from a stream of employees, reporting progress.
+     * If the export is cancelled or fails, the partial file is deleted.
+     *
+     * @param employees the employees to include in the report
+     * @param employeeCount the total number of employees
+     * @param totalSalary the sum of all salaries
+     * @param filePath the path where the report file should be saved
+     * @param progress receives the number of rows written and can cancel the export
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public static boolean generatePayrollReport(Stream<Employee> employees, int employeeCount, double totalSalary,
+                                                String filePath, Progress progress) {
+        return generatePayrollReport(employees, employeeCount, totalSalary, filePath, progress,
+                                     ReportCompression.forFile(filePath));
+    }
+    
+    /**
+     * Generates and exports a payroll report from a stream of employees with the given compression.
+     * If the export is cancelled or fails, the partial file is deleted.
+     *
+     * @param employees the employees to include in the report
+     * @param employeeCount the total number of employees
+     * @param totalSalary the sum of all salaries
+     * @param filePath the path where the report file should be saved
+     * @param progress receives the number of rows written and can cancel the export
+     * @param compression whether the file is compressed while it is written
+     * @return true if the operation was successful, false if it failed or was cancelled
+     */
+    public static boolean generatePayrollReport(Stream<Employee> employees, int employeeCount, double totalSalary,
+                                                String filePath, Progress progress, ReportCompression compression) {
+        return ReportPipeline.export(employees, new ReportContext(employeeCount, totalSalary),
+                                     payrollSink(filePath, compression), progress);
+    }
+    
+    /**
+     * Returns a sink that writes the CSV report of employees.
+     * Rows are written with CsvWriter, which escapes and encodes the fields straight into its buffer.
+     * The file is compressed if its name ends in .gz.
+     *
+     * @param filePath the path where the CSV file should be saved
+     * @return the sink
+     */
+    public static ReportSink employeeCSVSink(String filePath) {
+        return employeeCSVSink(filePath, ReportCompression.forFile(filePath));
+    }
+    
+    /**
+     * Returns a sink that writes the CSV report of employees with the given compression.
+     *
+     * @param filePath the path where the CSV file should be saved
+     * @param compression whether the file is compressed while it is written
+     * @return the sink
+     */
+    public static ReportSink employeeCSVSink(String filePath, ReportCompression compression) {
+        return new CSVFileSink(filePath, compression);
+    }
+    
+    /**
+     * Returns a sink that writes the text payroll report.
+     * The summary comes from the report context, so the employees are only read once.
+     * The file is compressed if its name ends in .gz.
+     *
+     * @param filePath the path where the report file should be saved
+     * @return the sink
+     */
+    public static ReportSink payrollSink(String filePath) {
+        return payrollSink(filePath, ReportCompression.forFile(filePath));
+    }
+    
+    /**
+     * Returns a sink that writes the text payroll report with the given compression.
+     *
+     * @param filePath the path where the report file should be saved
+     * @param compression whether the file is compressed while it is written
+     * @return the sink
+     */
+    public static ReportSink payrollSink(String filePath, ReportCompression compression) {
+        return new TextFileSink("Payroll report " + filePath, filePath, compression) {
+            @Override
+            protected void writeHeader(PrintWriter writer, ReportContext context) {
+                // Write report header
+                writer.println("Payroll Report - Generated on " + context.getGeneratedOn());
+                writer.println("====================================================");
+                writer.println();
+                
+                // Write summary statistics
+                writer.println("Total Employees: " + context.getEmployeeCount());
+                writer.println("Total Salary Payout: $" + String.format("%.2f", context.getTotalSalary()));
+                writer.println();
+                
+                // Write detailed employee information
+                writer.println("Employee Details:");
+                writer.println("----------------------------------------------------");
             }
             
-            writer.println("Total Employees: " + employees.size());
-            writer.println("Total Salary Payout: $" + String.format("%.2f", totalSalary));
-            writer.println();
-            
-            // Write detailed employee information
-            writer.println("Employee Details:");
-            writer.println("----------------------------------------------------");
-            for (Employee e : employees) {
+            @Override
+            protected void writeEmployee(PrintWriter writer, Employee e) {
                 writer.println("ID: " + e.getId());
                 writer.println("Name: " + e.getName());
                 writer.println("Department: " + e.getDepartment());
@@ -88,34 +212,133 @@ public class ReportGenerator {
                 writer.println("Payment Method: " + e.getPaymentMethodName());
                 writer.println("----------------------------------------------------");
             }
-            
-            return true;
-        } catch (IOException e) {
-            System.err.println("Error generating payroll report: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+        };
+    }
+    
+    /**
+     * The CSV report of employees, written through a CsvWriter.
+     */
+    private static final class CSVFileSink implements ReportSink {
+        private final String filePath;
+        private final ReportCompression compression;
+        private CsvWriter writer;
+        private Progress progress;
+        private int rows;
+        
+        CSVFileSink(String filePath, ReportCompression compression) {
+            this.filePath = filePath;
+            this.compression = compression;
+        }
+        
+        @Override
+        public void open(ReportContext context, Progress progress) throws IOException {
+            this.progress = progress;
+            writer = CsvWriter.open(filePath, compression);
+            writer.row("ID", "Name", "Department", "Salary", "Payment Method");
+        }
+        
+        @Override
+        public void write(Employee e) throws IOException {
+            writer.field(e.getId())
+                  .field(e.getName())
+                  .field(e.getDepartment())
+                  .field(e.getSalary())
+                  .field(e.getPaymentMethodName())
+                  .endRow();
+            progress.checkpoint(++rows, 0);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            writer.close();
+            progress.update(rows, 0);
+        }
+        
+        @Override
+        public void abort() {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    // The file is deleted anyway
+                }
+            }
+            deletePartialFile(filePath);
+        }
+        
+        @Override
+        public String getDescription() {
+            return "CSV report " + filePath;
         }
     }
     
     /**
-     * Escapes special characters in CSV fields to prevent parsing issues.
-     *
-     * @param field the CSV field to escape
-     * @return the escaped CSV field
+     * A report written line by line to a text file.
      */
-    private static String escapeCsvField(String field) {
-        if (field == null) {
-            return "";
+    private abstract static class TextFileSink implements ReportSink {
+        private final String description;
+        private final String filePath;
+        private final ReportCompression compression;
+        private PrintWriter writer;
+        private Progress progress;
+        private int rows;
+        
+        TextFileSink(String description, String filePath, ReportCompression compression) {
+            this.description = description;
+            this.filePath = filePath;
+            this.compression = compression;
         }
         
-        // If the field contains commas, quotes, or newlines, enclose it in quotes
-        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
-            // Replace any quotes with double quotes
-            field = field.replace("\"", "\"\"");
-            // Enclose the field in quotes
-            return "\"" + field + "\"";
+        protected abstract void writeHeader(PrintWriter writer, ReportContext context);
+        
+        protected abstract void writeEmployee(PrintWriter writer, Employee e);
+        
+        @Override
+        public void open(ReportContext context, Progress progress) throws IOException {
+            this.progress = progress;
+            writer = new PrintWriter(new OutputStreamWriter(compression.newOutputStream(filePath)));
+            writeHeader(writer, context);
         }
         
-        return field;
+        @Override
+        public void write(Employee employee) {
+            writeEmployee(writer, employee);
+            progress.checkpoint(++rows, 0);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            writer.close();
+            if (writer.checkError()) {
+                throw new IOException("Could not write " + filePath);
+            }
+            progress.update(rows, 0);
+        }
+        
+        @Override
+        public void abort() {
+            if (writer != null) {
+                writer.close();
+            }
+            deletePartialFile(filePath);
+        }
+        
+        @Override
+        public String getDescription() {
+            return description;
+        }
+    }
+    
+    /**
+     * Deletes the output of an export that did not complete.
+     *
+     * @param filePath the path of the partial file
+     */
+    private static void deletePartialFile(String filePath) {
+        try {
+            Files.deleteIfExists(Paths.get(filePath));
+        } catch (IOException e) {
+            System.err.println("Could not delete partial report " + filePath + ": " + e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
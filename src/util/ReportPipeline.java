@@ -0,0 +1,252 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * ReportPipeline.java
+ */
+package util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+
+import model.Employee;
+
+/**
+ * Writes several reports from a single pass over the employees.
+ * The calling thread reads the employees once and hands them, in batches, to every
+ * sink. Each sink writes on a thread of its own from a bounded queue, so the reports
+ * are produced concurrently, a slow sink holds the reader back instead of piling up
+ * employees in memory, and no more than -Dems.report.queueBatches batches of
+ * -Dems.report.batchSize employees are waiting for any sink.
+ * A sink that fails is aborted without affecting the others; cancelling the export
+ * aborts them all.
+ */
+public class ReportPipeline {
+    private static final Logger logger = Logger.getInstance();
+    private static final int BATCH_SIZE = Integer.getInteger("ems.report.batchSize", 256);
+    private static final int QUEUE_BATCHES = Integer.getInteger("ems.report.queueBatches", 16);
+    // Marks the end of the employees; compared by identity
+    private static final List<Employee> END = Collections.unmodifiableList(new ArrayList<>());
+
+    private final List<ReportSink> sinks = new ArrayList<>();
+
+    /**
+     * Adds a report to the export.
+     *
+     * @param sink the output of the report
+     * @return this pipeline
+     */
+    public ReportPipeline add(ReportSink sink) {
+        sinks.add(sink);
+        return this;
+    }
+
+    /**
+     * Reads the employees once and writes every report from them.
+     * Progress counts the employees read; the reports are complete when this method returns.
+     *
+     * @param employees the employees to report on
+     * @param context the timestamp and totals shared by all reports
+     * @param progress receives the number of employees read and can cancel the export
+     * @return true if every report was written, false if any failed or the export was cancelled
+     */
+    public boolean run(Stream<Employee> employees, ReportContext context, Progress progress) {
+        if (sinks.size() == 1) {
+            // Nothing to fan out; the sink reports its own progress
+            return export(employees, context, sinks.get(0), progress);
+        }
+
+        List<Lane> lanes = new ArrayList<>(sinks.size());
+        for (ReportSink sink : sinks) {
+            Lane lane = new Lane(sink, context);
+            lanes.add(lane);
+            lane.start();
+        }
+
+        int rows = 0;
+        boolean completed = false;
+        try {
+            List<Employee> batch = new ArrayList<>(BATCH_SIZE);
+            Iterator<Employee> it = employees.iterator();
+            while (it.hasNext()) {
+                batch.add(it.next());
+                progress.checkpoint(++rows, 0);
+                if (batch.size() == BATCH_SIZE) {
+                    if (!deliver(lanes, batch)) {
+                        break;
+                    }
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                deliver(lanes, batch);
+            }
+            for (Lane lane : lanes) {
+                // Failed sinks are draining their queue and wait for the end as well
+                lane.queue.put(END);
+            }
+            completed = true;
+        } catch (CancellationException e) {
+            logger.info("Report export cancelled after " + rows + " employees");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warning("Report export interrupted after " + rows + " employees");
+        } catch (RuntimeException e) {
+            logger.error("Failed to read the employees for the report export", e);
+        } finally {
+            if (!completed) {
+                for (Lane lane : lanes) {
+                    lane.cancel();
+                }
+            }
+        }
+
+        boolean success = completed;
+        for (Lane lane : lanes) {
+            success &= lane.await();
+        }
+        progress.update(rows, 0);
+        logger.info("Report export of " + rows + " employees to " + sinks.size() + " reports "
+                    + (success ? "completed" : "did not complete"));
+        return success;
+    }
+
+    /**
+     * Writes a single report on the calling thread.
+     * If the export is cancelled or fails, the report is aborted and its output deleted.
+     *
+     * @param employees the employees to report on
+     * @param context the timestamp and totals of the report
+     * @param sink the output of the report
+     * @param progress receives the rows written and can cancel the export
+     * @return true if the report was written, false if it failed or was cancelled
+     */
+    public static boolean export(Stream<Employee> employees, ReportContext context, ReportSink sink, Progress progress) {
+        try {
+            sink.open(context, progress);
+            Iterator<Employee> it = employees.iterator();
+            while (it.hasNext()) {
+                sink.write(it.next());
+            }
+            sink.close();
+            return true;
+        } catch (CancellationException e) {
+            logger.info(sink.getDescription() + " cancelled");
+            sink.abort();
+            return false;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to write " + sink.getDescription(), e);
+            sink.abort();
+            return false;
+        }
+    }
+
+    /**
+     * Hands a batch to every sink that has not failed, waiting while a sink's queue is full.
+     *
+     * @return false if every sink has failed, so reading on is pointless
+     */
+    private static boolean deliver(List<Lane> lanes, List<Employee> batch) throws InterruptedException {
+        boolean anyWorking = false;
+        for (Lane lane : lanes) {
+            if (!lane.failed) {
+                lane.queue.put(batch);
+                anyWorking = true;
+            }
+        }
+        return anyWorking;
+    }
+
+    /**
+     * One sink with its queue and writer thread.
+     */
+    private static final class Lane extends Thread {
+        private final ReportSink sink;
+        private final ReportContext context;
+        private final BlockingQueue<List<Employee>> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+        private volatile boolean failed;
+        private volatile boolean cancelled;
+        private boolean succeeded;
+
+        Lane(ReportSink sink, ReportContext context) {
+            super("report-sink");
+            setDaemon(true);
+            this.sink = sink;
+            this.context = context;
+        }
+
+        @Override
+        public void run() {
+            try {
+                sink.open(context, Progress.NONE);
+                for (List<Employee> batch = queue.take(); batch != END; batch = queue.take()) {
+                    for (Employee employee : batch) {
+                        sink.write(employee);
+                    }
+                }
+                sink.close();
+                succeeded = true;
+            } catch (InterruptedException e) {
+                // Cancelled by the reader
+                sink.abort();
+            } catch (IOException | RuntimeException e) {
+                if (!cancelled) {
+                    logger.error("Failed to write " + sink.getDescription(), e);
+                }
+                failed = true;
+                sink.abort();
+                drain();
+            }
+        }
+
+        /**
+         * Discards batches until the end, so the reader never waits for a failed sink.
+         */
+        private void drain() {
+            try {
+                while (!cancelled && queue.take() != END) {
+                    // Discard
+                }
+            } catch (InterruptedException e) {
+                // Cancelled by the reader
+            }
+        }
+
+        /**
+         * Stops the sink, which then deletes its output.
+         */
+        void cancel() {
+            cancelled = true;
+            interrupt();
+        }
+
+        /**
+         * Waits for the sink to finish.
+         *
+         * @return true if the sink completed its output
+         */
+        boolean await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return succeeded;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * ReportSink.java
+ */
+package util;
+
+import java.io.IOException;
+
+import model.Employee;
+
+/**
+ * One output of a report export, such as a CSV file or a PDF report.
+ * A sink is opened once, receives every employee in order, and is then either closed,
+ * which completes its output, or aborted, which deletes it. A sink is used by one
+ * thread at a time; ReportPipeline can drive several sinks from a single pass over
+ * the employees.
+ */
+public interface ReportSink {
+
+    /**
+     * Starts the output, for example by writing its header.
+     *
+     * @param context the timestamp and totals shared by all reports of the export
+     * @param progress receives the rows (and pages) this sink has written and can cancel it
+     * @throws IOException if the output cannot be created
+     */
+    void open(ReportContext context, Progress progress) throws IOException;
+
+    /**
+     * Adds one employee to the output.
+     *
+     * @param employee the employee
+     * @throws IOException if the output cannot be written
+     */
+    void write(Employee employee) throws IOException;
+
+    /**
+     * Completes the output.
+     *
+     * @throws IOException if the output cannot be completed
+     */
+    void close() throws IOException;
+
+    /**
+     * Stops the output and deletes whatever was written. Never throws.
+     */
+    void abort();
+
+    /**
+     * Describes the output for log messages.
+     *
+     * @return for example "CSV report employees.csv"
+     */
+    String getDescription();
+}
@@ -0,0 +1,206 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * StreamingPageWriter.java
+ */
+package util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * PDFPageWriter that writes each page to the file as soon as it is full.
+ * Every finished page becomes two PDF objects, a compressed content stream and a page
+ * dictionary, which are written out immediately and forgotten; only the byte offset of
+ * each object is kept for the cross-reference table. The fonts, the shared resource
+ * dictionary, the page tree and the catalog are written after the last page.
+ * Heap use is therefore a few reusable buffers plus about 20 bytes per page, however
+ * long the report is.
+ */
+class StreamingPageWriter extends CompressedPageWriter {
+    private static final int CATALOG = 1;
+    private static final int PAGE_TREE = 2;
+    private static final int RESOURCES = 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Version line, then a binary comment so that transfer programs treat the file as binary
+    static final byte[] HEADER = {'%', 'P', 'D', 'F', '-', '1', '.', '4', '\n',
+                                  '%', (byte) 0xE2, (byte) 0xE3, (byte) 0xCF, (byte) 0xD3, '\n'};
+
+    private final OutputStream out;
+    private long position;
+    private int nextObject = RESOURCES + 1;
+    private long[] offsets = new long[1024];
+    private int[] pageObjects = new int[256];
+    private int pageCount;
+
+    /**
+     * Creates the file and writes the PDF header.
+     *
+     * @param file the PDF file to write; it is created or truncated
+     * @param progress receives the rows and pages written and can cancel the export
+     * @throws IOException if the file cannot be created
+     */
+    StreamingPageWriter(Path file, Progress progress) throws IOException {
+        super(progress);
+        out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+        write(HEADER);
+    }
+
+    /**
+     * Writes a PDF file made of the pages of several finished parts, in the order given.
+     * Pages are copied from the part files one at a time, so memory use does not grow
+     * with the size of the parts. The part files are left for the caller to delete.
+     *
+     * @param file the PDF file to write; it is created or truncated
+     * @param parts the finished and closed parts
+     * @throws IOException if a part cannot be read or the file cannot be written
+     */
+    static void merge(Path file, List<PagePartWriter> parts) throws IOException {
+        try (StreamingPageWriter writer = new StreamingPageWriter(file, Progress.NONE)) {
+            byte[] page = new byte[8 * 1024];
+            for (PagePartWriter part : parts) {
+                for (PDFont font : part.getFonts()) {
+                    writer.addFont(font);
+                }
+                try (DataInputStream in = new DataInputStream(
+                        new BufferedInputStream(Files.newInputStream(part.getFile()), BUFFER_SIZE))) {
+                    for (int i = 0; i < part.getPagesWritten(); i++) {
+                        int length = in.readInt();
+                        if (length > page.length) {
+                            page = new byte[Math.max(length, page.length * 2)];
+                        }
+                        in.readFully(page, 0, length);
+                        writer.writePage(page, length);
+                    }
+                }
+            }
+            writer.save();
+        }
+    }
+
+    @Override
+    protected void writePage(byte[] data, int length) throws IOException {
+        int contents = startObject();
+        write("<< /Length " + length + " /Filter /FlateDecode >>\nstream\n");
+        write(data, length);
+        write("\nendstream\nendobj\n");
+
+        int page = startObject();
+        write("<< /Type /Page /Parent " + PAGE_TREE + " 0 R /MediaBox [0 0 " + number(PAGE_SIZE.getWidth()) + " "
+              + number(PAGE_SIZE.getHeight()) + "] /Resources " + RESOURCES + " 0 R /Contents " + contents + " 0 R >>\nendobj\n");
+        if (pageCount == pageObjects.length) {
+            pageObjects = Arrays.copyOf(pageObjects, pageCount * 2);
+        }
+        pageObjects[pageCount++] = page;
+    }
+
+    @Override
+    protected void save() throws IOException {
+        int firstFont = nextObject;
+        for (PDFont font : getFonts()) {
+            startObject();
+            write(fontDictionary(font) + "\nendobj\n");
+        }
+
+        // Pages select fonts by name, so the resource names are the font names
+        startObject(RESOURCES);
+        write("<< /ProcSet [/PDF /Text] /Font <<");
+        int font = firstFont;
+        for (PDFont f : getFonts()) {
+            write(" /" + f.getName() + " " + font++ + " 0 R");
+        }
+        write(" >> >>\nendobj\n");
+
+        startObject(PAGE_TREE);
+        write("<< /Type /Pages /Count " + pageCount + " /Kids [");
+        for (int i = 0; i < pageCount; i++) {
+            write((i % 16 == 0 ? "\n" : " ") + pageObjects[i] + " 0 R");
+        }
+        write("\n] >>\nendobj\n");
+
+        startObject(CATALOG);
+        write("<< /Type /Catalog /Pages " + PAGE_TREE + " 0 R >>\nendobj\n");
+
+        // Cross-reference table: one fixed-width entry per object
+        long xref = position;
+        write("xref\n0 " + nextObject + "\n0000000000 65535 f \n");
+        for (int object = 1; object < nextObject; object++) {
+            write(String.format("%010d 00000 n \n", offsets[object]));
+        }
+        write("trailer\n<< /Size " + nextObject + " /Root " + CATALOG + " 0 R >>\nstartxref\n" + xref + "\n%%EOF\n");
+        out.flush();
+    }
+
+    /**
+     * Returns the dictionary of a standard 14 font, which needs no font program.
+     *
+     * @param font the font
+     * @return the font dictionary as PDF text
+     */
+    static String fontDictionary(PDFont font) {
+        String dictionary = "<< /Type /Font /Subtype /Type1 /BaseFont /" + font.getName();
+        COSBase encoding = font.getCOSObject().getDictionaryObject(COSName.ENCODING);
+        if (encoding instanceof COSName) {
+            dictionary += " /Encoding /" + ((COSName) encoding).getName();
+        }
+        return dictionary + " >>";
+    }
+
+    /**
+     * Closes the file and releases the compressor. An unfinished file is left incomplete.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        super.close();
+        out.close();
+    }
+
+    /**
+     * Allocates the next object number and starts its object.
+     */
+    private int startObject() throws IOException {
+        int object = nextObject++;
+        startObject(object);
+        return object;
+    }
+
+    /**
+     * Records the offset of an object and writes its header.
+     */
+    private void startObject(int object) throws IOException {
+        if (object >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(offsets.length * 2, object + 1));
+        }
+        offsets[object] = position;
+        write(object + " 0 obj\n");
+    }
+
+    private void write(String text) throws IOException {
+        write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        write(bytes, bytes.length);
+    }
+
+    private void write(byte[] bytes, int length) throws IOException {
+        out.write(bytes, 0, length);
+        position += length;
+    }
+}
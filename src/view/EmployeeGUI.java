@@ -8,14 +8,27 @@
 package view;
 
 import controller.EmployeeController;
+import model.PayStubSink;
 import model.UserManager;
 import model.User;
 import util.Logger;
+import util.PayStubPDFExporter;
+import util.Progress;
+import util.ReportFormat;
+import view.custom.ExportTask;
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 /**
  * The EmployeeGUI class represents the graphical user interface for the Employee Management System.
@@ -30,6 +43,9 @@ public class EmployeeGUI {
     private final Logger logger = Logger.getInstance();
     private UserManager userManager = UserManager.getInstance();
     private JLabel statusLabel;
+    // Window listing the exports that are still running; created on first use
+    private JDialog exportsDialog;
+    private JPanel exportsPanel;
     
     /**
      * Constructs an EmployeeGUI object.
@@ -49,6 +65,13 @@ public class EmployeeGUI {
         frame = new JFrame(windowTitle);
         frame.setSize(600, 450);
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // Commit queued writes before the window closes the application
+                controller.flush();
+            }
+        });
         frame.setLocationRelativeTo(null);  // Center on screen
         
         JPanel mainPanel = new JPanel(new BorderLayout());
@@ -71,6 +94,13 @@ public class EmployeeGUI {
             addButton.addActionListener(e -> new EmployeeFormGUI(controller));
         }
         
+        // Import Employees button - only for managers and admins
+        JButton importButton = new JButton("Import Employees from CSV");
+        if (userManager.isCurrentUserManager()) {
+            buttonPanel.add(importButton);
+            importButton.addActionListener(e -> importEmployees(importButton));
+        }
+        
         // View Employees button - for all users
         JButton viewListButton = new JButton("View Employees");
         buttonPanel.add(viewListButton);
@@ -80,7 +110,7 @@ public class EmployeeGUI {
         JButton payAllButton = new JButton("Pay All Employees");
         if (userManager.isCurrentUserManager()) {
             buttonPanel.add(payAllButton);
-            payAllButton.addActionListener(e -> JOptionPane.showMessageDialog(frame, controller.payAllEmployees()));
+            payAllButton.addActionListener(e -> payAllEmployees(payAllButton));
         }
         
         // Generate Reports button - only for admins
@@ -123,7 +153,10 @@ public class EmployeeGUI {
         // Exit button
         JButton exitButton = new JButton("Exit");
         buttonPanel.add(exitButton);
-        exitButton.addActionListener(e -> System.exit(0));
+        exitButton.addActionListener(e -> {
+            controller.flush();
+            System.exit(0);
+        });
         
         mainPanel.add(buttonPanel, BorderLayout.CENTER);
         
@@ -151,6 +184,92 @@ public class EmployeeGUI {
                     (userManager.isAuthenticated() ? userManager.getCurrentUser().getUsername() : "none"));
     }
     
+    /**
+     * Runs this month's payroll in the background, writing the pay stubs to a file chosen by the user,
+     * either as one text file or as a zip with one PDF per employee, and shows the pay run summary when done.
+     * The button is disabled while the payroll is running so it cannot be started twice.
+     *
+     * @param payAllButton the button that started the payroll
+     */
+    private void payAllEmployees(JButton payAllButton) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Save Pay Stubs");
+        FileNameExtensionFilter textFilter = new FileNameExtensionFilter("Text file of all pay stubs (*.txt)", "txt");
+        FileNameExtensionFilter zipFilter = new FileNameExtensionFilter("Zip of one PDF per employee (*.zip)", "zip");
+        fileChooser.addChoosableFileFilter(textFilter);
+        fileChooser.addChoosableFileFilter(zipFilter);
+        fileChooser.setFileFilter(textFilter);
+        fileChooser.setSelectedFile(new File("pay_stubs.txt"));
+        if (fileChooser.showSaveDialog(frame) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File chosenFile = fileChooser.getSelectedFile();
+        boolean pdfStubs = chosenFile.getName().toLowerCase().endsWith(".zip")
+            || (fileChooser.getFileFilter() == zipFilter && !chosenFile.getName().toLowerCase().endsWith(".txt"));
+        File selectedFile = pdfStubs && !chosenFile.getName().toLowerCase().endsWith(".zip")
+            ? new File(chosenFile.getPath() + ".zip")
+            : chosenFile;
+        
+        PayStubSink sink;
+        try {
+            sink = pdfStubs ? PayStubPDFExporter.toZip(selectedFile.toPath()) : PayStubSink.toFile(selectedFile.toPath());
+        } catch (IOException e) {
+            logger.error("Failed to open pay stub file", e);
+            JOptionPane.showMessageDialog(frame, "Failed to open " + selectedFile.getAbsolutePath(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        payAllButton.setEnabled(false);
+        statusLabel.setText("Paying employees...");
+        
+        // Pay runs are per calendar month; re-running a month only pays employees not yet paid
+        String period = YearMonth.now().toString();
+        controller.async().runPayroll(period, sink).whenComplete((summary, error) -> SwingUtilities.invokeLater(() -> {
+            payAllButton.setEnabled(true);
+            statusLabel.setText("Ready");
+            if (error != null || summary == null) {
+                logger.error("Failed to pay employees" + (error != null ? ": " + error.getMessage() : ""));
+                JOptionPane.showMessageDialog(frame, "Failed to pay employees.", "Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(frame,
+                    summary + "\n\nPay stubs saved to:\n" + selectedFile.getAbsolutePath(),
+                    "Pay Run Complete", JOptionPane.INFORMATION_MESSAGE);
+            }
+        }));
+    }
+    
+    /**
+     * Imports employees from a CSV file chosen by the user in the background, and shows
+     * the import summary when done. The button is disabled while the import is running.
+     *
+     * @param importButton the button that started the import
+     */
+    private void importEmployees(JButton importButton) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Import Employees");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV file (*.csv)", "csv"));
+        if (fileChooser.showOpenDialog(frame) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File selectedFile = fileChooser.getSelectedFile();
+        
+        importButton.setEnabled(false);
+        statusLabel.setText("Importing employees...");
+        controller.async().importEmployeesFromCSV(selectedFile.getAbsolutePath(), Progress.NONE)
+            .whenComplete((summary, error) -> SwingUtilities.invokeLater(() -> {
+                importButton.setEnabled(true);
+                statusLabel.setText("Ready");
+                if (error != null || summary == null) {
+                    logger.error("Failed to import employees" + (error != null ? ": " + error.getMessage() : ""));
+                    JOptionPane.showMessageDialog(frame, "Failed to import " + selectedFile.getAbsolutePath(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(frame, summary.toString(), "Import Complete",
+                        summary.getRejected() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+                }
+            }));
+    }
+    
     /**
      * Shows a dialog for changing the user's password.
      */
@@ -216,10 +335,10 @@ public class EmployeeGUI {
      */
     private void showReportDialog() {
         JDialog reportDialog = new JDialog(frame, "Generate Reports", true);
-        reportDialog.setSize(400, 300);
+        reportDialog.setSize(400, 400);
         reportDialog.setLocationRelativeTo(frame);
         
-        JPanel panel = new JPanel(new GridLayout(5, 1, 10, 10));
+        JPanel panel = new JPanel(new GridLayout(7, 1, 10, 10));
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         
         // CSV Employee Report
@@ -254,6 +373,22 @@ public class EmployeeGUI {
             reportDialog.dispose();
         });
         
+        // PDF Payroll Report by Department
+        JButton pdfDepartmentButton = new JButton("Generate Payroll PDF by Department");
+        panel.add(pdfDepartmentButton);
+        pdfDepartmentButton.addActionListener(e -> {
+            generateDepartmentPayrollPDFReport();
+            reportDialog.dispose();
+        });
+        
+        // All reports in one pass
+        JButton allReportsButton = new JButton("Generate All Reports to Folder");
+        panel.add(allReportsButton);
+        allReportsButton.addActionListener(e -> {
+            generateAllReports();
+            reportDialog.dispose();
+        });
+        
         // Cancel button
         JButton cancelButton = new JButton("Cancel");
         panel.add(cancelButton);
@@ -265,125 +400,183 @@ public class EmployeeGUI {
     
     /**
      * Generates a CSV report of employees after selecting a file location.
+     * The export runs in the background and shows its progress in the exports window.
      */
     private void generateCSVReport() {
-        JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Save CSV Report");
-        fileChooser.setSelectedFile(new File("employee_report.csv"));
-        
-        int result = fileChooser.showSaveDialog(frame);
-        if (result == JFileChooser.APPROVE_OPTION) {
-            File selectedFile = fileChooser.getSelectedFile();
-            boolean success = controller.generateEmployeeCSVReport(selectedFile.getAbsolutePath());
-            
-            if (success) {
-                JOptionPane.showMessageDialog(
-                    frame,
-                    "Report successfully generated at:\n" + selectedFile.getAbsolutePath(),
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE
-                );
-            } else {
-                JOptionPane.showMessageDialog(
-                    frame,
-                    "Failed to generate report.",
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE
-                );
-            }
-        }
+        startExport("Save CSV Report", "employee_report.csv", "Employee CSV report",
+                    (path, progress) -> controller.generateEmployeeCSVReport(path, progress));
     }
     
     /**
      * Generates a payroll report after selecting a file location.
+     * The export runs in the background and shows its progress in the exports window.
      */
     private void generatePayrollReport() {
-        JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Save Payroll Report");
-        fileChooser.setSelectedFile(new File("payroll_report.txt"));
-        
-        int result = fileChooser.showSaveDialog(frame);
-        if (result == JFileChooser.APPROVE_OPTION) {
-            File selectedFile = fileChooser.getSelectedFile();
-            boolean success = controller.generatePayrollReport(selectedFile.getAbsolutePath());
-            
-            if (success) {
-                JOptionPane.showMessageDialog(
-                    frame,
-                    "Payroll report successfully generated at:\n" + selectedFile.getAbsolutePath(),
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE
-                );
-            } else {
-                JOptionPane.showMessageDialog(
-                    frame,
-                    "Failed to generate payroll report.",
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE
-                );
-            }
-        }
+        startExport("Save Payroll Report", "payroll_report.txt", "Payroll report",
+                    (path, progress) -> controller.generatePayrollReport(path, progress));
     }
     
     /**
      * Generates a PDF report of employees after selecting a file location.
+     * The export runs in the background and shows its progress in the exports window.
      */
     private void generateEmployeePDFReport() {
+        startExport("Save Employee PDF Report", "employee_report.pdf", "Employee PDF report",
+                    (path, progress) -> controller.generateEmployeePDFReport(path, progress));
+    }
+    
+    /**
+     * Generates a PDF payroll report after selecting a file location.
+     * The export runs in the background and shows its progress in the exports window.
+     */
+    private void generatePayrollPDFReport() {
+        startExport("Save Payroll PDF Report", "payroll_report.pdf", "Payroll PDF report",
+                    (path, progress) -> controller.generatePayrollPDFReport(path, progress));
+    }
+    
+    /**
+     * Generates a PDF payroll report with one section per department after selecting a file location.
+     * The departments are rendered in parallel; the export shows its progress in the exports window.
+     */
+    private void generateDepartmentPayrollPDFReport() {
+        startExport("Save Payroll PDF Report", "payroll_by_department.pdf", "Payroll PDF report by department",
+                    (path, progress) -> controller.generatePayrollPDFReportByDepartment(path, progress));
+    }
+    
+    /**
+     * Generates every report into a folder chosen by the user, reading the employees only once.
+     * The export runs in the background and shows its progress in the exports window.
+     */
+    private void generateAllReports() {
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Save Employee PDF Report");
-        fileChooser.setSelectedFile(new File("employee_report.pdf"));
+        fileChooser.setDialogTitle("Choose Folder for Reports");
+        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (fileChooser.showSaveDialog(frame) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File folder = fileChooser.getSelectedFile();
         
-        int result = fileChooser.showSaveDialog(frame);
-        if (result == JFileChooser.APPROVE_OPTION) {
-            File selectedFile = fileChooser.getSelectedFile();
-            boolean success = controller.generateEmployeePDFReport(selectedFile.getAbsolutePath());
-            
-            if (success) {
-                JOptionPane.showMessageDialog(
-                    frame,
-                    "PDF report successfully generated at:\n" + selectedFile.getAbsolutePath(),
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE
-                );
-            } else {
-                JOptionPane.showMessageDialog(
-                    frame,
-                    "Failed to generate PDF report.",
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE
-                );
-            }
+        Map<ReportFormat, String> outputs = new EnumMap<>(ReportFormat.class);
+        for (ReportFormat format : ReportFormat.values()) {
+            outputs.put(format, new File(folder, format.getDefaultFileName()).getAbsolutePath());
         }
+        runExport("All reports", folder, (path, progress) -> controller.generateReports(outputs, progress));
     }
     
     /**
-     * Generates a PDF payroll report after selecting a file location.
+     * Asks for an output file and starts an export to it on a background worker.
+     * The event thread stays free while the export runs, and other exports can be started meanwhile.
+     *
+     * @param dialogTitle the title of the file chooser
+     * @param defaultFileName the file name suggested in the file chooser
+     * @param title the description of the report, shown in progress and result messages
+     * @param report writes the report to a path, reporting progress
      */
-    private void generatePayrollPDFReport() {
+    private void startExport(String dialogTitle, String defaultFileName, String title, ReportExport report) {
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Save Payroll PDF Report");
-        fileChooser.setSelectedFile(new File("payroll_report.pdf"));
+        fileChooser.setDialogTitle(dialogTitle);
+        fileChooser.setSelectedFile(new File(defaultFileName));
         
         int result = fileChooser.showSaveDialog(frame);
-        if (result == JFileChooser.APPROVE_OPTION) {
-            File selectedFile = fileChooser.getSelectedFile();
-            boolean success = controller.generatePayrollPDFReport(selectedFile.getAbsolutePath());
-            
-            if (success) {
-                JOptionPane.showMessageDialog(
-                    frame,
-                    "Payroll PDF report successfully generated at:\n" + selectedFile.getAbsolutePath(),
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE
-                );
-            } else {
-                JOptionPane.showMessageDialog(
-                    frame,
-                    "Failed to generate payroll PDF report.",
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE
-                );
+        if (result != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        runExport(title, fileChooser.getSelectedFile(), report);
+    }
+    
+    /**
+     * Starts an export on a background worker and shows its progress in the exports window.
+     *
+     * @param title the description of the report, shown in progress and result messages
+     * @param selectedFile the file or folder the export writes
+     * @param report writes the report to the path of the file, reporting progress
+     */
+    private void runExport(String title, File selectedFile, ReportExport report) {
+        String path = selectedFile.getAbsolutePath();
+        
+        ExportTask task = new ExportTask(title, selectedFile, controller::getEmployeeCount,
+                                         progress -> report.run(path, progress));
+        task.addPropertyChangeListener(evt -> {
+            if ("state".equals(evt.getPropertyName()) && evt.getNewValue() == SwingWorker.StateValue.DONE) {
+                exportFinished(task);
             }
+        });
+        showExportPanel(task.getPanel());
+        logger.info(title + " started: " + path);
+        task.execute();
+    }
+    
+    /**
+     * Removes a finished export from the exports window and tells the user how it went.
+     *
+     * @param task the finished export
+     */
+    private void exportFinished(ExportTask task) {
+        exportsPanel.remove(task.getPanel());
+        if (exportsPanel.getComponentCount() == 0) {
+            exportsDialog.setVisible(false);
+        } else {
+            exportsDialog.pack();
+        }
+        
+        String path = task.getFile().getAbsolutePath();
+        if (task.isCancelled()) {
+            logger.info(task.getTitle() + " cancelled: " + path);
+            return;
+        }
+        
+        boolean success;
+        try {
+            success = task.get();
+        } catch (InterruptedException | ExecutionException e) {
+            logger.error(task.getTitle() + " failed: " + path, e);
+            success = false;
+        }
+        
+        if (success) {
+            JOptionPane.showMessageDialog(
+                frame,
+                task.getTitle() + " successfully generated at:\n" + path,
+                "Success",
+                JOptionPane.INFORMATION_MESSAGE
+            );
+        } else {
+            JOptionPane.showMessageDialog(
+                frame,
+                "Failed to generate " + task.getTitle().toLowerCase() + ".",
+                "Error",
+                JOptionPane.ERROR_MESSAGE
+            );
         }
     }
+    
+    /**
+     * Adds the progress panel of an export to the exports window, creating and showing the window if needed.
+     *
+     * @param exportPanel the progress panel of the export
+     */
+    private void showExportPanel(JPanel exportPanel) {
+        if (exportsDialog == null) {
+            exportsDialog = new JDialog(frame, "Report Exports", false);
+            exportsPanel = new JPanel();
+            exportsPanel.setLayout(new BoxLayout(exportsPanel, BoxLayout.Y_AXIS));
+            exportsDialog.add(exportsPanel);
+            // Closing the window only hides it; running exports carry on
+            exportsDialog.setDefaultCloseOperation(JDialog.HIDE_ON_CLOSE);
+        }
+        exportsPanel.add(exportPanel);
+        exportsDialog.pack();
+        exportsDialog.setSize(Math.max(450, exportsDialog.getWidth()), exportsDialog.getHeight());
+        if (!exportsDialog.isVisible()) {
+            exportsDialog.setLocationRelativeTo(frame);
+            exportsDialog.setVisible(true);
+        }
+    }
+    
+    /**
+     * Writes a report to a path, reporting progress.
+     */
+    private interface ReportExport {
+        boolean run(String path, Progress progress);
+    }
 }
\ No newline at end of file
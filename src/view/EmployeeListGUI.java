@@ -15,11 +15,11 @@ import util.Logger;
 
 import view.custom.ButtonEditor;
 import view.custom.ButtonRenderer;
+import view.custom.EmployeeTableModel;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.List;
+import java.util.Collections;
 
 /**
  * EmployeeListGUI class provides a graphical user interface for displaying,
@@ -30,7 +30,7 @@ public class EmployeeListGUI {
     private EmployeeController controller;
     private JFrame frame;
     private JTable employeeTable;
-    private DefaultTableModel tableModel;
+    private EmployeeTableModel tableModel;
     private final Logger logger = Logger.getInstance();
     private UserManager userManager = UserManager.getInstance();
     
@@ -57,25 +57,18 @@ public class EmployeeListGUI {
             searchButton.addActionListener(e -> {
                 try {
                     int id = Integer.parseInt(searchField.getText());
-                    Employee emp = controller.getEmployeeById(id);
-                    if (emp != null) {
-                        // Clear table and show only the searched employee
-                        tableModel.setRowCount(0);
-                        
-                        Object[] rowData;
-                        rowData = new Object[]{
-                            emp.getId(), 
-                            emp.getName(), 
-                            emp.getDepartment(), 
-                            emp.getSalary(), 
-                            "Edit", 
-                            "Delete", 
-                            "Change Payment"
-                        };
-                        tableModel.addRow(rowData);
-                    } else {
-                        JOptionPane.showMessageDialog(frame, "Employee not found!", "Search Result", JOptionPane.INFORMATION_MESSAGE);
-                    }
+                    searchButton.setEnabled(false);
+                    
+                    // Look the employee up off the event thread, then update the table on it
+                    controller.async().getEmployeeById(id).whenComplete((emp, error) -> SwingUtilities.invokeLater(() -> {
+                        searchButton.setEnabled(true);
+                        if (emp != null) {
+                            // Show only the searched employee until "Show All" is pressed
+                            tableModel.showEmployees(Collections.singletonList(emp));
+                        } else {
+                            JOptionPane.showMessageDialog(frame, "Employee not found!", "Search Result", JOptionPane.INFORMATION_MESSAGE);
+                        }
+                    }));
                 } catch (NumberFormatException ex) {
                     JOptionPane.showMessageDialog(frame, "Please enter a valid ID!", "Input Error", JOptionPane.ERROR_MESSAGE);
                 }
@@ -89,27 +82,9 @@ public class EmployeeListGUI {
             panel.add(searchPanel, BorderLayout.NORTH);
         }
         
-        // Define column names based on user role
-        String[] columnNames;
-        if (userManager.isCurrentUserManager()) {
-            // Managers and admins can edit employees
-            columnNames = new String[]{"ID", "Name", "Department", "Salary", "Edit", "Delete", "Change Payment"};
-        } else {
-            // Regular employees can only view
-            columnNames = new String[]{"ID", "Name", "Department", "Salary", "Payment Method"};
-        }
-        
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                // Make only button columns editable for managers and admins
-                if (userManager.isCurrentUserManager()) {
-                    return column >= 4;
-                } else {
-                    return false;
-                }
-            }
-        };
+        // Managers and admins get the edit buttons; regular employees can only view.
+        // The model reads rows lazily, so opening the list never loads the whole table.
+        tableModel = new EmployeeTableModel(controller.async(), userManager.isCurrentUserManager());
         employeeTable = new JTable(tableModel);
         
         // Configure table appearance
@@ -160,56 +135,25 @@ public class EmployeeListGUI {
 
     /**
      * Refreshes the employee table with the latest data from the controller.
+     * Admins and managers page through all employees; the table model fetches the
+     * visible pages in the background as the table is scrolled.
      */
     private void refreshTable() {
-        tableModel.setRowCount(0);
-        
         // Get current user
         User currentUser = userManager.getCurrentUser();
         
         if (currentUser == null) {
+            tableModel.showEmployees(Collections.emptyList());
             return;
         }
         
         // If user is a regular employee, show only their record
         if (currentUser.getRole() == User.Role.EMPLOYEE && currentUser.getEmployeeId() != null) {
             Employee e = controller.getEmployeeById(currentUser.getEmployeeId());
-            if (e != null) {
-                tableModel.addRow(new Object[]{
-                    e.getId(), 
-                    e.getName(), 
-                    e.getDepartment(), 
-                    e.getSalary(),
-                    e.getPaymentMethodName()
-                });
-            }
+            tableModel.showEmployees(e != null ? Collections.singletonList(e) : Collections.emptyList());
         } else {
             // Admin or manager - show all employees
-            List<Employee> employees = controller.getAllEmployees();
-            
-            for (Employee e : employees) {
-                if (userManager.isCurrentUserManager()) {
-                    // Managers and admins see action buttons
-                    tableModel.addRow(new Object[]{
-                        e.getId(), 
-                        e.getName(), 
-                        e.getDepartment(), 
-                        e.getSalary(), 
-                        "Edit", 
-                        "Delete", 
-                        "Change Payment"
-                    });
-                } else {
-                    // Should never reach here, but just in case
-                    tableModel.addRow(new Object[]{
-                        e.getId(), 
-                        e.getName(), 
-                        e.getDepartment(), 
-                        e.getSalary(),
-                        e.getPaymentMethodName()
-                    });
-                }
-            }
+            tableModel.reload();
         }
     }
 
@@ -219,14 +163,16 @@ public class EmployeeListGUI {
      * @param row the row index of the employee to be edited
      */
     private void editEmployee(int row) {
-        int id = (int) tableModel.getValueAt(row, 0);
-        String name = JOptionPane.showInputDialog("Enter New Name:", tableModel.getValueAt(row, 1));
+        Employee employee = tableModel.getEmployeeAt(row);
+        if (employee == null) return; // Row is still loading
+        int id = employee.getId();
+        String name = JOptionPane.showInputDialog("Enter New Name:", employee.getName());
         if (name == null) return; // User canceled
         
-        String department = JOptionPane.showInputDialog("Enter New Department:", tableModel.getValueAt(row, 2));
+        String department = JOptionPane.showInputDialog("Enter New Department:", employee.getDepartment());
         if (department == null) return; // User canceled
         
-        String salaryStr = JOptionPane.showInputDialog("Enter New Salary:", tableModel.getValueAt(row, 3));
+        String salaryStr = JOptionPane.showInputDialog("Enter New Salary:", employee.getSalary());
         if (salaryStr == null) return; // User canceled
         
         try {
@@ -248,7 +194,9 @@ public class EmployeeListGUI {
      * @param row the row index of the employee to be deleted
      */
     private void deleteEmployee(int row) {
-        int id = (int) tableModel.getValueAt(row, 0);
+        Employee employee = tableModel.getEmployeeAt(row);
+        if (employee == null) return; // Row is still loading
+        int id = employee.getId();
         int confirm = JOptionPane.showConfirmDialog(
             frame, 
             "Are you sure you want to delete this employee? This will also delete their user account.",
@@ -268,7 +216,9 @@ public class EmployeeListGUI {
      * @param row the row index of the employee
      */
     private void changePaymentMethod(int row) {
-        int id = (int) tableModel.getValueAt(row, 0);
+        Employee employee = tableModel.getEmployeeAt(row);
+        if (employee == null) return; // Row is still loading
+        int id = employee.getId();
         String[] options = {"Direct Deposit", "Check"};
         
         int choice = JOptionPane.showOptionDialog(
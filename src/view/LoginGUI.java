@@ -16,6 +16,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 /**
  * LoginGUI provides a graphical user interface for user authentication.
@@ -40,6 +42,13 @@ public class LoginGUI {
         frame = new JFrame("Employee Management System - Login");
         frame.setSize(700, 600);
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // Commit writes queued before the last logout
+                controller.flush();
+            }
+        });
         frame.setLocationRelativeTo(null);  // Center on screen
         
         JPanel mainPanel = new JPanel(new BorderLayout());
@@ -100,6 +109,8 @@ public class LoginGUI {
         exitButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                // Commit writes queued before the last logout
+                controller.flush();
                 System.exit(0);
             }
         });
@@ -0,0 +1,234 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * EmployeeTableModel.java
+ */
+package view.custom;
+
+import controller.AsyncEmployeeController;
+import model.Employee;
+import model.EmployeeSort;
+import util.Logger;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Table model that reads employees lazily, one page at a time.
+ * Only the row count is known up front; a page is fetched in the background the first
+ * time one of its cells is painted, together with the page after it, and at most
+ * a fixed number of pages are kept. Cells of a page that is still loading are empty
+ * until the page arrives. A page that fails to load stays empty until the next reload,
+ * which fetches it again. The action columns are constants and are never stored.
+ * All methods must be called on the event dispatch thread.
+ */
+public class EmployeeTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    // Employees fetched per page and pages kept in memory, overridable with -D system properties
+    private static final int PAGE_SIZE = Integer.getInteger("ems.ui.pageSize", 200);
+    private static final int MAX_CACHED_PAGES = Integer.getInteger("ems.ui.cachedPages", 10);
+
+    private static final String[] ACTION_COLUMNS = {"Edit", "Delete", "Change Payment"};
+    private static final String[] ACTION_COLUMN_NAMES = {"ID", "Name", "Department", "Salary", "Edit", "Delete", "Change Payment"};
+    private static final String[] VIEW_COLUMN_NAMES = {"ID", "Name", "Department", "Salary", "Payment Method"};
+
+    private final Logger logger = Logger.getInstance();
+    private final AsyncEmployeeController source;
+    private final boolean showActions;
+    private final EmployeeSort sort = EmployeeSort.ID;
+
+    // Least recently used pages are dropped once more than MAX_CACHED_PAGES are loaded
+    private final Map<Integer, List<Employee>> pages = new LinkedHashMap<Integer, List<Employee>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Employee>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> pendingPages = new HashSet<>();
+    // Pages whose load failed; not retried on every repaint, only after the next reload
+    private final Set<Integer> failedPages = new HashSet<>();
+    private List<Employee> fixedRows = new ArrayList<>();
+    private int rowCount;
+    // Incremented on every reload so responses for an older state are discarded
+    private int generation;
+
+    /**
+     * Creates an empty model. Call reload or showEmployees to fill it.
+     *
+     * @param source the controller the pages are read from
+     * @param showActions true to show the Edit, Delete and Change Payment button columns,
+     *                    false to show the payment method instead
+     */
+    public EmployeeTableModel(AsyncEmployeeController source, boolean showActions) {
+        this.source = source;
+        this.showActions = showActions;
+    }
+
+    /**
+     * Switches to paging through all employees. Loaded pages are discarded and the
+     * table is empty until the employee count has been read.
+     */
+    public void reload() {
+        int requested = resetState();
+        fixedRows = null;
+        rowCount = 0;
+        fireTableDataChanged();
+
+        source.getEmployeeCount().whenComplete((count, error) -> SwingUtilities.invokeLater(() -> {
+            if (requested != generation) {
+                return;
+            }
+            if (error != null) {
+                logger.error("Failed to count employees: " + error.getMessage());
+                return;
+            }
+            rowCount = count;
+            fireTableDataChanged();
+        }));
+    }
+
+    /**
+     * Shows exactly the given employees instead of paging, for example a search result.
+     *
+     * @param employees the employees to show
+     */
+    public void showEmployees(List<Employee> employees) {
+        resetState();
+        fixedRows = new ArrayList<>(employees);
+        rowCount = fixedRows.size();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Returns the employee shown in a row.
+     *
+     * @param row the row index
+     * @return the employee, or null if its page has not been loaded yet
+     */
+    public Employee getEmployeeAt(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        if (fixedRows != null) {
+            return row < fixedRows.size() ? fixedRows.get(row) : null;
+        }
+        int page = row / PAGE_SIZE;
+        List<Employee> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        // Prefetch the next page so scrolling down rarely shows empty rows
+        if ((page + 1) * PAGE_SIZE < rowCount && !pages.containsKey(page + 1)) {
+            requestPage(page + 1);
+        }
+        int index = row % PAGE_SIZE;
+        return index < rows.size() ? rows.get(index) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return showActions ? ACTION_COLUMN_NAMES.length : VIEW_COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return showActions ? ACTION_COLUMN_NAMES[column] : VIEW_COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (showActions && column >= 4) {
+            return ACTION_COLUMNS[column - 4];
+        }
+        Employee e = getEmployeeAt(row);
+        if (e == null) {
+            return null;
+        }
+        switch (column) {
+            case 0: return e.getId();
+            case 1: return e.getName();
+            case 2: return e.getDepartment();
+            case 3: return e.getSalary();
+            default: return e.getPaymentMethodName();
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        // Only the button columns are editable, so their editors receive clicks
+        return showActions && column >= 4;
+    }
+
+    /**
+     * Discards loaded pages and outstanding requests.
+     *
+     * @return the new generation
+     */
+    private int resetState() {
+        pages.clear();
+        pendingPages.clear();
+        failedPages.clear();
+        return ++generation;
+    }
+
+    /**
+     * Fetches a page in the background unless it is already being fetched or failed to load.
+     * If the previous page is loaded, the page is read with a keyset query after its
+     * last employee; otherwise, for example after a jump with the scrollbar, it is read by position.
+     *
+     * @param page the page index
+     */
+    private void requestPage(int page) {
+        if (failedPages.contains(page) || !pendingPages.add(page)) {
+            return;
+        }
+        int requested = generation;
+        List<Employee> previous = page > 0 ? pages.get(page - 1) : null;
+        CompletableFuture<List<Employee>> rows;
+        if (page == 0) {
+            rows = source.getEmployeesPage(null, PAGE_SIZE, sort);
+        } else if (previous != null && previous.size() == PAGE_SIZE) {
+            rows = source.getEmployeesPage(previous.get(PAGE_SIZE - 1), PAGE_SIZE, sort);
+        } else {
+            rows = source.getEmployeesAt(page * PAGE_SIZE, PAGE_SIZE, sort);
+        }
+
+        rows.whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> {
+            if (requested != generation) {
+                return;
+            }
+            pendingPages.remove(page);
+            int first = page * PAGE_SIZE;
+            if (error != null) {
+                logger.error("Failed to load employee page " + page + ": " + error.getMessage());
+                failedPages.add(page);
+            } else if (loaded.isEmpty() && first < rowCount) {
+                // The queries log a database error and return no rows, so an empty page inside the table failed
+                logger.warning("Employee page " + page + " came back empty; it is retried on the next reload");
+                failedPages.add(page);
+            } else {
+                pages.put(page, loaded);
+            }
+            int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+            if (first <= last) {
+                fireTableRowsUpdated(first, last);
+            }
+        }));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * ExportTask.java
+ */
+package view.custom;
+
+import util.Progress;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs one report export on a background thread.
+ * The task owns a small panel with a progress bar showing the rows written (and pages
+ * produced, for PDFs) and a Cancel button. Cancelling asks the exporter to stop at the
+ * next row; the exporter then deletes its partial file. Several tasks can run at once,
+ * each with its own panel.
+ */
+public class ExportTask extends SwingWorker<Boolean, int[]> {
+
+    /**
+     * The export to run, given the progress to report to.
+     */
+    public interface Export {
+        /**
+         * Runs the export.
+         *
+         * @param progress receives progress updates and tells the export when to stop
+         * @return true if the export completed, false if it failed or was cancelled
+         */
+        boolean run(Progress progress);
+    }
+
+    private final String title;
+    private final File file;
+    private final IntSupplier expectedRows;
+    private final Export export;
+
+    private final JPanel panel = new JPanel(new BorderLayout(10, 0));
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JButton cancelButton = new JButton("Cancel");
+
+    /**
+     * Creates an export task. Call execute to start it.
+     *
+     * @param title a short description shown next to the progress bar
+     * @param file the file the export writes
+     * @param expectedRows supplies the number of rows the export will write; called on the background thread
+     * @param export the export to run
+     */
+    public ExportTask(String title, File file, IntSupplier expectedRows, Export export) {
+        this.title = title;
+        this.file = file;
+        this.expectedRows = expectedRows;
+        this.export = export;
+
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Starting...");
+        cancelButton.addActionListener(e -> {
+            cancelButton.setEnabled(false);
+            progressBar.setString("Cancelling...");
+            // No interrupt: the exporter stops at the next row and cleans up after itself
+            cancel(false);
+        });
+
+        panel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        panel.add(new JLabel(title + " (" + file.getName() + ")"), BorderLayout.NORTH);
+        panel.add(progressBar, BorderLayout.CENTER);
+        panel.add(cancelButton, BorderLayout.EAST);
+    }
+
+    /**
+     * Returns the panel showing the progress of this export.
+     *
+     * @return the progress panel
+     */
+    public JPanel getPanel() {
+        return panel;
+    }
+
+    /**
+     * Returns the description of this export.
+     *
+     * @return the title
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Returns the file this export writes.
+     *
+     * @return the output file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Runs the export on the worker thread.
+     *
+     * @return true if the export completed
+     */
+    @Override
+    protected Boolean doInBackground() {
+        publish(new int[]{0, 0, expectedRows.getAsInt()});
+        return export.run(new Progress() {
+            @Override
+            public void update(int rowsWritten, int pagesProduced) {
+                publish(new int[]{rowsWritten, pagesProduced, -1});
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return ExportTask.this.isCancelled();
+            }
+        });
+    }
+
+    /**
+     * Shows the latest progress update on the event thread.
+     *
+     * @param updates the updates published since the last call; each is {rows, pages, expectedRows or -1}
+     */
+    @Override
+    protected void process(List<int[]> updates) {
+        for (int[] update : updates) {
+            if (update[2] > 0) {
+                progressBar.setIndeterminate(false);
+                progressBar.setMaximum(update[2]);
+            }
+        }
+        int[] latest = updates.get(updates.size() - 1);
+        progressBar.setValue(latest[0]);
+        String text = latest[0] + (progressBar.isIndeterminate() ? "" : " of " + progressBar.getMaximum()) + " rows";
+        if (latest[1] > 0) {
+            text += ", " + latest[1] + " pages";
+        }
+        progressBar.setString(text);
+    }
+
+    /**
+     * Disables the Cancel button once the export has finished.
+     */
+    @Override
+    protected void done() {
+        cancelButton.setEnabled(false);
+        progressBar.setIndeterminate(false);
+        progressBar.setString(isCancelled() ? "Cancelled" : "Finished");
+    }
+}
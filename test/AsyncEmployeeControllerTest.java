@@ -0,0 +1,199 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * Used JUnit 5 for testing
+ * AsyncEmployeeControllerTest.java
+ */
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import controller.AsyncEmployeeController;
+import controller.EmployeeController;
+import model.Database;
+import model.Employee;
+import model.PayRunSummary;
+import model.PayStubSink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for the AsyncEmployeeController.
+ * The synchronous controller is replaced by a stub that records how many
+ * operations run at the same time.
+ */
+public class AsyncEmployeeControllerTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        Database.getInstance().setUseInMemoryOnly(true); // Use in-memory storage for testing
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Controller whose writes and reads block until released, counting how many run at once.
+     */
+    private static class RecordingController extends EmployeeController {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch started;
+
+        RecordingController(int expectedStarts) {
+            started = new CountDownLatch(expectedStarts);
+        }
+
+        private void block() {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void addEmployee(int id, String name, String department, double salary, String paymentMethod) {
+            block();
+        }
+
+        @Override
+        public Employee getEmployeeById(int id) {
+            block();
+            return new Employee(id, "Async", "Test Department", 1.0);
+        }
+
+        @Override
+        public PayRunSummary runPayroll(String period, PayStubSink sink) {
+            block();
+            return null;
+        }
+    }
+
+    @Test
+    public void testWritesAreLimitedByPermits() throws Exception {
+        RecordingController stub = new RecordingController(2);
+        AsyncEmployeeController async = new AsyncEmployeeController(stub, executor, 2);
+
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            writes.add(async.addEmployee(i, "Async", "Test Department", 1.0, "Check"));
+        }
+        assertTrue(stub.started.await(5, TimeUnit.SECONDS), "Two writes should start");
+        Thread.sleep(200);
+        assertEquals(2, stub.running.get(), "No more writes than permits should run at once");
+
+        stub.release.countDown();
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(2, stub.maxRunning.get(), "The permit limit should never be exceeded");
+    }
+
+    @Test
+    public void testReadsAreNotLimitedByWritePermits() throws Exception {
+        RecordingController stub = new RecordingController(4);
+        AsyncEmployeeController async = new AsyncEmployeeController(stub, executor, 1);
+
+        List<CompletableFuture<Employee>> reads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            reads.add(async.getEmployeeById(i));
+        }
+        assertTrue(stub.started.await(5, TimeUnit.SECONDS), "All reads should run at the same time");
+
+        stub.release.countDown();
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, reads.get(i).get(5, TimeUnit.SECONDS).getId(), "Each read should return its own result");
+        }
+    }
+
+    @Test
+    public void testLedgerPayrollWaitsForAWritePermit() throws Exception {
+        RecordingController stub = new RecordingController(1);
+        AsyncEmployeeController async = new AsyncEmployeeController(stub, executor, 1);
+
+        CompletableFuture<Void> write = async.addEmployee(1, "Async", "Test Department", 1.0, "Check");
+        assertTrue(stub.started.await(5, TimeUnit.SECONDS), "The write should start");
+        CompletableFuture<PayRunSummary> payroll = async.runPayroll("async-period", PayStubSink.callback(s -> { }));
+        Thread.sleep(200);
+        assertEquals(1, stub.running.get(), "The pay run should wait while the only write permit is taken");
+
+        stub.release.countDown();
+        CompletableFuture.allOf(write, payroll).get(5, TimeUnit.SECONDS);
+        assertEquals(1, stub.maxRunning.get(), "The pay run should never run next to another write");
+    }
+
+    @Test
+    public void testExceptionsCompleteTheFutureExceptionally() throws Exception {
+        RecordingController failing = new RecordingController(0) {
+            @Override
+            public void addEmployee(int id, String name, String department, double salary, String paymentMethod) {
+                throw new IllegalStateException("write failed");
+            }
+
+            @Override
+            public Employee getEmployeeById(int id) {
+                throw new IllegalArgumentException("read failed");
+            }
+        };
+        AsyncEmployeeController async = new AsyncEmployeeController(failing, executor, 1);
+
+        CompletionException writeError = assertThrows(CompletionException.class,
+            () -> async.addEmployee(1, "Async", "Test Department", 1.0, "Check").join());
+        assertTrue(writeError.getCause() instanceof IllegalStateException, "The write's exception should be the cause");
+        assertEquals("write failed", writeError.getCause().getMessage());
+
+        CompletionException readError = assertThrows(CompletionException.class,
+            () -> async.getEmployeeById(1).join());
+        assertTrue(readError.getCause() instanceof IllegalArgumentException, "The read's exception should be the cause");
+
+        // A failed write must give its permit back
+        CompletableFuture<Boolean> next = async.changePaymentMethod(987654, "Check");
+        assertFalse(next.get(5, TimeUnit.SECONDS), "A write after a failed write should still run");
+    }
+
+    @Test
+    public void testShutdownFinishesSubmittedWork() throws Exception {
+        RecordingController stub = new RecordingController(1);
+        AsyncEmployeeController async = new AsyncEmployeeController(stub);
+
+        CompletableFuture<Void> inFlight = async.addEmployee(1, "Async", "Test Department", 1.0, "Check");
+        assertTrue(stub.started.await(5, TimeUnit.SECONDS), "The write should start");
+        async.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () -> async.getEmployeeById(2),
+                     "No work should be accepted after shutdown");
+        stub.release.countDown();
+        inFlight.get(5, TimeUnit.SECONDS);
+        assertTrue(inFlight.isDone() && !inFlight.isCompletedExceptionally(), "Submitted work should finish");
+    }
+
+    @Test
+    public void testShutdownLeavesCallerExecutorRunning() throws Exception {
+        AsyncEmployeeController async = new AsyncEmployeeController(new EmployeeController(), executor, 1);
+        async.shutdown();
+
+        assertFalse(executor.isShutdown(), "An executor passed in by the caller should not be stopped");
+        assertNotNull(async.getEmployeeCount().get(5, TimeUnit.SECONDS), "The controller should keep working");
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * Used JUnit 5 for testing
+ * ConnectionPoolTest.java
+ */
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import model.ConnectionPool;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Test class for the ConnectionPool.
+ * Each test uses its own pool on a scratch database file.
+ */
+public class ConnectionPoolTest {
+
+    private Path databaseFile;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        databaseFile = Files.createTempFile("ems-pool-test", ".db");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (pool != null) {
+            pool.close();
+        }
+        Files.deleteIfExists(databaseFile);
+    }
+
+    private ConnectionPool newPool(int maxSize, long idleTimeoutMillis, long borrowTimeoutMillis, long leakThresholdMillis) {
+        pool = new ConnectionPool("jdbc:sqlite:" + databaseFile, maxSize, idleTimeoutMillis,
+                                  borrowTimeoutMillis, leakThresholdMillis);
+        return pool;
+    }
+
+    /**
+     * Polls a condition until it holds or the timeout expires.
+     */
+    private static boolean waitFor(java.util.function.BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+
+    @Test
+    public void testCloseReturnsConnectionToPool() throws SQLException {
+        newPool(2, 0, 1000, 0);
+
+        Connection first = pool.getConnection();
+        assertEquals(1, pool.getMetrics().getActiveConnections(), "Borrowed connection should be active");
+        first.close();
+        assertEquals(0, pool.getMetrics().getActiveConnections(), "Closed connection should no longer be active");
+        assertEquals(1, pool.getMetrics().getIdleConnections(), "Closed connection should be kept idle");
+
+        // The handle is closed, but the physical connection is reused by the next borrower
+        assertTrue(first.isClosed(), "Closed handle should report being closed");
+        assertThrows(SQLException.class, first::createStatement, "A closed handle should not be usable");
+        first.close();
+        assertEquals(1, pool.getMetrics().getIdleConnections(), "Closing a handle twice should return it only once");
+
+        try (Connection second = pool.getConnection();
+             Statement stmt = second.createStatement()) {
+            assertFalse(second.isClosed(), "New handle should be open");
+            stmt.execute("SELECT 1");
+        }
+        assertEquals(1, pool.getMetrics().getCreatedConnections(), "The physical connection should be reused");
+        assertEquals(0, pool.getMetrics().getDestroyedConnections(), "No connection should be closed");
+    }
+
+    @Test
+    public void testBorrowTimesOutWhenPoolIsExhausted() throws SQLException {
+        newPool(1, 0, 100, 0);
+
+        try (Connection held = pool.getConnection()) {
+            assertFalse(held.isClosed(), "The only connection should be borrowed");
+            long start = System.currentTimeMillis();
+            assertThrows(SQLException.class, pool::getConnection, "Borrowing from an exhausted pool should time out");
+            assertTrue(System.currentTimeMillis() - start >= 100, "The borrower should wait for the borrow timeout");
+            assertEquals(1, pool.getMetrics().getTimeouts(), "The timeout should be counted");
+        }
+
+        // Once the connection is returned, it can be borrowed again
+        try (Connection again = pool.getConnection()) {
+            assertFalse(again.isClosed(), "Returned connection should be borrowable");
+        }
+    }
+
+    @Test
+    public void testUncommittedWorkIsRolledBackOnReturn() throws SQLException {
+        newPool(1, 0, 1000, 0);
+
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE pool_test (id INTEGER PRIMARY KEY)");
+        }
+
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            stmt.execute("INSERT INTO pool_test (id) VALUES (1)");
+            // Returned without commit
+        }
+
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pool_test")) {
+            assertTrue(conn.getAutoCommit(), "Returned connection should be back in auto-commit mode");
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1), "Uncommitted insert should have been rolled back");
+        }
+    }
+
+    @Test
+    public void testIdleConnectionsAreEvicted() throws Exception {
+        newPool(2, 100, 1000, 0);
+
+        pool.getConnection().close();
+        assertEquals(1, pool.getMetrics().getIdleConnections(), "Returned connection should be idle");
+
+        // The housekeeper runs once a second and closes connections idle for longer than the timeout
+        assertTrue(waitFor(() -> pool.getMetrics().getIdleConnections() == 0, 5000),
+                   "Expired idle connection should be evicted");
+        assertEquals(1, pool.getMetrics().getDestroyedConnections(), "Evicted connection should be closed");
+
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed(), "A new connection should be opened after eviction");
+        }
+        assertEquals(2, pool.getMetrics().getCreatedConnections(), "A new physical connection should be created");
+    }
+
+    @Test
+    public void testLeakedConnectionIsReported() throws Exception {
+        newPool(2, 0, 1000, 100);
+
+        try (Connection leaked = pool.getConnection()) {
+            assertFalse(leaked.isClosed(), "The leaked connection should stay usable");
+            assertTrue(waitFor(() -> pool.getMetrics().getLeaksDetected() == 1, 5000),
+                       "Connection held past the leak threshold should be reported");
+            Thread.sleep(1200);
+            assertEquals(1, pool.getMetrics().getLeaksDetected(), "A leak should be reported only once per borrow");
+        }
+        assertEquals(0, pool.getMetrics().getActiveConnections(), "Leaked connection should still be returnable");
+    }
+
+    @Test
+    public void testClosedPoolRejectsBorrowers() throws SQLException {
+        newPool(2, 0, 1000, 0);
+
+        Connection inUse = pool.getConnection();
+        pool.getConnection().close();
+        pool.close();
+
+        assertThrows(SQLException.class, pool::getConnection, "A closed pool should not hand out connections");
+        assertEquals(0, pool.getMetrics().getIdleConnections(), "Idle connections should be closed with the pool");
+
+        inUse.close();
+        assertEquals(0, pool.getMetrics().getIdleConnections(), "Connections returned after close should not be kept");
+        assertEquals(2, pool.getMetrics().getDestroyedConnections(), "Both physical connections should be closed");
+    }
+}
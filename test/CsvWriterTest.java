@@ -0,0 +1,191 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * Used JUnit 5 for testing
+ * CsvWriterTest.java
+ */
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import model.CheckPayment;
+import model.DirectDepositPayment;
+import model.Employee;
+import util.CsvWriter;
+import util.ReportGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test class for the CsvWriter.
+ * The expected output is built the way the report code built it before the writer existed:
+ * String.valueOf for numbers and a field quoted, with its quotes doubled, if it contains
+ * a comma, a quote or a newline.
+ */
+public class CsvWriterTest {
+
+    private static final String NL = System.lineSeparator();
+
+    /**
+     * Writes rows through a CsvWriter into memory.
+     */
+    private interface Rows {
+        void writeTo(CsvWriter writer) throws IOException;
+    }
+
+    private static String write(int bufferSize, Rows rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(Channels.newChannel(out), bufferSize)) {
+            rows.writeTo(writer);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Escapes a field as the string-based report code did.
+     */
+    private static String escapeCsvField(String field) {
+        if (field == null) {
+            return "";
+        }
+        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+        return field;
+    }
+
+    @Test
+    public void testFieldsAreQuotedOnlyWhenNeeded() throws IOException {
+        String csv = write(1024, w -> w.row("plain", "a,b", "say \"hi\"", "two\nlines", "", null, "tab\tand\rreturn"));
+        assertEquals("plain,\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\",,,tab\tand\rreturn" + NL, csv,
+                     "Only commas, quotes and newlines should cause quoting");
+    }
+
+    @Test
+    public void testNonAsciiFieldsAreEncodedAsUtf8() throws IOException {
+        String[] fields = { "Zoë", "Müller, Jürgen", "東京", "emoji 😀", "\"ß\"" };
+        String csv = write(1024, w -> w.row(fields));
+
+        StringBuilder expected = new StringBuilder();
+        for (String field : fields) {
+            expected.append(expected.length() == 0 ? "" : ",").append(escapeCsvField(field));
+        }
+        assertEquals(expected + NL, csv, "Multi-byte characters should survive encoding and quoting");
+    }
+
+    @Test
+    public void testNumbersAreFormattedLikeStringValueOf() throws IOException {
+        List<Double> doubles = new ArrayList<>(Arrays.asList(
+            0.0, -0.0, 0.01, 0.005, 0.1 + 0.2, 1.5, -12.3, 1234.56, 50000.0, 9999999.99,
+            1e7, 12345678.9, 1.0E-5, 123.456, Double.NaN, Double.POSITIVE_INFINITY, -Double.MAX_VALUE));
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            doubles.add(random.nextInt(2_000_000_000) / 100.0 * (random.nextBoolean() ? 1 : -1));
+            doubles.add(random.nextDouble() * 100_000);
+        }
+        long[] longs = { 0, 7, -5, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE };
+
+        String csv = write(1024, w -> {
+            for (double d : doubles) {
+                w.field(d).endRow();
+            }
+            for (long l : longs) {
+                w.field(l).endRow();
+            }
+        });
+
+        StringBuilder expected = new StringBuilder();
+        for (double d : doubles) {
+            expected.append(String.valueOf(d)).append(NL);
+        }
+        for (long l : longs) {
+            expected.append(String.valueOf(l)).append(NL);
+        }
+        assertEquals(expected.toString(), csv, "Numbers should be written exactly as String.valueOf writes them");
+    }
+
+    @Test
+    public void testSmallBufferFlushesAcrossRows() throws IOException {
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            big.append("long, \"quoted\" field ").append(i).append('\n');
+        }
+        String large = big.toString();
+
+        String csv = write(64, w -> {
+            for (int i = 0; i < 100; i++) {
+                w.field(i).field("row " + i + ", name").field(i * 1.25).endRow();
+            }
+            w.row(large, "after");
+        });
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            expected.append(i).append(',').append(escapeCsvField("row " + i + ", name")).append(',')
+                    .append(String.valueOf(i * 1.25)).append(NL);
+        }
+        expected.append(escapeCsvField(large)).append(",after").append(NL);
+        assertEquals(expected.toString(), csv, "Fields larger than the buffer and rows spanning flushes should be intact");
+    }
+
+    @Test
+    public void testEmployeeReportMatchesStringBasedReport() throws IOException {
+        Employee check = new Employee(3, "Ann \"The Boss\" Lee", "Sales, East", 1234567.89);
+        check.setPaymentStrategy(new CheckPayment());
+        Employee deposit = new Employee(1, "Zoë\nMüller", "R&D", 50000.0);
+        deposit.setPaymentStrategy(new DirectDepositPayment());
+        List<Employee> employees = Arrays.asList(
+            check, deposit,
+            new Employee(2, "Plain Name", "Engineering", 0.1 + 0.2),
+            new Employee(4, "Big Earner", "Executive", 12345678.5));
+
+        Path actual = Files.createTempFile("ems-report", ".csv");
+        Path expected = Files.createTempFile("ems-report-expected", ".csv");
+        try {
+            assertTrue(ReportGenerator.generateEmployeeCSVReport(employees, actual.toString()), "The report should be written");
+
+            // The string-based report, written as UTF-8
+            try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+                    new FileOutputStream(expected.toFile()), StandardCharsets.UTF_8))) {
+                writer.println("ID,Name,Department,Salary,Payment Method");
+                for (Employee e : employees) {
+                    writer.println(
+                        e.getId() + "," +
+                        escapeCsvField(e.getName()) + "," +
+                        escapeCsvField(e.getDepartment()) + "," +
+                        e.getSalary() + "," +
+                        escapeCsvField(e.getPaymentMethodName())
+                    );
+                }
+            }
+
+            assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(actual),
+                              "The report should be byte-for-byte the same as before");
+        } finally {
+            Files.deleteIfExists(actual);
+            Files.deleteIfExists(expected);
+        }
+    }
+
+    @Test
+    public void testBufferMustHoldAField() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new CsvWriter(Channels.newChannel(new ByteArrayOutputStream()), 16),
+                     "A buffer smaller than 64 bytes should be rejected");
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * Used JUnit 5 for testing
+ * DatabaseConcurrencyTest.java
+ */
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import model.CheckPayment;
+import model.Database;
+import model.DatabaseManager;
+import model.Employee;
+import model.EmployeeCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Multi-threaded stress test for the Database employee store.
+ * Many writers add, update and remove employees while readers look them up,
+ * and the final state must contain every write exactly once. The test runs in
+ * in-memory mode and with SQLite behind the WRITE_THROUGH and WRITE_BEHIND caches.
+ */
+public class DatabaseConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int EMPLOYEES_PER_THREAD = 5_000;
+    // SQLite commits every write, so the persistent runs use fewer employees
+    private static final int PERSISTENT_EMPLOYEES_PER_THREAD = 250;
+    private static final int BASE_ID = 500_000;
+
+    private Database database;
+    private final DatabaseManager dbManager = DatabaseManager.getInstance();
+
+    @BeforeEach
+    public void setUp() {
+        database = Database.getInstance();
+        database.setUseInMemoryOnly(true); // Use in-memory storage for testing
+
+        // Clear any existing employees
+        for (Employee e : database.getEmployees()) {
+            database.removeEmployee(e.getId());
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        List<Integer> ids = new ArrayList<>();
+        for (Employee e : database.getEmployees()) {
+            ids.add(e.getId());
+        }
+        database.removeEmployees(ids);
+        database.configureCache(Database.CachePolicy.WRITE_THROUGH, 10_000, 60_000, EmployeeCache.EvictionPolicy.LRU);
+        database.setUseInMemoryOnly(true);
+    }
+
+    @Test
+    public void testConcurrentWritersAndReaders() throws Exception {
+        runWritersAndReaders(EMPLOYEES_PER_THREAD);
+    }
+
+    @Test
+    public void testConcurrentWritersAndReadersWithWriteThrough() throws Exception {
+        database.setUseInMemoryOnly(false);
+        database.configureCache(Database.CachePolicy.WRITE_THROUGH, 10_000, 60_000, EmployeeCache.EvictionPolicy.LRU);
+        runWritersAndReaders(PERSISTENT_EMPLOYEES_PER_THREAD);
+    }
+
+    @Test
+    public void testConcurrentWritersAndReadersWithWriteBehind() throws Exception {
+        database.setUseInMemoryOnly(false);
+        database.configureCache(Database.CachePolicy.WRITE_BEHIND, 10_000, 60_000, EmployeeCache.EvictionPolicy.LRU);
+        runWritersAndReaders(PERSISTENT_EMPLOYEES_PER_THREAD);
+    }
+
+    /**
+     * Runs the writers and readers and checks the final state, in memory and, with
+     * persistence enabled, in SQLite.
+     */
+    private void runWritersAndReaders(int employeesPerThread) throws Exception {
+        boolean persistent = !database.isUseInMemoryOnly();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < THREADS * employeesPerThread; i++) {
+            ids.add(BASE_ID + i);
+        }
+        if (persistent) {
+            // Rows left behind by an earlier run would make the adds fail
+            dbManager.removeEmployees(ids);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writersDone = new AtomicBoolean(false);
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        // Readers continuously look up IDs that writers are adding, updating and removing
+        for (int r = 0; r < THREADS; r++) {
+            final int reader = r;
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    int i = 0;
+                    while (!writersDone.get()) {
+                        int id = BASE_ID + (reader * 7919 + i++) % (THREADS * employeesPerThread);
+                        Employee e = database.getEmployeeById(id);
+                        if (e != null && e.getId() != id) {
+                            errors.add(new AssertionError("Lookup for " + id + " returned employee " + e.getId()));
+                        }
+                        // An employee is only ever seen whole, never half-way through an update
+                        if (e != null && e.getName().startsWith("Worker") != (e.getSalary() == 1000.0)) {
+                            errors.add(new AssertionError("Lookup for " + id + " saw a partial update: "
+                                                          + e.getName() + ", " + e.getSalary()));
+                        }
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            });
+        }
+
+        // Writers each add their own range, update every employee, pay the even IDs by check,
+        // then remove every odd ID
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < THREADS; w++) {
+            final int firstId = BASE_ID + w * employeesPerThread;
+            writers.add(pool.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < employeesPerThread; i++) {
+                        database.addEmployee(new Employee(firstId + i, "Worker " + (firstId + i), "Stress", 1000.0));
+                    }
+                    for (int i = 0; i < employeesPerThread; i++) {
+                        database.updateEmployee(new Employee(firstId + i, "Updated " + (firstId + i), "Stress", 2000.0 + i));
+                    }
+                    for (int i = 0; i < employeesPerThread; i += 2) {
+                        database.updatePaymentMethod(firstId + i, "Check");
+                    }
+                    for (int i = 1; i < employeesPerThread; i += 2) {
+                        database.removeEmployee(firstId + i);
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(120, TimeUnit.SECONDS);
+        }
+        writersDone.set(true);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS), "All threads should finish");
+
+        assertTrue(errors.isEmpty(), "No thread should fail: " + errors);
+        assertTrue(database.flush(), "Queued writes should be committed");
+
+        // Every even ID must be present with its updates applied; every odd ID must be gone
+        List<Employee> remaining = database.getEmployees();
+        assertEquals(THREADS * employeesPerThread / 2, remaining.size(), "No add or remove should be lost");
+        for (int w = 0; w < THREADS; w++) {
+            int firstId = BASE_ID + w * employeesPerThread;
+            for (int i = 0; i < employeesPerThread; i++) {
+                int id = firstId + i;
+                Employee e = database.getEmployeeById(id);
+                Employee row = persistent ? dbManager.getEmployeeById(id) : null;
+                if (i % 2 == 0) {
+                    assertUpdated(e, id, 2000.0 + i);
+                    if (persistent) {
+                        assertUpdated(row, id, 2000.0 + i);
+                    }
+                } else {
+                    assertNull(e, "Employee " + id + " should have been removed");
+                    assertNull(row, "Employee " + id + " should have been removed from the database");
+                }
+            }
+        }
+    }
+
+    private static void assertUpdated(Employee e, int id, double salary) {
+        assertNotNull(e, "Employee " + id + " should still exist");
+        assertEquals("Updated " + id, e.getName(), "Update should not be lost");
+        assertEquals(salary, e.getSalary(), 0.001, "Update should not be lost");
+        assertTrue(e.getPaymentStrategy() instanceof CheckPayment, "Payment method change should not be lost");
+    }
+
+    @Test
+    public void testConcurrentSingletonAccess() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Database>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            results.add(pool.submit(Database::getInstance));
+        }
+        for (Future<Database> result : results) {
+            assertSame(database, result.get(), "All threads should see the same Database instance");
+        }
+        pool.shutdown();
+    }
+}
@@ -11,15 +11,31 @@ package test;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.*;
 
+import model.BatchResult;
 import model.DatabaseManager;
 import model.Employee;
+import model.EmployeeSort;
+import model.PayRunEngine;
+import model.PayRunSummary;
+import model.PayStub;
+import model.PayStubSink;
 import model.User;
 import model.CheckPayment;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Test class for the DatabaseManager.
@@ -57,6 +73,20 @@ public class DatabaseManagerTest {
             System.out.println("Note: " + e.getMessage());
         }
         
+        // Clear pay runs created by the tests
+        try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM payments WHERE period LIKE 'test-%'")) {
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            // Table might not exist yet, which is fine
+            System.out.println("Note: " + e.getMessage());
+        }
+        try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM pay_runs WHERE period LIKE 'test-%'")) {
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            // Table might not exist yet, which is fine
+            System.out.println("Note: " + e.getMessage());
+        }
+        
         // Clear the employees table
         try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM employees")) {
             stmt.executeUpdate();
@@ -94,6 +124,42 @@ public class DatabaseManagerTest {
         assertEquals(50000.0, retrieved.getSalary(), 0.001, "Employee salary should match");
     }
     
+    @Test
+    public void testAddEmployeeNeedsOnlyOneConnection() throws SQLException {
+        // Hold every pooled connection but one; the test already holds one in setUp
+        List<Connection> held = new ArrayList<>();
+        long timeoutsBefore = dbManager.getPoolMetrics().getTimeouts();
+        try {
+            for (int i = 2; i < dbManager.getPoolMetrics().getMaxSize(); i++) {
+                held.add(dbManager.getConnection());
+            }
+
+            long start = System.currentTimeMillis();
+            assertTrue(dbManager.addEmployee(new Employee(5, "Pool Employee", "Test Department", 50000.0)),
+                       "Adding an employee should succeed with a single free connection");
+            assertTrue(System.currentTimeMillis() - start < 5000, "Adding an employee should not wait for a second connection");
+            assertEquals(timeoutsBefore, dbManager.getPoolMetrics().getTimeouts(), "No borrow should time out");
+        } finally {
+            for (Connection conn : held) {
+                conn.close();
+            }
+        }
+
+        User user = dbManager.getUserByEmployeeId(5);
+        assertNotNull(user, "The user account should be created with the employee");
+        assertEquals("pool_employee", user.getUsername(), "Username should be derived from the name");
+
+        // An employee with the same name keeps the existing account untouched
+        assertTrue(dbManager.addEmployee(new Employee(6, "Pool Employee", "Test Department", 50000.0)),
+                   "Employee with a taken username should still be added");
+        assertEquals(5, dbManager.getUserByUsername("pool_employee").getEmployeeId(), "Existing account should be kept");
+
+        // A duplicate ID fails without creating an account
+        assertFalse(dbManager.addEmployee(new Employee(5, "Other Name", "Test Department", 1.0)),
+                    "Adding a duplicate ID should fail");
+        assertNull(dbManager.getUserByUsername("other_name"), "No account should be created for a rejected employee");
+    }
+
     @Test
     public void testUpdateEmployee() {
         // Add a test employee
@@ -172,6 +238,189 @@ public class DatabaseManagerTest {
         assertTrue(foundA && foundB && foundC, "All added employees should be found");
     }
     
+    @Test
+    public void testStreamAllEmployeesAndTotals() {
+        dbManager.addEmployee(new Employee(4, "Employee A", "Department A", 50000.0));
+        dbManager.addEmployee(new Employee(5, "Employee B", "Department B", 60000.0));
+        dbManager.addEmployee(new Employee(6, "Employee C", "Department C", 70000.0));
+        
+        // Stream with a fetch size smaller than the table so several fetches are needed
+        List<Integer> ids;
+        try (Stream<Employee> employees = dbManager.streamAllEmployees(2)) {
+            ids = employees.map(Employee::getId).sorted().collect(Collectors.toList());
+        }
+        
+        assertEquals(Arrays.asList(4, 5, 6), ids, "Stream should return every employee once");
+        assertEquals(3, dbManager.getEmployeeCount(), "Count should match the number of employees");
+        assertEquals(180000.0, dbManager.getTotalSalary(), 0.001, "Total salary should be summed by the database");
+    }
+    
+    @Test
+    public void testDepartmentQueries() {
+        dbManager.addEmployee(new Employee(11, "Dept A", "Sales", 40000.0));
+        dbManager.addEmployee(new Employee(12, "Dept B", "Sales", 60000.0));
+        dbManager.addEmployee(new Employee(13, "Dept C", "Engineering", 90000.0));
+        
+        assertEquals(2, dbManager.getEmployeesByDepartment("Sales").size(), "Two employees should be in Sales");
+        
+        List<Employee> midRange = dbManager.getEmployeesBySalaryRange(50000.0, 95000.0);
+        assertEquals(2, midRange.size(), "Two employees should earn between 50,000 and 95,000");
+        assertEquals(12, midRange.get(0).getId(), "Results should be ordered by salary");
+        
+        assertEquals(Integer.valueOf(2), dbManager.getEmployeeCountByDepartment().get("Sales"), "Sales count should be 2");
+        assertEquals(100000.0, dbManager.getTotalSalaryByDepartment().get("Sales"), 0.001, "Sales total should be 100,000");
+    }
+    
+    @Test
+    public void testEmployeesPage() {
+        dbManager.addEmployee(new Employee(11, "Page B", "Sales", 50000.0));
+        dbManager.addEmployee(new Employee(12, "Page A", "Sales", 50000.0));
+        dbManager.addEmployee(new Employee(13, "Page C", "Sales", 10000.0));
+        
+        List<Employee> first = dbManager.getEmployeesPage(null, 2, EmployeeSort.ID);
+        assertEquals(2, first.size(), "First page should be full");
+        assertEquals(11, first.get(0).getId(), "First page should start at the lowest ID");
+        assertEquals(13, dbManager.getEmployeesPage(first.get(1), 2, EmployeeSort.ID).get(0).getId(), "Page should resume after the cursor");
+        
+        Employee lowest = dbManager.getEmployeesPage(null, 1, EmployeeSort.SALARY).get(0);
+        assertEquals(13, lowest.getId(), "Salary pages should start at the lowest salary");
+        List<Employee> bySalary = dbManager.getEmployeesPage(lowest, 2, EmployeeSort.SALARY);
+        assertEquals(2, bySalary.size(), "Two employees should follow the lowest salary");
+        assertEquals(11, bySalary.get(0).getId(), "Equal salaries should be ordered by ID");
+        assertEquals(12, dbManager.getEmployeesPage(null, 1, EmployeeSort.NAME).get(0).getId(), "Name pages should be ordered by name");
+        
+        // The sort key comes from the cursor, so it is not looked up again and may be gone
+        Employee pageA = dbManager.getEmployeesPage(null, 1, EmployeeSort.NAME).get(0);
+        dbManager.removeEmployee(12);
+        List<Employee> byName = dbManager.getEmployeesPage(pageA, 2, EmployeeSort.NAME);
+        assertEquals(Arrays.asList(11, 13), Arrays.asList(byName.get(0).getId(), byName.get(1).getId()),
+                     "A page should resume after a cursor that was removed meanwhile");
+    }
+    
+    @Test
+    public void testInterruptedPayRunResumesWithoutPayingTwice() throws IOException {
+        List<Employee> roster = Arrays.asList(
+            new Employee(21, "Ledger A", "Department A", 1000.0),
+            new Employee(22, "Ledger B", "Department B", 2000.0),
+            new Employee(23, "Ledger C", "Department C", 3000.0));
+        PayRunEngine engine = new PayRunEngine(new ForkJoinPool(2), 1);
+        List<Integer> paidIds = Collections.synchronizedList(new ArrayList<>());
+        
+        // First run: delivering the stub of employee 22 fails, so that run is interrupted
+        PayStubSink failing = stubs -> {
+            for (PayStub stub : stubs) {
+                if (stub.getEmployeeId() == 22) {
+                    throw new IOException("Simulated failure");
+                }
+                paidIds.add(stub.getEmployeeId());
+            }
+        };
+        assertThrows(IOException.class, () -> engine.run("test-2025-01", roster, failing, dbManager),
+                     "Interrupted run should report the failure");
+        assertFalse(dbManager.getPaidEmployeeIds("test-2025-01").get(22), "Failed checkpoint should be voided");
+        
+        // Second run resumes and pays only the employees that are still unpaid
+        PayRunSummary resumed = engine.run("test-2025-01", roster, PayStubSink.callback(stub -> paidIds.add(stub.getEmployeeId())), dbManager);
+        assertEquals(3, resumed.getEmployeesPaid() + resumed.getAlreadyPaid(), "Every employee should be accounted for");
+        
+        // Third run finds nothing left to pay
+        PayRunSummary repeated = engine.run("test-2025-01", roster, PayStubSink.callback(stub -> paidIds.add(stub.getEmployeeId())), dbManager);
+        assertEquals(0, repeated.getEmployeesPaid(), "Re-running a completed period should pay nobody");
+        assertEquals(3, repeated.getAlreadyPaid(), "All employees should already be paid");
+        
+        Collections.sort(paidIds);
+        assertEquals(Arrays.asList(21, 22, 23), paidIds, "Each employee should be paid exactly once");
+    }
+    
+    @Test
+    public void testLedgerRunDeliversChunksInParallel() throws IOException {
+        List<Employee> roster = new ArrayList<>();
+        for (int id = 51; id <= 58; id++) {
+            roster.add(new Employee(id, "Ledger Parallel " + id, "Department P", 1000.0));
+        }
+        PayRunEngine engine = new PayRunEngine(new ForkJoinPool(4), 1);
+        
+        // Every chunk waits until a second chunk is being written at the same time
+        CountDownLatch overlapping = new CountDownLatch(2);
+        AtomicInteger writing = new AtomicInteger();
+        AtomicInteger maxWriting = new AtomicInteger();
+        PayStubSink slow = stubs -> {
+            maxWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+            overlapping.countDown();
+            try {
+                overlapping.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                writing.decrementAndGet();
+            }
+        };
+        
+        long start = System.nanoTime();
+        PayRunSummary summary = engine.run("test-2025-04", roster, slow, dbManager);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        assertEquals(8, summary.getEmployeesPaid(), "Every employee should be paid");
+        assertTrue(maxWriting.get() >= 2, "Chunks should be written to the sink concurrently");
+        assertTrue(elapsedMillis < 5000, "No chunk should wait for another chunk's sink write to finish");
+    }
+    
+    @Test
+    public void testRecordedStubsAreDeliveredOnResume() throws IOException {
+        Employee recordedOnly = new Employee(31, "Ledger D", "Department D", 4000.0);
+        List<Employee> roster = Arrays.asList(recordedOnly, new Employee(32, "Ledger E", "Department E", 5000.0));
+        PayRunEngine engine = new PayRunEngine(new ForkJoinPool(2), 1);
+        
+        // The application stopped after the stub of employee 31 was recorded but before it was delivered
+        int payRunId = dbManager.startPayRun("test-2025-02");
+        PayStub stub = PayStub.forEmployee(recordedOnly);
+        assertEquals(1, dbManager.recordPayments(payRunId, "test-2025-02", Arrays.asList(stub)).size());
+        assertEquals(1, dbManager.getUndeliveredPayments("test-2025-02").size(), "The stub should be recorded but undelivered");
+        
+        List<PayStub> delivered = Collections.synchronizedList(new ArrayList<>());
+        PayRunSummary resumed = engine.run("test-2025-02", roster, PayStubSink.callback(delivered::add), dbManager);
+        assertEquals(2, resumed.getEmployeesPaid(), "The recorded stub and the unpaid employee should both be delivered");
+        assertEquals(0, resumed.getAlreadyPaid(), "An undelivered stub should not count as already paid");
+        assertEquals(9000.0, resumed.getTotalAmount(), 0.001, "Totals should include the re-delivered stub");
+        assertTrue(delivered.stream().anyMatch(s -> s.getEmployeeId() == 31 && s.getText().equals(stub.getText())),
+                   "The recorded stub should be delivered as it was recorded");
+        assertTrue(dbManager.getUndeliveredPayments("test-2025-02").isEmpty(), "Delivered stubs should be marked as delivered");
+        
+        PayRunSummary repeated = engine.run("test-2025-02", roster, PayStubSink.callback(delivered::add), dbManager);
+        assertEquals(0, repeated.getEmployeesPaid(), "Nothing should be delivered twice");
+        assertEquals(2, repeated.getAlreadyPaid(), "Both employees should already be paid");
+        assertEquals(2, delivered.size(), "Each stub should be delivered exactly once");
+    }
+    
+    @Test
+    public void testSummaryCountsOnlyRecordedStubs() throws IOException {
+        List<Employee> roster = Arrays.asList(
+            new Employee(41, "Ledger F", "Department F", 1000.0),
+            new Employee(42, "Ledger G", "Department G", 2000.0),
+            new Employee(43, "Ledger H", "Department H", 3000.0));
+        // One worker, so the first chunk is delivered before any other chunk is recorded
+        PayRunEngine engine = new PayRunEngine(new ForkJoinPool(1), 1);
+        List<PayStub> delivered = Collections.synchronizedList(new ArrayList<>());
+        
+        // While the first stub is delivered, another run records the rest of the roster
+        PayStubSink racing = stubs -> {
+            if (delivered.isEmpty()) {
+                List<PayStub> others = roster.stream()
+                    .filter(e -> e.getId() != stubs.get(0).getEmployeeId())
+                    .map(PayStub::forEmployee)
+                    .collect(Collectors.toList());
+                dbManager.recordPayments(dbManager.startPayRun("test-2025-03"), "test-2025-03", others);
+            }
+            delivered.addAll(stubs);
+        };
+        PayRunSummary summary = engine.run("test-2025-03", roster, racing, dbManager);
+        
+        assertEquals(1, delivered.size(), "Stubs recorded by the other run should not be delivered again");
+        assertEquals(1, summary.getEmployeesPaid(), "Only the stub this run recorded should be counted");
+        assertEquals(delivered.get(0).getAmount(), summary.getTotalAmount(), 0.001,
+                     "The total should only cover the stub this run recorded");
+    }
+    
     @Test
     public void testUpdatePaymentMethod() {
         // Add a test employee with Direct Deposit (default)
@@ -299,4 +548,43 @@ public class DatabaseManagerTest {
         
         assertTrue(foundAdmin && foundManager && foundEmployee, "All added users should be found");
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testBulkAddUpdateRemoveEmployees() {
+        // Use a small chunk size so the batch is split across several chunks
+        dbManager.setBatchChunkSize(2);
+        
+        // Add five employees, one of which duplicates an earlier ID
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee(20, "Bulk One", "Bulk Department", 41000.0));
+        employees.add(new Employee(21, "Bulk Two", "Bulk Department", 42000.0));
+        employees.add(new Employee(22, "Bulk Three", "Bulk Department", 43000.0));
+        employees.add(new Employee(20, "Bulk Duplicate", "Bulk Department", 44000.0));
+        employees.add(new Employee(23, "Bulk Four", "Bulk Department", 45000.0));
+        
+        BatchResult addResult = dbManager.addEmployees(employees);
+        assertEquals(4, addResult.getSucceeded(), "All rows except the duplicate should be added");
+        assertEquals(1, addResult.getFailures().size(), "Only the duplicate row should be rejected");
+        assertEquals(3, addResult.getFailures().get(0).getRow(), "The duplicate row should be reported by position");
+        assertEquals("Bulk One", dbManager.getEmployeeById(20).getName(), "The original row should be kept");
+        assertNotNull(dbManager.getEmployeeById(23), "Rows after the failed one should still be added");
+        assertNotNull(dbManager.getUserByEmployeeId(21), "A user account should be created for each employee");
+        
+        // Update two existing employees and one that does not exist
+        Employee updated = new Employee(21, "Bulk Two Updated", "New Department", 52000.0);
+        updated.setPaymentStrategy(new CheckPayment());
+        BatchResult updateResult = dbManager.updateEmployees(Arrays.asList(
+            updated, new Employee(22, "Bulk Three", "New Department", 53000.0), new Employee(99, "Missing", "None", 1.0)));
+        assertEquals(2, updateResult.getSucceeded(), "Existing employees should be updated");
+        assertTrue(updateResult.isRowFailed(2), "The missing employee should be reported");
+        assertEquals("Check", dbManager.getEmployeeById(21).getPaymentMethodName(), "Payment method should be updated");
+        
+        // Remove the employees again
+        BatchResult removeResult = dbManager.removeEmployees(Arrays.asList(20, 21, 22, 23));
+        assertTrue(removeResult.isSuccessful(), "All employees should be removed");
+        assertNull(dbManager.getEmployeeById(22), "Removed employee should no longer exist");
+        assertNull(dbManager.getUserByEmployeeId(22), "Removed employee's user account should be deleted");
+        
+        dbManager.setBatchChunkSize(500);
+    }
+}
@@ -11,13 +11,31 @@ package test;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.*;
 
+import model.BatchResult;
 import model.Database;
+import model.DatabaseManager;
 import model.Employee;
+import model.EmployeeCache;
+import model.EmployeeSort;
 import model.DirectDepositPayment;
 import model.CheckPayment;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
 
 /**
  * Test class for the Database singleton.
@@ -163,4 +181,297 @@ public class DatabaseTest {
         // Verify null is returned
         assertNull(retrieved, "Non-existent employee should return null");
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testBulkOperations() {
+        // Add several employees at once
+        BatchResult addResult = database.addEmployees(Arrays.asList(
+            new Employee(990, "Bulk A", "Test Department", 10000.0),
+            new Employee(991, "Bulk B", "Test Department", 20000.0),
+            new Employee(992, "Bulk C", "Test Department", 30000.0)));
+        assertTrue(addResult.isSuccessful(), "Bulk add should succeed");
+        assertEquals(3, database.getEmployees().size(), "All bulk-added employees should be present");
+        
+        // Update two of them
+        BatchResult updateResult = database.updateEmployees(Arrays.asList(
+            new Employee(990, "Bulk A2", "Test Department", 11000.0),
+            new Employee(992, "Bulk C2", "Test Department", 33000.0)));
+        assertTrue(updateResult.isSuccessful(), "Bulk update should succeed");
+        assertEquals("Bulk C2", database.getEmployeeById(992).getName(), "Bulk update should be applied");
+        
+        // Remove two of them
+        BatchResult removeResult = database.removeEmployees(Arrays.asList(990, 991));
+        assertTrue(removeResult.isSuccessful(), "Bulk remove should succeed");
+        assertEquals(1, database.getEmployees().size(), "Only one employee should remain");
+        assertNull(database.getEmployeeById(990), "Removed employee should not be found");
+    }
+    
+    @Test
+    public void testDepartmentAndSalaryQueries() {
+        database.addEmployees(Arrays.asList(
+            new Employee(980, "Query A", "Sales", 40000.0),
+            new Employee(981, "Query B", "Sales", 60000.0),
+            new Employee(982, "Query C", "Engineering", 90000.0)));
+        
+        List<Employee> sales = database.getEmployeesByDepartment("Sales");
+        assertEquals(2, sales.size(), "Two employees should be in Sales");
+        
+        List<Employee> midRange = database.getEmployeesBySalaryRange(50000.0, 95000.0);
+        assertEquals(2, midRange.size(), "Two employees should earn between 50,000 and 95,000");
+        assertEquals(981, midRange.get(0).getId(), "Results should be ordered by salary");
+        
+        assertEquals(Integer.valueOf(2), database.getEmployeeCountByDepartment().get("Sales"), "Sales count should be 2");
+        assertEquals(100000.0, database.getTotalSalaryByDepartment().get("Sales"), 0.001, "Sales total should be 100,000");
+        assertEquals(90000.0, database.getTotalSalaryByDepartment().get("Engineering"), 0.001, "Engineering total should be 90,000");
+    }
+    
+    @Test
+    public void testEmployeesPage() {
+        database.addEmployees(Arrays.asList(
+            new Employee(973, "Page D", "Sales", 30000.0),
+            new Employee(971, "Page B", "Sales", 50000.0),
+            new Employee(974, "Page A", "Sales", 50000.0),
+            new Employee(972, "Page C", "Sales", 10000.0)));
+        
+        List<Employee> first = database.getEmployeesPage(null, 3, EmployeeSort.ID);
+        assertEquals(Arrays.asList(971, 972, 973), ids(first), "First page should hold the lowest IDs");
+        List<Employee> second = database.getEmployeesPage(first.get(2), 3, EmployeeSort.ID);
+        assertEquals(Arrays.asList(974), ids(second), "Second page should resume after the cursor");
+        
+        List<Employee> bySalary = database.getEmployeesPage(null, 2, EmployeeSort.SALARY);
+        assertEquals(Arrays.asList(972, 973), ids(bySalary), "Salary pages should be ordered by salary");
+        Employee cursor = bySalary.get(1);
+        bySalary = database.getEmployeesPage(cursor, 2, EmployeeSort.SALARY);
+        assertEquals(Arrays.asList(971, 974), ids(bySalary), "Equal salaries should be ordered by ID");
+        
+        assertEquals(Arrays.asList(974, 971), ids(database.getEmployeesPage(null, 2, EmployeeSort.NAME)),
+                     "Name pages should be ordered by name");
+        assertTrue(database.getEmployeesPage(second.get(0), 5, EmployeeSort.ID).isEmpty(), "Nothing should follow the last employee");
+        
+        // The cursor carries its own sort key, so a removed employee still marks the page boundary
+        database.removeEmployee(973);
+        assertEquals(Arrays.asList(971, 974), ids(database.getEmployeesPage(cursor, 2, EmployeeSort.SALARY)),
+                     "A page should resume after a cursor that was removed meanwhile");
+    }
+    
+    @Test
+    public void testFailedWritesAreNotCached() {
+        database.setUseInMemoryOnly(false);
+        database.configureCache(Database.CachePolicy.WRITE_THROUGH, 100, 0, EmployeeCache.EvictionPolicy.LRU);
+        try {
+            // Updating an employee SQLite does not have must not put it in the cache
+            database.updateEmployee(new Employee(970001, "Never Stored", "Test Department", 1.0));
+            assertEquals(0, database.getEmployeeCache().size(), "A failed update should not be cached");
+            assertNull(database.getEmployeeById(970001), "An employee that was never stored should not be found");
+
+            // A rejected duplicate must not replace the cached original
+            database.addEmployee(new Employee(970002, "Original", "Test Department", 1.0));
+            database.addEmployee(new Employee(970002, "Duplicate", "Test Department", 2.0));
+            assertEquals("Original", database.getEmployeeById(970002).getName(),
+                         "The persisted employee should be returned, not the rejected duplicate");
+        } finally {
+            database.removeEmployee(970002);
+            database.configureCache(Database.CachePolicy.WRITE_THROUGH, 10_000, 60_000, EmployeeCache.EvictionPolicy.LRU);
+            database.setUseInMemoryOnly(true);
+        }
+    }
+
+    @Test
+    public void testWriteBehindCoalescesAndFlushes() {
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        enableWriteBehind();
+        try {
+            database.addEmployee(new Employee(960001, "Behind A", "Test Department", 1.0));
+            database.updateEmployee(new Employee(960001, "Behind A", "Test Department", 2.0));
+            database.updateEmployee(new Employee(960001, "Behind A", "Test Department", 3.0));
+            database.addEmployee(new Employee(960002, "Behind B", "Test Department", 1.0));
+            database.removeEmployee(960002);
+            assertEquals(2, database.getPendingWriteCount(), "Changes to the same employee should be coalesced");
+            assertNull(dbManager.getEmployeeById(960001), "Nothing should be committed before the flush");
+
+            assertTrue(database.flush(), "The flush should commit everything");
+            assertEquals(0, database.getPendingWriteCount(), "Nothing should be pending after the flush");
+            assertEquals(3.0, dbManager.getEmployeeById(960001).getSalary(), 0.001, "The latest change should be committed");
+            assertNotNull(dbManager.getUserByUsername("behind_a"), "The account should be committed with the employee");
+            assertNull(dbManager.getEmployeeById(960002), "An employee removed before the flush should not be committed");
+        } finally {
+            disableWriteBehind(960001, 960002);
+        }
+    }
+
+    @Test
+    public void testWriteBehindRejectsDuplicateIds() {
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        enableWriteBehind();
+        try {
+            database.addEmployee(new Employee(960003, "Behind Original", "Test Department", 1.0));
+            database.addEmployee(new Employee(960003, "Behind Duplicate", "Test Department", 2.0));
+            assertEquals("Behind Original", database.getEmployeeById(960003).getName(),
+                         "A duplicate ID should not replace the stored employee");
+
+            assertTrue(database.flush());
+            assertEquals("Behind Original", dbManager.getEmployeeById(960003).getName(),
+                         "A duplicate ID should not be queued");
+        } finally {
+            disableWriteBehind(960003);
+        }
+    }
+
+    @Test
+    public void testWriteBehindQueuesWritesInStoreOrder() throws InterruptedException {
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        enableWriteBehind();
+        try {
+            database.addEmployee(new Employee(960004, "Behind Order", "Test Department", 0.0));
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int writer = t;
+                writers.add(new Thread(() -> {
+                    for (int i = 1; i <= 500; i++) {
+                        database.updateEmployee(new Employee(960004, "Behind Order", "Test Department", writer * 1000 + i));
+                    }
+                }));
+            }
+            writers.forEach(Thread::start);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+
+            assertTrue(database.flush());
+            assertEquals(database.getEmployeeById(960004).getSalary(), dbManager.getEmployeeById(960004).getSalary(), 0.001,
+                         "The committed employee should be the one in the store");
+        } finally {
+            disableWriteBehind(960004);
+        }
+    }
+
+    @Test
+    public void testWriteBehindReloadsRejectedEmployees() throws SQLException {
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        try (Connection conn = dbManager.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS test_reject_employee BEFORE INSERT ON employees "
+                         + "WHEN NEW.name = 'Behind Rejected' BEGIN SELECT RAISE(ABORT, 'rejected'); END");
+        }
+        enableWriteBehind();
+        try {
+            database.addEmployee(new Employee(960007, "Behind Rejected", "Test Department", 1.0));
+            database.addEmployee(new Employee(960008, "Behind Accepted", "Test Department", 1.0));
+            assertNotNull(database.getEmployeeById(960007), "The insert should be visible before the flush");
+
+            assertTrue(database.flush(), "A rejected row should not fail the whole flush");
+            assertNotNull(dbManager.getEmployeeById(960008), "The rest of the flush should be committed");
+            assertNull(dbManager.getEmployeeById(960007));
+            assertNull(database.getEmployeeById(960007), "A rejected insert should be dropped from the cache");
+            assertFalse(database.containsEmployee(960007), "A rejected insert should be dropped from the store");
+        } finally {
+            try (Connection conn = dbManager.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TRIGGER IF EXISTS test_reject_employee");
+            }
+            disableWriteBehind(960007, 960008);
+        }
+    }
+
+    @Test
+    public void testJournalIsReplayedAfterTruncatedWrite() throws IOException {
+        // The crash happened in the middle of appending a removal of employee 960005
+        byte[] record = deleteRecord(960005);
+        replayAfterCrash(Arrays.copyOf(record, record.length - 2));
+    }
+
+    @Test
+    public void testJournalIsReplayedUpToCorruptRecord() throws IOException {
+        // A removal of employee 960005 whose checksum does not match its contents
+        byte[] record = deleteRecord(960005);
+        record[5] ^= 0x40;
+        replayAfterCrash(record);
+    }
+
+    /**
+     * Journals changes, simulates a crash that lost their commit and left a damaged record
+     * at the end of the journal, and checks that the journal is replayed up to that record.
+     */
+    private void replayAfterCrash(byte[] damagedTail) throws IOException {
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        enableWriteBehind();
+        try {
+            database.addEmployee(new Employee(960005, "Journal A", "Test Department", 1.0));
+            database.updateEmployee(new Employee(960005, "Journal A", "Test Department", 2.0));
+            database.addEmployee(new Employee(960006, "Journal B", "Test Department", 1.0));
+            Map<Path, byte[]> journal = readJournal();
+            assertFalse(journal.isEmpty(), "Changes should be journaled before they are committed");
+
+            // Commit, then undo the commit as if it had never happened
+            disableWriteBehind();
+            dbManager.removeEmployees(Arrays.asList(960005, 960006));
+            assertTrue(readJournal().isEmpty(), "A clean shutdown should delete the journal");
+            Path last = null;
+            for (Map.Entry<Path, byte[]> segment : journal.entrySet()) {
+                Files.write(segment.getKey(), segment.getValue());
+                last = segment.getKey();
+            }
+            Files.write(last, damagedTail, StandardOpenOption.APPEND);
+
+            enableWriteBehind();
+            assertEquals(2, database.getPendingWriteCount(), "The journaled changes should be recovered");
+            assertTrue(database.flush());
+            Employee replayed = dbManager.getEmployeeById(960005);
+            assertNotNull(replayed, "The damaged record at the end should be ignored");
+            assertEquals(2.0, replayed.getSalary(), 0.001, "The latest journaled change should be replayed");
+            assertNotNull(dbManager.getEmployeeById(960006), "Every complete record should be replayed");
+            assertNotNull(dbManager.getUserByUsername("journal_b"), "Accounts should be created on replay");
+        } finally {
+            disableWriteBehind(960005, 960006);
+        }
+    }
+
+    /**
+     * Builds a journal record that removes an employee: [length][crc32][type][id].
+     */
+    private static byte[] deleteRecord(int id) {
+        ByteBuffer payload = ByteBuffer.allocate(5).put((byte) 'D').putInt(id);
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        return ByteBuffer.allocate(13).putInt(5).putInt((int) crc.getValue()).put(payload.array()).array();
+    }
+
+    /**
+     * Reads the segments of the write-behind journal.
+     */
+    private static Map<Path, byte[]> readJournal() throws IOException {
+        Path base = Paths.get(System.getProperty("ems.writeBehind.journal", "employee_management.db.writes")).toAbsolutePath();
+        Map<Path, byte[]> segments = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(base.getParent(), base.getFileName() + ".*")) {
+            for (Path file : files) {
+                segments.put(file, Files.readAllBytes(file));
+            }
+        }
+        return segments;
+    }
+
+    private void enableWriteBehind() {
+        database.setUseInMemoryOnly(false);
+        database.configureCache(Database.CachePolicy.WRITE_BEHIND, 100, 0, EmployeeCache.EvictionPolicy.LRU);
+    }
+
+    /**
+     * Commits and stops the write-behind queue and removes the given test employees.
+     */
+    private void disableWriteBehind(int... ids) {
+        database.configureCache(Database.CachePolicy.WRITE_THROUGH, 10_000, 60_000, EmployeeCache.EvictionPolicy.LRU);
+        for (int id : ids) {
+            database.removeEmployee(id);
+        }
+        database.setUseInMemoryOnly(true);
+    }
+
+    /**
+     * Returns the IDs of a list of employees.
+     */
+    private static List<Integer> ids(List<Employee> employees) {
+        List<Integer> ids = new ArrayList<>();
+        for (Employee e : employees) {
+            ids.add(e.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * Used JUnit 5 for testing
+ * EmployeeCacheTest.java
+ */
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import model.Employee;
+import model.EmployeeCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test class for the EmployeeCache.
+ */
+public class EmployeeCacheTest {
+
+    @Test
+    public void testHitAndMissCounters() {
+        EmployeeCache cache = new EmployeeCache(10, 0, EmployeeCache.EvictionPolicy.LRU);
+        cache.put(new Employee(1, "Cache Test", "Test Department", 50000.0));
+
+        assertNotNull(cache.get(1), "Cached employee should be returned");
+        assertNull(cache.get(2), "Uncached employee should be a miss");
+
+        assertEquals(1, cache.getHits(), "There should be one hit");
+        assertEquals(1, cache.getMisses(), "There should be one miss");
+        assertEquals(0.5, cache.getHitRate(), 0.001, "Hit rate should be 50%");
+    }
+
+    @Test
+    public void testLruEviction() {
+        EmployeeCache cache = new EmployeeCache(2, 0, EmployeeCache.EvictionPolicy.LRU);
+        cache.put(new Employee(1, "One", "Test Department", 1.0));
+        cache.put(new Employee(2, "Two", "Test Department", 2.0));
+
+        // Touch 1 so that 2 becomes the least recently used
+        cache.get(1);
+        cache.put(new Employee(3, "Three", "Test Department", 3.0));
+
+        assertNotNull(cache.get(1), "Recently used employee should stay cached");
+        assertNull(cache.get(2), "Least recently used employee should be evicted");
+        assertNotNull(cache.get(3), "Newly added employee should be cached");
+        assertEquals(1, cache.getEvictions(), "There should be one eviction");
+    }
+
+    @Test
+    public void testLfuEviction() {
+        EmployeeCache cache = new EmployeeCache(2, 0, EmployeeCache.EvictionPolicy.LFU);
+        cache.put(new Employee(1, "One", "Test Department", 1.0));
+        cache.put(new Employee(2, "Two", "Test Department", 2.0));
+
+        // Use 2 more often than 1, even though 1 is touched last
+        cache.get(2);
+        cache.get(2);
+        cache.get(1);
+        cache.put(new Employee(3, "Three", "Test Department", 3.0));
+
+        assertNull(cache.get(1), "Least frequently used employee should be evicted");
+        assertNotNull(cache.get(2), "Frequently used employee should stay cached");
+        assertNotNull(cache.get(3), "Newly added employee should be cached");
+    }
+
+    @Test
+    public void testTimeToLive() throws InterruptedException {
+        EmployeeCache cache = new EmployeeCache(10, 20, EmployeeCache.EvictionPolicy.LRU);
+        cache.put(new Employee(1, "Expiring", "Test Department", 1.0));
+
+        Thread.sleep(50);
+
+        assertNull(cache.get(1), "Expired employee should not be returned");
+        assertEquals(1, cache.getExpirations(), "There should be one expiration");
+        assertEquals(0, cache.size(), "Expired entry should be removed");
+    }
+
+    @Test
+    public void testInvalidate() {
+        EmployeeCache cache = new EmployeeCache(10, 0, EmployeeCache.EvictionPolicy.LFU);
+        cache.put(new Employee(1, "Invalidate", "Test Department", 1.0));
+        cache.invalidate(1);
+
+        assertNull(cache.get(1), "Invalidated employee should not be returned");
+    }
+
+    @Test
+    public void testConcurrentReadersAndWriters() throws Exception {
+        final int threads = 8;
+        final int lookupsPerThread = 20_000;
+        for (EmployeeCache.EvictionPolicy policy : EmployeeCache.EvictionPolicy.values()) {
+            EmployeeCache cache = new EmployeeCache(100, 0, policy);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < lookupsPerThread; i++) {
+                        int id = (i * 31 + thread) % 200;
+                        Employee cached = cache.get(id);
+                        if (cached == null) {
+                            cache.put(new Employee(id, "Concurrent", "Test Department", id));
+                        } else {
+                            assertEquals(id, cached.getId(), "A lookup should return the employee with that ID");
+                        }
+                        if (i % 100 == 0) {
+                            cache.invalidate(id);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            pool.shutdown();
+
+            assertTrue(cache.size() <= 100, policy + " cache should never exceed its maximum size");
+            assertEquals((long) threads * lookupsPerThread, cache.getHits() + cache.getMisses(),
+                         policy + " cache should count every lookup exactly once");
+            assertTrue(cache.getHits() > 0 && cache.getEvictions() > 0, policy + " cache should have hits and evictions");
+        }
+    }
+}
@@ -13,13 +13,38 @@ import org.junit.jupiter.api.*;
 
 import controller.EmployeeController;
 import model.Database;
+import model.DatabaseManager;
 import model.Employee;
 import model.CheckPayment;
 import model.DirectDepositPayment;
+import model.PayRunSummary;
+import model.PayStub;
+import model.PayStubSink;
+import util.PayStubPDFExporter;
+import util.ImportSummary;
+import util.Progress;
+import util.ReportFormat;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 import java.io.File;
+import java.io.IOException;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Test class for the EmployeeController.
@@ -128,6 +153,29 @@ public class EmployeeControllerTest {
                   "Payment method should be updated to Check");
     }
     
+    @Test
+    public void testFailedUpdateKeepsPreviousValues() {
+        database.setUseInMemoryOnly(false);
+        try {
+            controller.addEmployee(960101, "Kept Name", "Kept Department", 50000.0);
+            Employee before = controller.getEmployeeById(960101);
+            // The row disappears behind the application's back, so the update cannot be persisted
+            DatabaseManager.getInstance().removeEmployee(960101);
+            
+            controller.updateEmployee(960101, "Lost Name", "Lost Department", 1.0, "Check");
+            
+            Employee after = controller.getEmployeeById(960101);
+            assertNotNull(after, "The employee should still be in memory");
+            assertEquals("Kept Name", after.getName(), "A failed update should not be visible");
+            assertEquals(50000.0, after.getSalary(), 0.001, "A failed update should not be visible");
+            assertTrue(after.getPaymentStrategy() instanceof DirectDepositPayment, "A failed update should not be visible");
+            assertEquals("Kept Name", before.getName(), "Employees handed out earlier should not change");
+        } finally {
+            database.removeEmployee(960101);
+            database.setUseInMemoryOnly(true);
+        }
+    }
+    
     @Test
     public void testChangePaymentMethod() {
         // Add a test employee with default payment method (Direct Deposit)
@@ -194,6 +242,51 @@ public class EmployeeControllerTest {
         assertTrue(payStubs.contains("Check"), "Pay stubs should include Check method");
     }
     
+    @Test
+    public void testRunPayroll() {
+        // Add test employees with different payment methods
+        controller.addEmployee(120, "Run Test A", "Department A", 60000.0, "Direct Deposit");
+        controller.addEmployee(121, "Run Test B", "Department B", 70000.0, "Check");
+        controller.addEmployee(122, "Run Test C", "Department C", 80000.0, "Check");
+        
+        // Collect the stubs through a callback sink
+        List<PayStub> stubs = Collections.synchronizedList(new ArrayList<>());
+        PayRunSummary summary = controller.runPayroll(PayStubSink.callback(stubs::add));
+        
+        assertNotNull(summary, "Pay run should succeed");
+        assertEquals(3, stubs.size(), "Every employee should get one pay stub");
+        assertEquals(3, summary.getEmployeesPaid(), "Summary should count every employee");
+        assertEquals(210000.0, summary.getTotalAmount(), 0.001, "Summary should total every payment");
+        assertEquals(Integer.valueOf(2), summary.getCountByMethod().get("Check"), "Two employees are paid by check");
+        assertEquals(60000.0, summary.getAmountByMethod().get("Direct Deposit"), 0.001, "Direct deposit total should match");
+    }
+    
+    @Test
+    public void testRunPayrollToPDFZip() throws IOException {
+        for (int i = 0; i < 25; i++) {
+            controller.addEmployee(4000 + i, "Stub Test " + i, "Department A", 50000.0 + i, i % 2 == 0 ? "Check" : "Direct Deposit");
+        }
+        
+        File tempFile = new File("test_pay_stubs.zip");
+        try {
+            PayRunSummary summary = controller.runPayroll(PayStubPDFExporter.toZip(tempFile.toPath()));
+            assertNotNull(summary, "Pay run should succeed");
+            assertTrue(summary.getStubsPerSecond() > 0, "Summary should report throughput");
+            
+            // One single-page PDF per employee
+            try (ZipFile zip = new ZipFile(tempFile)) {
+                assertEquals(25, zip.size(), "Every employee should get one PDF");
+                ZipEntry entry = zip.getEntry("paystub_4007.pdf");
+                assertNotNull(entry, "Stubs should be named after the employee ID");
+                try (PDDocument document = PDDocument.load(zip.getInputStream(entry))) {
+                    assertEquals(1, document.getNumberOfPages());
+                }
+            }
+        } finally {
+            tempFile.delete();
+        }
+    }
+    
     @Test
     public void testGenerateCSVReport() {
         // Add test employees
@@ -229,4 +322,194 @@ public class EmployeeControllerTest {
         // Clean up
         tempFile.delete();
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testCancelledReportDeletesPartialFile() {
+        for (int i = 0; i < Progress.UPDATE_INTERVAL + 10; i++) {
+            controller.addEmployee(1000 + i, "Cancel Test " + i, "Department A", 50000.0);
+        }
+        
+        // Cancel the export as soon as the first progress update arrives
+        Progress cancelAfterFirstUpdate = new Progress() {
+            private volatile boolean cancelled;
+            
+            @Override
+            public void update(int rowsWritten, int pagesProduced) {
+                cancelled = true;
+            }
+            
+            @Override
+            public boolean isCancelled() {
+                return cancelled;
+            }
+        };
+        
+        File tempFile = new File("test_cancelled_report.csv");
+        boolean success = controller.generateEmployeeCSVReport(tempFile.getAbsolutePath(), cancelAfterFirstUpdate);
+        
+        assertFalse(success, "Cancelled export should report failure");
+        assertFalse(tempFile.exists(), "Partial report file should be deleted");
+    }
+    
+    @Test
+    public void testGeneratedPDFReportCanBeRead() throws IOException {
+        // Enough employees to fill several pages
+        for (int i = 0; i < 100; i++) {
+            controller.addEmployee(2000 + i, "PDF Test " + i, "Department A", 50000.0 + i);
+        }
+        
+        int[] pagesReported = new int[1];
+        Progress progress = new Progress() {
+            @Override
+            public void update(int rowsWritten, int pagesProduced) {
+                pagesReported[0] = pagesProduced;
+            }
+            
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        };
+        
+        File tempFile = new File("test_payroll_report.pdf");
+        try {
+            assertTrue(controller.generatePayrollPDFReport(tempFile.getAbsolutePath(), progress),
+                "Payroll PDF report generation should succeed");
+            
+            // The written file must be a complete PDF with every page it reported
+            try (PDDocument document = PDDocument.load(tempFile)) {
+                assertTrue(document.getNumberOfPages() > 1, "Report should span several pages");
+                assertEquals(pagesReported[0], document.getNumberOfPages());
+            }
+        } finally {
+            tempFile.delete();
+        }
+    }
+    
+    @Test
+    public void testPayrollPDFReportByDepartment() throws IOException {
+        for (int i = 0; i < 60; i++) {
+            controller.addEmployee(3000 + i, "Department Test " + i, "Department " + (char) ('A' + i % 3), 40000.0 + i);
+        }
+        
+        File tempFile = new File("test_payroll_by_department.pdf");
+        try {
+            assertTrue(controller.generatePayrollPDFReportByDepartment(tempFile.getAbsolutePath()),
+                "Parallel payroll PDF report generation should succeed");
+            
+            // Summary part plus one part per department, each starting on a new page
+            try (PDDocument document = PDDocument.load(tempFile)) {
+                assertTrue(document.getNumberOfPages() >= 4, "Every department should start a new page");
+            }
+        } finally {
+            tempFile.delete();
+        }
+    }
+    
+    /**
+     * Test writing every report format from one pass over the employees.
+     */
+    @Test
+    public void testGenerateReportsInOnePass() throws IOException {
+        controller.addEmployee(4001, "Pipeline Test", "Engineering", 52000.0);
+        controller.addEmployee(4002, "Pipeline, Quoted", "Sales", 48000.0);
+        
+        Path dir = Files.createTempDirectory("ems-reports");
+        Map<ReportFormat, String> outputs = new EnumMap<>(ReportFormat.class);
+        for (ReportFormat format : ReportFormat.values()) {
+            outputs.put(format, dir.resolve(format.getDefaultFileName()).toString());
+        }
+        try {
+            assertTrue(controller.generateReports(outputs, Progress.NONE), "All reports should be generated");
+            
+            for (String output : outputs.values()) {
+                assertTrue(Files.size(Paths.get(output)) > 0, "Report should not be empty: " + output);
+            }
+            List<String> csv = Files.readAllLines(Paths.get(outputs.get(ReportFormat.EMPLOYEE_CSV)));
+            assertTrue(csv.stream().anyMatch(line -> line.startsWith("4002,\"Pipeline, Quoted\",Sales,48000.0")),
+                "CSV report should contain the employee");
+            try (PDDocument document = PDDocument.load(new File(outputs.get(ReportFormat.PAYROLL_PDF)))) {
+                assertTrue(document.getNumberOfPages() >= 1, "Payroll PDF should be readable");
+            }
+        } finally {
+            for (String output : outputs.values()) {
+                Files.deleteIfExists(Paths.get(output));
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+    
+    /**
+     * Test that reports named .gz are compressed while they are written.
+     */
+    @Test
+    public void testCompressedReports() throws IOException {
+        controller.addEmployee(4101, "Gzip Test", "Finance", 61000.0);
+        
+        File csvFile = new File("test_report.csv.gz");
+        File payrollFile = new File("test_payroll.txt.gz");
+        try {
+            assertTrue(controller.generateEmployeeCSVReport(csvFile.getAbsolutePath()), "Compressed CSV report should be generated");
+            assertTrue(controller.generatePayrollReport(payrollFile.getAbsolutePath()), "Compressed payroll report should be generated");
+            
+            List<String> csv = readGzipLines(csvFile);
+            assertEquals("ID,Name,Department,Salary,Payment Method", csv.get(0), "CSV header should be intact");
+            assertTrue(csv.contains("4101,Gzip Test,Finance,61000.0,Direct Deposit"), "CSV report should contain the employee");
+            assertTrue(readGzipLines(payrollFile).contains("Name: Gzip Test"), "Payroll report should contain the employee");
+        } finally {
+            csvFile.delete();
+            payrollFile.delete();
+        }
+    }
+    
+    private static List<String> readGzipLines(File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file))))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+    
+    /**
+     * Test importing employees from CSV, with quoted fields and rejected rows.
+     */
+    @Test
+    public void testImportEmployeesFromCSV() throws IOException {
+        controller.addEmployee(4201, "Existing", "Finance", 50000.0);
+        
+        Path csvFile = Files.createTempFile("ems-import", ".csv");
+        Path rejectFile = Files.createTempFile("ems-import", ".rejects.csv");
+        Files.write(csvFile, Arrays.asList(
+            "ID,Name,Department,Salary,Payment Method",
+            "4202,Import One,Sales,41000.5,Check",
+            "4203,\"Two, \"\"Quoted\"\"",
+            "Name\",Sales,42000.0,Direct Deposit",
+            "4202,Duplicate,Sales,43000.0,Check",
+            "4204,Negative,Sales,-1.0,Check",
+            "4205,Unknown,Sales,44000.0,Cash",
+            "4201,Existing Again,Finance,45000.0,Check"));
+        try {
+            ImportSummary summary = controller.importEmployeesFromCSV(csvFile.toString(), rejectFile.toString(), Progress.NONE);
+            
+            assertNotNull(summary, "Import should complete");
+            assertEquals(6, summary.getRowsRead(), "Header should not be counted");
+            assertEquals(2, summary.getImported(), "Valid rows should be imported");
+            assertEquals(4, summary.getRejected(), "Invalid rows should be rejected");
+            assertTrue(controller.getEmployeeById(4202).getPaymentStrategy() instanceof CheckPayment,
+                "Payment method should be imported");
+            assertEquals("Two, \"Quoted\"\nName", controller.getEmployeeById(4203).getName(),
+                "Quoted fields may contain commas, quotes and newlines");
+            assertEquals("Existing", controller.getEmployeeById(4201).getName(), "Existing employees should be kept");
+            
+            List<String> rejects = Files.readAllLines(rejectFile);
+            assertEquals(5, rejects.size(), "Reject file should have a header and one line per rejected row");
+            assertTrue(rejects.get(1).startsWith("4202,Duplicate,") && rejects.get(1).contains(",5,"),
+                "Rejected rows should keep their fields and line number");
+            assertTrue(rejects.get(2).contains("Salary cannot be negative"), "Negative salary should be rejected");
+            assertTrue(rejects.get(3).contains("Unknown payment method"), "Unknown payment method should be rejected");
+            assertTrue(rejects.get(4).contains("already exists"), "Existing IDs should be rejected");
+        } finally {
+            Files.deleteIfExists(csvFile);
+            Files.deleteIfExists(rejectFile);
+        }
+    }
+}
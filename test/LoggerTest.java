@@ -0,0 +1,230 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * Used JUnit 5 for testing
+ * LoggerTest.java
+ */
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+
+import util.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for the Logger in asynchronous mode.
+ * The writer thread is stalled by replacing System.out with a stream that blocks
+ * until released, so the ring buffer can be filled on purpose.
+ */
+public class LoggerTest {
+
+    private static final Path LOG_FILE = Paths.get("employee_system.log");
+
+    private Logger logger;
+    private PrintStream originalOut;
+    private String marker;
+
+    @BeforeEach
+    public void setUp() {
+        logger = Logger.getInstance();
+        originalOut = System.out;
+        marker = "logger-test-" + UUID.randomUUID();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(originalOut);
+        logger.disableAsync();
+    }
+
+    /**
+     * Console stream that blocks the first writer until released and discards everything written.
+     */
+    private static class GateStream extends OutputStream {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void write(int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Switches the logger to asynchronous mode and stalls its writer thread on the first entry.
+     */
+    private GateStream stallWriter(int bufferSize, Logger.BackPressure backPressure) throws InterruptedException {
+        GateStream gate = new GateStream();
+        System.setOut(new PrintStream(gate, true));
+        logger.enableAsync(bufferSize, backPressure);
+        logger.info(marker + " stall");
+        assertTrue(gate.entered.await(5, TimeUnit.SECONDS), "The writer thread should pick up the first entry");
+        return gate;
+    }
+
+    /**
+     * Returns the lines of the log file written by this test.
+     */
+    private List<String> loggedLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (String line : Files.readAllLines(LOG_FILE, StandardCharsets.UTF_8)) {
+            if (line.contains(marker)) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void testEntriesAreWrittenInOrder() throws Exception {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        logger.enableAsync(8, Logger.BackPressure.BLOCK);
+        assertTrue(logger.isAsync(), "The logger should be asynchronous");
+
+        // More entries than slots, so the ring buffer wraps around several times
+        for (int i = 0; i < 100; i++) {
+            logger.info(marker + " entry " + i);
+        }
+        logger.flush();
+
+        List<String> lines = loggedLines();
+        assertEquals(100, lines.size(), "Every entry should be written");
+        for (int i = 0; i < 100; i++) {
+            assertTrue(lines.get(i).endsWith(marker + " entry " + i), "Entries should keep their order");
+        }
+        assertEquals(0, logger.getDroppedCount(), "Nothing should be dropped when blocking");
+    }
+
+    @Test
+    public void testDropDiscardsEntriesWhenFull() throws Exception {
+        GateStream gate = stallWriter(4, Logger.BackPressure.DROP);
+        for (int i = 0; i < 4; i++) {
+            logger.info(marker + " kept " + i);
+        }
+        for (int i = 0; i < 3; i++) {
+            logger.error(marker + " dropped " + i);
+        }
+        assertTrue(logger.getDroppedCount() >= 3, "Entries that do not fit should be dropped");
+
+        gate.release.countDown();
+        logger.flush();
+        String log = String.join("\n", loggedLines());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(log.contains(marker + " kept " + i), "Entries that fit should be written");
+        }
+        assertFalse(log.contains(marker + " dropped"), "Dropped entries should not be written");
+        assertTrue(Files.readAllLines(LOG_FILE, StandardCharsets.UTF_8).stream()
+                        .anyMatch(line -> line.contains("log messages dropped")),
+                   "The number of dropped entries should be logged");
+    }
+
+    @Test
+    public void testBlockWaitsForSpace() throws Exception {
+        GateStream gate = stallWriter(4, Logger.BackPressure.BLOCK);
+        for (int i = 0; i < 4; i++) {
+            logger.info(marker + " queued " + i);
+        }
+        Thread producer = new Thread(() -> logger.info(marker + " blocked"));
+        producer.start();
+        producer.join(300);
+        assertTrue(producer.isAlive(), "A producer should wait while the buffer is full");
+
+        gate.release.countDown();
+        producer.join(5000);
+        assertFalse(producer.isAlive(), "The producer should continue once space is freed");
+        logger.flush();
+        assertEquals(6, loggedLines().size(), "Nothing should be dropped when blocking");
+        assertEquals(0, logger.getDroppedCount(), "Nothing should be dropped when blocking");
+    }
+
+    @Test
+    public void testDropDebugKeepsOtherLevels() throws Exception {
+        GateStream gate = stallWriter(4, Logger.BackPressure.DROP_DEBUG);
+        for (int i = 0; i < 4; i++) {
+            logger.info(marker + " queued " + i);
+        }
+        logger.debug(marker + " debug");
+        assertTrue(logger.getDroppedCount() >= 1, "A DEBUG entry should be dropped when the buffer is full");
+
+        Thread producer = new Thread(() -> logger.warning(marker + " warning"));
+        producer.start();
+        producer.join(300);
+        assertTrue(producer.isAlive(), "A WARNING entry should wait for space");
+
+        gate.release.countDown();
+        producer.join(5000);
+        logger.flush();
+        String log = String.join("\n", loggedLines());
+        assertTrue(log.contains(marker + " warning"), "The WARNING entry should be written");
+        assertFalse(log.contains(marker + " debug"), "The DEBUG entry should be dropped");
+    }
+
+    @Test
+    public void testDisableAsyncDrainsQueuedEntries() throws Exception {
+        GateStream gate = stallWriter(1024, Logger.BackPressure.BLOCK);
+        for (int i = 0; i < 500; i++) {
+            logger.info(marker + " pending " + i);
+        }
+        gate.release.countDown();
+        logger.disableAsync();
+
+        assertFalse(logger.isAsync(), "The logger should be synchronous again");
+        assertEquals(501, loggedLines().size(), "Entries queued before shutdown should be written");
+    }
+
+    @Test
+    public void testEntriesLoggedDuringShutdownAreNotLost() throws Exception {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        logger.enableAsync(64, Logger.BackPressure.BLOCK);
+
+        int threads = 4;
+        int perThread = 2000;
+        CountDownLatch started = new CountDownLatch(threads);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread producer = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < perThread; i++) {
+                    logger.info(marker + " " + id + "-" + i);
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // Switch back to synchronous logging while the producers are still running
+        logger.disableAsync();
+        for (Thread producer : producers) {
+            producer.join(30_000);
+        }
+
+        assertEquals(threads * perThread, loggedLines().size(),
+                     "Entries submitted while the writer closes should be written synchronously");
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Krutik Bajariya
+ * PDP Project
+ * Employee Management System
+ * Used VSCode for the project
+ * Used JUnit 5 for testing
+ * PaymentStrategyTest.java
+ */
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.CheckNumberSource;
+import model.CheckPayment;
+import model.DatabaseManager;
+import model.DirectDepositPayment;
+import model.PaymentInstruction;
+import model.PaymentResult;
+import model.PaymentStrategy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Test class for the batch contract of the payment strategies.
+ * Batch files are written to a temporary directory.
+ */
+public class PaymentStrategyTest {
+
+    @TempDir
+    Path outputDirectory;
+
+    private final List<PaymentInstruction> instructions = Arrays.asList(
+        new PaymentInstruction(1, "Batch Test A", 1000.0),
+        new PaymentInstruction(2, "Batch Test B", 2500.5),
+        new PaymentInstruction(3, "Batch Test C", 0.0)
+    );
+
+    /**
+     * Lists the files written to the output directory.
+     */
+    private List<Path> writtenFiles() throws IOException {
+        try (Stream<Path> files = Files.list(outputDirectory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testDirectDepositWritesOneBatchFile() throws IOException {
+        List<PaymentResult> results = new DirectDepositPayment(outputDirectory).payAll(instructions, CheckNumberSource.inMemory());
+
+        assertEquals(3, results.size(), "There should be one result per instruction");
+        assertTrue(results.get(0).isSuccess(), "Valid deposit should succeed");
+        assertTrue(results.get(1).isSuccess(), "Valid deposit should succeed");
+        assertFalse(results.get(2).isSuccess(), "Zero amount should be rejected");
+        assertNotEquals(results.get(0).getReference(), results.get(1).getReference(), "References should be unique");
+
+        List<Path> files = writtenFiles();
+        assertEquals(1, files.size(), "All deposits should go into a single batch file");
+        List<String> lines = Files.readAllLines(files.get(0));
+        assertEquals(4, lines.size(), "Batch should have a header, two entries and a control record");
+        assertTrue(lines.get(1).contains("Batch Test A"), "Entry should name the payee");
+        assertTrue(lines.get(3).startsWith("CONTROL|2|3500.50"), "Control record should hold the count and total");
+    }
+
+    @Test
+    public void testCheckPaymentWritesOnePrintRun() throws IOException {
+        List<PaymentResult> results = new CheckPayment(outputDirectory).payAll(instructions, CheckNumberSource.inMemory());
+
+        assertEquals(3, results.size(), "There should be one result per instruction");
+        assertFalse(results.get(2).isSuccess(), "Zero amount should be rejected");
+        long first = Long.parseLong(results.get(0).getReference());
+        long second = Long.parseLong(results.get(1).getReference());
+        assertEquals(first + 1, second, "Checks in a print run should be numbered consecutively");
+
+        List<Path> files = writtenFiles();
+        assertEquals(1, files.size(), "All checks should go into a single print run");
+        String content = new String(Files.readAllBytes(files.get(0)));
+        assertTrue(content.contains("CHECK #" + first), "Print run should contain the first check");
+        assertTrue(content.contains("TOTAL CHECKS: 2"), "Print run should contain the check count");
+    }
+
+    @Test
+    public void testCheckNumbersAreKeptInTheDatabase() throws SQLException {
+        List<PaymentResult> firstRun = new CheckPayment(outputDirectory)
+            .payAll(instructions, CheckNumberSource.database(DatabaseManager.getInstance()));
+        long last = Long.parseLong(firstRun.get(1).getReference());
+
+        // A new strategy, as after a restart, continues from the number stored in the database
+        List<PaymentResult> secondRun = new CheckPayment(outputDirectory)
+            .payAll(instructions, CheckNumberSource.database(DatabaseManager.getInstance()));
+        assertEquals(last + 1, Long.parseLong(secondRun.get(0).getReference()),
+                     "Check numbers should continue after the previous print run");
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT next_value FROM sequences WHERE name = 'check'")) {
+            assertTrue(rs.next(), "The next check number should be stored");
+            assertTrue(rs.getLong(1) > Long.parseLong(secondRun.get(1).getReference()),
+                       "The stored number should be past every check issued");
+        }
+    }
+
+    @Test
+    public void testCheckNumbersComeFromTheGivenSource() throws IOException {
+        List<Integer> requested = new ArrayList<>();
+        CheckNumberSource source = count -> {
+            requested.add(count);
+            return 500;
+        };
+        List<PaymentResult> results = new CheckPayment(outputDirectory).payAll(instructions, source);
+
+        assertEquals(Arrays.asList(2), requested, "One range should be reserved for the valid checks");
+        assertEquals("500", results.get(0).getReference(), "Checks should be numbered from the reserved range");
+        assertEquals("501", results.get(1).getReference(), "Checks should be numbered from the reserved range");
+
+        List<PaymentResult> failed = new CheckPayment(outputDirectory).payAll(instructions, count -> -1);
+        assertTrue(failed.stream().noneMatch(PaymentResult::isSuccess),
+                   "Every check should fail if no numbers can be reserved");
+        assertEquals(1, writtenFiles().size(), "No print run should be written without check numbers");
+    }
+
+    @Test
+    public void testPayeeNamesThatBreakTheFileFormatAreRejected() throws IOException {
+        List<PaymentInstruction> tricky = Arrays.asList(
+            new PaymentInstruction(1, "Pipe | Name", 100.0),
+            new PaymentInstruction(2, "Line\nBreak", 100.0),
+            new PaymentInstruction(3, "Return\rName", 100.0),
+            new PaymentInstruction(4, "Plain Name", 100.0));
+
+        for (PaymentStrategy strategy : Arrays.asList(new DirectDepositPayment(outputDirectory),
+                                                       new CheckPayment(outputDirectory))) {
+            List<PaymentResult> results = strategy.payAll(tricky, CheckNumberSource.inMemory());
+            for (int i = 0; i < 3; i++) {
+                assertFalse(results.get(i).isSuccess(), "A payee name with a separator should be rejected");
+            }
+            assertTrue(results.get(3).isSuccess(), "A plain payee name should be paid");
+        }
+
+        for (Path file : writtenFiles()) {
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(3, lines.size(), "Each file should hold one record for the valid payee");
+            assertTrue(lines.get(1).contains("Plain Name"), "The valid payee should be written");
+            String content = String.join("\n", lines);
+            assertFalse(content.contains("Pipe") || content.contains("Line") || content.contains("Return"),
+                        "Rejected payees should not be written");
+        }
+    }
+
+    @Test
+    public void testAmountsIgnoreTheDefaultLocale() throws IOException {
+        Locale original = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            new DirectDepositPayment(outputDirectory).payAll(instructions, CheckNumberSource.inMemory());
+        } finally {
+            Locale.setDefault(original);
+        }
+        List<String> lines = Files.readAllLines(writtenFiles().get(0));
+        assertTrue(lines.get(2).endsWith("|2500.50"), "Amounts should use a '.' decimal separator");
+        assertEquals("CONTROL|2|3500.50", lines.get(3), "Totals should use a '.' decimal separator");
+    }
+
+    @Test
+    public void testDefaultPayAllUsesPay() {
+        PaymentStrategy strategy = amount -> "Paid " + amount + " in cash.";
+        List<PaymentResult> results = strategy.payAll(instructions, CheckNumberSource.inMemory());
+
+        assertEquals(3, results.size(), "There should be one result per instruction");
+        assertEquals("Paid 1000.0 in cash.", results.get(0).getMessage(), "Default batch should delegate to pay");
+        assertEquals(2, results.get(1).getEmployeeId(), "Results should keep the instruction order");
+    }
+}
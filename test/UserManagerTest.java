@@ -14,9 +14,15 @@ import org.junit.jupiter.api.*;
 import model.User;
 import model.UserManager;
 import model.DatabaseManager;
+import model.Employee;
 
 import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Test class for the UserManager.
@@ -210,4 +216,115 @@ public class UserManagerTest {
         // Admin should never be viewing own record (admins don't have employee IDs)
         assertFalse(userManager.isViewingOwnRecord(1001), "Admin should never be viewing own record");
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testUserAddedThroughDatabaseManagerCanLogIn() {
+        // Look the account up first, so a stale "not found" would be remembered if misses were cached
+        assertFalse(userManager.authenticate("directory_added", "added123"), "Unknown user should not log in");
+        
+        assertTrue(dbManager.addUser(new User("directory_added", "added123", User.Role.EMPLOYEE)),
+                   "Adding the account should succeed");
+        try {
+            assertTrue(userManager.authenticate("directory_added", "added123"),
+                       "An account added through DatabaseManager should be seen by the next login");
+        } finally {
+            deleteUser("directory_added");
+        }
+    }
+    
+    @Test
+    public void testChangedUserIsSeenByNextLogin() {
+        assertTrue(dbManager.addUser(new User("directory_changed", "before123", User.Role.EMPLOYEE)),
+                   "Adding the account should succeed");
+        try {
+            // Load the account into the directory
+            assertTrue(userManager.authenticate("directory_changed", "before123"), "Original password should work");
+            
+            // Change the row behind the manager's back
+            assertTrue(dbManager.updateUserPassword("directory_changed", "after123"), "Changing the password should succeed");
+            
+            // Checked before any login, which would re-read the row on a wrong password anyway
+            assertEquals("after123", userManager.getUserByUsername("directory_changed").getPassword(),
+                         "The directory should drop the stale row when it changes");
+            assertFalse(userManager.authenticate("directory_changed", "before123"),
+                        "The old password should no longer work after the row changed");
+            assertTrue(userManager.authenticate("directory_changed", "after123"),
+                       "The changed row should be seen by the next login");
+        } finally {
+            deleteUser("directory_changed");
+        }
+    }
+    
+    @Test
+    public void testFailedLoginRereadsOnlyThatAccount() throws Exception {
+        assertTrue(dbManager.addUser(new User("directory_typo", "right123", User.Role.EMPLOYEE)),
+                   "Adding the account should succeed");
+        try {
+            assertTrue(userManager.authenticate("directory_typo", "right123"), "Original password should work");
+            User other = userManager.getUserByUsername("manager_test");
+            
+            // Change the password without telling the directory
+            try (Connection conn = dbManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement("UPDATE users SET password = ? WHERE username = ?")) {
+                stmt.setString(1, "changed123");
+                stmt.setString(2, "directory_typo");
+                assertEquals(1, stmt.executeUpdate());
+            }
+            
+            Field versionField = UserManager.class.getDeclaredField("directoryVersion");
+            versionField.setAccessible(true);
+            long version = ((AtomicLong) versionField.get(userManager)).get();
+            for (int i = 0; i < 5; i++) {
+                assertFalse(userManager.authenticate("directory_typo", "wrong" + i), "A wrong password should fail");
+            }
+            
+            assertEquals(version, ((AtomicLong) versionField.get(userManager)).get(),
+                         "Failed logins should not invalidate the whole directory");
+            assertSame(other, userManager.getUserByUsername("manager_test"), "Other accounts should stay cached");
+            assertTrue(userManager.authenticate("directory_typo", "changed123"),
+                       "The re-read row should be used by the next login");
+        } finally {
+            deleteUser("directory_typo");
+        }
+    }
+    
+    @Test
+    public void testRemovedEmployeeCannotLogIn() {
+        // Adding an employee creates its account: name "Directory Test" -> directory_test, password 4242Dir
+        Employee employee = new Employee(4242, "Directory Test", "Test Department", 1.0);
+        Employee bulkEmployee = new Employee(4243, "Directory Bulk", "Test Department", 1.0);
+        assertTrue(dbManager.addEmployee(employee), "Adding the employee should succeed");
+        assertTrue(dbManager.addEmployees(Arrays.asList(bulkEmployee)).isSuccessful(), "Bulk add should succeed");
+        
+        try {
+            assertTrue(userManager.authenticate("directory_test", "4242Dir"), "The new employee should log in");
+            assertTrue(userManager.authenticate("directory_bulk", "4243Dir"), "The bulk-added employee should log in");
+            assertNotNull(userManager.getUserByEmployeeId(4242), "The account should be found by employee ID");
+            
+            assertTrue(dbManager.removeEmployee(4242), "Removing the employee should succeed");
+            assertTrue(dbManager.removeEmployees(Arrays.asList(4243)).isSuccessful(), "Bulk remove should succeed");
+            
+            assertFalse(userManager.authenticate("directory_test", "4242Dir"),
+                        "A removed employee should not log in with the cached account");
+            assertFalse(userManager.authenticate("directory_bulk", "4243Dir"),
+                        "A bulk-removed employee should not log in with the cached account");
+            assertNull(userManager.getUserByEmployeeId(4242), "The removed account should not be found by employee ID");
+        } finally {
+            dbManager.removeEmployee(4242);
+            dbManager.removeEmployee(4243);
+        }
+    }
+    
+    /**
+     * Deletes an account created by a test.
+     */
+    private void deleteUser(String username) {
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM users WHERE username = ?")) {
+            stmt.setString(1, username);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            fail("Could not delete test user: " + e.getMessage());
+        }
+    }
+}